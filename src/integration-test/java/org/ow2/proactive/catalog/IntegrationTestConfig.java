@@ -41,15 +41,22 @@ import org.ow2.proactive.catalog.graphql.handler.catalogobject.CatalogObjectMeta
 import org.ow2.proactive.catalog.graphql.handler.catalogobject.CatalogObjectNameFilterHandler;
 import org.ow2.proactive.catalog.mocks.RestApiAccessServiceMock;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.migration.CatalogObjectKeyMigrator;
+import org.ow2.proactive.catalog.repository.migration.RevisionPayloadMigrator;
+import org.ow2.proactive.catalog.repository.migration.SchemaMigrationDependsOnPostProcessor;
 import org.ow2.proactive.catalog.service.BucketService;
 import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.GenericInformationAdder;
 import org.ow2.proactive.catalog.service.GraphqlService;
+import org.ow2.proactive.catalog.service.HeadRevisionCache;
 import org.ow2.proactive.catalog.service.KeyValueLabelMetadataHelper;
 import org.ow2.proactive.catalog.service.OwnerGroupStringHelper;
+import org.ow2.proactive.catalog.service.PayloadCompressionService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
+import org.ow2.proactive.catalog.service.RevisionPayloadCache;
 import org.ow2.proactive.catalog.service.WorkflowXmlManipulator;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
+import org.ow2.proactive.catalog.util.FileMimeTypeDetector;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.ow2.proactive.catalog.util.RevisionCommitMessageBuilder;
 import org.ow2.proactive.catalog.util.name.validator.BucketNameValidator;
@@ -94,11 +101,28 @@ public class IntegrationTestConfig {
 
     private DataSource createMemDataSource() {
         EmbeddedDatabaseBuilder builder = new EmbeddedDatabaseBuilder();
-        EmbeddedDatabase db = builder.setType(EmbeddedDatabaseType.HSQL).build();
+        // a database of its own, the ingestion workers of the web application contexts would otherwise claim the
+        // jobs queued by the tests
+        EmbeddedDatabase db = builder.setType(EmbeddedDatabaseType.HSQL).generateUniqueName(true).build();
 
         return db;
     }
 
+    @Bean
+    public static SchemaMigrationDependsOnPostProcessor schemaMigrationDependsOnPostProcessor() {
+        return new SchemaMigrationDependsOnPostProcessor();
+    }
+
+    @Bean
+    public CatalogObjectKeyMigrator catalogObjectKeyMigrator() {
+        return new CatalogObjectKeyMigrator();
+    }
+
+    @Bean
+    public RevisionPayloadMigrator revisionPayloadMigrator() {
+        return new RevisionPayloadMigrator();
+    }
+
     @Bean
     public OwnerGroupStringHelper ownerGroupStringHelper() {
         return new OwnerGroupStringHelper();
@@ -159,6 +183,26 @@ public class IntegrationTestConfig {
         return new ArchiveManagerHelper();
     }
 
+    @Bean
+    public FileMimeTypeDetector fileMimeTypeDetector() {
+        return new FileMimeTypeDetector();
+    }
+
+    @Bean
+    public RevisionPayloadCache revisionPayloadCache() {
+        return new RevisionPayloadCache();
+    }
+
+    @Bean
+    public HeadRevisionCache headRevisionCache() {
+        return new HeadRevisionCache();
+    }
+
+    @Bean
+    public PayloadCompressionService payloadCompressionService() {
+        return new PayloadCompressionService();
+    }
+
     @Bean
     public WorkflowParser workflowParser() {
         return new WorkflowParser();
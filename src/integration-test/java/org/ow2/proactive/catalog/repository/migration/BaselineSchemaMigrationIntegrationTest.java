@@ -0,0 +1,198 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.UnsupportedEncodingException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
+import org.ow2.proactive.catalog.service.CatalogObjectService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Starts the catalog on a database created before catalog objects had a surrogate key and revisions a payload,
+ * see migration/baseline-schema-hsqldb.sql, and checks that the migrated objects keep their revisions and their
+ * content and can be committed and moved.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = { IntegrationTestConfig.class,
+                                  BaselineSchemaMigrationIntegrationTest.BaselineDatabaseConfig.class })
+// the other integration tests keep their context, and its managed beans, registered
+@TestPropertySource(properties = { "spring.jpa.hibernate.ddl-auto=update", "spring.jmx.enabled=false" })
+public class BaselineSchemaMigrationIntegrationTest {
+
+    /**
+     * Not a configuration class, so that the applications scanning the catalog packages do not pick this data source
+     */
+    static class BaselineDatabaseConfig {
+
+        @Bean
+        @Primary
+        public DataSource baselineDataSource() {
+            return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL)
+                                                .setName("catalog-baseline")
+                                                .addScript("migration/baseline-schema-hsqldb.sql")
+                                                .build();
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketRepository bucketRepository;
+
+    @Autowired
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Test
+    public void testMigratedSchemaUsesTheSurrogateKey() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<String> primaryKeyColumns = new ArrayList<>();
+            try (ResultSet primaryKeys = metaData.getPrimaryKeys(null, null, "CATALOG_OBJECT")) {
+                while (primaryKeys.next()) {
+                    primaryKeyColumns.add(primaryKeys.getString("COLUMN_NAME"));
+                }
+            }
+            assertThat(primaryKeyColumns).containsExactly("ID");
+            try (ResultSet columns = metaData.getColumns(null, null, "CATALOG_OBJECT_REVISION", "BUCKET")) {
+                assertThat(columns.next()).isFalse();
+            }
+            try (ResultSet columns = metaData.getColumns(null, null, "CATALOG_OBJECT_REVISION", "RAW_OBJECT")) {
+                assertThat(columns.next()).isFalse();
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet unlinkedRevisions = statement.executeQuery("SELECT COUNT(*) FROM CATALOG_OBJECT_REVISION WHERE CATALOG_OBJECT_ID IS NULL")) {
+                unlinkedRevisions.next();
+                assertThat(unlinkedRevisions.getLong(1)).isEqualTo(0L);
+            }
+        }
+    }
+
+    @Test
+    public void testMigratedObjectsKeepTheirRevisions() {
+        assertThat(commitMessages(catalogObjectService.listCatalogObjectRevisions("baseline-bucket",
+                                                                                  "workflow-a"))).containsExactly("second commit",
+                                                                                                                  "first commit")
+                                                                                                 .inOrder();
+        assertThat(commitMessages(catalogObjectService.listCatalogObjectRevisions("other-bucket",
+                                                                                  "object-b"))).containsExactly("other object b");
+        assertThat(catalogObjectService.getCatalogObjectMetadata("baseline-bucket", "workflow-a")
+                                       .getMetadataList()).contains(new Metadata("key", "second value", "type"));
+    }
+
+    @Test
+    public void testMigratedRevisionsKeepTheirContent() throws UnsupportedEncodingException {
+        List<CatalogObjectMetadata> revisions = catalogObjectService.listCatalogObjectRevisions("baseline-bucket",
+                                                                                                "workflow-a");
+        assertThat(catalogObjectService.getCatalogObjectRevisionRaw("baseline-bucket",
+                                                                    "workflow-a",
+                                                                    Long.parseLong(revisions.get(1)
+                                                                                            .getCommitTimeRaw()))
+                                       .getRawObject()).isEqualTo("first content of workflow-a".getBytes());
+        assertThat(catalogObjectService.getCatalogRawObject("baseline-bucket", "workflow-a")
+                                       .getRawObject()).isEqualTo("second content of workflow-a".getBytes());
+        assertThat(catalogObjectService.getCatalogRawObject("other-bucket", "object-b")
+                                       .getRawObject()).isEqualTo("content of the other object-b".getBytes());
+    }
+
+    @Test
+    public void testNewObjectsAreNumberedAfterTheMigratedOnes() {
+        catalogObjectService.createCatalogObject("baseline-bucket",
+                                                 "new-object",
+                                                 "object",
+                                                 "new object",
+                                                 "username",
+                                                 "text/plain",
+                                                 Collections.emptyList(),
+                                                 "content of new-object".getBytes(),
+                                                 "txt");
+        Long bucketId = bucketRepository.findOneByBucketName("baseline-bucket").getId();
+        assertThat(catalogObjectRepository.findOneByBucketIdAndName(bucketId, "new-object").getId()).isGreaterThan(3L);
+
+        CatalogObjectMetadata revision = catalogObjectService.createCatalogObjectRevision("baseline-bucket",
+                                                                                          "object-b",
+                                                                                          "second commit of object b",
+                                                                                          "username",
+                                                                                          "new content of object-b".getBytes());
+        assertThat(revision.getRevisionNumber()).isEqualTo(2L);
+        assertThat(catalogObjectService.listCatalogObjectRevisions("baseline-bucket", "object-b")).hasSize(2);
+        // the new payload is numbered after the migrated ones
+        assertThat(catalogObjectService.getCatalogRawObject("baseline-bucket", "object-b")
+                                       .getRawObject()).isEqualTo("new content of object-b".getBytes());
+        assertThat(catalogObjectService.getCatalogRawObject("baseline-bucket", "workflow-a")
+                                       .getRawObject()).isEqualTo("second content of workflow-a".getBytes());
+    }
+
+    @Test
+    public void testMigratedObjectsCanBeMoved() {
+        catalogObjectService.moveCatalogObject("other-bucket", "object-b", Optional.empty(), Optional.of("object-c"));
+
+        assertThat(commitMessages(catalogObjectService.listCatalogObjectRevisions("other-bucket",
+                                                                                  "object-c"))).containsExactly("other object b");
+    }
+
+    private static List<String> commitMessages(List<CatalogObjectMetadata> revisions) {
+        return revisions.stream().map(CatalogObjectMetadata::getCommitMessage).collect(Collectors.toList());
+    }
+
+}
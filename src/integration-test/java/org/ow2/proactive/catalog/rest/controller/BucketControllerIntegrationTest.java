@@ -154,6 +154,48 @@ public class BucketControllerIntegrationTest extends AbstractRestAssuredTest {
                      equalTo(new BucketAlreadyExistingException(bucketNameValue, ownerValue2).getLocalizedMessage()));
     }
 
+    @Test
+    public void testCloneBucketShouldCopyItsObjects() {
+        String bucketName = IntegrationTestUtil.createBucket("bucket-to-clone", "owner");
+        IntegrationTestUtil.postObjectToBucket(bucketName,
+                                               "workflow",
+                                               "myobjectname",
+                                               "first commit",
+                                               MediaType.APPLICATION_XML_VALUE,
+                                               IntegrationTestUtil.getWorkflowFile("workflow.xml"));
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucketName)
+               .queryParam("name", "cloned-bucket")
+               .queryParam("headRevisionsOnly", true)
+               .when()
+               .post(BUCKET_RESOURCE + "/clone")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_CREATED)
+               .body("name", is("cloned-bucket"))
+               .body("owner", is("owner"));
+
+        given().pathParam("bucketName", "cloned-bucket")
+               .pathParam("name", "myobjectname")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("kind", is("workflow"))
+               .body("commit_message", is("first commit"));
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucketName)
+               .queryParam("name", "cloned-bucket")
+               .when()
+               .post(BUCKET_RESOURCE + "/clone")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_CONFLICT);
+    }
+
     @Test
     public void testGetBucketShouldBeNotFoundIfNonExistingId() {
         given().pathParam("bucketName", "non-existing-bucket")
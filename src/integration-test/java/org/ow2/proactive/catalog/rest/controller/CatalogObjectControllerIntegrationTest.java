@@ -26,11 +26,18 @@
 package org.ow2.proactive.catalog.rest.controller;
 
 import static com.jayway.restassured.RestAssured.given;
+import static com.jayway.restassured.config.DecoderConfig.decoderConfig;
+import static com.jayway.restassured.config.RestAssuredConfig.config;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.equalToIgnoringWhiteSpace;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.ow2.proactive.catalog.util.LinkUtil.SPACE_ENCODED_AS_PERCENT_20;
 import static org.ow2.proactive.catalog.util.LinkUtil.SPACE_ENCODED_AS_PLUS;
 import static org.ow2.proactive.catalog.util.RawObjectResponseCreator.WORKFLOW_EXTENSION;
@@ -41,6 +48,7 @@ import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +73,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.io.ByteStreams;
 import com.jayway.restassured.response.Response;
 import com.jayway.restassured.response.ValidatableResponse;
@@ -197,6 +208,120 @@ public class CatalogObjectControllerIntegrationTest extends AbstractRestAssuredT
                .body("content_type", is("updated-contentType"));
     }
 
+    @Test
+    public void testUpdateObjectsMetadataByKindPrefix() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kindPrefix", "workflow")
+               .queryParam("kind", "workflow-renamed")
+               .when()
+               .put(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("bucket_name", is(bucket.getName()))
+               .body("updated_objects", is(1));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("kind", is("workflow-renamed"))
+               .body("content_type", is(MediaType.APPLICATION_XML.toString()));
+    }
+
+    @Test
+    public void testUpdateObjectsMetadataWithoutChangeShouldReturnBadRequest() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("name", "workflowname")
+               .when()
+               .put(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void testMoveObjectKeepsItsRevisions() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .queryParam("commitMessage", "second commit")
+               .multiPart(IntegrationTestUtil.getWorkflowFile("workflow-updated.xml"))
+               .when()
+               .post(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        String targetBucketName = given().header("sessionID", "12345")
+                                         .parameters("name", "my-target-bucket", "owner", "owner")
+                                         .when()
+                                         .post(BUCKETS_RESOURCE)
+                                         .then()
+                                         .statusCode(HttpStatus.SC_CREATED)
+                                         .extract()
+                                         .path("name");
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .queryParam("targetBucketName", targetBucketName)
+               .queryParam("newName", "moved-workflow")
+               .when()
+               .post(CATALOG_OBJECT_RESOURCE + "/move")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("bucket_name", is(targetBucketName))
+               .body("name", is("moved-workflow"))
+               .body("commit_message", is("second commit"));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_NOT_FOUND);
+
+        given().pathParam("bucketName", targetBucketName)
+               .pathParam("name", "moved-workflow")
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(2));
+    }
+
+    @Test
+    public void testMoveObjectToAnExistingNameShouldReturnConflict() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kind", "workflow")
+               .queryParam("name", "other-workflow")
+               .queryParam("commitMessage", "commit message")
+               .queryParam("objectContentType", MediaType.APPLICATION_XML.toString())
+               .multiPart(IntegrationTestUtil.getWorkflowFile("workflow.xml"))
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .queryParam("newName", "other-workflow")
+               .when()
+               .post(CATALOG_OBJECT_RESOURCE + "/move")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_CONFLICT);
+    }
+
     @Test
     public void testGetAllKindsFromCatalog() throws JsonProcessingException {
         // Add an object of kind "workflow" into first bucket
@@ -582,6 +707,287 @@ public class CatalogObjectControllerIntegrationTest extends AbstractRestAssuredT
         response.then().assertThat().statusCode(HttpStatus.SC_OK).contentType(MediaType.APPLICATION_XML.toString());
     }
 
+    @Test
+    public void testGetRawObjectAboveStreamingThresholdShouldReturnSavedRawObject() {
+        byte[] content = new byte[300 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kind", "my-kind")
+               .queryParam("name", "large-object")
+               .queryParam("commitMessage", "commit message")
+               .queryParam("objectContentType", MediaType.TEXT_PLAIN_VALUE)
+               .multiPart("file", "large-object.txt", content)
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        for (int i = 0; i < 2; i++) {
+            Response response = given().pathParam("bucketName", bucket.getName())
+                                       .pathParam("name", "large-object")
+                                       .when()
+                                       .get(CATALOG_OBJECT_RESOURCE + "/raw");
+
+            response.then()
+                    .assertThat()
+                    .statusCode(HttpStatus.SC_OK)
+                    .contentType(MediaType.TEXT_PLAIN_VALUE)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"large-object.txt\"");
+            assertThat(Arrays.equals(response.asByteArray(), content), is(true));
+        }
+    }
+
+    @Test
+    public void testGetRawObjectWithRangeShouldReturnPartialContent() {
+        byte[] content = new byte[300 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kind", "my-kind")
+               .queryParam("name", "large-object")
+               .queryParam("commitMessage", "commit message")
+               .queryParam("objectContentType", MediaType.APPLICATION_OCTET_STREAM_VALUE)
+               .multiPart("file", "large-object.bin", content)
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        Response response = given().pathParam("bucketName", bucket.getName())
+                                   .pathParam("name", "large-object")
+                                   .header(HttpHeaders.RANGE, "bytes=1000-1999")
+                                   .when()
+                                   .get(CATALOG_OBJECT_RESOURCE + "/raw");
+        response.then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_PARTIAL_CONTENT)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes 1000-1999/" + content.length)
+                .header(HttpHeaders.CONTENT_LENGTH, "1000");
+        assertThat(Arrays.equals(response.asByteArray(), Arrays.copyOfRange(content, 1000, 2000)), is(true));
+
+        // the content is read from the database in chunks of 256KB
+        response = given().pathParam("bucketName", bucket.getName())
+                          .pathParam("name", "large-object")
+                          .header(HttpHeaders.RANGE, "bytes=262000-263999")
+                          .when()
+                          .get(CATALOG_OBJECT_RESOURCE + "/raw");
+        response.then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes 262000-263999/" + content.length);
+        assertThat(Arrays.equals(response.asByteArray(), Arrays.copyOfRange(content, 262000, 264000)), is(true));
+
+        // the range is ignored when the object changed since the client got its ETag
+        response = given().pathParam("bucketName", bucket.getName())
+                          .pathParam("name", "large-object")
+                          .header(HttpHeaders.RANGE, "bytes=1000-1999")
+                          .header(HttpHeaders.IF_RANGE, "\"outdated\"")
+                          .when()
+                          .get(CATALOG_OBJECT_RESOURCE + "/raw");
+        response.then().assertThat().statusCode(HttpStatus.SC_OK);
+        assertThat(Arrays.equals(response.asByteArray(), content), is(true));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "large-object")
+               .header(HttpHeaders.RANGE, "bytes=" + content.length + "-")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE + "/raw")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+               .header(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length);
+    }
+
+    @Test
+    public void testGetRawObjectShouldReturnStoredGzipEncodingOfCompressibleContent() {
+        // without content decoders, the client does not add gzip to the accepted encodings
+        Response identityResponse = given().config(config().decoderConfig(decoderConfig().noContentDecoders()))
+                                           .pathParam("bucketName", bucket.getName())
+                                           .pathParam("name", "workflowname")
+                                           .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                                           .when()
+                                           .get(CATALOG_OBJECT_RESOURCE + "/raw");
+        identityResponse.then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                        .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING));
+        byte[] rawObject = identityResponse.asByteArray();
+        String identityETag = identityResponse.header(HttpHeaders.ETAG);
+
+        // the stored encoding has a known length, unlike the responses compressed on the fly
+        Response response = given().pathParam("bucketName", bucket.getName())
+                                   .pathParam("name", "workflowname")
+                                   .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                   .when()
+                                   .get(CATALOG_OBJECT_RESOURCE + "/raw");
+        response.then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_LENGTH, notNullValue());
+        assertThat(Integer.parseInt(response.header(HttpHeaders.CONTENT_LENGTH)), lessThan(rawObject.length));
+        assertThat(Arrays.equals(response.asByteArray(), rawObject), is(true));
+        String gzipETag = response.header(HttpHeaders.ETAG);
+        assertThat(gzipETag, is(identityETag.replaceAll("\"$", "-gzip\"")));
+
+        // each encoding is only validated by its own ETag
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+               .header(HttpHeaders.IF_NONE_MATCH, gzipETag)
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE + "/raw")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_NOT_MODIFIED)
+               .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING));
+        given().config(config().decoderConfig(decoderConfig().noContentDecoders()))
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+               .header(HttpHeaders.IF_NONE_MATCH, gzipETag)
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE + "/raw")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .header(HttpHeaders.ETAG, identityETag);
+    }
+
+    @Test
+    public void testGetRawObjectAboveStreamingThresholdShouldReturnStoredGzipEncoding() {
+        byte[] content = new byte[300 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kind", "my-kind")
+               .queryParam("name", "large-object")
+               .queryParam("commitMessage", "commit message")
+               .queryParam("objectContentType", MediaType.TEXT_PLAIN_VALUE)
+               .multiPart("file", "large-object.txt", content)
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        for (int i = 0; i < 2; i++) {
+            Response response = given().pathParam("bucketName", bucket.getName())
+                                       .pathParam("name", "large-object")
+                                       .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                       .when()
+                                       .get(CATALOG_OBJECT_RESOURCE + "/raw");
+            response.then()
+                    .assertThat()
+                    .statusCode(HttpStatus.SC_OK)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.CONTENT_LENGTH, notNullValue());
+            assertThat(Integer.parseInt(response.header(HttpHeaders.CONTENT_LENGTH)), lessThan(content.length / 10));
+            assertThat(Arrays.equals(response.asByteArray(), content), is(true));
+        }
+    }
+
+    @Test
+    public void testGetRawObjectShouldNotCompressCompressedContent() {
+        byte[] content = new byte[16 * 1024];
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kind", "my-kind")
+               .queryParam("name", "archive")
+               .queryParam("commitMessage", "commit message")
+               .queryParam("objectContentType", "application/zip")
+               .multiPart("file", "archive.zip", content)
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "archive")
+               .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE + "/raw")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .header(HttpHeaders.CONTENT_ENCODING, nullValue())
+               .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length));
+    }
+
+    @Test
+    public void testGetObjectWithMatchingETagShouldReturnNotModified() {
+        for (String resource : Arrays.asList(CATALOG_OBJECT_RESOURCE, CATALOG_OBJECT_RESOURCE + "/raw")) {
+            String eTag = given().pathParam("bucketName", bucket.getName())
+                                 .pathParam("name", "workflowname")
+                                 .when()
+                                 .get(resource)
+                                 .then()
+                                 .assertThat()
+                                 .statusCode(HttpStatus.SC_OK)
+                                 .extract()
+                                 .header(HttpHeaders.ETAG);
+
+            given().pathParam("bucketName", bucket.getName())
+                   .pathParam("name", "workflowname")
+                   .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                   .when()
+                   .get(resource)
+                   .then()
+                   .assertThat()
+                   .statusCode(HttpStatus.SC_NOT_MODIFIED);
+        }
+    }
+
+    @Test
+    public void testListObjectsShouldReturnNotModifiedUntilAnObjectIsUpdated() {
+        String eTag = given().pathParam("bucketName", bucket.getName())
+                             .when()
+                             .get(CATALOG_OBJECTS_RESOURCE)
+                             .then()
+                             .assertThat()
+                             .statusCode(HttpStatus.SC_OK)
+                             .extract()
+                             .header(HttpHeaders.ETAG);
+
+        given().pathParam("bucketName", bucket.getName())
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_NOT_MODIFIED);
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .queryParam("kind", "updated-kind")
+               .when()
+               .put(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK);
+
+        given().pathParam("bucketName", bucket.getName())
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(1))
+               .body("[0].kind", is("updated-kind"));
+    }
+
     @Test
     public void testGetWorkflowShouldReturnNotFoundIfNonExistingBucketName() {
         given().pathParam("bucketName", "non-existing-bucket")
@@ -644,6 +1050,226 @@ public class CatalogObjectControllerIntegrationTest extends AbstractRestAssuredT
                .statusCode(HttpStatus.SC_OK);
     }
 
+    @Test
+    public void testListWorkflowsWithFieldsShouldOnlyReturnTheseFields() {
+        Map<String, Object> fullObject = given().pathParam("bucketName", bucket.getName())
+                                                .when()
+                                                .get(CATALOG_OBJECTS_RESOURCE)
+                                                .then()
+                                                .statusCode(HttpStatus.SC_OK)
+                                                .extract()
+                                                .path("[0]");
+
+        Map<String, Object> sparseObject = given().pathParam("bucketName", bucket.getName())
+                                                  .queryParam("fields", "name,kind,commit_time")
+                                                  .when()
+                                                  .get(CATALOG_OBJECTS_RESOURCE)
+                                                  .then()
+                                                  .statusCode(HttpStatus.SC_OK)
+                                                  .extract()
+                                                  .path("[0]");
+
+        assertThat(sparseObject.keySet(), equalTo(new LinkedHashSet<>(Arrays.asList("name",
+                                                                                               "kind",
+                                                                                               "commit_time"))));
+        assertThat(sparseObject.get("name"), equalTo(fullObject.get("name")));
+        assertThat(sparseObject.get("kind"), equalTo(fullObject.get("kind")));
+        assertThat(sparseObject.get("commit_time"), equalTo(fullObject.get("commit_time")));
+    }
+
+    @Test
+    public void testListWorkflowsAsNdjsonShouldReturnOneLinePerObject() throws IOException {
+        Response jsonResponse = given().pathParam("bucketName", bucket.getName())
+                                       .header(HttpHeaders.ACCEPT, "application/json, application/x-ndjson;q=0.5")
+                                       .when()
+                                       .get(CATALOG_OBJECTS_RESOURCE);
+        jsonResponse.then()
+                    .statusCode(HttpStatus.SC_OK)
+                    .contentType(containsString(MediaType.APPLICATION_JSON_VALUE))
+                    .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT));
+        List<String> names = jsonResponse.path("name");
+
+        Response response = given().pathParam("bucketName", bucket.getName())
+                                   .header(HttpHeaders.ACCEPT, "application/x-ndjson")
+                                   .queryParam("fields", "name,kind")
+                                   .when()
+                                   .get(CATALOG_OBJECTS_RESOURCE);
+
+        response.then()
+                .statusCode(HttpStatus.SC_OK)
+                .contentType(containsString("application/x-ndjson"))
+                .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT));
+        assertThat(response.header(HttpHeaders.ETAG), not(jsonResponse.header(HttpHeaders.ETAG)));
+        String[] lines = response.asString().split("\n");
+        assertThat(lines.length, equalTo(names.size()));
+        List<String> streamedNames = new ArrayList<>();
+        for (String line : lines) {
+            Map<?, ?> object = new ObjectMapper().readValue(line, Map.class);
+            assertThat(object.keySet(), equalTo(new LinkedHashSet<>(Arrays.asList("name", "kind"))));
+            streamedNames.add((String) object.get("name"));
+        }
+        assertThat(streamedNames, equalTo(names));
+    }
+
+    @Test
+    public void testListWorkflowsAsCborOrSmileShouldReturnTheJsonContent() throws IOException {
+        List<Map<String, Object>> jsonObjects = given().pathParam("bucketName", bucket.getName())
+                                                       .when()
+                                                       .get(CATALOG_OBJECTS_RESOURCE)
+                                                       .then()
+                                                       .statusCode(HttpStatus.SC_OK)
+                                                       .extract()
+                                                       .path("");
+
+        byte[] cbor = given().pathParam("bucketName", bucket.getName())
+                             .header(HttpHeaders.ACCEPT, "application/cbor")
+                             .when()
+                             .get(CATALOG_OBJECTS_RESOURCE)
+                             .then()
+                             .statusCode(HttpStatus.SC_OK)
+                             .contentType(containsString("application/cbor"))
+                             .extract()
+                             .asByteArray();
+        assertThat(new ObjectMapper(new CBORFactory()).readValue(cbor, List.class), equalTo(jsonObjects));
+
+        byte[] smile = given().pathParam("bucketName", bucket.getName())
+                              .queryParam("format", "smile")
+                              .when()
+                              .get(CATALOG_OBJECTS_RESOURCE)
+                              .then()
+                              .statusCode(HttpStatus.SC_OK)
+                              .contentType(containsString("application/x-jackson-smile"))
+                              .extract()
+                              .asByteArray();
+        assertThat(new ObjectMapper(new SmileFactory()).readValue(smile, List.class), equalTo(jsonObjects));
+    }
+
+    @Test
+    public void testGetObjectMetadataAsCborShouldReturnTheObject() throws IOException {
+        byte[] cbor = given().pathParam("bucketName", bucket.getName())
+                             .pathParam("name", "workflowname")
+                             .header(HttpHeaders.ACCEPT, "application/cbor")
+                             .when()
+                             .get(CATALOG_OBJECT_RESOURCE)
+                             .then()
+                             .statusCode(HttpStatus.SC_OK)
+                             .contentType(containsString("application/cbor"))
+                             .extract()
+                             .asByteArray();
+
+        Map<?, ?> object = new ObjectMapper(new CBORFactory()).readValue(cbor, Map.class);
+        assertThat(object.get("bucket_name"), equalTo(bucket.getName()));
+        assertThat(object.get("name"), equalTo("workflowname"));
+    }
+
+    @Test
+    public void testGetObjectMetadataAsCborShouldHaveItsOwnETag() {
+        String jsonETag = given().pathParam("bucketName", bucket.getName())
+                                 .pathParam("name", "workflowname")
+                                 .when()
+                                 .get(CATALOG_OBJECT_RESOURCE)
+                                 .then()
+                                 .statusCode(HttpStatus.SC_OK)
+                                 .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT))
+                                 .extract()
+                                 .header(HttpHeaders.ETAG);
+        String cborETag = given().pathParam("bucketName", bucket.getName())
+                                 .pathParam("name", "workflowname")
+                                 .header(HttpHeaders.ACCEPT, "application/cbor")
+                                 .when()
+                                 .get(CATALOG_OBJECT_RESOURCE)
+                                 .then()
+                                 .statusCode(HttpStatus.SC_OK)
+                                 .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT))
+                                 .extract()
+                                 .header(HttpHeaders.ETAG);
+        assertThat(cborETag, is(jsonETag.replaceAll("\"$", "-cbor\"")));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .queryParam("format", "cbor")
+               .header(HttpHeaders.IF_NONE_MATCH, cborETag)
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_NOT_MODIFIED)
+               .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT));
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .header(HttpHeaders.IF_NONE_MATCH, cborETag)
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .header(HttpHeaders.ETAG, jsonETag);
+    }
+
+    @Test
+    public void testListWorkflowsWithOtherAcceptHeaderShouldStillReturnJson() {
+        given().pathParam("bucketName", bucket.getName())
+               .header(HttpHeaders.ACCEPT, "text/html")
+               .when()
+               .get(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .contentType(containsString("application/json"));
+    }
+
+    @Test
+    public void testGetRawObjectsAsMultipartShouldReturnOnePartPerNameWithMissingMarkers() throws IOException {
+        byte[] rawObject = given().pathParam("bucketName", bucket.getName())
+                                  .pathParam("name", "workflowname")
+                                  .when()
+                                  .get(CATALOG_OBJECT_RESOURCE + "/raw")
+                                  .then()
+                                  .statusCode(HttpStatus.SC_OK)
+                                  .extract()
+                                  .asByteArray();
+
+        Response response = given().pathParam("bucketName", bucket.getName())
+                                   .header(HttpHeaders.ACCEPT, "multipart/mixed")
+                                   .queryParam("name", "missing object,workflowname")
+                                   .when()
+                                   .get(CATALOG_OBJECTS_RESOURCE);
+
+        response.then().statusCode(HttpStatus.SC_PARTIAL_CONTENT).contentType(containsString("multipart/mixed"));
+        String boundary = response.getContentType().replaceAll(".*boundary=", "");
+        String[] parts = new String(response.asByteArray(), "UTF-8").split("--" + boundary);
+        assertThat(parts.length, equalTo(4));
+        assertThat(parts[1], containsString("X-Catalog-Object-Name: missing%20object\r\n"));
+        assertThat(parts[1], containsString("X-Catalog-Object-Status: 404\r\n"));
+        assertThat(parts[2], containsString("X-Catalog-Object-Name: workflowname\r\n"));
+        assertThat(parts[2], containsString("X-Catalog-Object-Status: 200\r\n"));
+        assertThat(parts[2], containsString("Content-Type: application/xml\r\n"));
+        assertThat(parts[2].substring(parts[2].indexOf("\r\n\r\n") + 4, parts[2].length() - 2),
+                   equalTo(new String(rawObject, "UTF-8")));
+        assertThat(parts[3], equalTo("--\r\n"));
+    }
+
+    @Test
+    public void testGetRawObjectsAsArchiveWhenPreferredToMultipart() {
+        given().pathParam("bucketName", bucket.getName())
+               .header(HttpHeaders.ACCEPT, "application/zip, multipart/mixed;q=0.5")
+               .queryParam("name", "workflowname")
+               .when()
+               .get(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .contentType(containsString("application/zip"))
+               .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void testListWorkflowsWithUnknownFieldShouldReturnBadRequest() {
+        given().pathParam("bucketName", bucket.getName())
+               .queryParam("fields", "name,unknown")
+               .when()
+               .get(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
     @Test
     public void testListWorkflowsShouldReturnNotFoundIfNonExistingBucketName() {
         given().pathParam("bucketName", "non-existing-bucket")
@@ -761,14 +1387,14 @@ public class CatalogObjectControllerIntegrationTest extends AbstractRestAssuredT
         String firstCommitMessage = "First commit";
         String archiveCommitMessage = "Import from archive";
 
-        //Create a workflow with the bucketName of a workflow of the archive
+        //Create a workflow with the bucketName of a workflow of the archive, but a different content
         given().header("sessionID", "12345")
                .pathParam("bucketName", bucket.getName())
                .queryParam("kind", "workflow")
                .queryParam("name", "workflow_existing")
                .queryParam("commitMessage", firstCommitMessage)
                .queryParam("objectContentType", MediaType.APPLICATION_XML.toString())
-               .multiPart(IntegrationTestUtil.getArchiveFile("workflow_0.xml"))
+               .multiPart(IntegrationTestUtil.getWorkflowFile("workflow.xml"))
                .when()
                .post(CATALOG_OBJECTS_RESOURCE)
                .then()
@@ -892,6 +1518,72 @@ public class CatalogObjectControllerIntegrationTest extends AbstractRestAssuredT
                .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
     }
 
+    @Test
+    public void testCommitSeveralObjectsInOneRequest() throws IOException {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("kind", "workflow")
+               .queryParam("commitMessage", "batch commit")
+               .multiPart("file",
+                          "workflowname.xml",
+                          IntegrationTestUtil.getWorkflowAsByteArray("workflow-updated.xml"))
+               .multiPart("file", "workflow_batch.xml", IntegrationTestUtil.getWorkflowAsByteArray("workflow.xml"))
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE + "batch")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_CREATED)
+               .body("object", hasSize(2))
+               .body("object[0].name", is("workflowname"))
+               .body("object[1].name", is("workflow_batch"));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(2))
+               .body("[0].commit_message", is("batch commit"));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflow_batch")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("kind", is("workflow"))
+               .body("content_type", is(MediaType.APPLICATION_XML.toString()))
+               .body("extension", is("xml"));
+    }
+
+    @Test
+    public void testCommitSeveralObjectsIsRolledBackOnError() throws IOException {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .queryParam("commitMessage", "batch commit")
+               .multiPart("file",
+                          "workflowname.xml",
+                          IntegrationTestUtil.getWorkflowAsByteArray("workflow-updated.xml"))
+               .multiPart("file", "workflow_batch.xml", IntegrationTestUtil.getWorkflowAsByteArray("workflow.xml"))
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE + "batch")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "workflowname")
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(1));
+    }
+
     private String getJobVisualizationExpectedContent() {
         return "<html><head><link rel=\"stylesheet\" href=\"/studio/styles/studio-standalone.css\"><style>\n" +
                "        #workflow-designer {\n" + "            left:0 !important;\n" +
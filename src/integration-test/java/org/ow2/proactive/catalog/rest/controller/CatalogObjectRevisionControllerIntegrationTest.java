@@ -27,9 +27,12 @@ package org.ow2.proactive.catalog.rest.controller;
 
 import static com.jayway.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
 import static org.ow2.proactive.catalog.util.LinkUtil.SPACE_ENCODED_AS_PERCENT_20;
 import static org.ow2.proactive.catalog.util.LinkUtil.SPACE_ENCODED_AS_PLUS;
 
@@ -56,6 +59,7 @@ import org.ow2.proactive.catalog.service.exception.RevisionNotFoundException;
 import org.ow2.proactive.catalog.util.IntegrationTestUtil;
 import org.springframework.boot.test.SpringApplicationConfiguration;
 import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -421,11 +425,13 @@ public class CatalogObjectRevisionControllerIntegrationTest extends AbstractCata
                 e.printStackTrace();
             }
 
+            // alternate the content so that every commit differs from the current head revision
             given().header("sessionID", "12345")
                    .pathParam("bucketName", bucket.getName())
                    .pathParam("name", "WF_1_Rev_1.xml")
                    .queryParam("commitMessage", "commit message")
-                   .multiPart(IntegrationTestUtil.getWorkflowFile("workflow-updated.xml"))
+                   .multiPart(IntegrationTestUtil.getWorkflowFile(i % 2 == 0 ? "workflow-updated.xml"
+                                                                             : "workflow.xml"))
                    .when()
                    .post(CATALOG_OBJECT_REVISIONS_RESOURCE)
                    .then()
@@ -437,7 +443,182 @@ public class CatalogObjectRevisionControllerIntegrationTest extends AbstractCata
                                    .when()
                                    .get(CATALOG_OBJECT_REVISIONS_RESOURCE);
 
-        response.then().assertThat().statusCode(HttpStatus.SC_OK).body("", hasSize(28));
+        // the first revision commit in setup has the same content as the object creation and is skipped
+        response.then().assertThat().statusCode(HttpStatus.SC_OK).body("", hasSize(27));
+    }
+
+    @Test
+    public void testListWorkflowRevisionsByPageShouldReturnNewestFirst() {
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("size", 1)
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .header("X-Total-Count", is("2"))
+               .header(HttpHeaders.LINK, containsString("page=1&size=1>;rel=\"next\""))
+               .body("", hasSize(1))
+               .body("[0].commit_message", is("second commit"))
+               .body("[0].object_key_values", not(empty()));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("page", 1)
+               .queryParam("size", 1)
+               .queryParam("withMetadata", false)
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .header("X-Total-Count", is("2"))
+               .header(HttpHeaders.LINK, containsString("page=0&size=1>;rel=\"prev\""))
+               .header(HttpHeaders.LINK, not(containsString("rel=\"next\"")))
+               .header(HttpHeaders.LINK, containsString("page=1&size=1>;rel=\"last\""))
+               .body("", hasSize(1))
+               .body("[0].commit_message", is("alone commit"))
+               .body("[0].object_key_values", empty());
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("page", 2)
+               .queryParam("size", 1)
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(0));
+    }
+
+    @Test
+    public void testListWorkflowRevisionsShouldReturnBadRequestIfInvalidPageSize() {
+        for (int size : new int[] { 0, 1001 }) {
+            given().pathParam("bucketName", bucket.getName())
+                   .pathParam("name", "WF_1_Rev_1.xml")
+                   .queryParam("size", size)
+                   .when()
+                   .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+                   .then()
+                   .assertThat()
+                   .statusCode(HttpStatus.SC_BAD_REQUEST);
+        }
+    }
+
+    @Test
+    public void testListWorkflowRevisionsShouldReturnBadRequestIfPageOffsetOverflows() {
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("page", Integer.MAX_VALUE)
+               .queryParam("size", 2)
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void testCreateWorkflowRevisionWithUnchangedContentShouldReturnHeadRevision() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("commitMessage", "same content")
+               .multiPart(IntegrationTestUtil.getWorkflowFile("workflow-updated.xml"))
+               .when()
+               .post(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_CREATED)
+               .body("commit_time_raw", is(secondCatalogObjectRevision.get("commit_time_raw")))
+               .body("commit_message", is("second commit"));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(2));
+    }
+
+    @Test
+    public void testCreateMetadataRevisionShouldPatchWorkflowContent() throws IOException {
+        String commitTimeRaw = given().header("sessionID", "12345")
+                                      .pathParam("bucketName", bucket.getName())
+                                      .pathParam("name", "WF_1_Rev_1.xml")
+                                      .queryParam("commitMessage", "change var1")
+                                      .contentType(MediaType.APPLICATION_JSON_VALUE)
+                                      .body("[{\"key\":\"var1\",\"value\":\"var1Patched\",\"label\":\"variable\"}," +
+                                            "{\"key\":\"genericInfo3\",\"value\":\"added\",\"label\":\"generic_information\"}]")
+                                      .when()
+                                      .post(CATALOG_OBJECT_REVISIONS_RESOURCE)
+                                      .then()
+                                      .assertThat()
+                                      .statusCode(HttpStatus.SC_CREATED)
+                                      .body("commit_message", is("change var1"))
+                                      .extract()
+                                      .path("commit_time_raw");
+
+        String rawObject = given().pathParam("bucketName", bucket.getName())
+                                  .pathParam("name", "WF_1_Rev_1.xml")
+                                  .pathParam("commitTimeRaw", commitTimeRaw)
+                                  .when()
+                                  .get(CATALOG_OBJECT_REVISION_RESOURCE_WITH_TIME + "/raw")
+                                  .then()
+                                  .statusCode(HttpStatus.SC_OK)
+                                  .extract()
+                                  .asString();
+        assertThat(rawObject, containsString("<variable name=\"var1\" value=\"var1Patched\"/>"));
+        assertThat(rawObject, containsString("<variable value=\"var2ValueUpdated\" name=\"var2\"/>"));
+        assertThat(rawObject, containsString("<info name=\"genericInfo3\" value=\"added\"/>"));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .when()
+               .get(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .body("commit_time_raw", is(commitTimeRaw))
+               .body("object_key_values.find { it.key == 'var1' && it.label == 'variable' }.value", is("var1Patched"))
+               .body("object_key_values.find { it.key == 'var2' && it.label == 'variable' }.value",
+                     is("var2ValueUpdated"));
+    }
+
+    @Test
+    public void testCreateMetadataRevisionWithUnchangedMetadataShouldReturnHeadRevision() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("commitMessage", "same metadata")
+               .contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body("[{\"key\":\"var1\",\"value\":\"var1ValueUpdated\",\"label\":\"variable\"}]")
+               .when()
+               .post(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_CREATED)
+               .body("commit_time_raw", is(secondCatalogObjectRevision.get("commit_time_raw")))
+               .body("commit_message", is("second commit"));
+    }
+
+    @Test
+    public void testCreateMetadataRevisionShouldReturnBadRequestWithoutMetadata() {
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("commitMessage", "nothing")
+               .contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body("[]")
+               .when()
+               .post(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_BAD_REQUEST);
     }
 
     @Test
@@ -567,4 +748,27 @@ public class CatalogObjectRevisionControllerIntegrationTest extends AbstractCata
                                                            Long.valueOf(commitTime + 1)).getLocalizedMessage()));
     }
 
+    @Test
+    public void testGetRevisionRawWithRangeShouldReturnPartialContent() {
+        byte[] rawObject = given().pathParam("bucketName", bucket.getName())
+                                  .pathParam("name", "WF_1_Rev_1.xml")
+                                  .pathParam("commitTimeRaw", firstCatalogObjectRevision.get("commit_time_raw"))
+                                  .when()
+                                  .get(CATALOG_OBJECT_REVISION_RESOURCE_WITH_TIME + "/raw")
+                                  .asByteArray();
+
+        Response response = given().pathParam("bucketName", bucket.getName())
+                                   .pathParam("name", "WF_1_Rev_1.xml")
+                                   .pathParam("commitTimeRaw", firstCatalogObjectRevision.get("commit_time_raw"))
+                                   .header(HttpHeaders.RANGE, "bytes=10-19")
+                                   .when()
+                                   .get(CATALOG_OBJECT_REVISION_RESOURCE_WITH_TIME + "/raw");
+
+        response.then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + rawObject.length);
+        assertThat(response.asByteArray(), equalTo(Arrays.copyOfRange(rawObject, 10, 20)));
+    }
+
 }
@@ -0,0 +1,201 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.rest.controller;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.Application;
+import org.ow2.proactive.catalog.util.IntegrationTestUtil;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.jayway.restassured.response.ValidatableResponse;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = { Application.class })
+@WebIntegrationTest(randomPort = true)
+public class IngestionJobControllerIntegrationTest extends AbstractRestAssuredTest {
+
+    private static final String INGESTION_JOBS_RESOURCE = "/ingestion-jobs";
+
+    private static final String INGESTION_JOB_RESOURCE = "/ingestion-jobs/{jobId}";
+
+    private static final String BUCKET_NAME = "ingestion-bucket";
+
+    private static final String OBJECT_NAME = "workflow";
+
+    @Before
+    public void setup() {
+        given().header("sessionID", "12345")
+               .parameters("name", BUCKET_NAME, "owner", "IngestionJobControllerIntegrationTest")
+               .when()
+               .post(BUCKETS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", BUCKET_NAME)
+               .queryParam("kind", "workflow")
+               .queryParam("name", OBJECT_NAME)
+               .queryParam("commitMessage", "first commit")
+               .queryParam("objectContentType", "application/xml")
+               .multiPart(IntegrationTestUtil.getWorkflowFile("workflow.xml"))
+               .when()
+               .post(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+    }
+
+    @After
+    public void cleanup() {
+        IntegrationTestUtil.cleanup();
+    }
+
+    @Test
+    public void testSubmittedRevisionIsCommittedAsynchronously() throws InterruptedException {
+        Integer jobId = submit("async-commit-key").statusCode(HttpStatus.SC_ACCEPTED)
+                                                   .body("status", equalTo("QUEUED"))
+                                                   .extract()
+                                                   .path("job_id");
+
+        HashMap<String, Object> job = waitForCompletion(jobId);
+
+        assertThat(job.get("status"), equalTo("SUCCEEDED"));
+        given().pathParam("bucketName", BUCKET_NAME)
+               .pathParam("name", OBJECT_NAME)
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(2))
+               .body("[0].commit_time_raw", equalTo(job.get("commit_time_raw")))
+               .body("[0].commit_message", equalTo("async commit"));
+    }
+
+    @Test
+    public void testRetryWithSameIdempotencyKeyReturnsSameJob() throws InterruptedException {
+        Integer jobId = submit("retry-safe-key").statusCode(HttpStatus.SC_ACCEPTED).extract().path("job_id");
+        waitForCompletion(jobId);
+
+        submit("retry-safe-key").statusCode(HttpStatus.SC_ACCEPTED)
+                                .body("job_id", equalTo(jobId))
+                                .body("status", equalTo("SUCCEEDED"));
+
+        given().pathParam("bucketName", BUCKET_NAME)
+               .pathParam("name", OBJECT_NAME)
+               .when()
+               .get(CATALOG_OBJECT_REVISIONS_RESOURCE)
+               .then()
+               .body("", hasSize(2));
+    }
+
+    @Test
+    public void testSubmitToUnknownObjectIsRejected() {
+        given().header("sessionID", "12345")
+               .queryParam("bucketName", BUCKET_NAME)
+               .queryParam("name", "unknown")
+               .queryParam("commitMessage", "async commit")
+               .multiPart(IntegrationTestUtil.getWorkflowFile("workflow-updated.xml"))
+               .when()
+               .post(INGESTION_JOBS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testGetUnknownJob() {
+        given().pathParam("jobId", Long.MAX_VALUE)
+               .when()
+               .get(INGESTION_JOB_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testBucketNamedLikeTheJobsResourceIsReachable() {
+        given().header("sessionID", "12345")
+               .parameters("name", "ingestion-jobs", "owner", "IngestionJobControllerIntegrationTest")
+               .when()
+               .post(BUCKETS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_CREATED);
+
+        given().pathParam("bucketName", "ingestion-jobs")
+               .when()
+               .get(CATALOG_OBJECTS_RESOURCE)
+               .then()
+               .statusCode(HttpStatus.SC_OK)
+               .body("", hasSize(0));
+    }
+
+    private ValidatableResponse submit(String idempotencyKey) {
+        return given().header("sessionID", "12345")
+                      .header("Idempotency-Key", idempotencyKey)
+                      .queryParam("bucketName", BUCKET_NAME)
+                      .queryParam("name", OBJECT_NAME)
+                      .queryParam("commitMessage", "async commit")
+                      .multiPart(IntegrationTestUtil.getWorkflowFile("workflow-updated.xml"))
+                      .when()
+                      .post(INGESTION_JOBS_RESOURCE)
+                      .then();
+    }
+
+    private HashMap<String, Object> waitForCompletion(Integer jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            HashMap<String, Object> job = given().pathParam("jobId", jobId)
+                                                 .when()
+                                                 .get(INGESTION_JOB_RESOURCE)
+                                                 .then()
+                                                 .statusCode(HttpStatus.SC_OK)
+                                                 .extract()
+                                                 .path("");
+            if ("SUCCEEDED".equals(job.get("status")) || "FAILED".equals(job.get("status"))) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Ingestion job " + jobId + " did not complete");
+    }
+
+}
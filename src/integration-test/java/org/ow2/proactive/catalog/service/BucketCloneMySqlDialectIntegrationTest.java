@@ -0,0 +1,183 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.util.ProActiveMySQL5InnoDBDialect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Clones buckets with the dialect used for MariaDB/MySQL, which backs the id generators with tables instead of
+ * sequences. HSQLDB runs the generated statements in its MySQL syntax mode.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = { IntegrationTestConfig.class,
+                                  BucketCloneMySqlDialectIntegrationTest.MySqlSyntaxDatabaseConfig.class })
+// the other integration tests keep their context, and its managed beans, registered
+@TestPropertySource(properties = { "spring.jpa.database-platform=org.ow2.proactive.catalog.service.BucketCloneMySqlDialectIntegrationTest$HsqlDbMySqlDialect",
+                                   "spring.jmx.enabled=false" })
+public class BucketCloneMySqlDialectIntegrationTest {
+
+    /**
+     * The MySQL dialect without the table options, which HSQLDB does not accept
+     */
+    public static class HsqlDbMySqlDialect extends ProActiveMySQL5InnoDBDialect {
+        @Override
+        public String getTableTypeString() {
+            return "";
+        }
+    }
+
+    /**
+     * Not a configuration class, so that the applications scanning the catalog packages do not pick this data source
+     */
+    static class MySqlSyntaxDatabaseConfig {
+
+        @Bean
+        @Primary
+        public DataSource mySqlSyntaxDataSource() {
+            return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL)
+                                                .setName("catalog-mysql-syntax")
+                                                .addScript("mysql/hsqldb-mysql-syntax.sql")
+                                                .build();
+        }
+    }
+
+    @Autowired
+    private BucketService bucketService;
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    private BucketMetadata bucket;
+
+    private List<Metadata> keyValues;
+
+    @Before
+    public void createBucket() {
+        bucket = bucketService.createBucket("bucket", "BucketCloneMySqlDialectIntegrationTest");
+        keyValues = Collections.singletonList(new Metadata("key", "value", "type"));
+    }
+
+    @After
+    public void deleteBucket() {
+        bucketService.cleanAll();
+    }
+
+    @Test
+    public void testCloneBucketCopiesObjectsRevisionsAndKeyValues() {
+        catalogObjectService.createCatalogObject(bucket.getName(),
+                                                 "catalog",
+                                                 "object",
+                                                 "first commit",
+                                                 "username",
+                                                 "application/xml",
+                                                 keyValues,
+                                                 "first content".getBytes(),
+                                                 null);
+        catalogObjectService.createCatalogObjectRevision(bucket.getName(),
+                                                         "catalog",
+                                                         "second commit",
+                                                         "username",
+                                                         keyValues,
+                                                         "second content".getBytes());
+        catalogObjectService.createCatalogObject(bucket.getName(),
+                                                 "other",
+                                                 "object",
+                                                 "other commit",
+                                                 "username",
+                                                 "text/plain",
+                                                 keyValues,
+                                                 "other content".getBytes(),
+                                                 "txt");
+
+        BucketMetadata copy = bucketService.cloneBucket(bucket.getName(), "bucket-copy", Optional.empty(), false);
+        BucketMetadata headCopy = bucketService.cloneBucket(bucket.getName(),
+                                                            "bucket-head-copy",
+                                                            Optional.empty(),
+                                                            true);
+
+        assertThat(catalogObjectService.listCatalogObjects(Collections.singletonList(copy.getName()))).hasSize(2);
+        assertThat(catalogObjectService.listCatalogObjectRevisions(copy.getName(), "catalog")).hasSize(2);
+        assertThat(catalogObjectService.listCatalogObjectRevisions(headCopy.getName(), "catalog")).hasSize(1);
+        CatalogObjectMetadata copiedObject = catalogObjectService.getCatalogObjectMetadata(headCopy.getName(),
+                                                                                           "other");
+        assertThat(copiedObject.getCommitMessage()).isEqualTo("other commit");
+        assertThat(copiedObject.getExtension()).isEqualTo("txt");
+        assertThat(copiedObject.getMetadataList()).contains(new Metadata("key", "value", "type"));
+        assertThat(catalogObjectService.getCatalogRawObject(copy.getName(),
+                                                            "catalog")
+                                       .getRawObject()).isEqualTo("second content".getBytes());
+
+        // the generators keep numbering the objects and revisions committed after the copy
+        CatalogObjectMetadata revision = catalogObjectService.createCatalogObjectRevision(copy.getName(),
+                                                                                          "catalog",
+                                                                                          "third commit",
+                                                                                          "username",
+                                                                                          keyValues,
+                                                                                          "third content".getBytes());
+        assertThat(revision.getRevisionNumber()).isEqualTo(3L);
+        catalogObjectService.createCatalogObject(copy.getName(),
+                                                 "new",
+                                                 "object",
+                                                 "new commit",
+                                                 "username",
+                                                 "text/plain",
+                                                 keyValues,
+                                                 "new content".getBytes(),
+                                                 "txt");
+        assertThat(catalogObjectService.listCatalogObjects(Collections.singletonList(copy.getName()))).hasSize(3);
+    }
+
+}
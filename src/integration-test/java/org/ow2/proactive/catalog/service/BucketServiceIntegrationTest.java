@@ -37,7 +37,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.ow2.proactive.catalog.IntegrationTestConfig;
 import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
 import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.util.parser.WorkflowParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
@@ -112,6 +114,102 @@ public class BucketServiceIntegrationTest {
         assertThat(emptyBucketTest.get(0).getName()).isEqualTo("bucketnotempty");
     }
 
+    @Test
+    public void testCloneBucketSharesRevisionContent() throws Exception {
+        catalogObjectService.createCatalogObject(bucket.getName(),
+                                                 "catalog",
+                                                 "object",
+                                                 "first commit",
+                                                 "username",
+                                                 "application/xml",
+                                                 keyValues,
+                                                 "first content".getBytes(),
+                                                 null);
+        catalogObjectService.createCatalogObjectRevision(bucket.getName(),
+                                                         "catalog",
+                                                         "second commit",
+                                                         "username",
+                                                         keyValues,
+                                                         "second content".getBytes());
+
+        BucketMetadata copy = bucketService.cloneBucket(bucket.getName(), "bucket-copy", Optional.empty(), false);
+        BucketMetadata headCopy = bucketService.cloneBucket(bucket.getName(),
+                                                            "bucket-head-copy",
+                                                            Optional.of("other-owner"),
+                                                            true);
+
+        assertThat(copy.getOwner()).isEqualTo(bucket.getOwner());
+        assertThat(headCopy.getOwner()).isEqualTo("other-owner");
+        assertThat(catalogObjectService.listCatalogObjectRevisions(copy.getName(), "catalog")).hasSize(2);
+        assertThat(catalogObjectService.listCatalogObjectRevisions(headCopy.getName(), "catalog")).hasSize(1);
+        CatalogObjectMetadata copiedObject = catalogObjectService.getCatalogObjectMetadata(copy.getName(),
+                                                                                           "catalog");
+        assertThat(copiedObject.getCommitMessage()).isEqualTo("second commit");
+        assertThat(copiedObject.getMetadataList()).contains(new Metadata("key", "value", "type"));
+
+        // the copies hold the generic information of their own bucket
+        assertThat(copiedObject.getMetadataList()).contains(new Metadata("bucketName",
+                                                                         copy.getName(),
+                                                                         WorkflowParser.ATTRIBUTE_GENERIC_INFORMATION_LABEL));
+        assertThat(copiedObject.getMetadataList()).doesNotContain(new Metadata("bucketName",
+                                                                               bucket.getName(),
+                                                                               WorkflowParser.ATTRIBUTE_GENERIC_INFORMATION_LABEL));
+        assertThat(catalogObjectService.getCatalogObjectMetadata(headCopy.getName(), "catalog")
+                                       .getMetadataList()).containsAllOf(new Metadata("bucketName",
+                                                                                      headCopy.getName(),
+                                                                                      WorkflowParser.ATTRIBUTE_GENERIC_INFORMATION_LABEL),
+                                                                         new Metadata("group",
+                                                                                      "other-owner",
+                                                                                      WorkflowParser.ATTRIBUTE_GENERIC_INFORMATION_LABEL));
+
+        // the copies have no content hash, committing the same content again writes the new generic information
+        catalogObjectService.createCatalogObjectRevision(headCopy.getName(),
+                                                         "catalog",
+                                                         "same content",
+                                                         "username",
+                                                         keyValues,
+                                                         "second content".getBytes());
+        assertThat(catalogObjectService.listCatalogObjectRevisions(headCopy.getName(), "catalog")).hasSize(2);
+
+        // the copies still read the shared content once the original object is deleted
+        catalogObjectService.delete(bucket.getName(), "catalog");
+        assertThat(catalogObjectService.getCatalogRawObject(copy.getName(),
+                                                            "catalog")
+                                       .getRawObject()).isEqualTo("second content".getBytes());
+        long firstCommitTime = Long.parseLong(catalogObjectService.listCatalogObjectRevisions(copy.getName(),
+                                                                                              "catalog")
+                                                                  .get(1)
+                                                                  .getCommitTimeRaw());
+        assertThat(catalogObjectService.getCatalogObjectRevisionRaw(copy.getName(),
+                                                                    "catalog",
+                                                                    firstCommitTime)
+                                       .getRawObject()).isEqualTo("first content".getBytes());
+    }
+
+    @Test
+    public void testCloneBucketCopiesObjectsBatchAfterBatch() {
+        // more objects than copied in a single batch
+        for (int index = 0; index < 120; index++) {
+            catalogObjectService.createCatalogObject(bucket.getName(),
+                                                     "catalog-" + index,
+                                                     "object",
+                                                     "commit of catalog-" + index,
+                                                     "username",
+                                                     "text/plain",
+                                                     keyValues,
+                                                     ("content of catalog-" + index).getBytes(),
+                                                     "txt");
+        }
+
+        BucketMetadata copy = bucketService.cloneBucket(bucket.getName(), "bucket-copy", Optional.empty(), true);
+
+        assertThat(catalogObjectService.listCatalogObjects(Collections.singletonList(copy.getName()))).hasSize(120);
+        assertThat(catalogObjectService.getCatalogObjectMetadata(copy.getName(), "catalog-119")
+                                       .getMetadataList()).contains(new Metadata("key", "value", "type"));
+        assertThat(catalogObjectService.getCatalogRawObject(copy.getName(), "catalog-119")
+                                       .getRawObject()).isEqualTo("content of catalog-119".getBytes());
+    }
+
     @Test
     public void testGetBucket() {
         List<BucketMetadata> bucketMetadatas = bucketService.listBuckets("BucketServiceIntegrationTest",
@@ -0,0 +1,139 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
+import org.ow2.proactive.catalog.util.StatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Checks that a batch commit numbers the revisions of all its objects at once: it flushes once, and an existing
+ * object costs no more statements than a new one, whatever the number of objects committed.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class CatalogObjectBatchCommitStatementCountIntegrationTest {
+
+    private static final int SMALL_BATCH = 2;
+
+    private static final int LARGE_BATCH = 8;
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketService bucketService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statementCounter;
+
+    private BucketMetadata bucket;
+
+    private int commits;
+
+    @Before
+    public void setup() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+        bucket = bucketService.createBucket("batch-statement-count",
+                                            "CatalogObjectBatchCommitStatementCountIntegrationTest");
+        commit(LARGE_BATCH);
+    }
+
+    @After
+    public void deleteBucket() {
+        bucketService.cleanAll();
+    }
+
+    @Test
+    public void testBatchCommitOfExistingObjectsFlushesOnce() {
+        assertWithMessage("flushes of a batch of " +
+                          SMALL_BATCH).that(statementCounter.countFlushes(() -> commit(SMALL_BATCH))).isEqualTo(1L);
+        assertWithMessage("flushes of a batch of " +
+                          LARGE_BATCH).that(statementCounter.countFlushes(() -> commit(LARGE_BATCH))).isEqualTo(1L);
+    }
+
+    @Test
+    public void testBatchCommitOfExistingObjectsAllocatesTheRevisionsAtOnce() {
+        long smallBatchStatements = statementCounter.count(() -> commit(SMALL_BATCH));
+        long largeBatchStatements = statementCounter.count(() -> commit(LARGE_BATCH));
+        long smallNewBatchStatements = statementCounter.count(() -> commit(SMALL_BATCH, "new-small-"));
+        long largeNewBatchStatements = statementCounter.count(() -> commit(LARGE_BATCH, "new-large-"));
+
+        // numbering the revisions of existing objects costs a constant number of statements, so that each existing
+        // object costs no more statements than a new object, which has no revision to number
+        assertWithMessage("statements of the existing objects added to a batch").that(largeBatchStatements -
+                                                                                      smallBatchStatements)
+                                                                                .isAtMost(largeNewBatchStatements -
+                                                                                          smallNewBatchStatements);
+    }
+
+    private void commit(int objects) {
+        commit(objects, "object-");
+    }
+
+    private void commit(int objects, String namePrefix) {
+        commits++;
+        List<FileNameAndContent> files = IntStream.range(0, objects).mapToObj(index -> {
+            FileNameAndContent file = new FileNameAndContent();
+            file.setName(namePrefix + index);
+            file.setFileNameWithExtension(namePrefix + index + ".txt");
+            file.setContent(("commit " + commits + " of object " + index).getBytes());
+            return file;
+        }).collect(Collectors.toList());
+        catalogObjectService.commitCatalogObjects(bucket.getName(),
+                                                  Optional.of("object"),
+                                                  Optional.of("text/plain"),
+                                                  "commit " + commits,
+                                                  "username",
+                                                  files);
+    }
+
+}
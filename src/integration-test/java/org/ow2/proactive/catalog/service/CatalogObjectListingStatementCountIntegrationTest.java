@@ -0,0 +1,198 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.graphql.fetcher.CatalogObjectFetcher;
+import org.ow2.proactive.catalog.util.StatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Checks that the listings issue the same number of statements whatever the number of objects listed
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class CatalogObjectListingStatementCountIntegrationTest {
+
+    private static final int INITIAL_OBJECTS = 2;
+
+    // more than the size of the batches in which the associations used to be loaded
+    private static final int ADDED_OBJECTS = 12;
+
+    private static final String ALL_CATALOG_OBJECTS_QUERY = "{ allCatalogObjects { edges { bucketName name kind " +
+                                                            "metadata { key value label } } totalCount } }";
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketService bucketService;
+
+    @Autowired
+    private GraphqlService graphqlService;
+
+    @Autowired
+    private CatalogObjectFetcher.CatalogObjectMapper catalogObjectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statementCounter;
+
+    private BucketMetadata bucket;
+
+    private List<Metadata> keyValues;
+
+    private int createdObjects;
+
+    @Before
+    public void setup() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+        doReturn("link").when(catalogObjectMapper).generatLink(anyString(), anyString());
+        bucket = bucketService.createBucket("statement-count", "CatalogObjectListingStatementCountIntegrationTest");
+        keyValues = Arrays.asList(new Metadata("key1", "value1", "label"), new Metadata("key2", "value2", "label"));
+        createdObjects = 0;
+        createObjects(INITIAL_OBJECTS);
+    }
+
+    @After
+    public void deleteBucket() {
+        bucketService.cleanAll();
+    }
+
+    @Test
+    public void testListCatalogObjectsStatementCountDoesNotGrowWithObjects() {
+        statementCounter.assertConstantStatementCount("listCatalogObjects",
+                                                      () -> assertThat(catalogObjectService.listCatalogObjects(Collections.singletonList(bucket.getName()))).isNotEmpty(),
+                                                      () -> createObjects(ADDED_OBJECTS));
+    }
+
+    @Test
+    public void testListCatalogObjectsByKindStatementCountDoesNotGrowWithObjects() {
+        statementCounter.assertConstantStatementCount("listCatalogObjectsByKind",
+                                                      () -> assertThat(catalogObjectService.listCatalogObjectsByKind(Collections.singletonList(bucket.getName()),
+                                                                                                                     "object")).isNotEmpty(),
+                                                      () -> createObjects(ADDED_OBJECTS));
+    }
+
+    @Test
+    public void testStreamCatalogObjectsStatementCountDoesNotGrowWithObjects() {
+        statementCounter.assertConstantStatementCount("streamCatalogObjects", () -> {
+            List<CatalogObjectMetadata> streamed = new ArrayList<>();
+            catalogObjectService.streamCatalogObjects(Collections.singletonList(bucket.getName()),
+                                                      Optional.empty(),
+                                                      Optional.empty(),
+                                                      true,
+                                                      streamed::addAll);
+            assertThat(streamed).hasSize(createdObjects);
+            assertThat(streamed.get(0).getMetadataList()).isNotEmpty();
+        }, () -> createObjects(ADDED_OBJECTS));
+    }
+
+    @Test
+    public void testListSelectedCatalogObjectsStatementCountDoesNotGrowWithObjects() {
+        statementCounter.assertConstantStatementCount("listSelectedCatalogObjects",
+                                                      () -> assertThat(catalogObjectService.listSelectedCatalogObjects(bucket.getName(),
+                                                                                                                       objectNames())).hasSize(createdObjects),
+                                                      () -> createObjects(ADDED_OBJECTS));
+    }
+
+    @Test
+    public void testListCatalogObjectRevisionsStatementCountDoesNotGrowWithRevisions() {
+        statementCounter.assertConstantStatementCount("listCatalogObjectRevisions",
+                                                      () -> assertThat(catalogObjectService.listCatalogObjectRevisions(bucket.getName(),
+                                                                                                                       objectName(0))).isNotEmpty(),
+                                                      () -> IntStream.range(0, ADDED_OBJECTS)
+                                                                     .forEach(revision -> catalogObjectService.createCatalogObjectRevision(bucket.getName(),
+                                                                                                                                           objectName(0),
+                                                                                                                                           "commit message " +
+                                                                                                                                                          revision,
+                                                                                                                                           "username",
+                                                                                                                                           keyValues,
+                                                                                                                                           ("revision " +
+                                                                                                                                            revision).getBytes())));
+    }
+
+    @Test
+    public void testGraphqlCatalogObjectsStatementCountDoesNotGrowWithObjects() {
+        statementCounter.assertConstantStatementCount("allCatalogObjects", () -> {
+            Map<String, Object> result = graphqlService.executeQuery(ALL_CATALOG_OBJECTS_QUERY, null, null, null);
+            assertThat(result.get("errors")).isNull();
+        }, () -> createObjects(ADDED_OBJECTS));
+    }
+
+    private void createObjects(int count) {
+        IntStream.range(createdObjects, createdObjects + count)
+                 .forEach(index -> catalogObjectService.createCatalogObject(bucket.getName(),
+                                                                            objectName(index),
+                                                                            "object",
+                                                                            "commit message",
+                                                                            "username",
+                                                                            "text/plain",
+                                                                            keyValues,
+                                                                            ("object " + index).getBytes(),
+                                                                            null));
+        createdObjects += count;
+    }
+
+    private List<String> objectNames() {
+        return IntStream.range(0, createdObjects).mapToObj(this::objectName).collect(Collectors.toList());
+    }
+
+    private String objectName(int index) {
+        return "object-" + index;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Commits many revisions of the same object concurrently and checks that none of them is lost.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class CatalogObjectRevisionConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    private static final int COMMITS_PER_THREAD = 10;
+
+    private static final String OBJECT_NAME = "concurrent-object";
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketService bucketService;
+
+    private BucketMetadata bucket;
+
+    @Before
+    public void setup() {
+        bucket = bucketService.createBucket("bucket", "CatalogObjectRevisionConcurrencyIntegrationTest");
+        catalogObjectService.createCatalogObject(bucket.getName(),
+                                                 OBJECT_NAME,
+                                                 "object",
+                                                 "first commit",
+                                                 "username",
+                                                 "text/plain",
+                                                 Collections.emptyList(),
+                                                 "initial content".getBytes(StandardCharsets.UTF_8),
+                                                 null);
+    }
+
+    @After
+    public void deleteBucket() {
+        bucketService.cleanAll();
+    }
+
+    @Test
+    public void testConcurrentCommitsGetDistinctRevisionNumbersAndCommitTimes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<CatalogObjectMetadata>> commits = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                for (int commit = 0; commit < COMMITS_PER_THREAD; commit++) {
+                    String content = "content " + thread + "-" + commit;
+                    commits.add(executor.submit(commit(content)));
+                }
+            }
+            for (Future<CatalogObjectMetadata> commit : commits) {
+                assertThat(commit.get(1, TimeUnit.MINUTES)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<CatalogObjectMetadata> revisions = catalogObjectService.listCatalogObjectRevisions(bucket.getName(),
+                                                                                                OBJECT_NAME);
+        long expectedRevisions = THREADS * COMMITS_PER_THREAD + 1;
+        assertThat(revisions).hasSize((int) expectedRevisions);
+
+        Set<String> commitTimes = revisions.stream()
+                                           .map(CatalogObjectMetadata::getCommitTimeRaw)
+                                           .collect(Collectors.toSet());
+        assertThat(commitTimes).hasSize((int) expectedRevisions);
+
+        List<Long> revisionNumbers = revisions.stream()
+                                              .map(CatalogObjectMetadata::getRevisionNumber)
+                                              .sorted()
+                                              .collect(Collectors.toList());
+        assertThat(revisionNumbers).containsExactlyElementsIn(LongStream.rangeClosed(1, expectedRevisions)
+                                                                        .boxed()
+                                                                        .collect(Collectors.toList()))
+                                   .inOrder();
+
+        // the most recent revision has the highest number
+        assertThat(revisions.get(0).getRevisionNumber()).isEqualTo(expectedRevisions);
+    }
+
+    private Callable<CatalogObjectMetadata> commit(String content) {
+        return () -> catalogObjectService.createCatalogObjectRevision(bucket.getName(),
+                                                                      OBJECT_NAME,
+                                                                      "commit " + content,
+                                                                      "username",
+                                                                      content.getBytes(StandardCharsets.UTF_8));
+    }
+}
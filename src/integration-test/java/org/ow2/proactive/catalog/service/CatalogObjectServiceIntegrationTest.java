@@ -36,6 +36,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -43,14 +46,24 @@ import org.junit.runner.RunWith;
 import org.ow2.proactive.catalog.IntegrationTestConfig;
 import org.ow2.proactive.catalog.dto.BucketMetadata;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectsUpdateMetadata;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
 import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.service.exception.CatalogObjectNotFoundException;
 import org.ow2.proactive.catalog.service.exception.KindOrContentTypeIsNotValidException;
+import org.ow2.proactive.catalog.service.exception.WrongParametersException;
 import org.ow2.proactive.catalog.util.IntegrationTestUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 /**
@@ -68,6 +81,23 @@ public class CatalogObjectServiceIntegrationTest {
     @Autowired
     private BucketService bucketService;
 
+    @Autowired
+    private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
+
+    @Autowired
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Autowired
+    private BucketRepository bucketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
     private BucketMetadata bucket;
 
     private List<Metadata> keyValues;
@@ -82,6 +112,7 @@ public class CatalogObjectServiceIntegrationTest {
 
     @Before
     public void setup() throws IOException, InterruptedException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
         bucket = bucketService.createBucket("bucket", "CatalogObjectServiceIntegrationTest");
         keyValues = Collections.singletonList(new Metadata("key", "value", "type"));
 
@@ -137,6 +168,16 @@ public class CatalogObjectServiceIntegrationTest {
     public void testListCatalogObjectsInBucket() {
         List<CatalogObjectMetadata> catalogObjects = catalogObjectService.listCatalogObjects(Arrays.asList(bucket.getName()));
         assertThat(catalogObjects).hasSize(3);
+        CatalogObjectMetadata firstObject = catalogObjects.stream()
+                                                          .filter(object -> "object-name-1".equals(object.getName()))
+                                                          .findFirst()
+                                                          .get();
+        assertThat(firstObject.getBucketName()).isEqualTo(bucket.getName());
+        assertThat(firstObject.getCommitMessage()).isEqualTo("commit message 2");
+        assertThat(firstObject.getRevisionNumber()).isEqualTo(2L);
+        assertThat(firstObject.getMetadataList()).isNotEmpty();
+        assertThat(firstObject.getMetadataList().stream().anyMatch(metadata -> "key".equals(metadata.getKey()) &&
+                                                                               "value".equals(metadata.getValue()))).isTrue();
     }
 
     @Test
@@ -171,6 +212,21 @@ public class CatalogObjectServiceIntegrationTest {
         assertThat(catalogObjectMetadata.getKind()).isEqualTo("updated-kind");
     }
 
+    @Test(expected = CatalogObjectNotFoundException.class)
+    public void testHeadRevisionIsUpToDateAfterEachCommit() {
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-1")
+                                       .getCommitTimeRaw()).isEqualTo(String.valueOf(secondCommitTime));
+
+        CatalogObjectMetadata restoredRevision = catalogObjectService.restore(bucket.getName(),
+                                                                              "object-name-1",
+                                                                              firstCommitTime);
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-1")
+                                       .getCommitTimeRaw()).isEqualTo(restoredRevision.getCommitTimeRaw());
+
+        catalogObjectService.delete(bucket.getName(), "object-name-1");
+        catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-1");
+    }
+
     @Test(expected = KindOrContentTypeIsNotValidException.class)
     public void testUpdateObjectMetadataWrongKind() {
         CatalogObjectMetadata catalogObjectMetadata = catalogObjectService.updateObjectMetadata(bucket.getName(),
@@ -179,6 +235,88 @@ public class CatalogObjectServiceIntegrationTest {
                                                                                                 Optional.of("updated-contentType"));
     }
 
+    @Test
+    public void testUpdateObjectsMetadataRenamesKindPrefix() {
+        for (String kind : Arrays.asList("workflow/pca", "workflow/pca/sub", "workflow/pcax")) {
+            catalogObjectService.createCatalogObject(bucket.getName(),
+                                                     kind.replace('/', '-'),
+                                                     kind,
+                                                     "commit message",
+                                                     "username",
+                                                     "application/xml",
+                                                     keyValues,
+                                                     workflowAsByteArray,
+                                                     null);
+        }
+
+        CatalogObjectsUpdateMetadata result = catalogObjectService.updateObjectsMetadata(bucket.getName(),
+                                                                                         Optional.of("workflow/pca"),
+                                                                                         null,
+                                                                                         Optional.of("workflow/analytics"),
+                                                                                         Optional.empty());
+
+        assertThat(result.getUpdatedObjects()).isEqualTo(2);
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "workflow-pca")
+                                       .getKind()).isEqualTo("workflow/analytics");
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "workflow-pca-sub")
+                                       .getKind()).isEqualTo("workflow/analytics/sub");
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "workflow-pcax")
+                                       .getKind()).isEqualTo("workflow/pcax");
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-3")
+                                       .getKind()).isEqualTo("workflow");
+    }
+
+    @Test
+    public void testUpdateObjectsMetadataByNames() {
+        CatalogObjectsUpdateMetadata result = catalogObjectService.updateObjectsMetadata(bucket.getName(),
+                                                                                         Optional.empty(),
+                                                                                         Arrays.asList("object-name-1",
+                                                                                                       "object-name-3",
+                                                                                                       "missing"),
+                                                                                         Optional.empty(),
+                                                                                         Optional.of("text/plain"));
+
+        assertThat(result.getUpdatedObjects()).isEqualTo(2);
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-1")
+                                       .getContentType()).isEqualTo("text/plain");
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-2")
+                                       .getContentType()).isEqualTo("application/xml");
+        assertThat(catalogObjectService.getCatalogObjectMetadata(bucket.getName(), "object-name-3")
+                                       .getContentType()).isEqualTo("text/plain");
+    }
+
+    @Test
+    public void testUpdateObjectsMetadataOnlyDetachesTheUpdatedObjects() {
+        transactionTemplate.execute(status -> {
+            Long bucketId = bucketRepository.findOneByBucketName(bucket.getName()).getId();
+            CatalogObjectEntity updatedObject = catalogObjectRepository.findOneByBucketIdAndName(bucketId,
+                                                                                                 "object-name-1");
+            CatalogObjectEntity otherObject = catalogObjectRepository.findOneByBucketIdAndName(bucketId,
+                                                                                               "object-name-2");
+
+            catalogObjectService.updateObjectsMetadata(bucket.getName(),
+                                                       Optional.empty(),
+                                                       Collections.singletonList("object-name-1"),
+                                                       Optional.empty(),
+                                                       Optional.of("text/plain"));
+
+            assertThat(entityManager.contains(updatedObject)).isFalse();
+            assertThat(entityManager.contains(otherObject)).isTrue();
+            assertThat(catalogObjectRepository.findOneByBucketIdAndName(bucketId, "object-name-1")
+                                              .getContentType()).isEqualTo("text/plain");
+            return null;
+        });
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testUpdateObjectsMetadataRequiresKindPrefixOrNames() {
+        catalogObjectService.updateObjectsMetadata(bucket.getName(),
+                                                   Optional.empty(),
+                                                   Collections.emptyList(),
+                                                   Optional.empty(),
+                                                   Optional.of("text/plain"));
+    }
+
     @Test(expected = KindOrContentTypeIsNotValidException.class)
     public void testCreateObjectWrongKind() {
         catalogObjectService.createCatalogObject(bucket.getName(),
@@ -260,4 +398,28 @@ public class CatalogObjectServiceIntegrationTest {
         assertThat(rawObject.getRawObject()).isEqualTo(workflowAsByteArray);
     }
 
+    @Test
+    public void testCreateMetadataRevisionSharesTheHeadPayload() throws UnsupportedEncodingException {
+        CatalogObjectMetadata metadata = catalogObjectService.createMetadataRevision(bucket.getName(),
+                                                                                     "object-name-1",
+                                                                                     "patch",
+                                                                                     "username",
+                                                                                     Collections.singletonList(new Metadata("key",
+                                                                                                                            "patched",
+                                                                                                                            "type")));
+        long patchCommitTime = metadata.getCommitDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        CatalogObjectRevisionEntity headRevision = catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(Collections.singletonList(bucket.getName()),
+                                                                                                                         "object-name-1",
+                                                                                                                         secondCommitTime);
+        CatalogObjectRevisionEntity patchRevision = catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(Collections.singletonList(bucket.getName()),
+                                                                                                                          "object-name-1",
+                                                                                                                          patchCommitTime);
+        assertThat(patchRevision.getPayloadId()).isEqualTo(headRevision.getPayloadId());
+        assertThat(catalogObjectService.getCatalogObjectRevisionRaw(bucket.getName(),
+                                                                    "object-name-1",
+                                                                    patchCommitTime)
+                                       .getRawObject()).isEqualTo(workflowAsByteArrayUpdated);
+    }
+
 }
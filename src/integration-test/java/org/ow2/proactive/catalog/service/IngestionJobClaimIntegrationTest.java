@@ -0,0 +1,155 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Checks that two catalog nodes polling the same partition never run two revisions of an object concurrently.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class IngestionJobClaimIntegrationTest {
+
+    @Autowired
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    private TransactionTemplate transactionTemplate;
+
+    private IngestionJobWorker firstNode;
+
+    private IngestionJobWorker secondNode;
+
+    @Before
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        firstNode = worker("node-1");
+        secondNode = worker("node-2");
+    }
+
+    @After
+    public void cleanup() {
+        ingestionJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testNextRevisionWaitsForTheRevisionRunningOnAnotherNode() {
+        Long firstRevision = queuedJob("a");
+        Long secondRevision = queuedJob("a");
+        Long otherObject = queuedJob("b");
+
+        assertThat(claimedIds(firstNode)).containsExactly(firstRevision, otherObject);
+        assertThat(claimedIds(secondNode)).isEmpty();
+
+        complete(firstRevision, Status.SUCCEEDED);
+
+        assertThat(claimedIds(secondNode)).containsExactly(secondRevision);
+        assertThat(ingestionJobRepository.findOne(secondRevision).getOwner()).isEqualTo("node-2");
+    }
+
+    @Test
+    public void testNextRevisionWaitsForTheRevisionQueuedAgain() {
+        Long firstRevision = queuedJob("a");
+        Long secondRevision = queuedJob("a");
+
+        assertThat(claimedIds(firstNode)).containsExactly(firstRevision);
+        // the lease of the first node expires, its job is queued again and claimed before the following one
+        transactionTemplate.execute(status -> ingestionJobRepository.releaseOwned(Status.RUNNING,
+                                                                                  Status.QUEUED,
+                                                                                  "node-1"));
+        assertThat(claimedIds(secondNode)).containsExactly(firstRevision);
+        assertThat(claimedIds(firstNode)).isEmpty();
+
+        complete(firstRevision, Status.FAILED);
+
+        assertThat(claimedIds(firstNode)).containsExactly(secondRevision);
+    }
+
+    private IngestionJobWorker worker(String nodeId) {
+        IngestionJobWorker worker = new IngestionJobWorker();
+        beanFactory.autowireBean(worker);
+        worker.workers = 1;
+        worker.batchSize = 10;
+        worker.leaseDuration = 60000;
+        worker.nodeId = nodeId;
+        worker.transactionTemplate = transactionTemplate;
+        return worker;
+    }
+
+    private List<Long> claimedIds(IngestionJobWorker worker) {
+        return worker.claimBatch(0).stream().map(IngestionJobEntity::getId).collect(Collectors.toList());
+    }
+
+    private void complete(Long jobId, Status status) {
+        transactionTemplate.execute(transactionStatus -> ingestionJobRepository.complete(jobId,
+                                                                                         status,
+                                                                                         null,
+                                                                                         null,
+                                                                                         System.currentTimeMillis()));
+    }
+
+    private Long queuedJob(String name) {
+        return ingestionJobRepository.save(IngestionJobEntity.builder()
+                                                             .bucketName("bucket")
+                                                             .name(name)
+                                                             .objectHash(IngestionJobEntity.objectHash("bucket", name))
+                                                             .status(Status.QUEUED)
+                                                             .submitTime(System.currentTimeMillis())
+                                                             .build())
+                                     .getId();
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Checks that the ingestion jobs leased by a catalog node are only queued again by another node once their
+ * lease expired.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class IngestionJobLeaseIntegrationTest {
+
+    @Autowired
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @After
+    public void cleanup() {
+        ingestionJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testOnlyExpiredLeasesAreReleased() {
+        long now = System.currentTimeMillis();
+        Long leasedJob = runningJob("leased", "node-1", now + 60000);
+        Long expiredJob = runningJob("expired", "node-2", now - 1);
+
+        int released = transactionTemplate.execute(status -> ingestionJobRepository.releaseExpired(Status.RUNNING,
+                                                                                                   Status.QUEUED,
+                                                                                                   now));
+
+        assertThat(released).isEqualTo(1);
+        assertThat(ingestionJobRepository.findOne(leasedJob).getStatus()).isEqualTo(Status.RUNNING);
+        IngestionJobEntity releasedJob = ingestionJobRepository.findOne(expiredJob);
+        assertThat(releasedJob.getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(releasedJob.getOwner()).isNull();
+    }
+
+    @Test
+    public void testRestartingNodeOnlyReleasesItsOwnJobs() {
+        long now = System.currentTimeMillis();
+        Long ownJob = runningJob("own", "node-1", now + 60000);
+        Long otherJob = runningJob("other", "node-2", now + 60000);
+
+        transactionTemplate.execute(status -> ingestionJobRepository.releaseOwned(Status.RUNNING,
+                                                                                  Status.QUEUED,
+                                                                                  "node-1"));
+
+        assertThat(ingestionJobRepository.findOne(ownJob).getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(ingestionJobRepository.findOne(otherJob).getStatus()).isEqualTo(Status.RUNNING);
+    }
+
+    @Test
+    public void testRenewedLeaseIsNotReleased() {
+        long now = System.currentTimeMillis();
+        Long job = runningJob("renewed", "node-1", now - 1);
+
+        transactionTemplate.execute(status -> ingestionJobRepository.renewLeases(Status.RUNNING,
+                                                                                 "node-1",
+                                                                                 now + 60000));
+        transactionTemplate.execute(status -> ingestionJobRepository.releaseExpired(Status.RUNNING,
+                                                                                    Status.QUEUED,
+                                                                                    now));
+
+        assertThat(ingestionJobRepository.findOne(job).getStatus()).isEqualTo(Status.RUNNING);
+    }
+
+    private Long runningJob(String name, String owner, long leaseExpirationTime) {
+        IngestionJobEntity job = ingestionJobRepository.save(IngestionJobEntity.builder()
+                                                                               .bucketName("bucket")
+                                                                               .name(name)
+                                                                               .objectHash(IngestionJobEntity.objectHash("bucket",
+                                                                                                                         name))
+                                                                               .status(Status.QUEUED)
+                                                                               .submitTime(System.currentTimeMillis())
+                                                                               .build());
+        transactionTemplate.execute(status -> ingestionJobRepository.claim(job.getId(),
+                                                                           Status.QUEUED,
+                                                                           Status.RUNNING,
+                                                                           owner,
+                                                                           leaseExpirationTime));
+        return job.getId();
+    }
+
+}
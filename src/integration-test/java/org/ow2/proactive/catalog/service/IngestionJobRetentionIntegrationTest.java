@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Checks that only the ingestion jobs completed for longer than the retention duration are purged.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class IngestionJobRetentionIntegrationTest {
+
+    private static final long RETENTION_DURATION = 3600000;
+
+    @Autowired
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    private IngestionJobWorker ingestionJobWorker;
+
+    @Before
+    public void setup() {
+        ingestionJobWorker = new IngestionJobWorker();
+        beanFactory.autowireBean(ingestionJobWorker);
+        ingestionJobWorker.retentionDuration = RETENTION_DURATION;
+        ingestionJobWorker.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @After
+    public void cleanup() {
+        ingestionJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testOnlyJobsCompletedBeforeTheRetentionDurationArePurged() {
+        long now = System.currentTimeMillis();
+        Long oldSucceededJob = job("old-succeeded", Status.SUCCEEDED, now - RETENTION_DURATION - 60000);
+        Long oldFailedJob = job("old-failed", Status.FAILED, now - RETENTION_DURATION - 60000);
+        Long recentJob = job("recent", Status.SUCCEEDED, now - 60000);
+        Long queuedJob = job("queued", Status.QUEUED, null);
+
+        ingestionJobWorker.purgeCompletedJobs();
+
+        assertThat(ingestionJobRepository.exists(oldSucceededJob)).isFalse();
+        assertThat(ingestionJobRepository.exists(oldFailedJob)).isFalse();
+        assertThat(ingestionJobRepository.exists(recentJob)).isTrue();
+        assertThat(ingestionJobRepository.exists(queuedJob)).isTrue();
+    }
+
+    private Long job(String name, Status status, Long completionTime) {
+        return ingestionJobRepository.save(IngestionJobEntity.builder()
+                                                             .bucketName("bucket")
+                                                             .name(name)
+                                                             .objectHash(IngestionJobEntity.objectHash("bucket", name))
+                                                             .status(status)
+                                                             .submitTime(System.currentTimeMillis())
+                                                             .completionTime(completionTime)
+                                                             .build())
+                                     .getId();
+    }
+
+}
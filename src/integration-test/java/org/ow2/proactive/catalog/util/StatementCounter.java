@@ -0,0 +1,80 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+
+/**
+ * Counts the JDBC statements prepared and the flushes done by Hibernate, from the statistics enabled by the
+ * hibernate.generate_statistics property of the test profile. The counts are global to the
+ * session factory, so the tests using it must not run concurrently with other database work.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * @return the number of statements prepared while running the given action
+     */
+    public long count(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * @return the number of flushes, explicit or automatic, done while running the given action
+     */
+    public long countFlushes(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getFlushCount();
+    }
+
+    /**
+     * Fails when the listing issues more statements once more objects were added, which happens when the
+     * associations of the listed objects are loaded one object, or one batch of objects, at a time.
+     */
+    public void assertConstantStatementCount(String listing, Runnable listingAction, Runnable addObjectsAction) {
+        long statementsBefore = count(listingAction);
+        addObjectsAction.run();
+        long statementsAfter = count(listingAction);
+        assertWithMessage(listing + " statements").that(statementsAfter).isEqualTo(statementsBefore);
+    }
+}
@@ -0,0 +1,33 @@
+-- Schema created by the catalog before objects had a surrogate key, with the revision contents stored in the
+-- revision table, as generated by Hibernate for HSQLDB
+create sequence BUCKET_SEQUENCE start with 1002 increment by 1;
+create sequence CATALOG_OBJECT_REVISION_SEQUENCE start with 5 increment by 1;
+create sequence METADATA_KEY_VALUE_SEQUENCE start with 5 increment by 1;
+create table BUCKET (ID bigint not null, BUCKET_NAME varchar(255) not null, OWNER varchar(255) not null, primary key (ID));
+create table CATALOG_OBJECT (BUCKET_ID bigint not null, NAME varchar(255) not null, CONTENT_TYPE varchar(255), EXTENSION varchar(255), KIND varchar(255) not null, LAST_COMMIT_TIME bigint, primary key (BUCKET_ID, NAME));
+create table CATALOG_OBJECT_REVISION (ID bigint not null, COMMIT_MESSAGE varchar(255), COMMIT_TIME bigint not null, RAW_OBJECT blob(2147483647), USERNAME varchar(255), BUCKET bigint, NAME varchar(255), primary key (ID));
+create table METADATA_KEY_VALUE (ID bigint not null, PA_KEY varchar(255) not null, LABEL varchar(255), PA_VALUE longvarchar not null, CATALOGOBJECTREVISION bigint, primary key (ID));
+create index BUCKET_INDEX on BUCKET (BUCKET_NAME);
+alter table BUCKET add constraint UKqyk4t64kqx5ersj0cwpf6dqlk unique (BUCKET_NAME);
+create index IDXalfdwmyqxq3cmc5y0s3oddfwx on CATALOG_OBJECT (LAST_COMMIT_TIME);
+create index REVISION_INDEX on CATALOG_OBJECT_REVISION (BUCKET, NAME, COMMIT_TIME);
+alter table CATALOG_OBJECT_REVISION add constraint UK1utdibe57vgqk1lngets8mmlb unique (BUCKET, NAME, COMMIT_TIME);
+create index IDXdvgvhx5ch90af8vwju10c3sa on METADATA_KEY_VALUE (PA_KEY);
+alter table METADATA_KEY_VALUE add constraint UKmxnlcvcvqiq8rulvo0bkmipbf unique (CATALOGOBJECTREVISION, PA_KEY, LABEL);
+alter table CATALOG_OBJECT add constraint FKtp2a08tg6fx9gdxj0d267tge3 foreign key (BUCKET_ID) references BUCKET;
+alter table CATALOG_OBJECT_REVISION add constraint FKk53tsv56ho4kdtkib70nviyba foreign key (BUCKET, NAME) references CATALOG_OBJECT;
+alter table METADATA_KEY_VALUE add constraint FK8k4q2fbnm3yho82kwc2vtabox foreign key (CATALOGOBJECTREVISION) references CATALOG_OBJECT_REVISION;
+
+insert into BUCKET values (1000, 'baseline-bucket', 'owner');
+insert into BUCKET values (1001, 'other-bucket', 'owner');
+insert into CATALOG_OBJECT values (1000, 'workflow-a', 'text/plain', 'txt', 'object', 2000);
+insert into CATALOG_OBJECT values (1000, 'object-b', 'text/plain', 'txt', 'object', 3000);
+insert into CATALOG_OBJECT values (1001, 'object-b', 'text/plain', 'txt', 'object', 4000);
+insert into CATALOG_OBJECT_REVISION values (1, 'first commit', 1000, X'666972737420636f6e74656e74206f6620776f726b666c6f772d61', 'username', 1000, 'workflow-a');
+insert into CATALOG_OBJECT_REVISION values (2, 'second commit', 2000, X'7365636f6e6420636f6e74656e74206f6620776f726b666c6f772d61', 'username', 1000, 'workflow-a');
+insert into CATALOG_OBJECT_REVISION values (3, 'object b', 3000, X'636f6e74656e74206f66206f626a6563742d62', 'username', 1000, 'object-b');
+insert into CATALOG_OBJECT_REVISION values (4, 'other object b', 4000, X'636f6e74656e74206f6620746865206f74686572206f626a6563742d62', 'username', 1001, 'object-b');
+insert into METADATA_KEY_VALUE values (1, 'key', 'type', 'first value', 1);
+insert into METADATA_KEY_VALUE values (2, 'key', 'type', 'second value', 2);
+insert into METADATA_KEY_VALUE values (3, 'key', 'type', 'value of object-b', 3);
+insert into METADATA_KEY_VALUE values (4, 'key', 'type', 'value of the other object-b', 4);
@@ -0,0 +1,2 @@
+-- Lets HSQLDB run the statements generated by the MySQL dialect, see BucketCloneMySqlDialectIntegrationTest
+SET DATABASE SQL SYNTAX MYS TRUE;
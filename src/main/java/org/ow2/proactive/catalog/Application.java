@@ -31,6 +31,9 @@ import java.io.File;
 
 import javax.sql.DataSource;
 
+import org.ow2.proactive.catalog.util.BinaryFormatAcceptHeaderStrategy;
+import org.ow2.proactive.catalog.util.BinaryJacksonHttpMessageConverter;
+import org.ow2.proactive.catalog.util.VaryAcceptInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
@@ -46,6 +49,7 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
@@ -54,6 +58,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 import com.fasterxml.classmate.TypeResolver;
@@ -103,8 +108,27 @@ public class Application extends WebMvcConfigurerAdapter {
                   .parameterName("format")
                   .ignoreAcceptHeader(true)
                   .useJaf(false)
-                  .defaultContentType(MediaType.APPLICATION_JSON)
-                  .mediaType("json", MediaType.APPLICATION_JSON);
+                  .defaultContentTypeStrategy(new BinaryFormatAcceptHeaderStrategy())
+                  .mediaType("json", MediaType.APPLICATION_JSON)
+                  .mediaType("cbor", BinaryJacksonHttpMessageConverter.APPLICATION_CBOR)
+                  .mediaType("smile", BinaryJacksonHttpMessageConverter.APPLICATION_SMILE);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryAcceptInterceptor());
+    }
+
+    @Bean
+    public BinaryJacksonHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return BinaryJacksonHttpMessageConverter.cbor(objectMapperBuilder);
+    }
+
+    @Bean
+    public BinaryJacksonHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return BinaryJacksonHttpMessageConverter.smile(objectMapperBuilder);
     }
 
     @Bean
@@ -34,10 +34,13 @@ import java.util.Optional;
 
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.service.model.CatalogObjectRevisionSummary;
 import org.ow2.proactive.catalog.util.KeyValueEntityToDtoTransformer;
 import org.springframework.hateoas.ResourceSupport;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.Data;
@@ -84,9 +87,16 @@ public class CatalogObjectMetadata extends ResourceSupport {
 
     protected final String projectName;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("revision_number")
+    protected Long revisionNumber;
+
+    @JsonIgnore
+    protected Long lastUpdateTime;
+
     public CatalogObjectMetadata(CatalogObjectEntity catalogObject) {
         this(catalogObject.getBucket().getBucketName(),
-             catalogObject.getId().getName(),
+             catalogObject.getName(),
              catalogObject.getKind(),
              catalogObject.getContentType(),
              catalogObject.getRevisions().first().getCommitTime(),
@@ -94,11 +104,13 @@ public class CatalogObjectMetadata extends ResourceSupport {
              catalogObject.getRevisions().first().getUsername(),
              KeyValueEntityToDtoTransformer.to(catalogObject.getRevisions().first().getKeyValueMetadataList()),
              catalogObject.getExtension());
+        this.revisionNumber = catalogObject.getRevisions().first().getRevisionNumber();
+        this.lastUpdateTime = catalogObject.getLastUpdateTime();
     }
 
     public CatalogObjectMetadata(CatalogObjectRevisionEntity catalogObject) {
         this(catalogObject.getCatalogObject().getBucket().getBucketName(),
-             catalogObject.getCatalogObject().getId().getName(),
+             catalogObject.getCatalogObject().getName(),
              catalogObject.getCatalogObject().getKind(),
              catalogObject.getCatalogObject().getContentType(),
              catalogObject.getCommitTime(),
@@ -106,6 +118,22 @@ public class CatalogObjectMetadata extends ResourceSupport {
              catalogObject.getUsername(),
              KeyValueEntityToDtoTransformer.to(catalogObject.getKeyValueMetadataList()),
              catalogObject.getCatalogObject().getExtension());
+        this.revisionNumber = catalogObject.getRevisionNumber();
+        this.lastUpdateTime = catalogObject.getCatalogObject().getLastUpdateTime();
+    }
+
+    public CatalogObjectMetadata(CatalogObjectRevisionSummary revision, List<Metadata> metadataList) {
+        this(revision.getBucketName(),
+             revision.getName(),
+             revision.getKind(),
+             revision.getContentType(),
+             revision.getCommitTime(),
+             revision.getCommitMessage(),
+             revision.getUsername(),
+             metadataList,
+             revision.getExtension());
+        this.revisionNumber = revision.getRevisionNumber();
+        this.lastUpdateTime = revision.getLastUpdateTime();
     }
 
     public CatalogObjectMetadata(String bucketName, String name, String kind, String contentType, long commitTime,
@@ -0,0 +1,126 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.dto;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.ow2.proactive.catalog.service.exception.WrongParametersException;
+
+import lombok.Getter;
+
+
+/**
+ * The properties of a {@link CatalogObjectMetadata} which can be selected in a listing, named as in its JSON
+ * representation.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public enum CatalogObjectMetadataField {
+
+    BUCKET_NAME("bucket_name", CatalogObjectMetadata::getBucketName),
+    NAME("name", CatalogObjectMetadata::getName),
+    KIND("kind", CatalogObjectMetadata::getKind),
+    CONTENT_TYPE("content_type", CatalogObjectMetadata::getContentType),
+    EXTENSION("extension", CatalogObjectMetadata::getExtension),
+    COMMIT_TIME("commit_time",
+            metadata -> DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(metadata.getCommitDateTime())),
+    COMMIT_TIME_RAW("commit_time_raw", CatalogObjectMetadata::getCommitTimeRaw),
+    COMMIT_MESSAGE("commit_message", CatalogObjectMetadata::getCommitMessage),
+    USERNAME("username", CatalogObjectMetadata::getUsername),
+    REVISION_NUMBER("revision_number", CatalogObjectMetadata::getRevisionNumber),
+    OBJECT_KEY_VALUES("object_key_values", CatalogObjectMetadata::getMetadataList),
+    PROJECT_NAME("projectName", CatalogObjectMetadata::getProjectName),
+    LINKS("links", CatalogObjectMetadata::getLinks);
+
+    @Getter
+    private final String jsonName;
+
+    private final Function<CatalogObjectMetadata, Object> getter;
+
+    CatalogObjectMetadataField(String jsonName, Function<CatalogObjectMetadata, Object> getter) {
+        this.jsonName = jsonName;
+        this.getter = getter;
+    }
+
+    /**
+     * @return the value of the field for the given metadata, as it is represented in JSON
+     */
+    public Object read(CatalogObjectMetadata metadata) {
+        return getter.apply(metadata);
+    }
+
+    /**
+     * @return whether the field is read from the key values of the object, which are only queried when needed
+     */
+    public boolean isReadFromKeyValues() {
+        return this == OBJECT_KEY_VALUES || this == PROJECT_NAME;
+    }
+
+    public static CatalogObjectMetadataField fromJsonName(String jsonName) {
+        return Arrays.stream(values())
+                     .filter(field -> field.jsonName.equals(jsonName.trim()))
+                     .findFirst()
+                     .orElseThrow(() -> new WrongParametersException("unknown field " + jsonName + ", the fields are " +
+                                                                     Arrays.stream(values())
+                                                                           .map(CatalogObjectMetadataField::getJsonName)
+                                                                           .collect(Collectors.joining(","))));
+    }
+
+    /**
+     * @return the distinct fields named in the given list, in their requested order
+     */
+    public static List<CatalogObjectMetadataField> fromJsonNames(Collection<String> jsonNames) {
+        return jsonNames.stream()
+                        .filter(jsonName -> !jsonName.trim().isEmpty())
+                        .map(CatalogObjectMetadataField::fromJsonName)
+                        .distinct()
+                        .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the JSON properties of the given metadata restricted to the given fields, a revision number which is
+     * not known is left out as in the full representation
+     */
+    public static Map<String, Object> select(CatalogObjectMetadata metadata,
+            Collection<CatalogObjectMetadataField> fields) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (CatalogObjectMetadataField field : fields) {
+            Object value = field.read(metadata);
+            if (value != null || field != REVISION_NUMBER) {
+                properties.put(field.jsonName, value);
+            }
+        }
+        return properties;
+    }
+}
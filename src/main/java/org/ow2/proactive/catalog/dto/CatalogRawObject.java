@@ -30,6 +30,8 @@ import java.util.List;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.EqualsAndHashCode;
 
 
@@ -42,23 +44,62 @@ public class CatalogRawObject extends CatalogObjectMetadata {
 
     private final byte[] rawObject;
 
+    private final Long payloadId;
+
+    private final Long rawObjectSize;
+
     public CatalogRawObject(CatalogObjectEntity catalogObject) {
-        super(catalogObject);
-        this.rawObject = catalogObject.getRevisions().first().getRawObject();
+        this(catalogObject.getRevisions().first());
     }
 
     public CatalogRawObject(CatalogObjectRevisionEntity catalogObject) {
+        this(catalogObject, catalogObject.getRawObject());
+    }
+
+    public CatalogRawObject(CatalogObjectRevisionEntity catalogObject, byte[] rawObject) {
+        super(catalogObject);
+        this.rawObject = rawObject;
+        this.payloadId = catalogObject.getPayloadId();
+        this.rawObjectSize = rawObject == null ? null : (long) rawObject.length;
+    }
+
+    /**
+     * Raw object whose content is not loaded, to be streamed from its payload
+     */
+    public CatalogRawObject(CatalogObjectRevisionEntity catalogObject, long payloadId, long rawObjectSize) {
         super(catalogObject);
-        this.rawObject = catalogObject.getRawObject();
+        this.rawObject = null;
+        this.payloadId = payloadId;
+        this.rawObjectSize = rawObjectSize;
     }
 
     public CatalogRawObject(String bucketName, String name, String kind, String contentType, long createdAt,
             String commitMessage, String username, List<Metadata> metadataList, byte[] rawObject, String extension) {
         super(bucketName, name, kind, contentType, createdAt, commitMessage, username, metadataList, extension);
         this.rawObject = rawObject;
+        this.payloadId = null;
+        this.rawObjectSize = null;
     }
 
     public byte[] getRawObject() {
         return rawObject;
     }
+
+    @JsonIgnore
+    public Long getPayloadId() {
+        return payloadId;
+    }
+
+    @JsonIgnore
+    public Long getRawObjectSize() {
+        return rawObjectSize;
+    }
+
+    /**
+     * @return whether the content is not loaded and must be read from the payload
+     */
+    @JsonIgnore
+    public boolean isStreamed() {
+        return rawObject == null && payloadId != null;
+    }
 }
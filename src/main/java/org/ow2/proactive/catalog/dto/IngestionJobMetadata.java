@@ -0,0 +1,109 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.springframework.hateoas.ResourceSupport;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class IngestionJobMetadata extends ResourceSupport {
+
+    @JsonProperty("job_id")
+    private final long jobId;
+
+    @JsonProperty("idempotency_key")
+    private final String idempotencyKey;
+
+    @JsonProperty("bucket_name")
+    private final String bucketName;
+
+    @JsonProperty
+    private final String name;
+
+    @JsonProperty("commit_message")
+    private final String commitMessage;
+
+    @JsonProperty
+    private final String username;
+
+    @JsonProperty
+    private final IngestionJobEntity.Status status;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @JsonProperty("submit_time")
+    private final LocalDateTime submitDateTime;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @JsonProperty("completion_time")
+    private final LocalDateTime completionDateTime;
+
+    @JsonProperty("commit_time_raw")
+    private final String commitTimeRaw;
+
+    @JsonProperty("error_message")
+    private final String errorMessage;
+
+    public IngestionJobMetadata(IngestionJobEntity job) {
+        this.jobId = job.getId();
+        this.idempotencyKey = job.getIdempotencyKey();
+        this.bucketName = job.getBucketName();
+        this.name = job.getName();
+        this.commitMessage = job.getCommitMessage();
+        this.username = job.getUsername();
+        this.status = job.getStatus();
+        this.submitDateTime = toLocalDateTime(job.getSubmitTime());
+        this.completionDateTime = job.getCompletionTime() == null ? null : toLocalDateTime(job.getCompletionTime());
+        this.commitTimeRaw = job.getCommitTime() == null ? null : String.valueOf(job.getCommitTime());
+        this.errorMessage = job.getErrorMessage();
+    }
+
+    @JsonIgnore
+    public LocalDateTime getCommitDateTime() {
+        return commitTimeRaw == null ? null : toLocalDateTime(Long.parseLong(commitTimeRaw));
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return Instant.ofEpochMilli(epochMilli).atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+}
@@ -62,7 +62,7 @@ public class CatalogObject {
 
     public CatalogObject(CatalogObjectEntity catalogObject) {
         this(catalogObject.getBucket().getBucketName(),
-             catalogObject.getId().getName(),
+             catalogObject.getName(),
              catalogObject.getKind(),
              catalogObject.getContentType(),
              catalogObject.getRevisions().first().getCommitTime(),
@@ -72,7 +72,7 @@ public class CatalogObject {
 
     public CatalogObject(CatalogObjectRevisionEntity catalogObject) {
         this(catalogObject.getCatalogObject().getBucket().getBucketName(),
-             catalogObject.getCatalogObject().getId().getName(),
+             catalogObject.getCatalogObject().getName(),
              catalogObject.getCatalogObject().getKind(),
              catalogObject.getCatalogObject().getContentType(),
              catalogObject.getCommitTime(),
@@ -25,11 +25,6 @@
  */
 package org.ow2.proactive.catalog.graphql.fetcher;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
-
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -46,16 +41,14 @@ import org.ow2.proactive.catalog.graphql.handler.FilterHandler;
 import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.repository.specification.catalogobject.DefaultSpecification;
-import org.ow2.proactive.catalog.rest.controller.CatalogObjectController;
-import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
-import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
+import org.ow2.proactive.catalog.repository.specification.catalogobject.FetchCatalogObjectSpecification;
+import org.ow2.proactive.catalog.util.LinkUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.hateoas.Link;
-import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -103,10 +96,12 @@ public class CatalogObjectFetcher implements DataFetcher<CatalogObjectConnection
                                                                                                                                    .map(optional -> optional.get())
                                                                                                                                    .findFirst();
 
-        Page<CatalogObjectRevisionEntity> catalogObjectEntitiesPage = specificationOptional.isPresent() ? catalogObjectRevisionRepository.findAll(specificationOptional.get(),
-                                                                                                                                                  pageable)
-                                                                                                        : catalogObjectRevisionRepository.findAll(new DefaultSpecification(),
-                                                                                                                                                  pageable);
+        Specification<CatalogObjectRevisionEntity> specification = specificationOptional.orElseGet(DefaultSpecification::new);
+        Page<CatalogObjectRevisionEntity> catalogObjectEntitiesPage = catalogObjectRevisionRepository.findAll(new FetchCatalogObjectSpecification(specification),
+                                                                                                              pageable);
+        if (catalogObjectEntitiesPage.hasContent()) {
+            catalogObjectRevisionRepository.fetchKeyValueMetadata(catalogObjectEntitiesPage.getContent());
+        }
 
         return CatalogObjectConnection.builder()
                                       .edges(catalogObjectMapper.apply(catalogObjectEntitiesPage.getContent().stream())
@@ -176,17 +171,8 @@ public class CatalogObjectFetcher implements DataFetcher<CatalogObjectConnection
         }
 
         public String generatLink(String bucketName, String name) {
-            try {
-                ControllerLinkBuilder controllerLinkBuilder = linkTo(methodOn(CatalogObjectController.class).getRaw("dummy",
-                                                                                                                    bucketName,
-                                                                                                                    URLEncoder.encode(name,
-                                                                                                                                      "UTF-8")));
-
-                return new Link(controllerLinkBuilder.toString()).withRel("content").getHref();
-            } catch (UnsupportedEncodingException | NotAuthenticatedException | AccessDeniedException e) {
-                log.error("{} cannot be encoded", name, e);
-            }
-            return null;
+            Link link = LinkUtil.createLink(bucketName, name);
+            return link == null ? null : link.getHref();
         }
     }
 
@@ -0,0 +1,71 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import java.io.OutputStream;
+
+import org.springframework.transaction.annotation.Transactional;
+
+
+/**
+ * Access to the raw content of the payloads through the JDBC driver, without going through the entities.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public interface CatalogObjectPayloadRepositoryCustom {
+
+    /**
+     * Copies the raw object of a payload to the given output stream, so that the memory used does not depend on the
+     * size of the content: the large object of its column is read through its binary stream, except on MySQL and
+     * MariaDB whose drivers load it whole, where its bytes are selected one chunk at a time in the same read only
+     * transaction.
+     *
+     * @return whether the payload exists
+     */
+    @Transactional(readOnly = true)
+    boolean copyRawObject(Long payloadId, OutputStream outputStream);
+
+    /**
+     * Same as {@link #copyRawObject(Long, OutputStream)} for the given range of bytes only, which is read from the
+     * database rather than skipped by the application.
+     *
+     * @param offset the position of the first byte to copy, starting from 0
+     * @param length the number of bytes to copy
+     * @return whether the payload exists
+     */
+    @Transactional(readOnly = true)
+    boolean copyRawObject(Long payloadId, long offset, long length, OutputStream outputStream);
+
+    /**
+     * Same as {@link #copyRawObject(Long, OutputStream)} for the stored gzip encoding of the raw object
+     *
+     * @return whether the payload has a gzip encoding
+     */
+    @Transactional(readOnly = true)
+    boolean copyGzipRawObject(Long payloadId, OutputStream outputStream);
+
+}
@@ -0,0 +1,182 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.util.StreamUtils;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class CatalogObjectPayloadRepositoryImpl implements CatalogObjectPayloadRepositoryCustom {
+
+    /**
+     * Number of bytes selected by each query on MySQL and MariaDB, whose drivers read a whole row, large objects
+     * included, as soon as it is fetched, even with a streaming result set
+     */
+    static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final String SELECT_RAW_OBJECT = "SELECT RAW_OBJECT FROM CATALOG_OBJECT_PAYLOAD WHERE ID = ?";
+
+    static final String SELECT_RAW_OBJECT_CHUNK = "SELECT SUBSTRING(RAW_OBJECT FROM ? FOR ?) " +
+                                                  "FROM CATALOG_OBJECT_PAYLOAD WHERE ID = ?";
+
+    private static final String SELECT_GZIP_RAW_OBJECT = "SELECT GZIP_RAW_OBJECT FROM CATALOG_OBJECT_GZIP_PAYLOAD " +
+                                                         "WHERE PAYLOAD_ID = ?";
+
+    private static final String SELECT_GZIP_RAW_OBJECT_CHUNK = "SELECT SUBSTRING(GZIP_RAW_OBJECT FROM ? FOR ?) " +
+                                                               "FROM CATALOG_OBJECT_GZIP_PAYLOAD WHERE PAYLOAD_ID = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean copyRawObject(Long payloadId, OutputStream outputStream) {
+        return copy(SELECT_RAW_OBJECT, SELECT_RAW_OBJECT_CHUNK, payloadId, 0, null, outputStream);
+    }
+
+    @Override
+    public boolean copyRawObject(Long payloadId, long offset, long length, OutputStream outputStream) {
+        return copy(SELECT_RAW_OBJECT, SELECT_RAW_OBJECT_CHUNK, payloadId, offset, length, outputStream);
+    }
+
+    @Override
+    public boolean copyGzipRawObject(Long payloadId, OutputStream outputStream) {
+        return copy(SELECT_GZIP_RAW_OBJECT, SELECT_GZIP_RAW_OBJECT_CHUNK, payloadId, 0, null, outputStream);
+    }
+
+    private boolean copy(String select, String selectChunk, Long payloadId, long offset, Long length,
+            OutputStream outputStream) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try {
+                if (isMySql(connection)) {
+                    return copyInChunks(connection,
+                                        selectChunk,
+                                        payloadId,
+                                        offset,
+                                        length == null ? Long.MAX_VALUE : length,
+                                        outputStream);
+                }
+                return copyFromLargeObject(connection, select, payloadId, offset, length, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        String productName = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        return productName.contains("mysql") || productName.contains("mariadb");
+    }
+
+    /**
+     * Reads the content through the binary stream of the large object, which HSQLDB reads lazily
+     */
+    private static boolean copyFromLargeObject(Connection connection, String select, Long payloadId, long offset,
+            Long length, OutputStream outputStream) throws SQLException, IOException {
+        try (PreparedStatement statement = connection.prepareStatement(select)) {
+            statement.setLong(1, payloadId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                if (length == null) {
+                    try (InputStream rawObject = resultSet.getBinaryStream(1)) {
+                        if (rawObject != null) {
+                            StreamUtils.copy(rawObject, outputStream);
+                        }
+                    }
+                } else {
+                    Blob rawObject = resultSet.getBlob(1);
+                    if (rawObject != null) {
+                        // Blob positions start from 1
+                        try (InputStream range = rawObject.getBinaryStream(offset + 1, length)) {
+                            StreamUtils.copy(range, outputStream);
+                        } finally {
+                            rawObject.free();
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Selects the content one chunk of {@link #CHUNK_SIZE} bytes at a time, until a chunk is shorter than requested
+     *
+     * @return whether the payload exists, false as well if it is deleted before the last chunk is read
+     */
+    static boolean copyInChunks(Connection connection, String selectChunk, Long payloadId, long offset, long length,
+            OutputStream outputStream) throws SQLException, IOException {
+        try (PreparedStatement statement = connection.prepareStatement(selectChunk)) {
+            statement.setLong(3, payloadId);
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                int chunkSize = (int) Math.min(CHUNK_SIZE, remaining);
+                // SQL positions start from 1
+                statement.setLong(1, position + 1);
+                statement.setInt(2, chunkSize);
+                int copied;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    try (InputStream chunk = resultSet.getBinaryStream(1)) {
+                        if (chunk == null) {
+                            return true;
+                        }
+                        copied = StreamUtils.copy(chunk, outputStream);
+                    }
+                }
+                if (copied < chunkSize) {
+                    break;
+                }
+                position += copied;
+                remaining -= copied;
+            }
+            return true;
+        }
+    }
+
+}
@@ -25,12 +25,15 @@
  */
 package org.ow2.proactive.catalog.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.ow2.proactive.catalog.service.model.BucketContentVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QueryDslPredicateExecutor;
 
@@ -39,11 +42,27 @@ import org.springframework.data.querydsl.QueryDslPredicateExecutor;
  * @author ActiveEon Team
  */
 public interface CatalogObjectRepository
-        extends JpaRepository<CatalogObjectEntity, CatalogObjectEntity.CatalogObjectEntityKey>,
-        JpaSpecificationExecutor<CatalogObjectEntity>, QueryDslPredicateExecutor<CatalogObjectEntity> {
+        extends JpaRepository<CatalogObjectEntity, Long>,
+        JpaSpecificationExecutor<CatalogObjectEntity>, QueryDslPredicateExecutor<CatalogObjectEntity>,
+        CatalogObjectRepositoryCustom {
 
-    @EntityGraph("catalogObject.withRevisions")
-    CatalogObjectEntity readCatalogObjectRevisionsById(CatalogObjectEntity.CatalogObjectEntityKey key);
+    CatalogObjectEntity findOneByBucketIdAndName(Long bucketId, String name);
+
+    /**
+     * Increments the revision counters of several objects in one statement, the object rows stay locked until the
+     * end of the transaction
+     *
+     * @return the number of updated objects, the objects which are not stored yet are not counted
+     */
+    @Modifying
+    @Query(value = "UPDATE CatalogObjectEntity cos SET cos.lastRevisionNumber = COALESCE(cos.lastRevisionNumber, 0) + 1 WHERE cos.id IN ?1")
+    int incrementLastRevisionNumbers(Collection<Long> ids);
+
+    @Query(value = "SELECT cos.id, cos.lastRevisionNumber, cos.lastCommitTime FROM CatalogObjectEntity cos WHERE cos.id IN ?1")
+    List<Object[]> findLastRevisionNumbersAndCommitTimes(Collection<Long> ids);
+
+    @Query(value = "SELECT NEW org.ow2.proactive.catalog.service.model.BucketContentVersion(COUNT(cos), MAX(cos.lastCommitTime), MAX(cos.lastUpdateTime)) FROM CatalogObjectEntity cos WHERE cos.bucket.id = ?1")
+    BucketContentVersion findBucketContentVersion(Long bucketId);
 
     @Query(value = "SELECT DISTINCT cos.kind FROM CatalogObjectEntity cos")
     Set<String> findAllKinds();
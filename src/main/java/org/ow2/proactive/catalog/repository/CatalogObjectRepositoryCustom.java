@@ -0,0 +1,75 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+
+
+/**
+ * Set-based operations of {@link CatalogObjectRepository} which cannot be expressed as a single query method.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public interface CatalogObjectRepositoryCustom {
+
+    /**
+     * Changes the kind and/or the content type of the objects of a bucket with a single UPDATE statement. The
+     * updated objects which are managed by the persistence context are detached, the other entities stay managed.
+     *
+     * @param bucketId the bucket of the objects to update
+     * @param kindPrefix when present, only the objects of this kind or of one of its sub kinds are updated, and
+     *                   a new kind replaces this prefix instead of the whole kind
+     * @param kindSeparator the separator of the sub kinds
+     * @param names when not empty, only the objects with one of these names are updated
+     * @param kind the new kind (or kind prefix), if any
+     * @param contentType the new content type, if any
+     * @return the number of updated objects
+     * @throws IllegalArgumentException when neither a kind prefix nor names are given
+     */
+    int updateKindAndContentType(Long bucketId, Optional<String> kindPrefix, String kindSeparator,
+            Collection<String> names, Optional<String> kind, Optional<String> contentType);
+
+    /**
+     * Copies the objects of a bucket into another bucket, by batches of objects persisted along with their
+     * revisions and metadata. The copied revisions share the payloads of the original ones, only the object,
+     * revision and metadata rows are duplicated.
+     *
+     * @param sourceBucketId the bucket to copy the objects from
+     * @param targetBucketId the bucket to copy the objects to, which must not contain objects with the same names
+     * @param headRevisionsOnly whether to copy the last revision of each object only
+     * @param copiedKeyValues gives the metadata of a copied revision from the metadata of the original one
+     * @return the number of copied objects
+     */
+    int cloneCatalogObjects(Long sourceBucketId, Long targetBucketId, boolean headRevisionsOnly,
+            UnaryOperator<List<KeyValueLabelMetadataEntity>> copiedKeyValues);
+
+}
@@ -0,0 +1,244 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class CatalogObjectRepositoryImpl implements CatalogObjectRepositoryCustom {
+
+    private static final char LIKE_ESCAPE_CHARACTER = '!';
+
+    private static final int CLONED_OBJECTS_PER_BATCH = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateKindAndContentType(Long bucketId, Optional<String> kindPrefix, String kindSeparator,
+            Collection<String> names, Optional<String> kind, Optional<String> contentType) {
+        if (!kindPrefix.isPresent() && names.isEmpty()) {
+            throw new IllegalArgumentException("the objects to update should be filtered by kind prefix or names");
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<CatalogObjectEntity> update = criteriaBuilder.createCriteriaUpdate(CatalogObjectEntity.class);
+        Root<CatalogObjectEntity> catalogObject = update.from(CatalogObjectEntity.class);
+        Path<String> kindPath = catalogObject.get("kind");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(catalogObject.get("bucket").get("id"), bucketId));
+        kindPrefix.ifPresent(prefix -> predicates.add(criteriaBuilder.or(criteriaBuilder.equal(kindPath, prefix),
+                                                                         criteriaBuilder.like(kindPath,
+                                                                                              escapeLikePattern(prefix +
+                                                                                                                kindSeparator) +
+                                                                                                        "%",
+                                                                                              LIKE_ESCAPE_CHARACTER))));
+        if (!names.isEmpty()) {
+            predicates.add(catalogObject.get("name").in(names));
+        }
+
+        if (kind.isPresent()) {
+            if (kindPrefix.isPresent()) {
+                // keeps the sub kinds, workflow/pca/a becomes new/prefix/a when workflow/pca is renamed new/prefix
+                update.set(kindPath,
+                           criteriaBuilder.concat(kind.get(),
+                                                  criteriaBuilder.substring(kindPath,
+                                                                            kindPrefix.get().length() + 1)));
+            } else {
+                update.set(kindPath, kind.get());
+            }
+        }
+        contentType.ifPresent(newContentType -> update.set(catalogObject.<String> get("contentType"),
+                                                           newContentType));
+        update.set(catalogObject.<Long> get("lastUpdateTime"), System.currentTimeMillis());
+        update.where(predicates.toArray(new Predicate[predicates.size()]));
+
+        // pending changes are written first, then only the managed objects matched by the update are dropped,
+        // so that they are read again with their new kind and content type
+        entityManager.flush();
+        int updatedObjects = entityManager.createQuery(update).executeUpdate();
+        detachUpdatedCatalogObjects(bucketId, kindPrefix, kindSeparator, names);
+        return updatedObjects;
+    }
+
+    private void detachUpdatedCatalogObjects(Long bucketId, Optional<String> kindPrefix, String kindSeparator,
+            Collection<String> names) {
+        Collection<?> managedEntities = entityManager.unwrap(SessionImplementor.class)
+                                                     .getPersistenceContext()
+                                                     .getEntitiesByKey()
+                                                     .values();
+        List<CatalogObjectEntity> updatedCatalogObjects = managedEntities.stream()
+                                                                         .filter(CatalogObjectEntity.class::isInstance)
+                                                                         .map(CatalogObjectEntity.class::cast)
+                                                                         .filter(catalogObject -> bucketId.equals(catalogObject.getBucket()
+                                                                                                                               .getId()))
+                                                                         .filter(catalogObject -> !kindPrefix.isPresent() ||
+                                                                                                  catalogObject.getKind()
+                                                                                                               .equals(kindPrefix.get()) ||
+                                                                                                  catalogObject.getKind()
+                                                                                                               .startsWith(kindPrefix.get() +
+                                                                                                                           kindSeparator))
+                                                                         .filter(catalogObject -> names.isEmpty() ||
+                                                                                                  names.contains(catalogObject.getName()))
+                                                                         .collect(Collectors.toList());
+        updatedCatalogObjects.forEach(entityManager::detach);
+    }
+
+    @Override
+    public int cloneCatalogObjects(Long sourceBucketId, Long targetBucketId, boolean headRevisionsOnly,
+            UnaryOperator<List<KeyValueLabelMetadataEntity>> copiedKeyValues) {
+        String revisionFilter = headRevisionsOnly ? " AND cor.commitTime = cos.lastCommitTime" : "";
+
+        entityManager.flush();
+        int clonedObjects = 0;
+        long lastSourceObjectId = 0;
+        List<CatalogObjectEntity> sourceObjects;
+        do {
+            sourceObjects = entityManager.createQuery("SELECT cos FROM CatalogObjectEntity cos WHERE cos.bucket.id = :sourceBucketId AND cos.id > :lastSourceObjectId ORDER BY cos.id",
+                                                      CatalogObjectEntity.class)
+                                         .setParameter("sourceBucketId", sourceBucketId)
+                                         .setParameter("lastSourceObjectId", lastSourceObjectId)
+                                         .setMaxResults(CLONED_OBJECTS_PER_BATCH)
+                                         .getResultList();
+            if (sourceObjects.isEmpty()) {
+                break;
+            }
+            cloneCatalogObjectBatch(sourceObjects,
+                                    entityManager.getReference(BucketEntity.class, targetBucketId),
+                                    revisionFilter,
+                                    copiedKeyValues);
+            clonedObjects += sourceObjects.size();
+            lastSourceObjectId = sourceObjects.get(sourceObjects.size() - 1).getId();
+
+            // the copies are inserted in JDBC batches, then dropped from the session so that it does not grow
+            // with the size of the bucket
+            entityManager.flush();
+            entityManager.clear();
+        } while (sourceObjects.size() == CLONED_OBJECTS_PER_BATCH);
+        return clonedObjects;
+    }
+
+    /**
+     * Persists a copy of the given objects, of their revisions and of their key values. The ids of the copies come
+     * from their generators, whether the dialect backs them with sequences or with tables, and the copied revisions
+     * reference the payloads of the original ones without loading them. Their content hash is not copied, since
+     * the content of a workflow holds the generic information of its bucket: committing the same content again
+     * creates a revision with the generic information of the target bucket.
+     */
+    private void cloneCatalogObjectBatch(List<CatalogObjectEntity> sourceObjects, BucketEntity targetBucket,
+            String revisionFilter, UnaryOperator<List<KeyValueLabelMetadataEntity>> copiedKeyValues) {
+        List<Long> sourceObjectIds = sourceObjects.stream().map(CatalogObjectEntity::getId).collect(Collectors.toList());
+        List<CatalogObjectRevisionEntity> sourceRevisions = entityManager.createQuery("SELECT cor FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject cos WHERE cos.id IN :sourceObjectIds" +
+                                                                                      revisionFilter,
+                                                                                      CatalogObjectRevisionEntity.class)
+                                                                         .setParameter("sourceObjectIds",
+                                                                                       sourceObjectIds)
+                                                                         .getResultList();
+        List<Object[]> sourceKeyValues = entityManager.createQuery("SELECT cor.id, kv.key, kv.value, kv.label FROM KeyValueLabelMetadataEntity kv JOIN kv.catalogObjectRevision cor JOIN cor.catalogObject cos WHERE cos.id IN :sourceObjectIds" +
+                                                                   revisionFilter + " ORDER BY kv.id",
+                                                                   Object[].class)
+                                                      .setParameter("sourceObjectIds", sourceObjectIds)
+                                                      .getResultList();
+
+        Map<Long, CatalogObjectEntity> copiedObjects = new HashMap<>();
+        for (CatalogObjectEntity sourceObject : sourceObjects) {
+            copiedObjects.put(sourceObject.getId(),
+                              CatalogObjectEntity.builder()
+                                                 .name(sourceObject.getName())
+                                                 .bucket(targetBucket)
+                                                 .contentType(sourceObject.getContentType())
+                                                 .kind(sourceObject.getKind())
+                                                 .extension(sourceObject.getExtension())
+                                                 .lastCommitTime(sourceObject.getLastCommitTime())
+                                                 .lastRevisionNumber(sourceObject.getLastRevisionNumber())
+                                                 .lastUpdateTime(sourceObject.getLastUpdateTime())
+                                                 .build());
+        }
+
+        Map<Long, CatalogObjectRevisionEntity> copiedRevisions = new HashMap<>();
+        for (CatalogObjectRevisionEntity sourceRevision : sourceRevisions) {
+            CatalogObjectEntity copiedObject = copiedObjects.get(sourceRevision.getCatalogObject().getId());
+            CatalogObjectRevisionEntity copiedRevision = CatalogObjectRevisionEntity.builder()
+                                                                                    .commitMessage(sourceRevision.getCommitMessage())
+                                                                                    .username(sourceRevision.getUsername())
+                                                                                    .commitTime(sourceRevision.getCommitTime())
+                                                                                    .revisionNumber(sourceRevision.getRevisionNumber())
+                                                                                    .catalogObject(copiedObject)
+                                                                                    .payload(sourceRevision.getPayload())
+                                                                                    .build();
+            copiedObject.getRevisions().add(copiedRevision);
+            copiedRevisions.put(sourceRevision.getId(), copiedRevision);
+        }
+
+        Map<Long, List<KeyValueLabelMetadataEntity>> keyValuesBySourceRevision = new HashMap<>();
+        for (Object[] sourceKeyValue : sourceKeyValues) {
+            keyValuesBySourceRevision.computeIfAbsent((Long) sourceKeyValue[0], id -> new ArrayList<>())
+                                     .add(new KeyValueLabelMetadataEntity((String) sourceKeyValue[1],
+                                                                          (String) sourceKeyValue[2],
+                                                                          (String) sourceKeyValue[3]));
+        }
+        copiedRevisions.forEach((sourceRevisionId,
+                copiedRevision) -> copiedKeyValues.apply(keyValuesBySourceRevision.getOrDefault(sourceRevisionId,
+                                                                                                Collections.emptyList()))
+                                                  .forEach(copiedRevision::addKeyValue));
+
+        // the revisions and their key values are persisted along with their object
+        copiedObjects.values().forEach(entityManager::persist);
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace(String.valueOf(LIKE_ESCAPE_CHARACTER), "" + LIKE_ESCAPE_CHARACTER + LIKE_ESCAPE_CHARACTER)
+                    .replace("%", LIKE_ESCAPE_CHARACTER + "%")
+                    .replace("_", LIKE_ESCAPE_CHARACTER + "_");
+    }
+
+}
@@ -25,41 +25,122 @@
  */
 package org.ow2.proactive.catalog.repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.service.model.CatalogObjectRevisionSummary;
+import org.ow2.proactive.catalog.service.model.RevisionKeyValue;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 
 /**
  * @author ActiveEon Team
  * @since 25/06/2017
  */
-public interface CatalogObjectRevisionRepository extends JpaRepository<CatalogObjectRevisionEntity, UUID>,
+public interface CatalogObjectRevisionRepository extends JpaRepository<CatalogObjectRevisionEntity, Long>,
         JpaSpecificationExecutor<CatalogObjectRevisionEntity> {
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.lastCommitTime = cor.commitTime")
-    List<CatalogObjectRevisionEntity> findDefaultCatalogObjectsInBucket(List<String> bucketNames);
+    /**
+     * Selects the columns listed for a revision, joined to the one of its object and of its bucket named "co" and
+     * "b", without loading the entities
+     */
+    String SELECT_REVISION_SUMMARY = "SELECT NEW org.ow2.proactive.catalog.service.model.CatalogObjectRevisionSummary(cor.id, b.bucketName, co.name, co.kind, co.contentType, cor.commitTime, cor.commitMessage, cor.username, co.extension, cor.revisionNumber, co.lastUpdateTime) FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co JOIN co.bucket b ";
+
+    @Query(SELECT_REVISION_SUMMARY + "WHERE b.bucketName in ?1 AND co.lastCommitTime = cor.commitTime")
+    List<CatalogObjectRevisionSummary> findDefaultCatalogObjectSummariesInBucket(List<String> bucketNames);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND lower(cor.catalogObject.kind) LIKE lower(concat(?2, '%')) AND cor.catalogObject.lastCommitTime = cor.commitTime")
-    List<CatalogObjectRevisionEntity> findDefaultCatalogObjectsOfKindInBucket(List<String> bucketNames, String kind);
+    @Query(SELECT_REVISION_SUMMARY +
+           "WHERE b.bucketName in ?1 AND lower(co.kind) LIKE lower(concat(?2, '%')) AND co.lastCommitTime = cor.commitTime")
+    List<CatalogObjectRevisionSummary> findDefaultCatalogObjectSummariesOfKindInBucket(List<String> bucketNames,
+            String kind);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND lower(cor.catalogObject.kind) LIKE lower(concat(?2, '%')) AND lower(cor.catalogObject.contentType) = ?3 AND cor.catalogObject.lastCommitTime = cor.commitTime")
-    List<CatalogObjectRevisionEntity> findDefaultCatalogObjectsOfKindAndContentTypeInBucket(List<String> bucketNames,
-            String kind, String contentType);
+    @Query(SELECT_REVISION_SUMMARY +
+           "WHERE b.bucketName in ?1 AND lower(co.kind) LIKE lower(concat(?2, '%')) AND lower(co.contentType) = ?3 AND co.lastCommitTime = cor.commitTime")
+    List<CatalogObjectRevisionSummary> findDefaultCatalogObjectSummariesOfKindAndContentTypeInBucket(
+            List<String> bucketNames, String kind, String contentType);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND lower(cor.catalogObject.contentType) = ?2 AND cor.catalogObject.lastCommitTime = cor.commitTime")
-    List<CatalogObjectRevisionEntity> findDefaultCatalogObjectsOfContentTypeInBucket(List<String> bucketNames,
+    @Query(SELECT_REVISION_SUMMARY +
+           "WHERE b.bucketName in ?1 AND lower(co.contentType) = ?2 AND co.lastCommitTime = cor.commitTime")
+    List<CatalogObjectRevisionSummary> findDefaultCatalogObjectSummariesOfContentTypeInBucket(List<String> bucketNames,
             String contentType);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.id.name = ?2 AND cor.catalogObject.lastCommitTime = cor.commitTime")
+    /**
+     * Hint of the number of rows read at once by the cursors of the streaming queries. HSQLDB and the MariaDB driver
+     * stream the rows with a positive fetch size. MySQL Connector/J ignores it and reads the whole result unless the
+     * connection URL sets useCursorFetch=true; its Integer.MIN_VALUE streaming mode is not used since the other drivers
+     * reject a negative fetch size.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = STREAM_FETCH_SIZE))
+    @Query(SELECT_REVISION_SUMMARY + "WHERE b.bucketName in ?1 AND co.lastCommitTime = cor.commitTime")
+    Stream<CatalogObjectRevisionSummary> streamDefaultCatalogObjectSummariesInBucket(List<String> bucketNames);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = STREAM_FETCH_SIZE))
+    @Query(SELECT_REVISION_SUMMARY +
+           "WHERE b.bucketName in ?1 AND lower(co.kind) LIKE lower(concat(?2, '%')) AND co.lastCommitTime = cor.commitTime")
+    Stream<CatalogObjectRevisionSummary> streamDefaultCatalogObjectSummariesOfKindInBucket(List<String> bucketNames,
+            String kind);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = STREAM_FETCH_SIZE))
+    @Query(SELECT_REVISION_SUMMARY +
+           "WHERE b.bucketName in ?1 AND lower(co.kind) LIKE lower(concat(?2, '%')) AND lower(co.contentType) = ?3 AND co.lastCommitTime = cor.commitTime")
+    Stream<CatalogObjectRevisionSummary> streamDefaultCatalogObjectSummariesOfKindAndContentTypeInBucket(
+            List<String> bucketNames, String kind, String contentType);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = STREAM_FETCH_SIZE))
+    @Query(SELECT_REVISION_SUMMARY +
+           "WHERE b.bucketName in ?1 AND lower(co.contentType) = ?2 AND co.lastCommitTime = cor.commitTime")
+    Stream<CatalogObjectRevisionSummary> streamDefaultCatalogObjectSummariesOfContentTypeInBucket(
+            List<String> bucketNames, String contentType);
+
+    @Query("SELECT NEW org.ow2.proactive.catalog.service.model.RevisionKeyValue(kv.catalogObjectRevision.id, kv.key, kv.value, kv.label) FROM KeyValueLabelMetadataEntity kv WHERE kv.catalogObjectRevision.id in ?1 ORDER BY kv.id")
+    List<RevisionKeyValue> findKeyValuesByRevisionIds(Collection<Long> revisionIds);
+
+    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.name = ?2 AND cor.catalogObject.lastCommitTime = cor.commitTime")
     CatalogObjectRevisionEntity findDefaultCatalogObjectByNameInBucket(List<String> bucketNames, String name);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.id.name = ?2 AND cor.commitTime = ?3")
+    @Query(SELECT_REVISION_SUMMARY + "WHERE co.bucket.id = ?1 AND co.name = ?2 ORDER BY cor.commitTime DESC, cor.revisionNumber DESC")
+    List<CatalogObjectRevisionSummary> findRevisionSummariesOfCatalogObject(Long bucketId, String name);
+
+    /**
+     * Same as {@link #findRevisionSummariesOfCatalogObject(Long, String)}, restricted to the given page of the
+     * history
+     */
+    @Query(SELECT_REVISION_SUMMARY + "WHERE co.bucket.id = ?1 AND co.name = ?2 ORDER BY cor.commitTime DESC, cor.revisionNumber DESC")
+    List<CatalogObjectRevisionSummary> findRevisionSummariesOfCatalogObject(Long bucketId, String name,
+            Pageable pageable);
+
+    /**
+     * Fetches the head revisions with their object, bucket and key values, so that no further query is issued
+     * when they are read
+     */
+    @Query("SELECT DISTINCT cor FROM CatalogObjectRevisionEntity cor JOIN FETCH cor.catalogObject co JOIN FETCH co.bucket b LEFT JOIN FETCH cor.keyValueMetadataList WHERE b.bucketName in ?1 AND co.name in ?2 AND co.lastCommitTime = cor.commitTime")
+    List<CatalogObjectRevisionEntity> findDefaultCatalogObjectsByNamesInBucket(List<String> bucketNames,
+            Collection<String> names);
+
+    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.name = ?2 AND cor.commitTime = ?3")
     CatalogObjectRevisionEntity findCatalogObjectRevisionByCommitTime(List<String> bucketNames, String name,
             long commitTime);
 
+    /**
+     * Initializes the key values of the given revisions already loaded in the persistence context
+     */
+    @Query("SELECT DISTINCT cor FROM CatalogObjectRevisionEntity cor LEFT JOIN FETCH cor.keyValueMetadataList WHERE cor in ?1")
+    List<CatalogObjectRevisionEntity> fetchKeyValueMetadata(Collection<CatalogObjectRevisionEntity> revisions);
+
+    long countByCatalogObject(CatalogObjectEntity catalogObject);
+
+    @Query("SELECT DISTINCT cor.payload.id FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.id = ?1")
+    List<Long> findPayloadIdsByCatalogObjectId(Long catalogObjectId);
+
 }
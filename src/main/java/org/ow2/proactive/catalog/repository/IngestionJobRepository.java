@@ -0,0 +1,94 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public interface IngestionJobRepository extends JpaRepository<IngestionJobEntity, Long> {
+
+    IngestionJobEntity findOneByIdempotencyKey(String idempotencyKey);
+
+    long countByStatusIn(Collection<Status> statuses);
+
+    /**
+     * Finds the jobs of the partition in the given status, except those following a job of the same object which
+     * is still in one of the pending statuses, whichever node holds it
+     */
+    @Query(value = "SELECT job FROM IngestionJobEntity job WHERE job.status = ?1 AND MOD(job.objectHash, ?3) = ?4 AND NOT EXISTS (SELECT older.id FROM IngestionJobEntity older WHERE older.objectHash = job.objectHash AND older.bucketName = job.bucketName AND older.name = job.name AND older.status IN ?2 AND older.id < job.id) ORDER BY job.id")
+    List<IngestionJobEntity> findByStatusInPartition(Status status, Collection<Status> pendingStatuses, int partitions,
+            int partition, Pageable pageable);
+
+    /**
+     * Moves a job to the new status and gives it to the owner until the lease expiration time, provided that
+     * the job is still in the expected status
+     */
+    @Modifying
+    @Query(value = "UPDATE IngestionJobEntity job SET job.status = ?3, job.owner = ?4, job.leaseExpirationTime = ?5 WHERE job.id = ?1 AND job.status = ?2")
+    int claim(Long id, Status expectedStatus, Status newStatus, String owner, long leaseExpirationTime);
+
+    @Modifying
+    @Query(value = "UPDATE IngestionJobEntity job SET job.leaseExpirationTime = ?3 WHERE job.status = ?1 AND job.owner = ?2")
+    int renewLeases(Status status, String owner, long leaseExpirationTime);
+
+    /**
+     * Gives back the jobs of the owner, whatever their lease
+     */
+    @Modifying
+    @Query(value = "UPDATE IngestionJobEntity job SET job.status = ?2, job.owner = NULL, job.leaseExpirationTime = NULL WHERE job.status = ?1 AND job.owner = ?3")
+    int releaseOwned(Status expectedStatus, Status newStatus, String owner);
+
+    /**
+     * Gives back the jobs whose lease expired before the given time, or which were claimed without lease
+     */
+    @Modifying
+    @Query(value = "UPDATE IngestionJobEntity job SET job.status = ?2, job.owner = NULL, job.leaseExpirationTime = NULL WHERE job.status = ?1 AND (job.leaseExpirationTime IS NULL OR job.leaseExpirationTime < ?3)")
+    int releaseExpired(Status expectedStatus, Status newStatus, long time);
+
+    @Modifying
+    @Query(value = "UPDATE IngestionJobEntity job SET job.status = ?2, job.commitTime = ?3, job.errorMessage = ?4, job.completionTime = ?5, job.rawObject = NULL WHERE job.id = ?1")
+    int complete(Long id, Status status, Long commitTime, String errorMessage, Long completionTime);
+
+    /**
+     * Deletes the jobs in one of the given statuses which completed before the given time
+     */
+    @Modifying
+    @Query(value = "DELETE FROM IngestionJobEntity job WHERE job.status IN ?1 AND job.completionTime < ?2")
+    int deleteCompletedBefore(Collection<Status> statuses, long time);
+
+}
@@ -31,28 +31,28 @@ import java.util.TreeSet;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
-import javax.persistence.Embeddable;
-import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
 import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
-import javax.persistence.MapsId;
-import javax.persistence.NamedAttributeNode;
-import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.NoArgsConstructor;
 
 
 /**
@@ -63,52 +63,31 @@ import lombok.NoArgsConstructor;
 @Data
 @BatchSize(size = 25)
 @Entity
-@NamedEntityGraph(name = "catalogObject.withRevisions", attributeNodes = { @NamedAttributeNode("revisions") })
-@Table(name = "CATALOG_OBJECT", indexes = { @Index(columnList = "LAST_COMMIT_TIME") })
+@Table(name = "CATALOG_OBJECT", uniqueConstraints = @UniqueConstraint(name = CatalogObjectEntity.BUCKET_AND_NAME_UNIQUE_CONSTRAINT, columnNames = { "BUCKET_ID",
+                                                                                                                                                  "NAME" }), indexes = { @Index(columnList = "LAST_COMMIT_TIME") })
 public class CatalogObjectEntity implements Serializable {
 
-    @AllArgsConstructor
-    @Data
-    @Embeddable
-    @NoArgsConstructor
-    public static class CatalogObjectEntityKey implements Serializable {
-
-        @Column(name = "BUCKET_ID")
-        private Long bucketId;
-
-        @Column(name = "NAME", nullable = false)
-        private String name;
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o)
-                return true;
-            if (o == null || getClass() != o.getClass())
-                return false;
-            if (!super.equals(o))
-                return false;
-
-            CatalogObjectEntityKey that = (CatalogObjectEntityKey) o;
-
-            if (bucketId != null ? !bucketId.equals(that.bucketId) : that.bucketId != null)
-                return false;
-            return name.equals(that.name);
-        }
-
-        @Override
-        public int hashCode() {
-            int result = super.hashCode();
-            result = 31 * result + (bucketId != null ? bucketId.hashCode() : 0);
-            result = 31 * result + name.hashCode();
-            return result;
-        }
-    }
-
-    @EmbeddedId
-    private CatalogObjectEntityKey id;
+    /**
+     * Name of the unique (BUCKET_ID, NAME) constraint, shared with the migration that creates it. It keeps the name
+     * Hibernate used to generate so that the constraint of existing schemas is still recognized by the schema update.
+     */
+    public static final String BUCKET_AND_NAME_UNIQUE_CONSTRAINT = "UKbil9ky6rydy4s5s4gqsdx76ft";
+
+    /**
+     * Surrogate key referenced by the revisions, so that renaming or moving an object only updates its own row
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CATALOG_OBJECT_SEQUENCE")
+    @GenericGenerator(name = "CATALOG_OBJECT_SEQUENCE", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = { @Parameter(name = "sequence_name", value = "CATALOG_OBJECT_SEQUENCE"),
+                                                                                                                                      @Parameter(name = "initial_value", value = "1"),
+                                                                                                                                      @Parameter(name = "increment_size", value = "1") })
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "NAME", nullable = false)
+    private String name;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @MapsId("bucketId")
     @JoinColumn(name = "BUCKET_ID", nullable = false)
     private BucketEntity bucket;
 
@@ -132,6 +111,19 @@ public class CatalogObjectEntity implements Serializable {
     @Column(name = "LAST_COMMIT_TIME")
     private long lastCommitTime;
 
+    /**
+     * Number of the last revision of this object, null for the objects created before revisions were numbered
+     */
+    @Column(name = "LAST_REVISION_NUMBER")
+    private Long lastRevisionNumber;
+
+    /**
+     * Time of the last change of the name, bucket, kind or content type of this object, which do not create
+     * a revision. Null when they never changed.
+     */
+    @Column(name = "LAST_UPDATE_TIME")
+    private Long lastUpdateTime;
+
     public CatalogObjectEntity() {
         revisions = new TreeSet<>();
     }
@@ -152,19 +144,20 @@ public class CatalogObjectEntity implements Serializable {
 
         CatalogObjectEntity that = (CatalogObjectEntity) o;
 
-        return id.equals(that.id);
+        return id != null ? id.equals(that.id) : that.id == null;
     }
 
     @Override
     public int hashCode() {
-        int result = super.hashCode();
-        result = 31 * result + id.hashCode();
-        return result;
+        // the id is only generated when the object is persisted, it must not change the hash of a stored object
+        return super.hashCode();
     }
 
     @Override
     public String toString() {
-        return "CatalogObjectEntity{" + "id=" + id + ", bucket=" + bucket + ", contentType='" + contentType + '\'' +
-               ", kind='" + kind + '\'' + ", lastCommitTime=" + lastCommitTime + '}';
+        return "CatalogObjectEntity{" + "id=" + id + ", name='" + name + '\'' + ", bucket=" + bucket +
+               ", contentType='" + contentType + '\'' +
+               ", kind='" + kind + '\'' + ", lastCommitTime=" + lastCommitTime + ", lastRevisionNumber=" +
+               lastRevisionNumber + '}';
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Gzip encoding of the raw content of a payload, computed once when the payload is committed and sent as is to
+ * the clients accepting it. Kept apart from the payload so that loading one does not load the other.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "CATALOG_OBJECT_GZIP_PAYLOAD")
+public class CatalogObjectGzipPayloadEntity implements Serializable {
+
+    @Id
+    @Column(name = "PAYLOAD_ID")
+    private Long payloadId;
+
+    @Lob
+    @Column(name = "GZIP_RAW_OBJECT", length = Integer.MAX_VALUE)
+    private byte[] gzipRawObject;
+
+    /**
+     * Length of the gzip encoding in bytes, so that it can be streamed without being loaded.
+     * Null for the encodings stored before the length was recorded.
+     */
+    @Column(name = "GZIP_RAW_OBJECT_SIZE")
+    private Long gzipRawObjectSize;
+
+    public CatalogObjectGzipPayloadEntity(Long payloadId, byte[] gzipRawObject) {
+        this.payloadId = payloadId;
+        this.gzipRawObject = gzipRawObject;
+        this.gzipRawObjectSize = gzipRawObject == null ? null : (long) gzipRawObject.length;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogObjectGzipPayloadEntity{" + "payloadId=" + payloadId + ", size=" +
+               (gzipRawObject == null ? 0 : gzipRawObject.length) + '}';
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Raw content of one or several revisions. A payload is never modified once stored: revisions sharing it, like
+ * the revisions of a cloned bucket, get a new payload when they are committed again.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "CATALOG_OBJECT_PAYLOAD")
+public class CatalogObjectPayloadEntity implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CATALOG_OBJECT_PAYLOAD_SEQUENCE")
+    @GenericGenerator(name = "CATALOG_OBJECT_PAYLOAD_SEQUENCE", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = { @Parameter(name = "sequence_name", value = "CATALOG_OBJECT_PAYLOAD_SEQUENCE"),
+                                                                                                                                              @Parameter(name = "initial_value", value = "1"),
+                                                                                                                                              @Parameter(name = "increment_size", value = "1") })
+    @Column(name = "ID")
+    private Long id;
+
+    @Lob
+    @Column(name = "RAW_OBJECT", length = Integer.MAX_VALUE)
+    private byte[] rawObject;
+
+    /**
+     * Length of the raw object in bytes, so that it can be known without loading it.
+     * Null for payloads stored before the length was recorded.
+     */
+    @Column(name = "RAW_OBJECT_SIZE")
+    private Long rawObjectSize;
+
+    public CatalogObjectPayloadEntity(byte[] rawObject) {
+        this.rawObject = rawObject;
+        this.rawObjectSize = rawObject == null ? null : (long) rawObject.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogObjectPayloadEntity{" + "id=" + id + ", size=" + (rawObject == null ? 0 : rawObject.length) +
+               '}';
+    }
+}
@@ -39,8 +39,6 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Index;
 import javax.persistence.JoinColumn;
-import javax.persistence.JoinColumns;
-import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
@@ -51,6 +49,7 @@ import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Parameter;
+import org.hibernate.proxy.HibernateProxy;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -65,8 +64,10 @@ import lombok.Data;
 @BatchSize(size = 10)
 @Data
 @Entity
-@Table(name = "CATALOG_OBJECT_REVISION", uniqueConstraints = @UniqueConstraint(columnNames = { "BUCKET", "NAME",
-                                                                                               "COMMIT_TIME" }), indexes = { @Index(name = "REVISION_INDEX", columnList = "BUCKET,NAME,COMMIT_TIME") })
+@Table(name = "CATALOG_OBJECT_REVISION", uniqueConstraints = { @UniqueConstraint(columnNames = { "CATALOG_OBJECT_ID",
+                                                                                                 "COMMIT_TIME" }),
+                                                             @UniqueConstraint(columnNames = { "CATALOG_OBJECT_ID",
+                                                                                               "REVISION_NUMBER" }) }, indexes = { @Index(name = "REVISION_INDEX", columnList = "CATALOG_OBJECT_ID,COMMIT_TIME") })
 public class CatalogObjectRevisionEntity implements Comparable, Serializable {
 
     @Id
@@ -86,30 +87,76 @@ public class CatalogObjectRevisionEntity implements Comparable, Serializable {
     @Column(name = "COMMIT_TIME", nullable = false)
     private long commitTime;
 
+    /**
+     * Position of this revision in the history of its object, starting at one.
+     * Null for revisions committed before revisions were numbered.
+     */
+    @Column(name = "REVISION_NUMBER")
+    private Long revisionNumber;
+
     @ManyToOne(fetch = FetchType.EAGER, cascade = { CascadeType.PERSIST })
-    @JoinColumns({ @JoinColumn(name = "BUCKET", referencedColumnName = "BUCKET_ID"),
-                   @JoinColumn(name = "NAME", referencedColumnName = "NAME") })
+    @JoinColumn(name = "CATALOG_OBJECT_ID", nullable = false)
     private CatalogObjectEntity catalogObject;
 
-    @OneToMany(mappedBy = "catalogObjectRevision", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    /**
+     * Loaded lazily, the listings fetch the key values of all their revisions in a single query
+     */
+    @OneToMany(mappedBy = "catalogObjectRevision", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Fetch(FetchMode.SELECT)
     @BatchSize(size = 10)
     @Builder.Default
     private List<KeyValueLabelMetadataEntity> keyValueMetadataList = new ArrayList<>();
 
-    @Lob
-    @Column(name = "RAW_OBJECT", length = Integer.MAX_VALUE)
-    private byte[] rawObject;
+    /**
+     * Raw content of the revision, shared with the revisions cloned from this one
+     */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = { CascadeType.PERSIST })
+    @JoinColumn(name = "PAYLOAD_ID")
+    private CatalogObjectPayloadEntity payload;
+
+    /**
+     * SHA-256 of the raw object as it was submitted, before any generic information rewrite.
+     * Null for revisions committed before content hashes were recorded.
+     */
+    @Column(name = "CONTENT_HASH", length = 64)
+    private String contentHash;
 
     @Override
     public int compareTo(Object o) {
-        return Long.valueOf(((CatalogObjectRevisionEntity) o).commitTime).compareTo(Long.valueOf(commitTime));
+        CatalogObjectRevisionEntity other = (CatalogObjectRevisionEntity) o;
+        int byCommitTime = Long.compare(other.commitTime, commitTime);
+        if (byCommitTime != 0) {
+            return byCommitTime;
+        }
+        return Long.compare(other.revisionNumber == null ? 0 : other.revisionNumber,
+                            revisionNumber == null ? 0 : revisionNumber);
     }
 
     public CatalogObjectRevisionEntity() {
         keyValueMetadataList = new ArrayList<>();
     }
 
+    public byte[] getRawObject() {
+        return payload == null ? null : payload.getRawObject();
+    }
+
+    /**
+     * @return the identifier of the payload, read without loading its content, or null if it is not stored yet
+     */
+    public Long getPayloadId() {
+        if (payload instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) payload).getHibernateLazyInitializer().getIdentifier();
+        }
+        return payload == null ? null : payload.getId();
+    }
+
+    /**
+     * Gives the revision a payload of its own, the payload it may share with other revisions is left untouched
+     */
+    public void setRawObject(byte[] rawObject) {
+        this.payload = new CatalogObjectPayloadEntity(rawObject);
+    }
+
     public void addKeyValue(KeyValueLabelMetadataEntity keyValueMetadata) {
         this.keyValueMetadataList.add(keyValueMetadata);
         keyValueMetadata.setCatalogObjectRevision(this);
@@ -140,6 +187,14 @@ public class CatalogObjectRevisionEntity implements Comparable, Serializable {
         return result;
     }
 
+    public static class CatalogObjectRevisionEntityBuilder {
+
+        public CatalogObjectRevisionEntityBuilder rawObject(byte[] rawObject) {
+            this.payload = new CatalogObjectPayloadEntity(rawObject);
+            return this;
+        }
+    }
+
     @Override
     public String toString() {
         return "CatalogObjectRevisionRepository{" + "commitMessage='" + commitMessage + '\'' + ", username='" +
@@ -0,0 +1,142 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+
+/**
+ * A catalog object revision submitted for asynchronous ingestion. The raw object is kept until the
+ * revision is committed, so that queued submissions survive a restart of the catalog.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+@Entity
+@Table(name = "INGESTION_JOB", uniqueConstraints = @UniqueConstraint(columnNames = { "IDEMPOTENCY_KEY" }), indexes = { @Index(name = "INGESTION_JOB_STATUS_INDEX", columnList = "STATUS,ID"),
+                                                                                                                      @Index(name = "INGESTION_JOB_OWNER_INDEX", columnList = "STATUS,OWNER") })
+@ToString(exclude = "rawObject")
+public class IngestionJobEntity implements Serializable {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "INGESTION_JOB_SEQUENCE")
+    @GenericGenerator(name = "INGESTION_JOB_SEQUENCE", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = { @Parameter(name = "sequence_name", value = "INGESTION_JOB_SEQUENCE"),
+                                                                                                                                     @Parameter(name = "initial_value", value = "1"),
+                                                                                                                                     @Parameter(name = "increment_size", value = "1") })
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "IDEMPOTENCY_KEY")
+    private String idempotencyKey;
+
+    @Column(name = "BUCKET_NAME", nullable = false)
+    private String bucketName;
+
+    @Column(name = "NAME", nullable = false)
+    private String name;
+
+    /**
+     * Non negative hash of the bucket and object names. Jobs of a given object always share the same
+     * hash, hence the same worker, which keeps their revisions in submission order.
+     */
+    @Column(name = "OBJECT_HASH", nullable = false)
+    private int objectHash;
+
+    @Column(name = "COMMIT_MESSAGE")
+    private String commitMessage;
+
+    @Column(name = "USERNAME")
+    private String username;
+
+    @Lob
+    @Column(name = "RAW_OBJECT", length = Integer.MAX_VALUE)
+    private byte[] rawObject;
+
+    @Column(name = "CONTENT_HASH", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "SUBMIT_TIME", nullable = false)
+    private long submitTime;
+
+    @Column(name = "COMPLETION_TIME")
+    private Long completionTime;
+
+    @Column(name = "COMMIT_TIME")
+    private Long commitTime;
+
+    @Column(name = "ERROR_MESSAGE", length = 4000)
+    private String errorMessage;
+
+    /**
+     * Identifier of the catalog node running the job, the node renews its lease while the job runs
+     */
+    @Column(name = "OWNER", length = 64)
+    private String owner;
+
+    @Column(name = "LEASE_EXPIRATION_TIME")
+    private Long leaseExpirationTime;
+
+    public static int objectHash(String bucketName, String name) {
+        return (bucketName + '/' + name).hashCode() & Integer.MAX_VALUE;
+    }
+
+}
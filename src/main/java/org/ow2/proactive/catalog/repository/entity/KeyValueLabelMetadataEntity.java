@@ -61,7 +61,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Table(name = "METADATA_KEY_VALUE", uniqueConstraints = @UniqueConstraint(columnNames = { "CATALOGOBJECTREVISION",
                                                                                           "PA_KEY",
-                                                                                          "LABEL" }), indexes = { @Index(columnList = "PA_KEY") })
+                                                                                          "LABEL" }), indexes = { @Index(columnList = "PA_KEY"),
+                                                                                                                  @Index(name = "METADATA_KEY_VALUE_REVISION_INDEX", columnList = "CATALOGOBJECTREVISION") })
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 public class KeyValueLabelMetadataEntity implements Serializable {
 
@@ -0,0 +1,196 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.migration;
+
+import static org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity.BUCKET_AND_NAME_UNIQUE_CONSTRAINT;
+import static org.ow2.proactive.catalog.repository.migration.SchemaStatements.execute;
+import static org.ow2.proactive.catalog.repository.migration.SchemaStatements.startSequence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Migrates the databases created before catalog objects had a surrogate key. Hibernate's schema update only adds
+ * the missing tables, columns and constraints: it can neither change the primary key of CATALOG_OBJECT nor
+ * repoint the foreign key of its revisions, so this migration runs on the data source before the entity manager
+ * factory is created, see {@link SchemaMigrationDependsOnPostProcessor}.
+ * <p>
+ * The former schema identified an object by its (BUCKET_ID, NAME) primary key, which each revision repeated in
+ * its BUCKET and NAME columns. The migration numbers the objects in a new ID column, starts
+ * CATALOG_OBJECT_SEQUENCE after the last number, points each revision to its object through CATALOG_OBJECT_ID,
+ * drops the former revision columns along with their constraints and makes ID the primary key. The foreign keys
+ * are dropped first and added back by the schema update. Every step checks
+ * the schema first, so that an interrupted migration is resumed on the next start. The statements are written for
+ * HSQLDB and MariaDB/MySQL, the databases supported by the catalog.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Component
+@Log4j2
+public class CatalogObjectKeyMigrator {
+
+    private static final String CATALOG_OBJECT = "CATALOG_OBJECT";
+
+    private static final String CATALOG_OBJECT_REVISION = "CATALOG_OBJECT_REVISION";
+
+    private static final String METADATA_KEY_VALUE = "METADATA_KEY_VALUE";
+
+    private static final String CATALOG_OBJECT_SEQUENCE = "CATALOG_OBJECT_SEQUENCE";
+
+    private static final int OBJECTS_PER_BATCH = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            SchemaInspector schema = new SchemaInspector(connection);
+            if (!schema.tableExists(CATALOG_OBJECT) ||
+                schema.primaryKeyColumns(CATALOG_OBJECT).equals(schema.identifiers("ID"))) {
+                return;
+            }
+            log.info("Migrating the catalog objects to their surrogate key");
+            dropForeignKeys(connection, schema);
+            long objects = numberCatalogObjects(connection, schema);
+            linkRevisionsToCatalogObjects(connection, schema);
+            dropRevisionBucketAndName(connection, schema);
+            replaceCatalogObjectPrimaryKey(connection, schema);
+            log.info("{} catalog objects migrated to their surrogate key", objects);
+        }
+    }
+
+    private long numberCatalogObjects(Connection connection, SchemaInspector schema) throws SQLException {
+        if (!schema.columnExists(CATALOG_OBJECT, "ID")) {
+            execute(connection, "ALTER TABLE CATALOG_OBJECT ADD COLUMN ID BIGINT");
+        }
+
+        List<Object[]> unnumberedObjects = new ArrayList<>();
+        long nextId;
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT BUCKET_ID, NAME FROM CATALOG_OBJECT WHERE ID IS NULL ORDER BY BUCKET_ID, NAME")) {
+                while (resultSet.next()) {
+                    unnumberedObjects.add(new Object[] { resultSet.getLong(1), resultSet.getString(2) });
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(ID), 0) + 1 FROM CATALOG_OBJECT")) {
+                resultSet.next();
+                nextId = resultSet.getLong(1);
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement("UPDATE CATALOG_OBJECT SET ID = ? WHERE BUCKET_ID = ? AND NAME = ?")) {
+            for (int index = 0; index < unnumberedObjects.size(); index++) {
+                update.setLong(1, nextId++);
+                update.setLong(2, (Long) unnumberedObjects.get(index)[0]);
+                update.setString(3, (String) unnumberedObjects.get(index)[1]);
+                update.addBatch();
+                if ((index + 1) % OBJECTS_PER_BATCH == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+
+        // the ids generated from now on follow the ones given to the existing objects
+        startSequence(connection, schema, CATALOG_OBJECT_SEQUENCE, nextId);
+        return unnumberedObjects.size();
+    }
+
+    private void linkRevisionsToCatalogObjects(Connection connection, SchemaInspector schema) throws SQLException {
+        if (!schema.columnExists(CATALOG_OBJECT_REVISION, "CATALOG_OBJECT_ID")) {
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION ADD COLUMN CATALOG_OBJECT_ID BIGINT");
+        }
+        if (schema.columnExists(CATALOG_OBJECT_REVISION, "BUCKET")) {
+            execute(connection,
+                    "UPDATE CATALOG_OBJECT_REVISION SET CATALOG_OBJECT_ID = (SELECT cos.ID FROM CATALOG_OBJECT cos WHERE cos.BUCKET_ID = CATALOG_OBJECT_REVISION.BUCKET AND cos.NAME = CATALOG_OBJECT_REVISION.NAME) WHERE CATALOG_OBJECT_ID IS NULL");
+        }
+    }
+
+    private void dropRevisionBucketAndName(Connection connection, SchemaInspector schema) throws SQLException {
+        if (!schema.columnExists(CATALOG_OBJECT_REVISION, "BUCKET")) {
+            return;
+        }
+        if (schema.isMySql()) {
+            // MySQL removes a dropped column from its indexes, a unique (BUCKET, NAME, COMMIT_TIME) index would
+            // become a unique COMMIT_TIME index
+            for (String index : schema.indexes(CATALOG_OBJECT_REVISION, "BUCKET", "NAME")) {
+                execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION DROP INDEX " + index);
+            }
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION DROP COLUMN BUCKET, DROP COLUMN NAME");
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION MODIFY CATALOG_OBJECT_ID BIGINT NOT NULL");
+        } else {
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION DROP COLUMN BUCKET CASCADE");
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION DROP COLUMN NAME CASCADE");
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION ALTER COLUMN CATALOG_OBJECT_ID SET NOT NULL");
+        }
+    }
+
+    private void replaceCatalogObjectPrimaryKey(Connection connection, SchemaInspector schema) throws SQLException {
+        if (schema.isMySql()) {
+            // the foreign key of BUCKET_ID needs an index starting with this column once the primary key is dropped
+            if (schema.indexes(CATALOG_OBJECT, "BUCKET_ID").stream().noneMatch(BUCKET_AND_NAME_UNIQUE_CONSTRAINT::equalsIgnoreCase)) {
+                execute(connection,
+                        "ALTER TABLE CATALOG_OBJECT ADD CONSTRAINT " + BUCKET_AND_NAME_UNIQUE_CONSTRAINT +
+                                    " UNIQUE (BUCKET_ID, NAME)");
+            }
+            execute(connection, "ALTER TABLE CATALOG_OBJECT DROP PRIMARY KEY, ADD PRIMARY KEY (ID)");
+        } else {
+            execute(connection, "ALTER TABLE CATALOG_OBJECT DROP PRIMARY KEY");
+            execute(connection, "ALTER TABLE CATALOG_OBJECT ADD PRIMARY KEY (ID)");
+        }
+    }
+
+    /**
+     * The foreign keys are named by Hibernate after the mapping: the schema update adds them back under their
+     * current names once the migration is done, and HSQLDB refuses two foreign keys on the same columns
+     */
+    private void dropForeignKeys(Connection connection, SchemaInspector schema) throws SQLException {
+        for (String table : new String[] { METADATA_KEY_VALUE, CATALOG_OBJECT_REVISION, CATALOG_OBJECT }) {
+            for (String foreignKey : schema.foreignKeys(table)) {
+                execute(connection,
+                        "ALTER TABLE " + table + " DROP " + (schema.isMySql() ? "FOREIGN KEY " : "CONSTRAINT ") +
+                                    foreignKey);
+            }
+        }
+    }
+
+}
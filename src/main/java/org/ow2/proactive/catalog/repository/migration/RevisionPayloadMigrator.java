@@ -0,0 +1,153 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.migration;
+
+import static org.ow2.proactive.catalog.repository.migration.SchemaStatements.execute;
+import static org.ow2.proactive.catalog.repository.migration.SchemaStatements.startSequence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Moves the raw content of the revisions stored before payloads were introduced from the RAW_OBJECT column of
+ * CATALOG_OBJECT_REVISION to CATALOG_OBJECT_PAYLOAD. Hibernate's schema update adds the payload table and the
+ * PAYLOAD_ID column but does not copy the content, so this migration runs on the data source before the entity
+ * manager factory is created, see {@link SchemaMigrationDependsOnPostProcessor}.
+ * <p>
+ * Each revision gets a payload of its own, numbered after the payloads already stored. The content is copied by
+ * the database, a range of revisions per transaction, then the RAW_OBJECT column is dropped and
+ * CATALOG_OBJECT_PAYLOAD_SEQUENCE starts after the last payload. An interrupted migration resumes on the next start
+ * with the revisions which have no payload yet.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Component
+@Log4j2
+public class RevisionPayloadMigrator {
+
+    private static final String CATALOG_OBJECT_REVISION = "CATALOG_OBJECT_REVISION";
+
+    private static final String CATALOG_OBJECT_PAYLOAD = "CATALOG_OBJECT_PAYLOAD";
+
+    private static final String CATALOG_OBJECT_PAYLOAD_SEQUENCE = "CATALOG_OBJECT_PAYLOAD_SEQUENCE";
+
+    private static final int REVISIONS_PER_TRANSACTION = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            SchemaInspector schema = new SchemaInspector(connection);
+            if (!schema.tableExists(CATALOG_OBJECT_REVISION) ||
+                !schema.columnExists(CATALOG_OBJECT_REVISION, "RAW_OBJECT")) {
+                return;
+            }
+            log.info("Migrating the raw content of the revisions to their payloads");
+            createPayloadTable(connection, schema);
+            long revisions = copyRawObjects(connection);
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION DROP COLUMN RAW_OBJECT");
+            startSequence(connection,
+                          schema,
+                          CATALOG_OBJECT_PAYLOAD_SEQUENCE,
+                          queryLong(connection, "SELECT COALESCE(MAX(ID), 0) + 1 FROM CATALOG_OBJECT_PAYLOAD"));
+            log.info("Raw content of {} revisions migrated to their payloads", revisions);
+        }
+    }
+
+    /**
+     * Creates the payload table and column as Hibernate's schema update would, which runs after this migration
+     */
+    private void createPayloadTable(Connection connection, SchemaInspector schema) throws SQLException {
+        if (!schema.tableExists(CATALOG_OBJECT_PAYLOAD)) {
+            if (schema.isMySql()) {
+                execute(connection,
+                        "CREATE TABLE CATALOG_OBJECT_PAYLOAD (ID BIGINT NOT NULL, RAW_OBJECT LONGBLOB, RAW_OBJECT_SIZE BIGINT, PRIMARY KEY (ID)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+            } else {
+                execute(connection,
+                        "CREATE TABLE CATALOG_OBJECT_PAYLOAD (ID BIGINT NOT NULL, RAW_OBJECT BLOB(2147483647), RAW_OBJECT_SIZE BIGINT, PRIMARY KEY (ID))");
+            }
+        }
+        if (!schema.columnExists(CATALOG_OBJECT_REVISION, "PAYLOAD_ID")) {
+            execute(connection, "ALTER TABLE CATALOG_OBJECT_REVISION ADD COLUMN PAYLOAD_ID BIGINT");
+        }
+    }
+
+    private long copyRawObjects(Connection connection) throws SQLException {
+        // the payloads are numbered after the revisions, shifted past the payloads committed before the migration
+        long payloadIdOffset = queryLong(connection, "SELECT COALESCE(MAX(ID), 0) FROM CATALOG_OBJECT_PAYLOAD");
+        long firstRevisionId = queryLong(connection,
+                                         "SELECT COALESCE(MIN(ID), 0) FROM CATALOG_OBJECT_REVISION WHERE PAYLOAD_ID IS NULL");
+        long lastRevisionId = queryLong(connection,
+                                        "SELECT COALESCE(MAX(ID), -1) FROM CATALOG_OBJECT_REVISION WHERE PAYLOAD_ID IS NULL");
+
+        long copiedRevisions = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement copy = connection.prepareStatement("INSERT INTO CATALOG_OBJECT_PAYLOAD (ID, RAW_OBJECT, RAW_OBJECT_SIZE) SELECT ID + ?, RAW_OBJECT, OCTET_LENGTH(RAW_OBJECT) FROM CATALOG_OBJECT_REVISION WHERE PAYLOAD_ID IS NULL AND ID BETWEEN ? AND ?");
+                PreparedStatement link = connection.prepareStatement("UPDATE CATALOG_OBJECT_REVISION SET PAYLOAD_ID = ID + ? WHERE PAYLOAD_ID IS NULL AND ID BETWEEN ? AND ?")) {
+            for (long fromRevisionId = firstRevisionId; fromRevisionId <= lastRevisionId; fromRevisionId += REVISIONS_PER_TRANSACTION) {
+                long toRevisionId = fromRevisionId + REVISIONS_PER_TRANSACTION - 1;
+                for (PreparedStatement statement : new PreparedStatement[] { copy, link }) {
+                    statement.setLong(1, payloadIdOffset);
+                    statement.setLong(2, fromRevisionId);
+                    statement.setLong(3, toRevisionId);
+                }
+                copy.executeUpdate();
+                copiedRevisions += link.executeUpdate();
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return copiedRevisions;
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
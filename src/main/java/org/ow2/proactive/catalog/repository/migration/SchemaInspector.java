@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+
+/**
+ * Reads the schema from the JDBC metadata, with the identifiers in the case the database stores them
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+class SchemaInspector {
+
+    private final Connection connection;
+
+    private final DatabaseMetaData metaData;
+
+    private final boolean mySql;
+
+    SchemaInspector(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.metaData = connection.getMetaData();
+        String productName = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT);
+        this.mySql = productName.contains("mysql") || productName.contains("mariadb");
+    }
+
+    boolean isMySql() {
+        return mySql;
+    }
+
+    boolean tableExists(String table) throws SQLException {
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(),
+                                                   connection.getSchema(),
+                                                   identifier(table),
+                                                   new String[] { "TABLE" })) {
+            return tables.next();
+        }
+    }
+
+    boolean columnExists(String table, String column) throws SQLException {
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(),
+                                                     connection.getSchema(),
+                                                     identifier(table),
+                                                     identifier(column))) {
+            return columns.next();
+        }
+    }
+
+    boolean sequenceExists(String sequence) throws SQLException {
+        if (mySql) {
+            return tableExists(sequence);
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?")) {
+            statement.setString(1, identifier(sequence));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0;
+            }
+        }
+    }
+
+    List<String> primaryKeyColumns(String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (ResultSet primaryKeys = metaData.getPrimaryKeys(connection.getCatalog(),
+                                                             connection.getSchema(),
+                                                             identifier(table))) {
+            while (primaryKeys.next()) {
+                columns.add(primaryKeys.getString("COLUMN_NAME"));
+            }
+        }
+        return columns;
+    }
+
+    Set<String> foreignKeys(String table) throws SQLException {
+        Set<String> foreignKeys = new LinkedHashSet<>();
+        try (ResultSet importedKeys = metaData.getImportedKeys(connection.getCatalog(),
+                                                               connection.getSchema(),
+                                                               identifier(table))) {
+            while (importedKeys.next()) {
+                foreignKeys.add(importedKeys.getString("FK_NAME"));
+            }
+        }
+        return foreignKeys;
+    }
+
+    /**
+     * @return the names of the indexes of the given table which contain one of the given columns, primary
+     *         keys excluded
+     */
+    Set<String> indexes(String table, String... columns) throws SQLException {
+        List<String> indexedColumns = identifiers(columns);
+        Set<String> indexes = new LinkedHashSet<>();
+        try (ResultSet indexInfo = metaData.getIndexInfo(connection.getCatalog(),
+                                                         connection.getSchema(),
+                                                         identifier(table),
+                                                         false,
+                                                         false)) {
+            while (indexInfo.next()) {
+                String index = indexInfo.getString("INDEX_NAME");
+                if (index != null && !"PRIMARY".equalsIgnoreCase(index) &&
+                    indexedColumns.contains(indexInfo.getString("COLUMN_NAME"))) {
+                    indexes.add(index);
+                }
+            }
+        }
+        return indexes;
+    }
+
+    List<String> identifiers(String... names) throws SQLException {
+        List<String> identifiers = new ArrayList<>();
+        for (String name : names) {
+            identifiers.add(identifier(name));
+        }
+        return identifiers;
+    }
+
+    private String identifier(String name) throws SQLException {
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Statements shared by the schema migrations
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Log4j2
+final class SchemaStatements {
+
+    private SchemaStatements() {
+    }
+
+    static void execute(Connection connection, String sql) throws SQLException {
+        log.debug("Executing {}", sql);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Makes a generator return the given value next. The MySQL dialect backs the generators with a single row
+     * table, the other dialects with a sequence.
+     */
+    static void startSequence(Connection connection, SchemaInspector schema, String sequence, long nextValue)
+            throws SQLException {
+        if (schema.isMySql()) {
+            if (!schema.sequenceExists(sequence)) {
+                execute(connection, "CREATE TABLE " + sequence + " (next_val BIGINT) ENGINE=InnoDB");
+            }
+            execute(connection, "DELETE FROM " + sequence);
+            execute(connection, "INSERT INTO " + sequence + " VALUES (" + nextValue + ")");
+        } else if (schema.sequenceExists(sequence)) {
+            execute(connection, "ALTER SEQUENCE " + sequence + " RESTART WITH " + nextValue);
+        } else {
+            execute(connection, "CREATE SEQUENCE " + sequence + " START WITH " + nextValue + " INCREMENT BY 1");
+        }
+    }
+
+}
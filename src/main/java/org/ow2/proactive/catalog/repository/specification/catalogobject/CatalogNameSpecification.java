@@ -61,21 +61,13 @@ public class CatalogNameSpecification extends AbstractSpecification<String> {
             CriteriaBuilder cb) {
         switch (operations) {
             case EQ:
-                return cb.equal(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.ID.getName())
-                                                 .get(CatalogObjectEntityMetaModelEnum.NAME.getName()),
-                                value);
+                return cb.equal(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.NAME.getName()), value);
             case NE:
-                return cb.notEqual(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.ID.getName())
-                                                    .get(CatalogObjectEntityMetaModelEnum.NAME.getName()),
-                                   value);
+                return cb.notEqual(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.NAME.getName()), value);
             case LIKE:
-                return cb.like(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.ID.getName())
-                                                .get(CatalogObjectEntityMetaModelEnum.NAME.getName()),
-                               value);
+                return cb.like(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.NAME.getName()), value);
             case NOT_LIKE:
-                return cb.notLike(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.ID.getName())
-                                                   .get(CatalogObjectEntityMetaModelEnum.NAME.getName()),
-                                  value);
+                return cb.notLike(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.NAME.getName()), value);
             default:
                 throw new IllegalStateException(operations + " is not supported");
         }
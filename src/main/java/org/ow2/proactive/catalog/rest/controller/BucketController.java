@@ -95,6 +95,29 @@ public class BucketController {
         }
     }
 
+    @ApiOperation(value = "Creates a new bucket with a copy of the objects of a bucket", notes = "The copied revisions share their content with the original ones until they are committed again.")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket not found"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 409, message = "The new bucket already exists") })
+    @RequestMapping(value = "/{bucketName}/clone", method = POST)
+    @ResponseStatus(HttpStatus.CREATED)
+    public BucketMetadata clone(
+            @ApiParam(value = "sessionID", required = true) @RequestHeader(value = "sessionID", required = true) String sessionId,
+            @PathVariable String bucketName,
+            @ApiParam(value = "The unique name of the new Bucket") @RequestParam(value = "name", required = true) String targetBucketName,
+            @ApiParam(value = "The name of the user that will own the new Bucket, the owner of the copied Bucket by default") @RequestParam(value = "owner", required = false) Optional<String> ownerName,
+            @ApiParam(value = "Copy only the last revision of each object") @RequestParam(value = "headRevisionsOnly", required = false, defaultValue = "false") boolean headRevisionsOnly)
+            throws NotAuthenticatedException, AccessDeniedException {
+        restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                               sessionId,
+                                                                               bucketName);
+        if (sessionIdRequired && ownerName.isPresent()) {
+            restApiAccessService.checkAccessBySessionIdForOwnerOrGroupAndThrowIfDeclined(sessionId, ownerName.get());
+        }
+        return bucketService.cloneBucket(bucketName, targetBucketName, ownerName, headRevisionsOnly);
+    }
+
     @ApiOperation(value = "Gets a bucket's metadata by ID")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket not found"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
@@ -31,25 +31,36 @@ import static org.springframework.web.bind.annotation.RequestMethod.POST;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.FilenameUtils;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadataField;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadataList;
+import org.ow2.proactive.catalog.dto.CatalogObjectsUpdateMetadata;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
 import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
+import org.ow2.proactive.catalog.service.model.BucketContentVersion;
 import org.ow2.proactive.catalog.service.model.RestApiAccessResponse;
+import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
+import org.ow2.proactive.catalog.util.AcceptHeaderUtil;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
+import org.ow2.proactive.catalog.util.CatalogObjectNdjsonWriter;
+import org.ow2.proactive.catalog.util.ConditionalRequestUtil;
 import org.ow2.proactive.catalog.util.LinkUtil;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,6 +69,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -65,6 +77,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.annotations.ApiOperation;
@@ -93,8 +107,13 @@ public class CatalogObjectController {
     @Autowired
     private RawObjectResponseCreator rawObjectResponseCreator;
 
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
     private static final String ZIP_CONTENT_TYPE = "application/zip";
 
+    private static final String NDJSON_REPRESENTATION = "ndjson";
+
     @Value("${pa.catalog.security.required.sessionid}")
     private boolean sessionIdRequired;
 
@@ -145,6 +164,49 @@ public class CatalogObjectController {
         }
     }
 
+    @ApiOperation(value = "Creates or updates several catalog objects in a single commit", notes = "Each file is committed as a new revision of the object named after the file (without its extension), or as a new object when none exists. All objects are committed in a single transaction.")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket not found"),
+                            @ApiResponse(code = 400, message = "Kind missing for a new object or object committed twice"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 422, message = "Invalid file content supplied") })
+    @RequestMapping(value = REQUEST_API_QUERY + "/batch", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE }, method = POST)
+    @ResponseStatus(HttpStatus.CREATED)
+    public CatalogObjectMetadataList commit(
+            @ApiParam(value = "sessionID", required = true) @RequestHeader(value = "sessionID", required = true) String sessionId,
+            @PathVariable String bucketName,
+            @ApiParam(value = "Kind of the objects to create, only required when some of the objects do not exist yet") @RequestParam(required = false) Optional<String> kind,
+            @ApiParam(value = "Commit message", required = true) @RequestParam String commitMessage,
+            @ApiParam(value = "The content type of the objects to create - MIME type, detected from each file when absent") @RequestParam(required = false) Optional<String> objectContentType,
+            @ApiParam(value = "The contents of the objects", required = true) @RequestPart(value = "file") MultipartFile[] files)
+            throws IOException, NotAuthenticatedException, AccessDeniedException {
+        RestApiAccessResponse restApiAccessResponse = restApiAccessService.getUserDataFromSessionidAndCheckAccess(sessionIdRequired,
+                                                                                                                  sessionId,
+                                                                                                                  bucketName);
+        List<FileNameAndContent> filesToCommit = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            FileNameAndContent fileToCommit = new FileNameAndContent();
+            fileToCommit.setName(FilenameUtils.getBaseName(file.getOriginalFilename()));
+            fileToCommit.setFileNameWithExtension(FilenameUtils.getName(file.getOriginalFilename()));
+            fileToCommit.setContent(file.getBytes());
+            filesToCommit.add(fileToCommit);
+        }
+
+        List<CatalogObjectMetadata> catalogObjects = catalogObjectService.commitCatalogObjects(bucketName,
+                                                                                               kind,
+                                                                                               objectContentType,
+                                                                                               commitMessage,
+                                                                                               restApiAccessResponse.getAuthenticatedUser()
+                                                                                                                    .getName(),
+                                                                                               filesToCommit);
+
+        for (CatalogObjectMetadata catalogObject : catalogObjects) {
+            catalogObject.add(LinkUtil.createLink(bucketName, catalogObject.getName()));
+        }
+
+        return new CatalogObjectMetadataList(catalogObjects);
+    }
+
     @ApiOperation(value = "Lists all kinds for all objects")
     @RequestMapping(value = "/kinds", method = GET, produces = "application/json")
     @ResponseStatus(HttpStatus.OK)
@@ -178,21 +240,72 @@ public class CatalogObjectController {
         return catalogObjectService.updateObjectMetadata(bucketName, name, kind, contentType);
     }
 
+    @ApiOperation(value = "Update the kind and/or the content type of many catalog objects of a bucket at once", notes = "With a kind prefix, only the objects of this kind or of its sub kinds are updated and the new kind only replaces this prefix.")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket not found"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 400, message = "Wrong specified parameters: at least one of kind and content type, and at least one of kind prefix and names should be present") })
+    @RequestMapping(value = REQUEST_API_QUERY, method = PUT)
+    @ResponseStatus(HttpStatus.OK)
+    public CatalogObjectsUpdateMetadata updateObjectsMetadata(
+            @ApiParam(value = "sessionID", required = true) @RequestHeader(value = "sessionID", required = true) String sessionId,
+            @PathVariable String bucketName,
+            @ApiParam(value = "Only update the objects of this kind or of its sub kinds", required = false) @RequestParam(value = "kindPrefix", required = false) Optional<String> kindPrefix,
+            @ApiParam(value = "Only update the objects with these names", required = false) @RequestParam(value = "name", required = false) List<String> names,
+            @ApiParam(value = "The new kind of the objects, or the new kind prefix when a kind prefix is given", required = false) @RequestParam(value = "kind", required = false) Optional<String> kind,
+            @ApiParam(value = "The new content type of the objects - MIME type", required = false) @RequestParam(value = "contentType", required = false) Optional<String> contentType)
+            throws NotAuthenticatedException, AccessDeniedException {
+        restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                               sessionId,
+                                                                               bucketName);
+        return catalogObjectService.updateObjectsMetadata(bucketName, kindPrefix, names, kind, contentType);
+    }
+
+    @ApiOperation(value = "Rename a catalog object and/or move it to another bucket", notes = "The revisions of the object are kept.")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket or catalog object not found"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 409, message = "An object with the new name already exists in the target bucket"),
+                            @ApiResponse(code = 400, message = "Wrong specified parameters: at least one should be present") })
+    @RequestMapping(value = REQUEST_API_QUERY + "/{name:.+}/move", method = POST)
+    @ResponseStatus(HttpStatus.OK)
+    public CatalogObjectMetadata move(
+            @ApiParam(value = "sessionID", required = true) @RequestHeader(value = "sessionID", required = true) String sessionId,
+            @PathVariable String bucketName, @PathVariable String name,
+            @ApiParam(value = "The bucket to move the object to", required = false) @RequestParam(value = "targetBucketName", required = false) Optional<String> targetBucketName,
+            @ApiParam(value = "The new name of the object", required = false) @RequestParam(value = "newName", required = false) Optional<String> newName)
+            throws NotAuthenticatedException, AccessDeniedException {
+        restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                               sessionId,
+                                                                               bucketName);
+        if (targetBucketName.isPresent()) {
+            restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                                   sessionId,
+                                                                                   targetBucketName.get());
+        }
+        return catalogObjectService.moveCatalogObject(bucketName, name, targetBucketName, newName);
+    }
+
     @ApiOperation(value = "Gets a catalog object's metadata by IDs", notes = "Returns metadata associated to the latest revision of the catalog object.")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket or catalog object not found"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied") })
-    @ResponseStatus(HttpStatus.OK)
     @RequestMapping(value = REQUEST_API_QUERY + "/{name:.+}", method = GET)
     public CatalogObjectMetadata get(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name) throws MalformedURLException,
-            UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
+            @PathVariable String bucketName, @PathVariable String name, NativeWebRequest webRequest)
+            throws MalformedURLException, UnsupportedEncodingException, NotAuthenticatedException,
+            AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
                                                                                bucketName);
 
         CatalogObjectMetadata metadata = catalogObjectService.getCatalogObjectMetadata(bucketName, name);
+        MediaType mediaType = ConditionalRequestUtil.negotiatedMediaType(contentNegotiationManager, webRequest);
+        if (webRequest.checkNotModified(ConditionalRequestUtil.eTag(ConditionalRequestUtil.eTag(metadata), mediaType),
+                                        ConditionalRequestUtil.lastModified(metadata))) {
+            return null;
+        }
         metadata.add(LinkUtil.createLink(bucketName, metadata.getName()));
         metadata.add(LinkUtil.createRelativeLink(bucketName, metadata.getName()));
         return metadata;
@@ -200,37 +313,41 @@ public class CatalogObjectController {
 
     @ApiOperation(value = "Gets the raw content of the last revision of a catalog object")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Ok"),
+                            @ApiResponse(code = 206, message = "Partial content of the requested range"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied"),
-                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found") })
+                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found"),
+                            @ApiResponse(code = 416, message = "Requested range not satisfiable") })
 
     @RequestMapping(value = REQUEST_API_QUERY + "/{name:.+}/raw", method = GET, produces = MediaType.ALL_VALUE)
-    public ResponseEntity<String> getRaw(
+    public ResponseEntity<?> getRaw(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name)
-            throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
+            @PathVariable String bucketName, @PathVariable String name, WebRequest webRequest,
+            HttpServletResponse response) throws IOException, NotAuthenticatedException, AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
                                                                                bucketName);
 
+        // the large contents are not loaded, and the validators depend on the content encoding sent
         CatalogRawObject rawObject = catalogObjectService.getCatalogRawObject(bucketName, name);
-        return rawObjectResponseCreator.createRawObjectResponse(rawObject);
+        return rawObjectResponseCreator.createRawObjectResponse(rawObject, webRequest, response);
 
     }
 
-    @ApiOperation(value = "Lists catalog objects metadata", notes = "Returns catalog objects metadata associated to the latest revision.")
+    @ApiOperation(value = "Lists catalog objects metadata", notes = "Returns catalog objects metadata associated to the latest revision. With the header Accept: application/x-ndjson, the objects are streamed as newline delimited JSON, one object per line, while they are read from the database. With the name parameter, the raw objects are returned in a ZIP archive, or with the header Accept: multipart/mixed as the parts of a multipart body, in the requested order, each part named by its X-Catalog-Object-Name header, percent-encoded in UTF-8, and marked as missing by the X-Catalog-Object-Status header 404.", response = CatalogObjectMetadata.class, responseContainer = "List")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket not found"),
                             @ApiResponse(code = 206, message = "Missing object"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied") })
     @RequestMapping(value = REQUEST_API_QUERY, method = GET)
-    public ResponseEntity<List<CatalogObjectMetadata>> list(
+    public ResponseEntity<List<?>> list(
             @ApiParam(value = "sessionID") @RequestHeader(value = "sessionID", required = false) String sessionId,
             @PathVariable String bucketName,
             @ApiParam(value = "Filter according to kind.") @RequestParam(required = false) Optional<String> kind,
             @ApiParam(value = "Filter according to content type.") @RequestParam(required = false) Optional<String> contentType,
             @ApiParam(value = "Give a list of name separated by comma to get them in an archive", allowMultiple = true, type = "string") @RequestParam(value = "name", required = false) Optional<List<String>> names,
-            HttpServletResponse response)
+            @ApiParam(value = "Give a list of fields separated by comma to only return these fields of each object, like name,kind,commit_time. The key values are only read when object_key_values or projectName is given, and the links when links is given.", allowMultiple = true, type = "string") @RequestParam(value = "fields", required = false) Optional<List<String>> fields,
+            HttpServletResponse response, NativeWebRequest webRequest)
             throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
 
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
@@ -238,6 +355,20 @@ public class CatalogObjectController {
                                                                                bucketName);
         if (names.isPresent()) {
 
+            if (AcceptHeaderUtil.isPreferred(webRequest,
+                                             RawObjectResponseCreator.MULTIPART_MIXED,
+                                             MediaType.valueOf(ZIP_CONTENT_TYPE))) {
+                try {
+                    rawObjectResponseCreator.writeMultipartRawObjects(names.get(),
+                                                                      catalogObjectService.getCatalogRawObjects(bucketName,
+                                                                                                                names.get()),
+                                                                      response);
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+                return null;
+            }
+
             ZipArchiveContent zipArchiveContent = catalogObjectService.getCatalogObjectsAsZipArchive(bucketName,
                                                                                                      names.get());
 
@@ -261,31 +392,103 @@ public class CatalogObjectController {
             }
             return new ResponseEntity<>(status);
         } else {
+            boolean ndjson = AcceptHeaderUtil.isPreferred(webRequest,
+                                                          CatalogObjectNdjsonWriter.APPLICATION_NDJSON,
+                                                          MediaType.APPLICATION_JSON);
+            BucketContentVersion bucketContentVersion = catalogObjectService.getBucketContentVersion(bucketName);
+            MediaType mediaType = ConditionalRequestUtil.negotiatedMediaType(contentNegotiationManager, webRequest);
+            String eTag = ndjson ? ConditionalRequestUtil.eTag(bucketContentVersion.getETag(), NDJSON_REPRESENTATION)
+                                 : ConditionalRequestUtil.eTag(bucketContentVersion.getETag(), mediaType);
+            if (webRequest.checkNotModified(eTag, bucketContentVersion.getLastModified())) {
+                return null;
+            }
+
+            Optional<List<CatalogObjectMetadataField>> selectedFields = fields.map(CatalogObjectMetadataField::fromJsonNames);
+            boolean withKeyValues = selectedFields.map(selected -> selected.stream()
+                                                                           .anyMatch(CatalogObjectMetadataField::isReadFromKeyValues))
+                                                  .orElse(true);
+            boolean withLinks = selectedFields.map(selected -> selected.contains(CatalogObjectMetadataField.LINKS))
+                                              .orElse(true);
+
+            if (ndjson) {
+                streamAsNdjson(bucketName,
+                               kind,
+                               contentType,
+                               selectedFields.orElse(Arrays.asList(CatalogObjectMetadataField.values())),
+                               withKeyValues,
+                               withLinks,
+                               response);
+                return null;
+            }
+
             List<CatalogObjectMetadata> metadataList;
             if (kind.isPresent() && contentType.isPresent()) {
                 metadataList = catalogObjectService.listCatalogObjectsByKindAndContentType(Arrays.asList(bucketName),
                                                                                            kind.get(),
-                                                                                           contentType.get());
+                                                                                           contentType.get(),
+                                                                                           withKeyValues);
             } else if (!kind.isPresent() && contentType.isPresent()) {
                 metadataList = catalogObjectService.listCatalogObjectsByContentType(Arrays.asList(bucketName),
-                                                                                    contentType.get());
+                                                                                    contentType.get(),
+                                                                                    withKeyValues);
             } else if (kind.isPresent() && !contentType.isPresent()) {
-                metadataList = catalogObjectService.listCatalogObjectsByKind(Arrays.asList(bucketName), kind.get());
+                metadataList = catalogObjectService.listCatalogObjectsByKind(Arrays.asList(bucketName),
+                                                                             kind.get(),
+                                                                             withKeyValues);
             }
 
             else {
-                metadataList = catalogObjectService.listCatalogObjects(Arrays.asList(bucketName));
+                metadataList = catalogObjectService.listCatalogObjects(Arrays.asList(bucketName), withKeyValues);
             }
 
-            for (CatalogObjectMetadata catalogObject : metadataList) {
-                catalogObject.add(LinkUtil.createLink(bucketName, catalogObject.getName()));
-                catalogObject.add(LinkUtil.createRelativeLink(bucketName, catalogObject.getName()));
+            if (withLinks) {
+                for (CatalogObjectMetadata catalogObject : metadataList) {
+                    catalogObject.add(LinkUtil.createLink(bucketName, catalogObject.getName()));
+                    catalogObject.add(LinkUtil.createRelativeLink(bucketName, catalogObject.getName()));
+                }
             }
 
+            if (selectedFields.isPresent()) {
+                return ResponseEntity.ok(metadataList.stream()
+                                                     .map(metadata -> CatalogObjectMetadataField.select(metadata,
+                                                                                                        selectedFields.get()))
+                                                     .collect(Collectors.toList()));
+            }
             return ResponseEntity.ok(metadataList);
         }
     }
 
+    private void streamAsNdjson(String bucketName, Optional<String> kind, Optional<String> contentType,
+            List<CatalogObjectMetadataField> fields, boolean withKeyValues, boolean withLinks,
+            HttpServletResponse response) {
+        response.setContentType(CatalogObjectNdjsonWriter.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (CatalogObjectNdjsonWriter writer = new CatalogObjectNdjsonWriter(response.getOutputStream(), fields)) {
+            catalogObjectService.streamCatalogObjects(Arrays.asList(bucketName),
+                                                      kind,
+                                                      contentType,
+                                                      withKeyValues,
+                                                      batch -> {
+                                                          try {
+                                                              for (CatalogObjectMetadata catalogObject : batch) {
+                                                                  if (withLinks) {
+                                                                      catalogObject.add(LinkUtil.createLink(bucketName,
+                                                                                                            catalogObject.getName()));
+                                                                      catalogObject.add(LinkUtil.createRelativeLink(bucketName,
+                                                                                                                    catalogObject.getName()));
+                                                                  }
+                                                                  writer.write(catalogObject);
+                                                              }
+                                                              writer.flush();
+                                                          } catch (IOException ioe) {
+                                                              throw new UncheckedIOException(ioe);
+                                                          }
+                                                      });
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
     @ApiOperation(value = "Delete a catalog object", notes = "Delete the entire catalog object as well as its revisions. Returns the deleted CatalogObject's metadata.")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket or object not found"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
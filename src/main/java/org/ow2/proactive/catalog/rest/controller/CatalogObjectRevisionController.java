@@ -31,30 +31,47 @@ import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.dto.Metadata;
 import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
+import org.ow2.proactive.catalog.service.exception.WrongParametersException;
 import org.ow2.proactive.catalog.service.model.RestApiAccessResponse;
+import org.ow2.proactive.catalog.util.ConditionalRequestUtil;
 import org.ow2.proactive.catalog.util.LinkUtil;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -71,6 +88,12 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class CatalogObjectRevisionController {
 
+    static final int DEFAULT_REVISIONS_PAGE_SIZE = 100;
+
+    static final int MAX_REVISIONS_PAGE_SIZE = 1000;
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     @Autowired
     private CatalogObjectService catalogObjectService;
 
@@ -80,6 +103,9 @@ public class CatalogObjectRevisionController {
     @Autowired
     private RawObjectResponseCreator rawObjectResponseCreator;
 
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
     @Value("${pa.catalog.security.required.sessionid}")
     private boolean sessionIdRequired;
 
@@ -111,21 +137,54 @@ public class CatalogObjectRevisionController {
         return catalogObjectRevision;
     }
 
+    @ApiOperation(value = "Creates a new catalog object revision which only changes some metadata entries, the content of the last revision is reused")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket or catalog object not found"),
+                            @ApiResponse(code = 400, message = "Wrong metadata entries supplied"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied") })
+    @RequestMapping(consumes = { MediaType.APPLICATION_JSON_VALUE }, method = POST)
+    @ResponseStatus(HttpStatus.CREATED)
+    public CatalogObjectMetadata createFromMetadata(
+            @ApiParam(value = "sessionID", required = true) @RequestHeader(value = "sessionID", required = true) String sessionId,
+            @PathVariable String bucketName, @PathVariable String name,
+            @ApiParam(value = "The commit message of the CatalogRawObject Revision", required = true) @RequestParam String commitMessage,
+            @ApiParam(value = "The metadata entries to change, matched on their key and label") @RequestBody List<Metadata> metadataList)
+            throws NotAuthenticatedException, AccessDeniedException {
+        RestApiAccessResponse restApiAccessResponse = restApiAccessService.getUserDataFromSessionidAndCheckAccess(sessionIdRequired,
+                                                                                                                  sessionId,
+                                                                                                                  bucketName);
+        CatalogObjectMetadata catalogObjectRevision = catalogObjectService.createMetadataRevision(bucketName,
+                                                                                                  name,
+                                                                                                  commitMessage,
+                                                                                                  restApiAccessResponse.getAuthenticatedUser()
+                                                                                                                       .getName(),
+                                                                                                  metadataList);
+        catalogObjectRevision.add(LinkUtil.createLink(bucketName,
+                                                      catalogObjectRevision.getName(),
+                                                      catalogObjectRevision.getCommitDateTime()));
+        return catalogObjectRevision;
+    }
+
     @ApiOperation(value = "Gets a specific revision")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied") })
     @RequestMapping(value = "/{commitTimeRaw}", method = GET)
-    @ResponseStatus(HttpStatus.OK)
     public CatalogObjectMetadata get(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw)
+            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw,
+            NativeWebRequest webRequest)
             throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
                                                                                bucketName);
 
         CatalogObjectMetadata metadata = catalogObjectService.getCatalogObjectRevision(bucketName, name, commitTimeRaw);
+        MediaType mediaType = ConditionalRequestUtil.negotiatedMediaType(contentNegotiationManager, webRequest);
+        if (webRequest.checkNotModified(ConditionalRequestUtil.eTag(ConditionalRequestUtil.eTag(metadata), mediaType),
+                                        ConditionalRequestUtil.lastModified(metadata))) {
+            return null;
+        }
         metadata.add(LinkUtil.createLink(bucketName, metadata.getName(), metadata.getCommitDateTime()));
         metadata.add(LinkUtil.createRelativeLink(bucketName, metadata.getName(), metadata.getCommitDateTime()));
         return metadata;
@@ -134,41 +193,71 @@ public class CatalogObjectRevisionController {
 
     @ApiOperation(value = "Gets the raw content of a specific revision")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Ok"),
+                            @ApiResponse(code = 206, message = "Partial content of the requested range"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied"),
-                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found") })
+                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found"),
+                            @ApiResponse(code = 416, message = "Requested range not satisfiable") })
     @RequestMapping(value = "/{commitTimeRaw}/raw", method = GET, produces = MediaType.ALL_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<String> getRaw(
+    public ResponseEntity<?> getRaw(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw)
-            throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
+            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw,
+            WebRequest webRequest, HttpServletResponse response)
+            throws IOException, NotAuthenticatedException, AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
                                                                                bucketName);
 
+        // the large contents are not loaded, and the validators depend on the content encoding sent
         CatalogRawObject objectRevisionRaw = catalogObjectService.getCatalogObjectRevisionRaw(bucketName,
                                                                                               name,
                                                                                               commitTimeRaw);
 
-        return rawObjectResponseCreator.createRawObjectResponse(objectRevisionRaw);
+        return rawObjectResponseCreator.createRawObjectResponse(objectRevisionRaw, webRequest, response);
     }
 
-    @ApiOperation(value = "Lists a catalog object revisions")
+    @ApiOperation(value = "Lists a catalog object revisions", notes = "The revisions are listed from the newest to the oldest, one page at a time. A page holds " +
+                                                                      DEFAULT_REVISIONS_PAGE_SIZE +
+                                                                      " revisions by default and at most " +
+                                                                      MAX_REVISIONS_PAGE_SIZE +
+                                                                      ". The total number of revisions is sent in the " +
+                                                                      TOTAL_COUNT_HEADER +
+                                                                      " header, the first, previous, next and last pages are linked in the Link header.")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket or catalog object not found"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
-                            @ApiResponse(code = 403, message = "Permission denied") })
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 400, message = "Invalid page or size") })
     @RequestMapping(method = GET)
     @ResponseStatus(HttpStatus.OK)
     public List<CatalogObjectMetadata> list(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name)
+            @PathVariable String bucketName, @PathVariable String name,
+            @ApiParam(value = "Index of the page of revisions to list, starting from 0") @RequestParam(value = "page", required = false) Optional<Integer> page,
+            @ApiParam(value = "Number of revisions per page, from 1 to " + MAX_REVISIONS_PAGE_SIZE) @RequestParam(value = "size", required = false) Optional<Integer> size,
+            @ApiParam(value = "Whether the key values of the revisions are listed, object_key_values is left empty otherwise") @RequestParam(value = "withMetadata", required = false, defaultValue = "true") boolean withMetadata,
+            HttpServletRequest request, HttpServletResponse response)
             throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
                                                                                bucketName);
+        // a long history is never listed at once
+        int pageIndex = page.orElse(0);
+        int pageSize = size.orElse(DEFAULT_REVISIONS_PAGE_SIZE);
+        if (pageIndex < 0 || pageSize < 1 || pageSize > MAX_REVISIONS_PAGE_SIZE) {
+            throw new WrongParametersException("page should be positive and size between 1 and " +
+                                               MAX_REVISIONS_PAGE_SIZE + ", got page " + pageIndex + " and size " +
+                                               pageSize);
+        }
+        // the offset of a page request is an int
+        if ((long) pageIndex * pageSize > Integer.MAX_VALUE) {
+            throw new WrongParametersException("the first revision of page " + pageIndex + " of size " + pageSize +
+                                               " is beyond revision " + Integer.MAX_VALUE);
+        }
+        Pageable pageable = new PageRequest(pageIndex, pageSize);
         List<CatalogObjectMetadata> catalogObjectMetadataList = catalogObjectService.listCatalogObjectRevisions(bucketName,
-                                                                                                                name);
+                                                                                                                name,
+                                                                                                                Optional.of(pageable),
+                                                                                                                withMetadata);
 
         for (CatalogObjectMetadata catalogObjectMetadata : catalogObjectMetadataList) {
             catalogObjectMetadata.add(LinkUtil.createLink(bucketName,
@@ -179,9 +268,39 @@ public class CatalogObjectRevisionController {
                                                                   catalogObjectMetadata.getCommitDateTime()));
         }
 
+        long totalCount = catalogObjectService.countCatalogObjectRevisions(bucketName, name);
+        response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(totalCount));
+        response.setHeader(HttpHeaders.LINK, createPageLinks(request, pageIndex, pageSize, totalCount));
         return catalogObjectMetadataList;
     }
 
+    /**
+     * @return the links to the first, previous, next and last pages of the same size, the previous and next ones
+     *         only when they exist, in the format of the Link header
+     */
+    private static String createPageLinks(HttpServletRequest request, int pageIndex, int pageSize, long totalCount) {
+        long lastPageIndex = Math.max(0, (totalCount - 1) / pageSize);
+        List<String> links = new ArrayList<>();
+        links.add(createPageLink(request, 0, pageSize, Link.REL_FIRST));
+        if (pageIndex > 0) {
+            links.add(createPageLink(request, Math.min(pageIndex - 1, lastPageIndex), pageSize, Link.REL_PREVIOUS));
+        }
+        if (pageIndex < lastPageIndex) {
+            links.add(createPageLink(request, pageIndex + 1, pageSize, Link.REL_NEXT));
+        }
+        links.add(createPageLink(request, lastPageIndex, pageSize, Link.REL_LAST));
+        return String.join(", ", links);
+    }
+
+    private static String createPageLink(HttpServletRequest request, long pageIndex, int pageSize, String rel) {
+        String href = ServletUriComponentsBuilder.fromRequest(request)
+                                                 .replaceQueryParam("page", pageIndex)
+                                                 .replaceQueryParam("size", pageSize)
+                                                 .build()
+                                                 .toUriString();
+        return new Link(href, rel).toString();
+    }
+
     @ApiOperation(value = "Restore a catalog object revision")
     @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket, object or revision not found"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.ow2.proactive.catalog.service.GraphqlService;
+import org.ow2.proactive.catalog.util.BinaryJacksonHttpMessageConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
@@ -68,7 +69,9 @@ public class GraphqlController {
     /*
      * http://graphql.org/learn/serving-over-http/#post-request
      */
-    @RequestMapping(value = "/graphql", produces = MediaType.APPLICATION_JSON_VALUE, method = RequestMethod.POST)
+    @RequestMapping(value = "/graphql", produces = { MediaType.APPLICATION_JSON_VALUE,
+                                                   BinaryJacksonHttpMessageConverter.APPLICATION_CBOR_VALUE,
+                                                   BinaryJacksonHttpMessageConverter.APPLICATION_SMILE_VALUE }, method = RequestMethod.POST)
     @ResponseBody
     public Map<String, Object> executeOperation(@RequestHeader(value = REQUEST_HEADER_NAME_SESSION_ID) String sessionId,
             @RequestBody Map<String, Object> body) throws IOException {
@@ -0,0 +1,130 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.rest.controller;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+import java.io.IOException;
+
+import org.ow2.proactive.catalog.dto.IngestionJobMetadata;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.service.IngestionJobService;
+import org.ow2.proactive.catalog.service.RestApiAccessService;
+import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
+import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
+import org.ow2.proactive.catalog.service.model.RestApiAccessResponse;
+import org.ow2.proactive.catalog.util.LinkUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RestController
+@RequestMapping("/ingestion-jobs")
+@Log4j2
+public class IngestionJobController {
+
+    @Autowired
+    private IngestionJobService ingestionJobService;
+
+    @Autowired
+    private RestApiAccessService restApiAccessService;
+
+    @Value("${pa.catalog.security.required.sessionid}")
+    private boolean sessionIdRequired;
+
+    @ApiOperation(value = "Queues a new catalog object revision, committed asynchronously")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Bucket or catalog object not found"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 409, message = "Idempotency key already used for another submission"),
+                            @ApiResponse(code = 429, message = "Ingestion queue is full") })
+    @RequestMapping(consumes = { MediaType.MULTIPART_FORM_DATA_VALUE }, method = POST)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public IngestionJobMetadata submit(
+            @ApiParam(value = "sessionID", required = true) @RequestHeader(value = "sessionID", required = true) String sessionId,
+            @ApiParam(value = "Key identifying this submission, a retry with the same key returns the existing job") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @ApiParam(value = "The name of the bucket holding the catalog object", required = true) @RequestParam String bucketName,
+            @ApiParam(value = "The name of the catalog object", required = true) @RequestParam String name,
+            @ApiParam(value = "The commit message of the CatalogRawObject Revision", required = true) @RequestParam String commitMessage,
+            @RequestPart(value = "file") MultipartFile file)
+            throws IOException, NotAuthenticatedException, AccessDeniedException {
+        RestApiAccessResponse restApiAccessResponse = restApiAccessService.getUserDataFromSessionidAndCheckAccess(sessionIdRequired,
+                                                                                                                  sessionId,
+                                                                                                                  bucketName);
+        return addLinks(ingestionJobService.submit(idempotencyKey,
+                                                   bucketName,
+                                                   name,
+                                                   commitMessage,
+                                                   restApiAccessResponse.getAuthenticatedUser().getName(),
+                                                   file.getBytes()));
+    }
+
+    @ApiOperation(value = "Gets the status of an ingestion job")
+    @ApiResponses(value = { @ApiResponse(code = 404, message = "Ingestion job not found"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied") })
+    @RequestMapping(value = "/{jobId}", method = GET)
+    @ResponseStatus(HttpStatus.OK)
+    public IngestionJobMetadata get(
+            @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
+            @PathVariable long jobId) throws NotAuthenticatedException, AccessDeniedException {
+        IngestionJobMetadata job = ingestionJobService.getJob(jobId);
+        restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                               sessionId,
+                                                                               job.getBucketName());
+        return addLinks(job);
+    }
+
+    private IngestionJobMetadata addLinks(IngestionJobMetadata job)
+            throws NotAuthenticatedException, AccessDeniedException {
+        if (job.getStatus() == IngestionJobEntity.Status.SUCCEEDED) {
+            job.add(LinkUtil.createLink(job.getBucketName(), job.getName(), job.getCommitDateTime()));
+        }
+        return job;
+    }
+
+}
@@ -34,12 +34,17 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.ow2.proactive.catalog.dto.BucketMetadata;
 import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectGzipPayloadRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectPayloadRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
 import org.ow2.proactive.catalog.repository.entity.BucketEntity;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
+import org.ow2.proactive.catalog.service.exception.BucketAlreadyExistingException;
 import org.ow2.proactive.catalog.service.exception.BucketNameIsNotValidException;
 import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
 import org.ow2.proactive.catalog.service.exception.DeleteNonEmptyBucketException;
 import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
+import org.ow2.proactive.catalog.service.model.GenericInfoBucketData;
 import org.ow2.proactive.catalog.util.name.validator.BucketNameValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -62,12 +67,27 @@ public class BucketService {
     @Autowired
     private BucketRepository bucketRepository;
 
+    @Autowired
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Autowired
+    private CatalogObjectPayloadRepository catalogObjectPayloadRepository;
+
+    @Autowired
+    private CatalogObjectGzipPayloadRepository catalogObjectGzipPayloadRepository;
+
+    @Autowired
+    private HeadRevisionCache headRevisionCache;
+
     @Autowired
     private BucketNameValidator bucketNameValidator;
 
     @Autowired
     private OwnerGroupStringHelper ownerGroupStringHelper;
 
+    @Autowired
+    private KeyValueLabelMetadataHelper keyValueLabelMetadataHelper;
+
     public BucketMetadata createBucket(String name) {
         return createBucket(name, DEFAULT_BUCKET_OWNER);
     }
@@ -83,6 +103,41 @@ public class BucketService {
         return new BucketMetadata(bucket);
     }
 
+    /**
+     * Creates a bucket holding a copy of all the objects of another bucket, without reading their raw content. The
+     * copied revisions share their raw content with the original ones until they are committed again, so the
+     * duration of the copy depends on the number of rows and not on the size of the objects. The bucketName and
+     * group generic information of the copied revisions are those of the new bucket, but the shared content of the
+     * copied workflows keeps the generic information of the source bucket until they are committed again.
+     *
+     * @param owner the owner of the new bucket, the owner of the source bucket when empty
+     * @param headRevisionsOnly whether only the last revision of each object is copied
+     */
+    public BucketMetadata cloneBucket(String sourceBucketName, String targetBucketName, Optional<String> owner,
+            boolean headRevisionsOnly) {
+        if (!bucketNameValidator.isValid(targetBucketName)) {
+            throw new BucketNameIsNotValidException(targetBucketName);
+        }
+        BucketEntity sourceBucket = findBucketByNameAndCheck(sourceBucketName);
+        String targetOwner = owner.orElse(sourceBucket.getOwner());
+        if (bucketRepository.findOneByBucketName(targetBucketName) != null) {
+            throw new BucketAlreadyExistingException(targetBucketName, targetOwner);
+        }
+
+        BucketEntity targetBucket = bucketRepository.save(new BucketEntity(targetBucketName, targetOwner));
+        GenericInfoBucketData targetBucketData = GenericInfoBucketData.builder()
+                                                                      .bucketName(targetBucketName)
+                                                                      .group(targetOwner)
+                                                                      .build();
+        int clonedObjects = catalogObjectRepository.cloneCatalogObjects(sourceBucket.getId(),
+                                                                        targetBucket.getId(),
+                                                                        headRevisionsOnly,
+                                                                        keyValues -> keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(keyValues,
+                                                                                                                                                                targetBucketData));
+        log.info("Cloned {} objects of bucket {} into bucket {}", clonedObjects, sourceBucketName, targetBucketName);
+        return new BucketMetadata(targetBucket);
+    }
+
     public BucketMetadata getBucketMetadata(String bucketName) {
         BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
         return new BucketMetadata(bucketEntity);
@@ -147,6 +202,10 @@ public class BucketService {
 
     public void cleanAll() {
         bucketRepository.deleteAll();
+        bucketRepository.flush();
+        catalogObjectGzipPayloadRepository.deleteAllInBatch();
+        catalogObjectPayloadRepository.deleteAllInBatch();
+        headRevisionCache.evictAll();
     }
 
     public BucketMetadata deleteEmptyBucket(String bucketName) {
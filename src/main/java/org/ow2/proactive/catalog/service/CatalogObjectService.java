@@ -25,32 +25,36 @@
  */
 package org.ow2.proactive.catalog.service;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.tika.detect.Detector;
-import org.apache.tika.mime.MediaType;
-import org.apache.tika.parser.AutoDetectParser;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectsUpdateMetadata;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
 import org.ow2.proactive.catalog.dto.Metadata;
 import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectGzipPayloadRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectPayloadRepository;
 import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
 import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
 import org.ow2.proactive.catalog.repository.entity.BucketEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectPayloadEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
 import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
@@ -60,21 +64,29 @@ import org.ow2.proactive.catalog.service.exception.KindOrContentTypeIsNotValidEx
 import org.ow2.proactive.catalog.service.exception.RevisionNotFoundException;
 import org.ow2.proactive.catalog.service.exception.UnprocessableEntityException;
 import org.ow2.proactive.catalog.service.exception.WrongParametersException;
+import org.ow2.proactive.catalog.service.model.BucketContentVersion;
+import org.ow2.proactive.catalog.service.model.CatalogObjectRevisionSummary;
 import org.ow2.proactive.catalog.service.model.GenericInfoBucketData;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
+import org.ow2.proactive.catalog.util.FileMimeTypeDetector;
+import org.ow2.proactive.catalog.util.RawObjectHashUtil;
 import org.ow2.proactive.catalog.util.RevisionCommitMessageBuilder;
 import org.ow2.proactive.catalog.util.name.validator.KindAndContentTypeValidator;
+import org.ow2.proactive.catalog.util.parser.WorkflowParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
 
@@ -85,12 +97,38 @@ import lombok.extern.log4j.Log4j2;
 @Service
 @Transactional
 public class CatalogObjectService {
+
+    /**
+     * Maximum number of object names or ids given to a single IN clause
+     */
+    private static final int NAMES_PER_QUERY = 500;
+
+    /**
+     * Size in bytes above which raw objects are streamed from the database instead of being loaded in memory
+     */
+    static final long DEFAULT_RAW_OBJECT_STREAMING_THRESHOLD = 256L * 1024;
+
     @Autowired
     private CatalogObjectRepository catalogObjectRepository;
 
     @Autowired
     private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
 
+    @Autowired
+    private CatalogObjectPayloadRepository catalogObjectPayloadRepository;
+
+    @Autowired
+    private CatalogObjectGzipPayloadRepository catalogObjectGzipPayloadRepository;
+
+    @Autowired
+    private RevisionPayloadCache revisionPayloadCache;
+
+    @Autowired
+    private PayloadCompressionService payloadCompressionService;
+
+    @Autowired
+    private HeadRevisionCache headRevisionCache;
+
     @Autowired
     private BucketRepository bucketRepository;
 
@@ -109,10 +147,14 @@ public class CatalogObjectService {
     @Autowired
     private KindAndContentTypeValidator kindAndContentTypeValidator;
 
+    @Autowired
+    private FileMimeTypeDetector fileMimeTypeDetector;
+
     @Value("${kind.separator}")
     protected String kindSeparator;
 
-    private AutoDetectParser mediaTypeFileParser = new AutoDetectParser();
+    @Value("${pa.catalog.raw.object.streaming.threshold.bytes:" + DEFAULT_RAW_OBJECT_STREAMING_THRESHOLD + "}")
+    private long rawObjectStreamingThreshold;
 
     public CatalogObjectMetadata createCatalogObject(String bucketName, String name, String kind, String commitMessage,
             String username, String contentType, byte[] rawObject, String extension) {
@@ -135,31 +177,84 @@ public class CatalogObjectService {
         if (filesContainedInArchive.isEmpty()) {
             throw new UnprocessableEntityException("Malformed archive");
         }
+
+        return commitCatalogObjects(bucketName,
+                                    Optional.of(kind),
+                                    Optional.empty(),
+                                    commitMessage,
+                                    username,
+                                    filesContainedInArchive);
+    }
+
+    /**
+     * Creates or updates several catalog objects of a bucket in a single transaction. Each file becomes
+     * the new revision of the object named after it, or the first revision of a new object when none exists.
+     * The bucket and the existing objects are resolved once, with set based queries.
+     *
+     * @param kind the kind of the objects to create, required only when some of the objects do not exist yet
+     * @param contentType the content type of the objects to create, detected from each file when empty
+     * @return the metadata of the committed revisions, in the order of the given files
+     */
+    public List<CatalogObjectMetadata> commitCatalogObjects(String bucketName, Optional<String> kind,
+            Optional<String> contentType, String commitMessage, String username, List<FileNameAndContent> files) {
+        if (files.isEmpty()) {
+            throw new WrongParametersException("at least one file should be committed");
+        }
+        if (kind.isPresent() && !kindAndContentTypeValidator.isValid(kind.get())) {
+            throw new KindOrContentTypeIsNotValidException(kind.get(), "kind");
+        }
+        if (contentType.isPresent() && !kindAndContentTypeValidator.isValid(contentType.get())) {
+            throw new KindOrContentTypeIsNotValidException(contentType.get(), "content type");
+        }
+
+        List<String> names = files.stream().map(FileNameAndContent::getName).distinct().collect(Collectors.toList());
+        if (names.size() != files.size()) {
+            throw new WrongParametersException("an object can only be committed once per request");
+        }
+
         BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
 
-        return filesContainedInArchive.stream().map(file -> {
-            String objectName = file.getName();
-            CatalogObjectEntity catalogObject = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
-                                                                                                                               objectName));
-            if (catalogObject == null) {
-                String contentTypeOfFile = getFileMimeType(file);
-                return this.createCatalogObject(bucketName,
-                                                objectName,
-                                                kind,
-                                                commitMessage,
-                                                username,
-                                                contentTypeOfFile,
-                                                Collections.emptyList(),
-                                                file.getContent(),
-                                                FilenameUtils.getExtension(file.getFileNameWithExtension()));
-            } else {
-                return this.createCatalogObjectRevision(bucketName,
-                                                        objectName,
-                                                        commitMessage,
-                                                        username,
-                                                        file.getContent());
+        Map<String, CatalogObjectRevisionEntity> headRevisions = findHeadRevisions(bucketName, names);
+
+        List<PendingRevision> pendingRevisions = files.stream().map(file -> {
+            CatalogObjectRevisionEntity headRevision = headRevisions.get(file.getName());
+            if (headRevision == null) {
+                String objectKind = kind.orElseThrow(() -> new WrongParametersException("kind is required to create the object: " +
+                                                                                        file.getName()));
+                String objectContentType = contentType.orElseGet(() -> fileMimeTypeDetector.detect(objectKind,
+                                                                                                    file.getFileNameWithExtension(),
+                                                                                                    file.getContent()));
+                if (!kindAndContentTypeValidator.isValid(objectContentType)) {
+                    throw new KindOrContentTypeIsNotValidException(objectContentType, "content type");
+                }
+                CatalogObjectEntity catalogObjectEntity = newCatalogObjectEntity(bucketEntity,
+                                                                                 file.getName(),
+                                                                                 objectKind,
+                                                                                 objectContentType,
+                                                                                 FilenameUtils.getExtension(file.getFileNameWithExtension()));
+                return prepareRevision(Collections.emptyList(), file.getContent(), catalogObjectEntity, null);
             }
+            return prepareRevision(Collections.emptyList(),
+                                   file.getContent(),
+                                   headRevision.getCatalogObject(),
+                                   headRevision);
         }).collect(Collectors.toList());
+
+        // the revisions are only saved once all of them are numbered, so that the pending inserts are not flushed
+        // before the numbering statements of each object
+        Map<CatalogObjectEntity, RevisionSlot> revisionSlots = allocateRevisionSlots(pendingRevisions.stream()
+                                                                                                     .filter(pendingRevision -> !pendingRevision.isUnchanged())
+                                                                                                     .map(PendingRevision::getCatalogObjectEntity)
+                                                                                                     .collect(Collectors.toList()));
+
+        return pendingRevisions.stream()
+                               .map(pendingRevision -> pendingRevision.isUnchanged() ? pendingRevision.getHeadRevision()
+                                                                                     : saveCatalogObjectRevisionEntity(commitMessage,
+                                                                                                                       username,
+                                                                                                                       pendingRevision,
+                                                                                                                       revisionSlots.get(pendingRevision.getCatalogObjectEntity())))
+                               .map(CatalogObjectMetadata::new)
+                               .collect(Collectors.toList());
     }
 
     public CatalogObjectMetadata createCatalogObject(String bucketName, String name, String kind, String commitMessage,
@@ -173,21 +268,16 @@ public class CatalogObjectService {
 
         BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
 
-        CatalogObjectRevisionEntity catalogObjectEntityCheck = catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
-                                                                                                                                      name);
+        CatalogObjectRevisionEntity catalogObjectEntityCheck = findHeadRevision(bucketName, name);
         if (catalogObjectEntityCheck != null) {
             throw new CatalogObjectAlreadyExistingException(bucketName, name);
         }
 
-        CatalogObjectEntity catalogObjectEntity = CatalogObjectEntity.builder()
-                                                                     .bucket(bucketEntity)
-                                                                     .contentType(contentType)
-                                                                     .kind(kind)
-                                                                     .extension(extension)
-                                                                     .id(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
-                                                                                                                        name))
-                                                                     .build();
-        bucketEntity.getCatalogObjects().add(catalogObjectEntity);
+        CatalogObjectEntity catalogObjectEntity = newCatalogObjectEntity(bucketEntity,
+                                                                         name,
+                                                                         kind,
+                                                                         contentType,
+                                                                         extension);
 
         CatalogObjectRevisionEntity result = buildCatalogObjectRevisionEntity(commitMessage,
                                                                               username,
@@ -198,18 +288,17 @@ public class CatalogObjectService {
         return new CatalogObjectMetadata(result);
     }
 
-    private String getFileMimeType(FileNameAndContent file) {
-        InputStream is = new BufferedInputStream(new ByteArrayInputStream(file.getContent()));
-        Detector detector = mediaTypeFileParser.getDetector();
-        org.apache.tika.metadata.Metadata md = new org.apache.tika.metadata.Metadata();
-        md.set(org.apache.tika.metadata.Metadata.RESOURCE_NAME_KEY, file.getFileNameWithExtension());
-        MediaType mediaType = MediaType.OCTET_STREAM;
-        try {
-            mediaType = detector.detect(is, md);
-        } catch (IOException e) {
-            log.warn("there is a problem of identifying mime type for the file from archive : " + file.getName(), e);
-        }
-        return mediaType.toString();
+    private CatalogObjectEntity newCatalogObjectEntity(BucketEntity bucketEntity, String name, String kind,
+            String contentType, String extension) {
+        CatalogObjectEntity catalogObjectEntity = CatalogObjectEntity.builder()
+                                                                     .bucket(bucketEntity)
+                                                                     .contentType(contentType)
+                                                                     .kind(kind)
+                                                                     .extension(extension)
+                                                                     .name(name)
+                                                                     .build();
+        bucketEntity.getCatalogObjects().add(catalogObjectEntity);
+        return catalogObjectEntity;
     }
 
     public CatalogObjectMetadata updateObjectMetadata(String bucketName, String name, Optional<String> kind,
@@ -229,10 +318,100 @@ public class CatalogObjectService {
         CatalogObjectEntity catalogObjectEntity = catalogObjectRevisionEntity.getCatalogObject();
         kind.ifPresent(catalogObjectEntity::setKind);
         contentType.ifPresent(catalogObjectEntity::setContentType);
+        catalogObjectEntity.setLastUpdateTime(System.currentTimeMillis());
         catalogObjectRepository.save(catalogObjectEntity);
         return new CatalogObjectMetadata(catalogObjectEntity);
     }
 
+    /**
+     * Renames an object and/or moves it to another bucket. The revisions reference the object by its surrogate key,
+     * so only the row of the object is updated whatever the number of revisions. The generic information of the
+     * stored revisions (like the bucket name) keeps its historical value until the next commit.
+     */
+    public CatalogObjectMetadata moveCatalogObject(String bucketName, String name, Optional<String> targetBucketName,
+            Optional<String> newName) {
+        if (!targetBucketName.isPresent() && !newName.isPresent()) {
+            throw new WrongParametersException("at least one of target bucket name and new name should be present");
+        }
+        if (newName.isPresent() && newName.get().trim().isEmpty()) {
+            throw new WrongParametersException("the new name should not be empty");
+        }
+        findBucketByNameAndCheck(bucketName);
+        CatalogObjectRevisionEntity headRevision = findCatalogObjectByNameAndBucketAndCheck(bucketName, name);
+        String targetBucket = targetBucketName.orElse(bucketName);
+        String targetName = newName.orElse(name);
+        BucketEntity targetBucketEntity = findBucketByNameAndCheck(targetBucket);
+
+        CatalogObjectEntity catalogObjectEntity = headRevision.getCatalogObject();
+        if (targetBucket.equals(bucketName) && targetName.equals(name)) {
+            return new CatalogObjectMetadata(headRevision);
+        }
+        if (catalogObjectRepository.findOneByBucketIdAndName(targetBucketEntity.getId(), targetName) != null) {
+            throw new CatalogObjectAlreadyExistingException(targetBucket, targetName);
+        }
+
+        // the bucket side of the association is not loaded, this only updates the row of the object
+        catalogObjectEntity.setBucket(targetBucketEntity);
+        catalogObjectEntity.setName(targetName);
+        catalogObjectEntity.setLastUpdateTime(System.currentTimeMillis());
+        catalogObjectRepository.save(catalogObjectEntity);
+        headRevisionCache.evict(bucketName, name);
+        headRevisionCache.evict(targetBucket, targetName);
+        return new CatalogObjectMetadata(headRevision);
+    }
+
+    /**
+     * Changes the kind and/or the content type of many objects of a bucket with set-based updates, without loading
+     * the objects. The updated objects are the ones of the given kind (or of its sub kinds) when a kind prefix is
+     * given, restricted to the given names when some are given. At least one of them is required, so that a
+     * request cannot update the whole bucket by mistake. With a kind prefix, the new kind replaces this
+     * prefix only, so that renaming workflow/pca to workflow/analytics turns workflow/pca/a into
+     * workflow/analytics/a.
+     *
+     * @return the number of updated objects
+     */
+    public CatalogObjectsUpdateMetadata updateObjectsMetadata(String bucketName, Optional<String> kindPrefix,
+            List<String> names, Optional<String> kind, Optional<String> contentType) {
+        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+        if (!kind.isPresent() && !contentType.isPresent()) {
+            throw new WrongParametersException("at least one of kind and content type should be present");
+        }
+        if (kindPrefix.isPresent() && !kindAndContentTypeValidator.isValid(kindPrefix.get())) {
+            throw new KindOrContentTypeIsNotValidException(kindPrefix.get(), "kind");
+        }
+        if (kind.isPresent() && !kindAndContentTypeValidator.isValid(kind.get())) {
+            throw new KindOrContentTypeIsNotValidException(kind.get(), "kind");
+        }
+        if (contentType.isPresent() && !kindAndContentTypeValidator.isValid(contentType.get())) {
+            throw new KindOrContentTypeIsNotValidException(contentType.get(), "content type");
+        }
+        Optional<String> normalizedKindPrefix = kindPrefix.map(this::removeTrailingKindSeparator);
+        Optional<String> normalizedKind = kind.map(this::removeTrailingKindSeparator);
+
+        List<String> distinctNames = names == null ? Collections.emptyList()
+                                                   : names.stream().distinct().collect(Collectors.toList());
+        if (!kindPrefix.isPresent() && distinctNames.isEmpty()) {
+            throw new WrongParametersException("at least one of kind prefix and names should be present");
+        }
+        int updatedObjects = 0;
+        for (List<String> namesPartition : distinctNames.isEmpty() ? Collections.singletonList(distinctNames)
+                                                                   : Lists.partition(distinctNames,
+                                                                                     NAMES_PER_QUERY)) {
+            updatedObjects += catalogObjectRepository.updateKindAndContentType(bucketEntity.getId(),
+                                                                               normalizedKindPrefix,
+                                                                               kindSeparator,
+                                                                               namesPartition,
+                                                                               normalizedKind,
+                                                                               contentType);
+        }
+        log.info("{} objects of bucket {} updated", updatedObjects, bucketName);
+        return new CatalogObjectsUpdateMetadata(bucketName, updatedObjects);
+    }
+
+    private String removeTrailingKindSeparator(String kind) {
+        return kind.endsWith(kindSeparator) ? kind.substring(0, kind.length() - kindSeparator.length()) : kind;
+    }
+
     private BucketEntity findBucketByNameAndCheck(String bucketName) {
         BucketEntity bucketEntity = bucketRepository.findOneByBucketName(bucketName);
         if (bucketEntity == null) {
@@ -242,48 +421,233 @@ public class CatalogObjectService {
     }
 
     private CatalogObjectRevisionEntity findCatalogObjectByNameAndBucketAndCheck(String bucketName, String name) {
-        CatalogObjectRevisionEntity catalogObject = catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
-                                                                                                                           name);
+        CatalogObjectRevisionEntity catalogObject = findHeadRevision(bucketName, name);
         if (catalogObject == null) {
             throw new CatalogObjectNotFoundException(bucketName, name);
         }
         return catalogObject;
     }
 
+    private CatalogObjectRevisionEntity findHeadRevision(String bucketName, String name) {
+        return headRevisionCache.getHeadRevision(bucketName,
+                                                 name,
+                                                 catalogObjectRevisionRepository::findOne,
+                                                 () -> catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
+                                                                                                                              name));
+    }
+
+    /**
+     * @return the head revisions of the given objects by object name, fetched with their key values in one query
+     * per chunk of names, the objects that do not exist are missing from the map
+     */
+    private Map<String, CatalogObjectRevisionEntity> findHeadRevisions(String bucketName, List<String> names) {
+        Map<String, CatalogObjectRevisionEntity> headRevisions = new HashMap<>();
+        for (List<String> namesChunk : Lists.partition(names, NAMES_PER_QUERY)) {
+            catalogObjectRevisionRepository.findDefaultCatalogObjectsByNamesInBucket(Collections.singletonList(bucketName),
+                                                                                     namesChunk)
+                                           .forEach(revision -> headRevisions.put(revision.getCatalogObject().getName(),
+                                                                                  revision));
+        }
+        return headRevisions;
+    }
+
     private CatalogObjectRevisionEntity buildCatalogObjectRevisionEntity(final String commitMessage,
             final String username, final List<org.ow2.proactive.catalog.dto.Metadata> metadataList,
             final byte[] rawObject, final CatalogObjectEntity catalogObjectEntity) {
+        return buildCatalogObjectRevisionEntity(commitMessage,
+                                                username,
+                                                metadataList,
+                                                rawObject,
+                                                catalogObjectEntity,
+                                                null);
+    }
+
+    /**
+     * Builds and saves a new revision of the given catalog object. When a head revision is given and
+     * the new revision would hold the same content and metadata, no revision is created and the head
+     * revision is returned instead.
+     */
+    private CatalogObjectRevisionEntity buildCatalogObjectRevisionEntity(final String commitMessage,
+            final String username, final List<org.ow2.proactive.catalog.dto.Metadata> metadataList,
+            final byte[] rawObject, final CatalogObjectEntity catalogObjectEntity,
+            final CatalogObjectRevisionEntity headRevision) {
+        PendingRevision pendingRevision = prepareRevision(metadataList, rawObject, catalogObjectEntity, headRevision);
+        if (pendingRevision.isUnchanged()) {
+            return headRevision;
+        }
+        return saveCatalogObjectRevisionEntity(commitMessage,
+                                               username,
+                                               pendingRevision,
+                                               allocateRevisionSlot(catalogObjectEntity));
+    }
+
+    /**
+     * Computes the key values and the content of a new revision of the given catalog object, without saving it.
+     * The pending revision is unchanged when a head revision is given and the new revision would hold the same
+     * content and metadata.
+     */
+    private PendingRevision prepareRevision(final List<org.ow2.proactive.catalog.dto.Metadata> metadataList,
+            final byte[] rawObject, final CatalogObjectEntity catalogObjectEntity,
+            final CatalogObjectRevisionEntity headRevision) {
+
+        String contentHash = RawObjectHashUtil.sha256(rawObject);
 
         List<KeyValueLabelMetadataEntity> keyValueMetadataEntities = KeyValueLabelMetadataHelper.convertToEntity(metadataList);
 
         List<KeyValueLabelMetadataEntity> keyValues = CollectionUtils.isEmpty(metadataList) ? keyValueLabelMetadataHelper.extractKeyValuesFromRaw(catalogObjectEntity.getKind(),
-                                                                                                                                                  rawObject)
+                                                                                                                                                  rawObject,
+                                                                                                                                                  contentHash)
                                                                                             : keyValueMetadataEntities;
 
         GenericInfoBucketData genericInfoBucketData = createGenericInfoBucketData(catalogObjectEntity.getBucket());
         List<KeyValueLabelMetadataEntity> genericInformationWithBucketDataList = keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(keyValues,
                                                                                                                                                             genericInfoBucketData);
+
+        if (isSameContentAndMetadata(headRevision, contentHash, genericInformationWithBucketDataList)) {
+            log.debug("Content and metadata of {} are unchanged, keeping revision {}",
+                      catalogObjectEntity.getName(),
+                      headRevision.getCommitTime());
+            return new PendingRevision(catalogObjectEntity, headRevision, true, null, null, null);
+        }
+
         byte[] workflowWithReplacedGenericInfo = genericInformationAdder.addGenericInformationToRawObjectIfWorkflow(rawObject,
                                                                                                                     catalogObjectEntity.getKind(),
                                                                                                                     keyValueLabelMetadataHelper.toMap(keyValueLabelMetadataHelper.getOnlyGenericInformation(genericInformationWithBucketDataList)));
 
+        return new PendingRevision(catalogObjectEntity,
+                                   headRevision,
+                                   false,
+                                   genericInformationWithBucketDataList,
+                                   workflowWithReplacedGenericInfo,
+                                   contentHash);
+    }
+
+    private CatalogObjectRevisionEntity saveCatalogObjectRevisionEntity(final String commitMessage,
+            final String username, final PendingRevision pendingRevision, final RevisionSlot revisionSlot) {
+        return saveCatalogObjectRevisionEntity(commitMessage,
+                                               username,
+                                               pendingRevision.getKeyValues(),
+                                               new CatalogObjectPayloadEntity(pendingRevision.getRawObject()),
+                                               pendingRevision.getContentHash(),
+                                               pendingRevision.getCatalogObjectEntity(),
+                                               revisionSlot);
+    }
+
+    /**
+     * @param payload the content of the revision, either a new payload or a stored one shared with other revisions
+     */
+    private CatalogObjectRevisionEntity saveCatalogObjectRevisionEntity(final String commitMessage,
+            final String username, final List<KeyValueLabelMetadataEntity> keyValues,
+            final CatalogObjectPayloadEntity payload, final String contentHash,
+            final CatalogObjectEntity catalogObjectEntity, final RevisionSlot revisionSlot) {
         CatalogObjectRevisionEntity catalogObjectRevisionEntity = CatalogObjectRevisionEntity.builder()
                                                                                              .commitMessage(commitMessage)
                                                                                              .username(username)
-                                                                                             .commitTime(LocalDateTime.now()
-                                                                                                                      .atZone(ZoneId.systemDefault())
-                                                                                                                      .toInstant()
-                                                                                                                      .toEpochMilli())
-                                                                                             .keyValueMetadataList(genericInformationWithBucketDataList)
-                                                                                             .rawObject(workflowWithReplacedGenericInfo)
+                                                                                             .revisionNumber(revisionSlot.revisionNumber)
+                                                                                             .commitTime(revisionSlot.commitTime)
+                                                                                             .keyValueMetadataList(keyValues)
+                                                                                             .payload(payload)
+                                                                                             .contentHash(contentHash)
                                                                                              .catalogObject(catalogObjectEntity)
                                                                                              .build();
 
-        genericInformationWithBucketDataList.forEach(keyValue -> keyValue.setCatalogObjectRevision(catalogObjectRevisionEntity));
+        keyValues.forEach(keyValue -> keyValue.setCatalogObjectRevision(catalogObjectRevisionEntity));
 
         catalogObjectEntity.addRevision(catalogObjectRevisionEntity);
+        headRevisionCache.evict(catalogObjectEntity.getBucket().getBucketName(), catalogObjectEntity.getName());
+
+        // a shared payload is already stored along with its gzip encoding
+        boolean newPayload = catalogObjectRevisionEntity.getPayloadId() == null;
+        CatalogObjectRevisionEntity savedRevision = catalogObjectRevisionRepository.save(catalogObjectRevisionEntity);
+        if (newPayload) {
+            payloadCompressionService.storeGzipRawObject(savedRevision, catalogObjectEntity.getContentType());
+        }
+        return savedRevision;
+    }
+
+    private RevisionSlot allocateRevisionSlot(CatalogObjectEntity catalogObjectEntity) {
+        return allocateRevisionSlots(Collections.singletonList(catalogObjectEntity)).get(catalogObjectEntity);
+    }
+
+    /**
+     * Allocates the numbers and the commit times of the next revisions of the given objects.
+     * <p>
+     * The revision counters of the existing objects are incremented in place, with one statement per chunk of
+     * objects, which locks the object rows (and only these rows) until the end of the transaction: concurrent
+     * commits of the same object are serialized, commits of other objects are not. The commit time, which still
+     * identifies the revision in the REST API, is kept strictly increasing for each object, so that two revisions
+     * committed within the same millisecond get distinct commit times.
+     */
+    private Map<CatalogObjectEntity, RevisionSlot> allocateRevisionSlots(List<CatalogObjectEntity> catalogObjectEntities) {
+        long now = System.currentTimeMillis();
+
+        // the rows are locked in the order of their ids, so that two batch commits cannot deadlock
+        List<Long> ids = catalogObjectEntities.stream()
+                                              .filter(catalogObjectEntity -> catalogObjectEntity.getId() != null &&
+                                                                             catalogObjectEntity.getLastCommitTime() != 0)
+                                              .map(CatalogObjectEntity::getId)
+                                              .sorted()
+                                              .collect(Collectors.toList());
+        Map<Long, Object[]> countersById = new HashMap<>();
+        for (List<Long> idsChunk : Lists.partition(ids, NAMES_PER_QUERY)) {
+            catalogObjectRepository.incrementLastRevisionNumbers(idsChunk);
+            catalogObjectRepository.findLastRevisionNumbersAndCommitTimes(idsChunk)
+                                   .forEach(counters -> countersById.put(((Number) counters[0]).longValue(),
+                                                                         counters));
+        }
+
+        Map<CatalogObjectEntity, RevisionSlot> revisionSlots = new IdentityHashMap<>();
+        for (CatalogObjectEntity catalogObjectEntity : catalogObjectEntities) {
+            Object[] counters = catalogObjectEntity.getId() == null ? null
+                                                                    : countersById.get(catalogObjectEntity.getId());
+            // an object which was never committed is not stored yet, its first revision has number one
+            if (counters == null) {
+                catalogObjectEntity.setLastRevisionNumber(1L);
+                revisionSlots.put(catalogObjectEntity, new RevisionSlot(1L, now));
+                continue;
+            }
+            long revisionNumber = ((Number) counters[1]).longValue();
+            long lastCommitTime = ((Number) counters[2]).longValue();
+            if (revisionNumber == 1) {
+                // the object was created before revisions were numbered, number this one after the existing ones
+                revisionNumber = catalogObjectRevisionRepository.countByCatalogObject(catalogObjectEntity) + 1;
+            }
+            catalogObjectEntity.setLastRevisionNumber(revisionNumber);
+            revisionSlots.put(catalogObjectEntity, new RevisionSlot(revisionNumber, Math.max(now, lastCommitTime + 1)));
+        }
+        return revisionSlots;
+    }
+
+    @AllArgsConstructor
+    private static class RevisionSlot {
+        private final long revisionNumber;
+
+        private final long commitTime;
+    }
+
+    /**
+     * A revision whose content and key values are computed but which is not saved yet
+     */
+    @AllArgsConstructor
+    @Getter
+    private static class PendingRevision {
+        private final CatalogObjectEntity catalogObjectEntity;
+
+        private final CatalogObjectRevisionEntity headRevision;
+
+        private final boolean unchanged;
+
+        private final List<KeyValueLabelMetadataEntity> keyValues;
+
+        private final byte[] rawObject;
 
-        return catalogObjectRevisionRepository.save(catalogObjectRevisionEntity);
+        private final String contentHash;
+    }
+
+    private boolean isSameContentAndMetadata(CatalogObjectRevisionEntity headRevision, String contentHash,
+            List<KeyValueLabelMetadataEntity> keyValues) {
+        return headRevision != null && contentHash != null && contentHash.equals(headRevision.getContentHash()) &&
+               keyValueLabelMetadataHelper.hasSameKeyValueLabels(headRevision.getKeyValueMetadataList(), keyValues);
     }
 
     private GenericInfoBucketData createGenericInfoBucketData(BucketEntity bucket) {
@@ -293,43 +657,143 @@ public class CatalogObjectService {
         return GenericInfoBucketData.builder().bucketName(bucket.getBucketName()).group(bucket.getOwner()).build();
     }
 
+    public BucketContentVersion getBucketContentVersion(String bucketName) {
+        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+        return catalogObjectRepository.findBucketContentVersion(bucketEntity.getId());
+    }
+
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjects(List<String> bucketNames) {
+        return listCatalogObjects(bucketNames, true);
+    }
+
+    /**
+     * @param withKeyValues whether the key values of the objects are queried, they are left empty otherwise
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogObjectMetadata> listCatalogObjects(List<String> bucketNames, boolean withKeyValues) {
         bucketNames.forEach(bucketName -> findBucketByNameAndCheck(bucketName));
-        List<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsInBucket(bucketNames);
+        List<CatalogObjectRevisionSummary> result = catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesInBucket(bucketNames);
 
-        return buildMetadataWithLink(result);
+        return buildMetadataWithLink(result, withKeyValues);
     }
 
-    private List<CatalogObjectMetadata> buildMetadataWithLink(List<CatalogObjectRevisionEntity> result) {
-        return result.stream().map(CatalogObjectMetadata::new).collect(Collectors.toList());
+    private List<CatalogObjectMetadata> buildMetadataWithLink(List<CatalogObjectRevisionSummary> result) {
+        return buildMetadataWithLink(result, true);
     }
 
+    /**
+     * The revisions are listed from projections rather than entities, so that neither the objects, the buckets nor
+     * the metadata entities are loaded, and the key values of all the revisions are read in a few batched queries,
+     * unless they are not requested.
+     */
+    private List<CatalogObjectMetadata> buildMetadataWithLink(List<CatalogObjectRevisionSummary> result,
+            boolean withKeyValues) {
+        Map<Long, List<Metadata>> keyValuesByRevisionId = new HashMap<>();
+        if (withKeyValues) {
+            List<Long> revisionIds = result.stream()
+                                           .map(CatalogObjectRevisionSummary::getRevisionId)
+                                           .collect(Collectors.toList());
+            Lists.partition(revisionIds, NAMES_PER_QUERY)
+                 .forEach(revisionIdsChunk -> catalogObjectRevisionRepository.findKeyValuesByRevisionIds(revisionIdsChunk)
+                                                                             .forEach(keyValue -> keyValuesByRevisionId.computeIfAbsent(keyValue.getRevisionId(),
+                                                                                                                                        revisionId -> new ArrayList<>())
+                                                                                                                       .add(keyValue.toMetadata())));
+        }
+        return result.stream()
+                     .map(revision -> new CatalogObjectMetadata(revision,
+                                                                keyValuesByRevisionId.getOrDefault(revision.getRevisionId(),
+                                                                                                   new ArrayList<>())))
+                     .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjectsByKind(List<String> bucketNames, String kind) {
+        return listCatalogObjectsByKind(bucketNames, kind, true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogObjectMetadata> listCatalogObjectsByKind(List<String> bucketNames, String kind,
+            boolean withKeyValues) {
         bucketNames.forEach(bucketName -> findBucketByNameAndCheck(bucketName));
-        List<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsOfKindInBucket(bucketNames,
-                                                                                                                           kind);
+        List<CatalogObjectRevisionSummary> result = catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesOfKindInBucket(bucketNames,
+                                                                                                                                    kind);
 
-        return buildMetadataWithLink(result);
+        return buildMetadataWithLink(result, withKeyValues);
     }
 
     // find catalog objects by kind and content type
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjectsByKindAndContentType(List<String> bucketNames, String kind,
             String contentType) {
+        return listCatalogObjectsByKindAndContentType(bucketNames, kind, contentType, true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogObjectMetadata> listCatalogObjectsByKindAndContentType(List<String> bucketNames, String kind,
+            String contentType, boolean withKeyValues) {
         bucketNames.forEach(bucketName -> findBucketByNameAndCheck(bucketName));
-        List<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsOfKindAndContentTypeInBucket(bucketNames,
-                                                                                                                                         kind,
-                                                                                                                                         contentType);
+        List<CatalogObjectRevisionSummary> result = catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesOfKindAndContentTypeInBucket(bucketNames,
+                                                                                                                                                  kind,
+                                                                                                                                                  contentType);
 
-        return buildMetadataWithLink(result);
+        return buildMetadataWithLink(result, withKeyValues);
     }
 
     // find catalog objects by content type
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjectsByContentType(List<String> bucketNames, String contentType) {
+        return listCatalogObjectsByContentType(bucketNames, contentType, true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogObjectMetadata> listCatalogObjectsByContentType(List<String> bucketNames, String contentType,
+            boolean withKeyValues) {
         bucketNames.forEach(bucketName -> findBucketByNameAndCheck(bucketName));
-        List<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsOfContentTypeInBucket(bucketNames,
-                                                                                                                                  contentType);
+        List<CatalogObjectRevisionSummary> result = catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesOfContentTypeInBucket(bucketNames,
+                                                                                                                                           contentType);
 
-        return buildMetadataWithLink(result);
+        return buildMetadataWithLink(result, withKeyValues);
+    }
+
+    /**
+     * Reads the head revisions of the given buckets from a database cursor and passes them to the given consumer
+     * in batches of at most 500 objects, so that the memory used does not depend on the number of objects. The
+     * consumer is called within the read-only transaction of the cursor.
+     *
+     * @param withKeyValues whether the key values of the objects are queried, they are left empty otherwise
+     */
+    @Transactional(readOnly = true)
+    public void streamCatalogObjects(List<String> bucketNames, Optional<String> kind, Optional<String> contentType,
+            boolean withKeyValues, Consumer<List<CatalogObjectMetadata>> batchConsumer) {
+        bucketNames.forEach(bucketName -> findBucketByNameAndCheck(bucketName));
+        try (Stream<CatalogObjectRevisionSummary> revisions = streamHeadRevisions(bucketNames, kind, contentType)) {
+            List<CatalogObjectRevisionSummary> batch = new ArrayList<>(NAMES_PER_QUERY);
+            Iterator<CatalogObjectRevisionSummary> iterator = revisions.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == NAMES_PER_QUERY || !iterator.hasNext()) {
+                    batchConsumer.accept(buildMetadataWithLink(batch, withKeyValues));
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private Stream<CatalogObjectRevisionSummary> streamHeadRevisions(List<String> bucketNames, Optional<String> kind,
+            Optional<String> contentType) {
+        if (kind.isPresent() && contentType.isPresent()) {
+            return catalogObjectRevisionRepository.streamDefaultCatalogObjectSummariesOfKindAndContentTypeInBucket(bucketNames,
+                                                                                                                  kind.get(),
+                                                                                                                  contentType.get());
+        } else if (kind.isPresent()) {
+            return catalogObjectRevisionRepository.streamDefaultCatalogObjectSummariesOfKindInBucket(bucketNames,
+                                                                                                     kind.get());
+        } else if (contentType.isPresent()) {
+            return catalogObjectRevisionRepository.streamDefaultCatalogObjectSummariesOfContentTypeInBucket(bucketNames,
+                                                                                                            contentType.get());
+        }
+        return catalogObjectRevisionRepository.streamDefaultCatalogObjectSummariesInBucket(bucketNames);
     }
 
     public ZipArchiveContent getCatalogObjectsAsZipArchive(String bucketName, List<String> catalogObjectsNames) {
@@ -340,36 +804,81 @@ public class CatalogObjectService {
 
     public List<CatalogObjectMetadata> listSelectedCatalogObjects(String bucketName, List<String> catalogObjectsNames) {
         List<CatalogObjectRevisionEntity> result = getCatalogObjects(bucketName, catalogObjectsNames);
-        return buildMetadataWithLink(result);
+        return result.stream().map(CatalogObjectMetadata::new).collect(Collectors.toList());
     }
 
     private List<CatalogObjectRevisionEntity> getCatalogObjects(String bucketName, List<String> catalogObjectsNames) {
         findBucketByNameAndCheck(bucketName);
-        List<CatalogObjectRevisionEntity> revisions = catalogObjectsNames.stream()
-                                                                         .map(name -> catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
-                                                                                                                                                             name))
-                                                                         .collect(Collectors.toList());
-        return revisions;
+        Map<String, CatalogObjectRevisionEntity> headRevisions = findHeadRevisions(bucketName,
+                                                                                   catalogObjectsNames.stream()
+                                                                                                      .distinct()
+                                                                                                      .collect(Collectors.toList()));
+        return catalogObjectsNames.stream().map(headRevisions::get).collect(Collectors.toList());
     }
 
     public CatalogObjectMetadata delete(String bucketName, String name) throws CatalogObjectNotFoundException {
         BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
         CatalogObjectMetadata catalogObjectMetadata = getCatalogObjectMetadata(bucketName, name);
-        try {
-            catalogObjectRepository.delete(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(), name));
-        } catch (EmptyResultDataAccessException emptyResultDataAccessException) {
+        CatalogObjectEntity catalogObjectEntity = catalogObjectRepository.findOneByBucketIdAndName(bucketEntity.getId(),
+                                                                                                  name);
+        if (catalogObjectEntity == null) {
             log.warn("CatalogObject {} does not exist in bucket {}", name, bucketName);
             throw new CatalogObjectNotFoundException(bucketName, name);
         }
+        List<Long> payloadIds = catalogObjectRevisionRepository.findPayloadIdsByCatalogObjectId(catalogObjectEntity.getId());
+        catalogObjectRepository.delete(catalogObjectEntity);
+        headRevisionCache.evict(bucketName, name);
+        deleteUnreferencedPayloads(payloadIds);
         return catalogObjectMetadata;
     }
 
+    /**
+     * Removes the payloads of a deleted object, except the ones still shared with the copies of its revisions
+     */
+    private void deleteUnreferencedPayloads(List<Long> payloadIds) {
+        if (payloadIds.isEmpty()) {
+            return;
+        }
+        catalogObjectRepository.flush();
+        Lists.partition(payloadIds, NAMES_PER_QUERY).forEach(payloadIdsChunk -> {
+            catalogObjectGzipPayloadRepository.deleteUnreferencedGzipPayloads(payloadIdsChunk);
+            catalogObjectPayloadRepository.deleteUnreferencedPayloads(payloadIdsChunk);
+        });
+    }
+
     public CatalogObjectMetadata getCatalogObjectMetadata(String bucketName, String name) {
         return new CatalogObjectMetadata(findCatalogObjectByNameAndBucketAndCheck(bucketName, name));
     }
 
     public CatalogRawObject getCatalogRawObject(String bucketName, String name) {
-        return new CatalogRawObject(findCatalogObjectByNameAndBucketAndCheck(bucketName, name));
+        return newCatalogRawObject(findCatalogObjectByNameAndBucketAndCheck(bucketName, name));
+    }
+
+    /**
+     * @return the raw objects of the last revisions of the given names, in the same order, and null for the names
+     * which do not exist in the bucket. The names are resolved with one query per 500 names.
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogRawObject> getCatalogRawObjects(String bucketName, List<String> names) {
+        return getCatalogObjects(bucketName, names).stream()
+                                                   .map(revision -> revision == null ? null
+                                                                                     : newCatalogRawObject(revision))
+                                                   .collect(Collectors.toList());
+    }
+
+    /**
+     * Small or cached contents are served from memory, the other ones are left in the database to be streamed
+     * from their payload.
+     */
+    private CatalogRawObject newCatalogRawObject(CatalogObjectRevisionEntity revision) {
+        Long payloadId = revision.getPayloadId();
+        if (payloadId != null && !revisionPayloadCache.contains(payloadId)) {
+            Long rawObjectSize = catalogObjectPayloadRepository.findRawObjectSizeById(payloadId);
+            if (rawObjectSize != null && rawObjectSize > rawObjectStreamingThreshold) {
+                return new CatalogRawObject(revision, payloadId, rawObjectSize);
+            }
+        }
+        return new CatalogRawObject(revision, revisionPayloadCache.getRawObject(revision));
     }
 
     /** ####################  Revision Operations ###################**/
@@ -388,29 +897,142 @@ public class CatalogObjectService {
             String username, List<Metadata> metadataListParsed, byte[] rawObject) {
 
         BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
-        CatalogObjectEntity catalogObject = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
-                                                                                                                           name));
+        CatalogObjectEntity catalogObject = catalogObjectRepository.findOneByBucketIdAndName(bucketEntity.getId(),
+                                                                                             name);
 
         if (catalogObject == null) {
             throw new CatalogObjectNotFoundException(bucketName, name);
         }
 
+        CatalogObjectRevisionEntity headRevision = findHeadRevision(bucketName, name);
+
         CatalogObjectRevisionEntity revisionEntity = buildCatalogObjectRevisionEntity(commitMessage,
                                                                                       username,
                                                                                       metadataListParsed,
                                                                                       rawObject,
-                                                                                      catalogObject);
+                                                                                      catalogObject,
+                                                                                      headRevision);
+
+        return new CatalogObjectMetadata(revisionEntity);
+    }
 
+    /**
+     * Creates a new revision of an object which only changes some of its metadata, without uploading its content
+     * again. The content of the head revision is reused as is, except for workflows whose job level generic
+     * information and variables are patched in place. No revision is created when the metadata is unchanged.
+     *
+     * @param metadataPatches entries replacing the head revision entries with the same key and label, entries
+     *                        matching none of them are added
+     */
+    public CatalogObjectMetadata createMetadataRevision(String bucketName, String name, String commitMessage,
+            String username, List<Metadata> metadataPatches) {
+        if (CollectionUtils.isEmpty(metadataPatches)) {
+            throw new WrongParametersException("at least one metadata entry should be present");
+        }
+        if (metadataPatches.stream().anyMatch(patch -> patch.getKey() == null || patch.getValue() == null)) {
+            throw new WrongParametersException("each metadata entry should have a key and a value");
+        }
+        findBucketByNameAndCheck(bucketName);
+        CatalogObjectRevisionEntity headRevision = findCatalogObjectByNameAndBucketAndCheck(bucketName, name);
+        CatalogObjectEntity catalogObjectEntity = headRevision.getCatalogObject();
+
+        List<KeyValueLabelMetadataEntity> keyValues = applyMetadataPatches(headRevision.getKeyValueMetadataList(),
+                                                                           metadataPatches);
+        GenericInfoBucketData genericInfoBucketData = createGenericInfoBucketData(catalogObjectEntity.getBucket());
+        List<KeyValueLabelMetadataEntity> genericInformationWithBucketDataList = keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(keyValues,
+                                                                                                                                                            genericInfoBucketData);
+
+        if (keyValueLabelMetadataHelper.hasSameKeyValueLabels(headRevision.getKeyValueMetadataList(),
+                                                              genericInformationWithBucketDataList)) {
+            log.debug("Metadata of {} is unchanged, keeping revision {}", name, headRevision.getCommitTime());
+            return new CatalogObjectMetadata(headRevision);
+        }
+
+        Map<String, String> variableValues = metadataPatches.stream()
+                                                            .filter(patch -> WorkflowParser.ATTRIBUTE_VARIABLE_LABEL.equals(patch.getLabel()))
+                                                            .collect(Collectors.toMap(Metadata::getKey,
+                                                                                      Metadata::getValue,
+                                                                                      (first, second) -> second));
+        byte[] rawObject = genericInformationAdder.addGenericInformationAndVariablesToRawObjectIfWorkflow(headRevision.getRawObject(),
+                                                                                                          catalogObjectEntity.getKind(),
+                                                                                                          keyValueLabelMetadataHelper.toMap(keyValueLabelMetadataHelper.getOnlyGenericInformation(genericInformationWithBucketDataList)),
+                                                                                                          variableValues);
+        // the content hash identifies the uploaded content, it only changes when the variables are rewritten
+        String contentHash = variableValues.isEmpty() ? headRevision.getContentHash()
+                                                      : RawObjectHashUtil.sha256(rawObject);
+        // the head payload is shared unless the content was actually rewritten
+        CatalogObjectPayloadEntity payload = Arrays.equals(rawObject, headRevision.getRawObject()) ? headRevision.getPayload()
+                                                                                                    : new CatalogObjectPayloadEntity(rawObject);
+
+        CatalogObjectRevisionEntity revisionEntity = saveCatalogObjectRevisionEntity(commitMessage,
+                                                                                     username,
+                                                                                     genericInformationWithBucketDataList,
+                                                                                     payload,
+                                                                                     contentHash,
+                                                                                     catalogObjectEntity,
+                                                                                     allocateRevisionSlot(catalogObjectEntity));
         return new CatalogObjectMetadata(revisionEntity);
     }
 
+    private List<KeyValueLabelMetadataEntity> applyMetadataPatches(List<KeyValueLabelMetadataEntity> headKeyValues,
+            List<Metadata> metadataPatches) {
+        List<KeyValueLabelMetadataEntity> keyValues = headKeyValues.stream()
+                                                                   .map(keyValue -> new KeyValueLabelMetadataEntity(keyValue.getKey(),
+                                                                                                                    keyValue.getValue(),
+                                                                                                                    keyValue.getLabel()))
+                                                                   .collect(Collectors.toList());
+        for (Metadata patch : metadataPatches) {
+            Optional<KeyValueLabelMetadataEntity> patchedKeyValue = keyValues.stream()
+                                                                             .filter(keyValue -> keyValue.getKey()
+                                                                                                         .equals(patch.getKey()) &&
+                                                                                                 Objects.equals(keyValue.getLabel(),
+                                                                                                                patch.getLabel()))
+                                                                             .findFirst();
+            if (patchedKeyValue.isPresent()) {
+                patchedKeyValue.get().setValue(patch.getValue());
+            } else {
+                keyValues.add(new KeyValueLabelMetadataEntity(patch));
+            }
+        }
+        return keyValues;
+    }
+
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjectRevisions(String bucketName, String name) {
+        return listCatalogObjectRevisions(bucketName, name, Optional.empty(), true);
+    }
+
+    /**
+     * Lists the revisions of an object, newest first, without loading their raw content
+     *
+     * @param pageable the page of the history to list, the whole history is listed otherwise
+     * @param withKeyValues whether the key values of the revisions are queried, they are left empty otherwise
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogObjectMetadata> listCatalogObjectRevisions(String bucketName, String name,
+            Optional<Pageable> pageable, boolean withKeyValues) {
         BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
         findCatalogObjectByNameAndBucketAndCheck(bucketName, name);
-        CatalogObjectEntity list = catalogObjectRepository.readCatalogObjectRevisionsById(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
-                                                                                                                                         name));
+        List<CatalogObjectRevisionSummary> revisions;
+        if (pageable.isPresent()) {
+            revisions = catalogObjectRevisionRepository.findRevisionSummariesOfCatalogObject(bucketEntity.getId(),
+                                                                                             name,
+                                                                                             pageable.get());
+        } else {
+            revisions = catalogObjectRevisionRepository.findRevisionSummariesOfCatalogObject(bucketEntity.getId(),
+                                                                                             name);
+        }
+
+        return buildMetadataWithLink(revisions, withKeyValues);
+    }
 
-        return list.getRevisions().stream().map(CatalogObjectMetadata::new).collect(Collectors.toList());
+    /**
+     * @return the number of revisions of an object
+     */
+    @Transactional(readOnly = true)
+    public long countCatalogObjectRevisions(String bucketName, String name) {
+        CatalogObjectRevisionEntity headRevision = findCatalogObjectByNameAndBucketAndCheck(bucketName, name);
+        return catalogObjectRevisionRepository.countByCatalogObject(headRevision.getCatalogObject());
     }
 
     public CatalogObjectMetadata getCatalogObjectRevision(String bucketName, String name, long commitTime)
@@ -428,8 +1050,7 @@ public class CatalogObjectService {
                                                                                                 name,
                                                                                                 commitTime);
 
-        return new CatalogRawObject(revisionEntity);
-
+        return newCatalogRawObject(revisionEntity);
     }
 
     public CatalogObjectMetadata restore(String bucketName, String name, Long commitTime) {
@@ -47,12 +47,33 @@ public class GenericInformationAdder {
             final String catalogObjectEntityKind, Map<String, String> genericInformationMap) {
         byte[] workflowWithReplacedGenericInfo = rawObject;
 
-        if (catalogObjectEntityKind != null &&
-            catalogObjectEntityKind.toLowerCase().startsWith(SupportedParserKinds.WORKFLOW.toString().toLowerCase())) {
+        if (isWorkflow(catalogObjectEntityKind)) {
             workflowWithReplacedGenericInfo = workflowXmlManipulator.replaceGenericInformationJobLevel(rawObject,
                                                                                                        genericInformationMap);
         }
         return workflowWithReplacedGenericInfo;
     }
 
+    /**
+     * Same as {@link #addGenericInformationToRawObjectIfWorkflow(byte[], String, Map)}, but also replaces the
+     * value of the given job variables of a workflow.
+     */
+    public byte[] addGenericInformationAndVariablesToRawObjectIfWorkflow(final byte[] rawObject,
+            final String catalogObjectEntityKind, Map<String, String> genericInformationMap,
+            Map<String, String> variableValues) {
+        byte[] workflowWithReplacedGenericInfo = rawObject;
+
+        if (isWorkflow(catalogObjectEntityKind)) {
+            workflowWithReplacedGenericInfo = workflowXmlManipulator.replaceGenericInformationAndVariablesJobLevel(rawObject,
+                                                                                                                   genericInformationMap,
+                                                                                                                   variableValues);
+        }
+        return workflowWithReplacedGenericInfo;
+    }
+
+    private boolean isWorkflow(String catalogObjectEntityKind) {
+        return catalogObjectEntityKind != null &&
+               catalogObjectEntityKind.toLowerCase().startsWith(SupportedParserKinds.WORKFLOW.toString().toLowerCase());
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Value;
+
+
+/**
+ * Identifiers of the head revisions of the catalog objects, by bucket name and object name, so that resolving
+ * an object reads its head revision by primary key instead of joining the objects and the buckets.
+ * <p>
+ * An entry is evicted when the head of its object changes, once when the change is made and once more when its
+ * transaction completes, so that a commit is visible to any read made after it. A lookup only caches what it read
+ * if no eviction happened meanwhile, otherwise it could store a head read before a concurrent commit. Evictions
+ * are local to the node, so a cached revision is only returned if its object still designates it as the head,
+ * which the other nodes sharing the database update when they commit.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Component
+public class HeadRevisionCache {
+
+    private static final long MAXIMUM_SIZE = 100_000;
+
+    private final Cache<ObjectKey, Long> headRevisionIds = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param findRevisionById reads a revision by its identifier, null if it does not exist anymore
+     * @param findHeadRevision reads the head revision of the object, null if the object does not exist
+     * @return the head revision of the object, null if the object does not exist
+     */
+    public CatalogObjectRevisionEntity getHeadRevision(String bucketName, String name,
+            Function<Long, CatalogObjectRevisionEntity> findRevisionById,
+            Supplier<CatalogObjectRevisionEntity> findHeadRevision) {
+        ObjectKey key = new ObjectKey(bucketName, name);
+        Long headRevisionId = headRevisionIds.getIfPresent(key);
+        if (headRevisionId != null) {
+            CatalogObjectRevisionEntity headRevision = findRevisionById.apply(headRevisionId);
+            if (headRevision != null && isHeadRevision(headRevision, key)) {
+                return headRevision;
+            }
+        }
+
+        long evictionsBeforeRead = evictions.get();
+        CatalogObjectRevisionEntity headRevision = findHeadRevision.get();
+        if (headRevision != null && headRevision.getId() != null) {
+            headRevisionIds.asMap()
+                           .compute(key,
+                                    (objectKey, cachedId) -> evictions.get() == evictionsBeforeRead ? headRevision.getId()
+                                                                                                    : cachedId);
+        }
+        return headRevision;
+    }
+
+    /**
+     * Checks that a cached revision is still the head of the object, since the commits, moves and deletions made
+     * by the other catalog nodes sharing the database do not evict the entries of this one
+     */
+    private static boolean isHeadRevision(CatalogObjectRevisionEntity revision, ObjectKey key) {
+        CatalogObjectEntity catalogObject = revision.getCatalogObject();
+        return catalogObject != null && catalogObject.getLastCommitTime() == revision.getCommitTime() &&
+               key.getName().equals(catalogObject.getName()) && catalogObject.getBucket() != null &&
+               key.getBucketName().equals(catalogObject.getBucket().getBucketName());
+    }
+
+    /**
+     * Evicts the head revision of an object whose head is changed, deleted or moved by the current transaction
+     */
+    public void evict(String bucketName, String name) {
+        ObjectKey key = new ObjectKey(bucketName, name);
+        evict(key);
+        afterTransactionCompletion(() -> evict(key));
+    }
+
+    public void evictAll() {
+        evictAllNow();
+        afterTransactionCompletion(this::evictAllNow);
+    }
+
+    private void evict(ObjectKey key) {
+        headRevisionIds.asMap().compute(key, (objectKey, cachedId) -> {
+            evictions.incrementAndGet();
+            return null;
+        });
+    }
+
+    private void evictAllNow() {
+        evictions.incrementAndGet();
+        headRevisionIds.invalidateAll();
+    }
+
+    private void afterTransactionCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    @Value
+    private static class ObjectKey {
+        String bucketName;
+
+        String name;
+    }
+
+}
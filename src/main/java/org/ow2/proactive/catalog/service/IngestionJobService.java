@@ -0,0 +1,146 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.ow2.proactive.catalog.dto.IngestionJobMetadata;
+import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
+import org.ow2.proactive.catalog.service.exception.CatalogObjectNotFoundException;
+import org.ow2.proactive.catalog.service.exception.IdempotencyKeyConflictException;
+import org.ow2.proactive.catalog.service.exception.IngestionJobNotFoundException;
+import org.ow2.proactive.catalog.service.exception.IngestionQueueFullException;
+import org.ow2.proactive.catalog.util.RawObjectHashUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Accepts catalog object revisions for asynchronous ingestion. Submissions are persisted in a bounded queue
+ * and committed later by the {@link IngestionJobWorker}.
+ * <p>
+ * A submission may carry an idempotency key: submitting again with the same key returns the job created
+ * by the first submission instead of queuing the revision twice, so that clients can safely retry.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Log4j2
+@Service
+public class IngestionJobService {
+
+    @Autowired
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Autowired
+    private BucketRepository bucketRepository;
+
+    @Autowired
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Value("${pa.catalog.ingestion.queue.max.size:1000}")
+    protected int maxQueueSize;
+
+    public IngestionJobMetadata submit(String idempotencyKey, String bucketName, String name, String commitMessage,
+            String username, byte[] rawObject) {
+        String contentHash = RawObjectHashUtil.sha256(rawObject);
+
+        if (idempotencyKey != null) {
+            IngestionJobEntity existingJob = ingestionJobRepository.findOneByIdempotencyKey(idempotencyKey);
+            if (existingJob != null) {
+                return replay(existingJob, bucketName, name, contentHash);
+            }
+        }
+
+        BucketEntity bucketEntity = bucketRepository.findOneByBucketName(bucketName);
+        if (bucketEntity == null) {
+            throw new BucketNotFoundException(bucketName);
+        }
+        if (catalogObjectRepository.findOneByBucketIdAndName(bucketEntity.getId(), name) == null) {
+            throw new CatalogObjectNotFoundException(bucketName, name);
+        }
+
+        if (ingestionJobRepository.countByStatusIn(Arrays.asList(Status.QUEUED, Status.RUNNING)) >= maxQueueSize) {
+            throw new IngestionQueueFullException(maxQueueSize);
+        }
+
+        IngestionJobEntity job = IngestionJobEntity.builder()
+                                                   .idempotencyKey(idempotencyKey)
+                                                   .bucketName(bucketName)
+                                                   .name(name)
+                                                   .objectHash(IngestionJobEntity.objectHash(bucketName, name))
+                                                   .commitMessage(commitMessage)
+                                                   .username(username)
+                                                   .rawObject(rawObject)
+                                                   .contentHash(contentHash)
+                                                   .status(Status.QUEUED)
+                                                   .submitTime(System.currentTimeMillis())
+                                                   .build();
+        try {
+            return new IngestionJobMetadata(ingestionJobRepository.saveAndFlush(job));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent retry carrying the same idempotency key was stored first
+            IngestionJobEntity existingJob = idempotencyKey == null ? null
+                                                                    : ingestionJobRepository.findOneByIdempotencyKey(idempotencyKey);
+            if (existingJob == null) {
+                throw e;
+            }
+            return replay(existingJob, bucketName, name, contentHash);
+        }
+    }
+
+    public IngestionJobMetadata getJob(long jobId) {
+        IngestionJobEntity job = ingestionJobRepository.findOne(jobId);
+        if (job == null) {
+            throw new IngestionJobNotFoundException(jobId);
+        }
+        return new IngestionJobMetadata(job);
+    }
+
+    private IngestionJobMetadata replay(IngestionJobEntity existingJob, String bucketName, String name,
+            String contentHash) {
+        if (!existingJob.getBucketName().equals(bucketName) || !existingJob.getName().equals(name) ||
+            !Objects.equals(existingJob.getContentHash(), contentHash)) {
+            throw new IdempotencyKeyConflictException(existingJob.getIdempotencyKey());
+        }
+        log.debug("Ingestion job {} replayed for idempotency key {}",
+                  existingJob.getId(),
+                  existingJob.getIdempotencyKey());
+        return new IngestionJobMetadata(existingJob);
+    }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Commits the revisions queued by the {@link IngestionJobService}.
+ * <p>
+ * Each worker polls its own partition of the queue (jobs are partitioned by object, and a job is only claimed once
+ * the previous jobs of its object completed, so the revisions of an object are committed in submission order) and
+ * commits up to {@code pa.catalog.ingestion.batch.size} jobs in a single transaction. When a batch fails, its jobs
+ * are retried one per transaction so that only the faulty ones are reported as failed.
+ * <p>
+ * Several catalog nodes may share the queue. A claimed job is leased to the node running it, which renews the
+ * lease while it runs. The jobs of a node whose lease expired, because the node stopped or crashed, are queued
+ * again by any node, and a restarting node queues its own jobs again.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Log4j2
+@Component
+public class IngestionJobWorker {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 4000;
+
+    private static final List<Status> PENDING_STATUSES = Arrays.asList(Status.QUEUED, Status.RUNNING);
+
+    private static final List<Status> COMPLETED_STATUSES = Arrays.asList(Status.SUCCEEDED, Status.FAILED);
+
+    private static final long PURGE_PERIOD_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${pa.catalog.ingestion.workers:2}")
+    protected int workers;
+
+    @Value("${pa.catalog.ingestion.batch.size:50}")
+    protected int batchSize;
+
+    @Value("${pa.catalog.ingestion.poll.delay.ms:500}")
+    protected long pollDelay;
+
+    @Value("${pa.catalog.ingestion.lease.ms:60000}")
+    protected long leaseDuration;
+
+    /**
+     * Duration during which the status of a completed job is kept, along with its idempotency key
+     */
+    @Value("${pa.catalog.ingestion.retention.ms:604800000}")
+    protected long retentionDuration;
+
+    /**
+     * Identifies this node as the owner of the jobs it runs, a random identifier is used when empty
+     */
+    @Value("${pa.catalog.ingestion.node.id:}")
+    protected String nodeId;
+
+    protected TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (StringUtils.isBlank(nodeId)) {
+            nodeId = UUID.randomUUID().toString();
+        }
+
+        // the jobs left running by a previous run of this node were rolled back, they are simply queued again
+        int requeued = transactionTemplate.execute(status -> ingestionJobRepository.releaseOwned(Status.RUNNING,
+                                                                                                 Status.QUEUED,
+                                                                                                 nodeId));
+        if (requeued > 0) {
+            log.info("{} interrupted ingestion jobs queued again", requeued);
+        }
+        renewLeases();
+
+        executor = Executors.newScheduledThreadPool(workers + 2,
+                                                    new ThreadFactoryBuilder().setNameFormat("ingestion-worker-%d")
+                                                                              .setDaemon(true)
+                                                                              .build());
+        for (int partition = 0; partition < workers; partition++) {
+            int workerPartition = partition;
+            executor.scheduleWithFixedDelay(() -> drainPartition(workerPartition),
+                                            pollDelay,
+                                            pollDelay,
+                                            TimeUnit.MILLISECONDS);
+        }
+        executor.scheduleWithFixedDelay(this::renewLeases,
+                                        leaseDuration / 3,
+                                        leaseDuration / 3,
+                                        TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::purgeCompletedJobs,
+                                        PURGE_PERIOD_MS,
+                                        PURGE_PERIOD_MS,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Renews the leases of the jobs run by this node, and queues again the jobs of the nodes which stopped
+     * renewing theirs
+     */
+    @VisibleForTesting
+    void renewLeases() {
+        try {
+            long now = System.currentTimeMillis();
+            int expired = transactionTemplate.execute(status -> {
+                ingestionJobRepository.renewLeases(Status.RUNNING, nodeId, now + leaseDuration);
+                return ingestionJobRepository.releaseExpired(Status.RUNNING, Status.QUEUED, now);
+            });
+            if (expired > 0) {
+                log.info("{} ingestion jobs with an expired lease queued again", expired);
+            }
+        } catch (RuntimeException e) {
+            // never let an exception escape, it would cancel the periodic execution
+            log.error("Unexpected error while renewing the ingestion job leases", e);
+        }
+    }
+
+    /**
+     * Deletes the jobs which completed for longer than the retention duration
+     */
+    @VisibleForTesting
+    void purgeCompletedJobs() {
+        try {
+            long completedBefore = System.currentTimeMillis() - retentionDuration;
+            int purged = transactionTemplate.execute(status -> ingestionJobRepository.deleteCompletedBefore(COMPLETED_STATUSES,
+                                                                                                          completedBefore));
+            if (purged > 0) {
+                log.info("{} completed ingestion jobs purged", purged);
+            }
+        } catch (RuntimeException e) {
+            // never let an exception escape, it would cancel the periodic execution
+            log.error("Unexpected error while purging the completed ingestion jobs", e);
+        }
+    }
+
+    private void drainPartition(int partition) {
+        try {
+            while (!Thread.currentThread().isInterrupted() && processBatch(partition) > 0) {
+                log.trace("Ingestion batch processed for partition {}", partition);
+            }
+        } catch (RuntimeException e) {
+            // never let an exception escape, it would cancel the periodic execution
+            log.error("Unexpected error while processing ingestion partition {}", partition, e);
+        }
+    }
+
+    /**
+     * Claims and commits the next batch of queued jobs of the given partition.
+     *
+     * @return the number of jobs processed, zero when the partition is empty
+     */
+    @VisibleForTesting
+    int processBatch(int partition) {
+        List<IngestionJobEntity> batch = claimBatch(partition);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.execute(status -> {
+                batch.forEach(this::commitRevision);
+                return null;
+            });
+        } catch (RuntimeException batchException) {
+            log.warn("Batch of {} ingestion jobs failed, committing them one by one", batch.size(), batchException);
+            for (IngestionJobEntity job : batch) {
+                try {
+                    transactionTemplate.execute(status -> {
+                        commitRevision(job);
+                        return null;
+                    });
+                } catch (RuntimeException jobException) {
+                    log.warn("Ingestion job {} failed", job.getId(), jobException);
+                    transactionTemplate.execute(status -> ingestionJobRepository.complete(job.getId(),
+                                                                                          Status.FAILED,
+                                                                                          null,
+                                                                                          errorMessage(jobException),
+                                                                                          System.currentTimeMillis()));
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Marks the oldest queued jobs of the partition as running. Only the oldest pending job of an object can be
+     * claimed, the following revisions of that object wait until it completes, on this node or another one, to
+     * keep them in submission order with distinct commit times.
+     */
+    @VisibleForTesting
+    List<IngestionJobEntity> claimBatch(int partition) {
+        return transactionTemplate.execute(status -> {
+            List<IngestionJobEntity> queuedJobs = ingestionJobRepository.findByStatusInPartition(Status.QUEUED,
+                                                                                                 PENDING_STATUSES,
+                                                                                                 workers,
+                                                                                                 partition,
+                                                                                                 new PageRequest(0,
+                                                                                                                 batchSize));
+            List<IngestionJobEntity> claimedJobs = new ArrayList<>(queuedJobs.size());
+            for (IngestionJobEntity job : queuedJobs) {
+                if (ingestionJobRepository.claim(job.getId(),
+                                                 Status.QUEUED,
+                                                 Status.RUNNING,
+                                                 nodeId,
+                                                 System.currentTimeMillis() + leaseDuration) == 1) {
+                    claimedJobs.add(job);
+                }
+            }
+            return claimedJobs;
+        });
+    }
+
+    private void commitRevision(IngestionJobEntity job) {
+        CatalogObjectMetadata revision = catalogObjectService.createCatalogObjectRevision(job.getBucketName(),
+                                                                                          job.getName(),
+                                                                                          job.getCommitMessage(),
+                                                                                          job.getUsername(),
+                                                                                          job.getRawObject());
+        ingestionJobRepository.complete(job.getId(),
+                                        Status.SUCCEEDED,
+                                        Long.valueOf(revision.getCommitTimeRaw()),
+                                        null,
+                                        System.currentTimeMillis());
+    }
+
+    private static String errorMessage(Exception e) {
+        String message = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        return StringUtils.abbreviate(message, MAX_ERROR_MESSAGE_LENGTH);
+    }
+
+}
@@ -28,6 +28,7 @@ package org.ow2.proactive.catalog.service;
 import java.io.ByteArrayInputStream;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,11 @@ import org.ow2.proactive.catalog.util.parser.WorkflowParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
 
 /**
  * @author ActiveEon Team
@@ -56,10 +62,19 @@ public class KeyValueLabelMetadataHelper {
     @SuppressWarnings("FieldCanBeLocal")
     private static final String BUCKET_NAME_KEY = "bucketName";
 
+    // upper bound on the total length of the keys, values and labels kept in the parse cache
+    private static final long PARSE_CACHE_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+
     private final List<AbstractCatalogObjectParser> parsers;
 
     private final OwnerGroupStringHelper ownerGroupStringHelper;
 
+    // parse results keyed by parser and content hash, stored as DTOs since entities are attached to a revision
+    private final Cache<String, List<Metadata>> parseCache = Caffeine.newBuilder()
+                                                                     .maximumWeight(PARSE_CACHE_MAXIMUM_WEIGHT)
+                                                                     .weigher(KeyValueLabelMetadataHelper::weigh)
+                                                                     .build();
+
     @Autowired
     public KeyValueLabelMetadataHelper(OwnerGroupStringHelper ownerGroupStringHelper,
             List<AbstractCatalogObjectParser> parsers) {
@@ -81,12 +96,57 @@ public class KeyValueLabelMetadataHelper {
     }
 
     public List<KeyValueLabelMetadataEntity> extractKeyValuesFromRaw(String kind, byte[] rawObject) {
-        AbstractCatalogObjectParser catalogObjectParser = parsers.stream()
-                                                                 .filter(parser -> parser.isMyKind(kind))
-                                                                 .findFirst()
-                                                                 .orElse(new DefaultCatalogObjectParser());
-        return catalogObjectParser.parse(new ByteArrayInputStream(rawObject));
+        return findParser(kind).parse(new ByteArrayInputStream(rawObject));
+    }
+
+    /**
+     * Same as {@link #extractKeyValuesFromRaw(String, byte[])} but reuses the result of a previous parse of
+     * the same content, as identified by its hash, with the same parser.
+     */
+    public List<KeyValueLabelMetadataEntity> extractKeyValuesFromRaw(String kind, byte[] rawObject,
+            String contentHash) {
+        if (contentHash == null) {
+            return extractKeyValuesFromRaw(kind, rawObject);
+        }
+        AbstractCatalogObjectParser catalogObjectParser = findParser(kind);
+        List<Metadata> metadataList = parseCache.get(catalogObjectParser.getClass().getName() + ":" + contentHash,
+                                                     key -> convertFromEntity(catalogObjectParser.parse(new ByteArrayInputStream(rawObject))));
+        return convertToEntity(metadataList);
+    }
+
+    /**
+     * @return true if both lists hold the same key, value and label triples, regardless of their order
+     */
+    public boolean hasSameKeyValueLabels(List<KeyValueLabelMetadataEntity> first,
+            List<KeyValueLabelMetadataEntity> second) {
+        return first.size() == second.size() && toKeyValueLabels(first).equals(toKeyValueLabels(second));
+    }
+
+    private Multiset<List<String>> toKeyValueLabels(List<KeyValueLabelMetadataEntity> keyValueLabelMetadataEntities) {
+        return keyValueLabelMetadataEntities.stream()
+                                            .map(entity -> Arrays.asList(entity.getKey(),
+                                                                         entity.getValue(),
+                                                                         entity.getLabel()))
+                                            .collect(Collectors.toCollection(HashMultiset::create));
+    }
+
+    private AbstractCatalogObjectParser findParser(String kind) {
+        return parsers.stream()
+                      .filter(parser -> parser.isMyKind(kind))
+                      .findFirst()
+                      .orElse(new DefaultCatalogObjectParser());
+    }
+
+    private static int weigh(String key, List<Metadata> metadataList) {
+        return key.length() + metadataList.stream()
+                                          .mapToInt(metadata -> length(metadata.getKey()) +
+                                                                length(metadata.getValue()) +
+                                                                length(metadata.getLabel()))
+                                          .sum();
+    }
 
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
     }
 
     public List<Metadata> convertFromEntity(List<KeyValueLabelMetadataEntity> source) {
@@ -0,0 +1,145 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.ow2.proactive.catalog.repository.CatalogObjectGzipPayloadRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectGzipPayloadEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+
+/**
+ * Content-aware compression of the raw objects. The contents of the compressible types, the same ones the embedded
+ * server compresses on the fly, get a gzip encoding when they are committed, which is then sent to the clients
+ * accepting it instead of being compressed again on each request. The other types, like archives or images, are
+ * usually compressed already and are never compressed again.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Service
+@Transactional
+public class PayloadCompressionService {
+
+    static final String DEFAULT_COMPRESSIBLE_MIME_TYPES = "text/html,text/xml,text/plain,text/css,text/javascript," +
+                                                          "application/javascript,application/json,application/xml";
+
+    private static final int DEFAULT_MIN_RESPONSE_SIZE = 2048;
+
+    @Autowired
+    private CatalogObjectGzipPayloadRepository catalogObjectGzipPayloadRepository;
+
+    @Autowired
+    private RevisionPayloadCache revisionPayloadCache;
+
+    @Value("${server.compression.mime-types:" + DEFAULT_COMPRESSIBLE_MIME_TYPES + "}")
+    protected String[] compressibleMimeTypes;
+
+    @Value("${server.compression.enabled:false}")
+    protected boolean serverCompressionEnabled;
+
+    @Value("${server.compression.min-response-size:" + DEFAULT_MIN_RESPONSE_SIZE + "}")
+    protected long minResponseSize;
+
+    /**
+     * @return whether the content type, with or without parameters, starts with one of the compressible types
+     */
+    public boolean isCompressible(String contentType) {
+        return contentType != null &&
+               Arrays.stream(compressibleMimeTypes).anyMatch(mimeType -> contentType.startsWith(mimeType.trim()));
+    }
+
+    /**
+     * @return whether the embedded server compresses a response of the given type and length sent without content
+     *         encoding to a client accepting gzip
+     */
+    public boolean isCompressedByServer(String contentType, long contentLength) {
+        return serverCompressionEnabled && contentLength >= minResponseSize && isCompressible(contentType);
+    }
+
+    /**
+     * Contents of any size get a gzip encoding, the encodings of the contents streamed from the database are
+     * streamed as well.
+     */
+    public boolean hasGzipRawObject(String contentType, long rawObjectSize) {
+        return rawObjectSize >= minResponseSize && isCompressible(contentType);
+    }
+
+    /**
+     * Stores the gzip encoding of the payload of a newly saved revision, unless it is not smaller than the payload
+     */
+    public void storeGzipRawObject(CatalogObjectRevisionEntity revision, String contentType) {
+        Long payloadId = revision.getPayloadId();
+        byte[] rawObject = revision.getRawObject();
+        if (payloadId == null || rawObject == null || !hasGzipRawObject(contentType, rawObject.length)) {
+            return;
+        }
+        byte[] gzipRawObject = gzip(rawObject);
+        if (gzipRawObject.length < rawObject.length) {
+            catalogObjectGzipPayloadRepository.save(new CatalogObjectGzipPayloadEntity(payloadId, gzipRawObject));
+        }
+    }
+
+    /**
+     * @return the gzip encoding of the payload, null if it has none
+     */
+    @Transactional(readOnly = true)
+    public byte[] getGzipRawObject(Long payloadId) {
+        return revisionPayloadCache.getGzipRawObject(payloadId, id -> {
+            CatalogObjectGzipPayloadEntity gzipPayload = catalogObjectGzipPayloadRepository.findOne(id);
+            return gzipPayload == null ? null : gzipPayload.getGzipRawObject();
+        });
+    }
+
+    /**
+     * @return the length of the gzip encoding of the payload, without loading it, null if it has none or if its
+     *         length was not recorded
+     */
+    @Transactional(readOnly = true)
+    public Long getGzipRawObjectSize(Long payloadId) {
+        return catalogObjectGzipPayloadRepository.findGzipRawObjectSizeByPayloadId(payloadId);
+    }
+
+    private static byte[] gzip(byte[] rawObject) {
+        ByteArrayOutputStream gzipRawObject = new ByteArrayOutputStream(rawObject.length / 2);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipRawObject)) {
+            gzipOutputStream.write(rawObject);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return gzipRawObject.toByteArray();
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.function.Function;
+
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+
+/**
+ * Raw content of the revisions, kept in memory up to a total number of bytes. A payload never changes once
+ * stored, so the entries are keyed by payload identifier and never need to be invalidated; the revisions of a
+ * cloned bucket share the entries of the original ones. The gzip encodings of the payloads share the same budget.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Component
+@ManagedResource(objectName = "org.ow2.proactive.catalog:name=RevisionPayloadCache")
+public class RevisionPayloadCache {
+
+    private static final long DEFAULT_MAXIMUM_SIZE_IN_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Cached in place of the gzip encoding of a payload that has none, so that its absence is not read again
+     */
+    private static final byte[] NO_GZIP_RAW_OBJECT = new byte[0];
+
+    private final Cache<PayloadKey, byte[]> payloads;
+
+    public RevisionPayloadCache() {
+        this(DEFAULT_MAXIMUM_SIZE_IN_BYTES);
+    }
+
+    @Autowired
+    public RevisionPayloadCache(
+            @Value("${pa.catalog.payload.cache.max.size.bytes:" + DEFAULT_MAXIMUM_SIZE_IN_BYTES +
+                   "}") long maximumSizeInBytes) {
+        this.payloads = Caffeine.newBuilder()
+                                .maximumWeight(maximumSizeInBytes)
+                                .weigher((PayloadKey key, byte[] content) -> Math.max(content.length, 1))
+                                .recordStats()
+                                .build();
+    }
+
+    /**
+     * Concurrent misses on the same payload wait for a single read of its content.
+     *
+     * @return the raw content of the revision, read from the database only when it is not cached
+     */
+    public byte[] getRawObject(CatalogObjectRevisionEntity revision) {
+        Long payloadId = revision.getPayloadId();
+        if (payloadId == null) {
+            return revision.getRawObject();
+        }
+        return payloads.get(new PayloadKey(payloadId, false), key -> revision.getRawObject());
+    }
+
+    /**
+     * Same as {@link #getRawObject(CatalogObjectRevisionEntity)} for the gzip encoding of a payload
+     *
+     * @param findGzipRawObject reads the gzip encoding of the payload, null if it has none
+     * @return the gzip encoding of the payload, null if it has none
+     */
+    public byte[] getGzipRawObject(Long payloadId, Function<Long, byte[]> findGzipRawObject) {
+        byte[] gzipRawObject = payloads.get(new PayloadKey(payloadId, true), key -> {
+            byte[] content = findGzipRawObject.apply(payloadId);
+            return content == null ? NO_GZIP_RAW_OBJECT : content;
+        });
+        return gzipRawObject == NO_GZIP_RAW_OBJECT ? null : gzipRawObject;
+    }
+
+    /**
+     * Checks the presence of a payload without counting a hit or a miss
+     */
+    public boolean contains(Long payloadId) {
+        return payloads.asMap().containsKey(new PayloadKey(payloadId, false));
+    }
+
+    @ManagedAttribute(description = "Number of raw contents served from the cache")
+    public long getHitCount() {
+        return payloads.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of raw contents read from the database")
+    public long getMissCount() {
+        return payloads.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Total size in bytes of the cached raw contents")
+    public long getWeightedSize() {
+        return payloads.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    @lombok.Value
+    private static class PayloadKey {
+        long payloadId;
+
+        boolean gzip;
+    }
+
+}
@@ -25,27 +25,36 @@
  */
 package org.ow2.proactive.catalog.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
 
 /**
+ * Rewrites the job level generic information of a workflow in a single streaming pass.
+ * The workflow is parsed once to find the offsets of the job level <code>genericInformation</code>
+ * element, which is replaced, while every other byte of the workflow is copied unchanged.
+ * The same pass can also replace the value of some job level variables.
+ *
  * @author ActiveEon Team
  * @since 09/08/2017
  */
@@ -53,6 +62,29 @@ import org.xml.sax.InputSource;
 @Component
 public class WorkflowXmlManipulator {
 
+    private static final String GENERIC_INFORMATION_ELEMENT = "genericInformation";
+
+    private static final String INFO_ELEMENT = "info";
+
+    private static final String NAME_ATTRIBUTE = "name";
+
+    private static final String VALUE_ATTRIBUTE = "value";
+
+    private static final String VARIABLES_ELEMENT = "variables";
+
+    private static final String VARIABLE_ELEMENT = "variable";
+
+    // job level elements that follow genericInformation in the job descriptor schema
+    private static final Set<String> ELEMENTS_AFTER_GENERIC_INFORMATION = new HashSet<>(Arrays.asList("inputSpace",
+                                                                                                      "outputSpace",
+                                                                                                      "globalSpace",
+                                                                                                      "userSpace",
+                                                                                                      "taskFlow"));
+
+    private static final int JOB_CHILD_DEPTH = 2;
+
+    private final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
     public byte[] replaceGenericInformationJobLevel(final byte[] xmlWorkflow, Map<String, String> genericInfoMap) {
         if (xmlWorkflow == null) {
             return new byte[] {};
@@ -61,64 +93,567 @@ public class WorkflowXmlManipulator {
             return xmlWorkflow;
         }
 
-        Document doc = null;
         try {
-            doc = DocumentBuilderFactory.newInstance()
-                                        .newDocumentBuilder()
-                                        .parse(new InputSource(new StringReader(new String(xmlWorkflow))));
-
-            Element rootElement = doc.getDocumentElement();
-            replaceOrAddGenericInfoElement(genericInfoMap, doc, rootElement);
-
-            Transformer xformer = TransformerFactory.newInstance().newTransformer();
-            xformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            ByteArrayOutputStream answer = new ByteArrayOutputStream();
-            xformer.transform(new DOMSource(doc), new StreamResult(answer));
-            return answer.toByteArray();
-        } catch (Exception e) {
+            if (genericInfoMap.equals(readGenericInformationJobLevel(xmlWorkflow))) {
+                return xmlWorkflow;
+            }
+            return rewriteJobLevel(xmlWorkflow, genericInfoMap, Collections.emptyMap());
+        } catch (XMLStreamException e) {
             throw new ParsingObjectException(e);
         }
     }
 
-    private void replaceOrAddGenericInfoElement(Map<String, String> genericInfoMap, Document doc, Element rootElement) {
-        NodeList nodes = rootElement.getChildNodes();
-        for (int idx = 0; idx < nodes.getLength(); idx++) {
-            if (nodes.item(idx).getNodeName() == "genericInformation") {
-                Element oldGenericInfoElement = (Element) nodes.item(idx);
-                rootElement.replaceChild(createGenericInfoElement(doc, genericInfoMap), oldGenericInfoElement);
-                break;
-            }
-            switch (nodes.item(idx).getNodeName()) {
-                case "genericInformation":
-                    Element oldGenericInfoElement = (Element) nodes.item(idx);
-                    rootElement.replaceChild(createGenericInfoElement(doc, genericInfoMap), oldGenericInfoElement);
-                    return;
-                case "inputSpace":
-                case "outputSpace":
-                case "globalSpace":
-                case "userSpace":
-                case "taskFlow":
-                    Element elementAfterGenericInfo = (Element) nodes.item(idx);
-                    rootElement.insertBefore(createGenericInfoElement(doc, genericInfoMap), elementAfterGenericInfo);
-                    return;
+    /**
+     * Same as {@link #replaceGenericInformationJobLevel(byte[], Map)}, but also replaces the value of the given
+     * job level variables. Variables which are not declared by the job are ignored.
+     */
+    public byte[] replaceGenericInformationAndVariablesJobLevel(final byte[] xmlWorkflow,
+            Map<String, String> genericInfoMap, Map<String, String> variableValues) {
+        if (variableValues == null || variableValues.isEmpty()) {
+            return replaceGenericInformationJobLevel(xmlWorkflow, genericInfoMap);
+        }
+        if (xmlWorkflow == null) {
+            return new byte[] {};
+        }
+
+        try {
+            return rewriteJobLevel(xmlWorkflow, genericInfoMap, variableValues);
+        } catch (XMLStreamException e) {
+            throw new ParsingObjectException(e);
+        }
+    }
+
+    /**
+     * Reads the job level generic information, stopping as soon as it is found or as soon as
+     * an element which must come after it is reached.
+     *
+     * @return the generic information in document order, or null if the job has none before its task flow
+     */
+    private Map<String, String> readGenericInformationJobLevel(byte[] xmlWorkflow) throws XMLStreamException {
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(xmlWorkflow));
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == JOB_CHILD_DEPTH) {
+                        if (GENERIC_INFORMATION_ELEMENT.equals(reader.getLocalName())) {
+                            return readInfoElements(reader);
+                        }
+                        if (ELEMENTS_AFTER_GENERIC_INFORMATION.contains(reader.getLocalName())) {
+                            return null;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Map<String, String> readInfoElements(XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> genericInformation = new LinkedHashMap<>();
+        int depth = 0;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 1 && INFO_ELEMENT.equals(reader.getLocalName())) {
+                    genericInformation.put(reader.getAttributeValue(null, NAME_ATTRIBUTE),
+                                           reader.getAttributeValue(null, VALUE_ATTRIBUTE));
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return genericInformation;
+    }
+
+    private byte[] rewriteJobLevel(byte[] xmlWorkflow, Map<String, String> genericInfoMap,
+            Map<String, String> variableValues) throws XMLStreamException {
+        int byteOrderMarkLength = byteOrderMarkLength(xmlWorkflow);
+        Charset charset = documentCharset(xmlWorkflow, byteOrderMarkLength);
+        // the workflow is parsed from its characters, so that the tags are located by their offset in the document
+        String document = new String(xmlWorkflow,
+                                     byteOrderMarkLength,
+                                     xmlWorkflow.length - byteOrderMarkLength,
+                                     charset);
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new StringReader(document));
+        List<Replacement> replacements;
+        try {
+            replacements = new GenericInformationRewriter(reader,
+                                                          document,
+                                                          charset,
+                                                          genericInfoMap,
+                                                          variableValues).findReplacements();
+        } finally {
+            reader.close();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(xmlWorkflow.length + 256);
+        // the byte order mark is copied as is, the charset used to encode the replacements never adds one
+        output.write(xmlWorkflow, 0, byteOrderMarkLength);
+        int copiedChars = 0;
+        int copiedBytes = byteOrderMarkLength;
+        for (Replacement replacement : replacements) {
+            int unchangedBytes = encodedLength(document, copiedChars, replacement.start, charset);
+            output.write(xmlWorkflow, copiedBytes, unchangedBytes);
+            copiedBytes += unchangedBytes + encodedLength(document, replacement.start, replacement.end, charset);
+            byte[] replacementBytes = replacement.text.getBytes(charset);
+            output.write(replacementBytes, 0, replacementBytes.length);
+            copiedChars = replacement.end;
+        }
+        output.write(xmlWorkflow, copiedBytes, xmlWorkflow.length - copiedBytes);
+        return output.toByteArray();
+    }
+
+    /**
+     * The byte order mark decides the byte order of UTF-16 documents. The endianness is always explicit so that
+     * the decoder skips no byte order mark and the encoder writes none.
+     */
+    private Charset documentCharset(byte[] xmlWorkflow, int byteOrderMarkLength) throws XMLStreamException {
+        if (byteOrderMarkLength == 3) {
+            return StandardCharsets.UTF_8;
+        }
+        if (byteOrderMarkLength == 2) {
+            return (xmlWorkflow[0] & 0xFF) == 0xFE ? StandardCharsets.UTF_16BE : StandardCharsets.UTF_16LE;
+        }
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(xmlWorkflow));
+        String encoding;
+        try {
+            encoding = reader.getEncoding();
+        } finally {
+            reader.close();
+        }
+        Charset charset = Charset.forName(encoding == null ? StandardCharsets.UTF_8.name() : encoding);
+        return StandardCharsets.UTF_16.equals(charset) ? StandardCharsets.UTF_16BE : charset;
+    }
+
+    /**
+     * @return the number of bytes of the given characters of the document in its charset
+     */
+    private static int encodedLength(String document, int start, int end, Charset charset) {
+        if (StandardCharsets.UTF_16BE.equals(charset) || StandardCharsets.UTF_16LE.equals(charset)) {
+            return 2 * (end - start);
+        }
+        if (StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset)) {
+            return end - start;
+        }
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            int length = 0;
+            for (int i = start; i < end; i++) {
+                char c = document.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
             }
+            return length;
         }
+        return document.substring(start, end).getBytes(charset).length;
     }
 
-    private Element createInfoElement(Document doc, String name, String value) {
-        Element infoElement = doc.createElement("info");
-        infoElement.setAttribute("name", name);
-        infoElement.setAttribute("value", value);
-        return infoElement;
+    private static int byteOrderMarkLength(byte[] xmlWorkflow) {
+        if (xmlWorkflow.length >= 3 && (xmlWorkflow[0] & 0xFF) == 0xEF && (xmlWorkflow[1] & 0xFF) == 0xBB &&
+            (xmlWorkflow[2] & 0xFF) == 0xBF) {
+            return 3;
+        }
+        if (xmlWorkflow.length >= 2 && (((xmlWorkflow[0] & 0xFF) == 0xFE && (xmlWorkflow[1] & 0xFF) == 0xFF) ||
+                                        ((xmlWorkflow[0] & 0xFF) == 0xFF && (xmlWorkflow[1] & 0xFF) == 0xFE))) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // entities are reported instead of being expanded, so that the locations always point to the document
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
+        return factory;
     }
 
-    private Node createGenericInfoElement(Document doc, Map<String, String> keyValueMetadataEntities) {
-        Element genericInfoElement = doc.createElement("genericInformation");
-        for (Map.Entry<String, String> entry : keyValueMetadataEntities.entrySet()) {
-            Element child = createInfoElement(doc, entry.getKey(), entry.getValue());
-            genericInfoElement.appendChild(child);
+    /**
+     * Characters of the document, between two offsets, to replace by a text
+     */
+    private static final class Replacement {
+
+        private final int start;
+
+        private final int end;
+
+        private final String text;
+
+        Replacement(int start, int end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Finds, in document order, the replacements of the job level generic information and variable values of a
+     * workflow. A null generic information map keeps the generic information of the workflow.
+     * <p>
+     * The locations reported by the parser are approximate (they lag behind after an internal DTD subset and may
+     * include the white spaces following a tag), so each start or end tag reported by the parser is located by
+     * scanning the document from the previous one, and checked against the name reported by the parser.
+     */
+    private static final class GenericInformationRewriter {
+
+        private final XMLStreamReader reader;
+
+        private final String document;
+
+        private final CharsetEncoder encoder;
+
+        private final boolean unicodeCharset;
+
+        private final Map<String, String> genericInfoMap;
+
+        private final Map<String, String> variableValues;
+
+        private final List<Replacement> replacements = new ArrayList<>();
+
+        private int depth = 0;
+
+        private boolean inJobVariables = false;
+
+        private boolean genericInformationWritten = false;
+
+        private String rootPrefix = "";
+
+        // offset following the last located tag
+        private int scannedOffset = 0;
+
+        private boolean emptyElementTag = false;
+
+        // start offset and replacement of the job level generic information element being read, if any
+        private int replacedElementStart = -1;
+
+        private String replacedElementText;
+
+        GenericInformationRewriter(XMLStreamReader reader, String document, Charset charset,
+                Map<String, String> genericInfoMap, Map<String, String> variableValues) {
+            this.reader = reader;
+            this.document = document;
+            this.encoder = charset.newEncoder();
+            this.unicodeCharset = charset.name().startsWith("UTF");
+            this.genericInfoMap = genericInfoMap;
+            this.variableValues = variableValues;
+        }
+
+        List<Replacement> findReplacements() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    int start = locateStartTag();
+                    if (depth == 1) {
+                        rootPrefix = reader.getPrefix() == null ? "" : reader.getPrefix();
+                    } else if (depth == JOB_CHILD_DEPTH) {
+                        startJobChildElement(start);
+                    } else if (inJobVariables && depth == JOB_CHILD_DEPTH + 1 &&
+                               VARIABLE_ELEMENT.equals(reader.getLocalName())) {
+                        replaceVariableValue(start);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    int end = locateEndTag();
+                    if (depth == JOB_CHILD_DEPTH) {
+                        inJobVariables = false;
+                        if (replacedElementStart >= 0) {
+                            replacements.add(new Replacement(replacedElementStart, end, replacedElementText));
+                            replacedElementStart = -1;
+                        }
+                    }
+                    depth--;
+                }
+            }
+            return replacements;
+        }
+
+        private void startJobChildElement(int start) {
+            inJobVariables = VARIABLES_ELEMENT.equals(reader.getLocalName());
+            if (genericInfoMap == null) {
+                return;
+            }
+            if (GENERIC_INFORMATION_ELEMENT.equals(reader.getLocalName())) {
+                replacedElementStart = start;
+                replacedElementText = genericInformationWritten ? "" : genericInformation(start);
+                genericInformationWritten = true;
+            } else if (!genericInformationWritten &&
+                       ELEMENTS_AFTER_GENERIC_INFORMATION.contains(reader.getLocalName())) {
+                String indent = indentation(start);
+                replacements.add(new Replacement(start,
+                                                 start,
+                                                 genericInformation(start) +
+                                                        (indent == null ? "" : lineBreak(start, indent) + indent)));
+                genericInformationWritten = true;
+            }
+        }
+
+        /**
+         * Replaces the value attribute of the current element if it is a job level variable to replace
+         */
+        private void replaceVariableValue(int start) {
+            String value = variableValues.get(reader.getAttributeValue(null, NAME_ATTRIBUTE));
+            if (value == null) {
+                return;
+            }
+            int offset = start + 1;
+            // skips the element name, then each attribute until the value one
+            while (!isWhiteSpace(document.charAt(offset)) && document.charAt(offset) != '/' &&
+                   document.charAt(offset) != '>') {
+                offset++;
+            }
+            while (offset < scannedOffset) {
+                offset = skipWhiteSpaces(offset);
+                int nameStart = offset;
+                while (document.charAt(offset) != '=' && !isWhiteSpace(document.charAt(offset)) &&
+                       document.charAt(offset) != '/' && document.charAt(offset) != '>') {
+                    offset++;
+                }
+                if (offset == nameStart) {
+                    return;
+                }
+                String name = document.substring(nameStart, offset);
+                offset = skipWhiteSpaces(skipWhiteSpaces(offset) + 1);
+                char quote = document.charAt(offset);
+                int valueEnd = document.indexOf(quote, offset + 1);
+                if (VALUE_ATTRIBUTE.equals(name)) {
+                    replacements.add(new Replacement(offset + 1, valueEnd, escaped(value, quote)));
+                    return;
+                }
+                offset = valueEnd + 1;
+            }
+        }
+
+        /**
+         * @return the offset of the start tag of the current element
+         */
+        private int locateStartTag() throws XMLStreamException {
+            int start = nextTag("<" + qualifiedName());
+            scannedOffset = tagEnd(start);
+            emptyElementTag = document.charAt(scannedOffset - 2) == '/';
+            return start;
+        }
+
+        /**
+         * @return the offset following the end tag of the current element, or its empty element tag
+         */
+        private int locateEndTag() throws XMLStreamException {
+            if (emptyElementTag) {
+                emptyElementTag = false;
+            } else {
+                scannedOffset = tagEnd(nextTag("</" + qualifiedName()));
+            }
+            return scannedOffset;
+        }
+
+        /**
+         * @return the offset of the next start or end tag of the document, which must start with the given text
+         */
+        private int nextTag(String tagStartText) throws XMLStreamException {
+            int offset = scannedOffset;
+            while (true) {
+                // neither the text nor the values of the attributes can contain a '<'
+                int start = document.indexOf('<', offset);
+                if (start < 0) {
+                    break;
+                } else if (document.startsWith("<!--", start)) {
+                    offset = markupEnd(start, "-->");
+                } else if (document.startsWith("<![CDATA[", start)) {
+                    offset = markupEnd(start, "]]>");
+                } else if (document.startsWith("<?", start)) {
+                    offset = markupEnd(start, "?>");
+                } else if (document.startsWith("<!", start)) {
+                    offset = documentTypeEnd(start);
+                } else {
+                    int nameEnd = start + tagStartText.length();
+                    if (document.startsWith(tagStartText, start) && nameEnd < document.length() &&
+                        (isWhiteSpace(document.charAt(nameEnd)) || document.charAt(nameEnd) == '/' ||
+                         document.charAt(nameEnd) == '>')) {
+                        return start;
+                    }
+                    break;
+                }
+            }
+            throw new XMLStreamException("Tag " + tagStartText + " not found after offset " + scannedOffset,
+                                         reader.getLocation());
+        }
+
+        private int markupEnd(int start, String endText) throws XMLStreamException {
+            int end = document.indexOf(endText, start);
+            if (end < 0) {
+                throw new XMLStreamException("Unterminated markup at offset " + start, reader.getLocation());
+            }
+            return end + endText.length();
+        }
+
+        /**
+         * @return the offset following the document type declaration starting at the given offset, whose internal
+         *         subset can contain quoted values, comments and processing instructions
+         */
+        private int documentTypeEnd(int start) throws XMLStreamException {
+            int subsetDepth = 0;
+            int offset = start + 2;
+            while (offset < document.length()) {
+                char c = document.charAt(offset);
+                if (document.startsWith("<!--", offset)) {
+                    offset = markupEnd(offset, "-->");
+                    continue;
+                } else if (document.startsWith("<?", offset)) {
+                    offset = markupEnd(offset, "?>");
+                    continue;
+                } else if (c == '"' || c == '\'') {
+                    offset = markupEnd(offset + 1, String.valueOf(c));
+                    continue;
+                } else if (c == '[') {
+                    subsetDepth++;
+                } else if (c == ']') {
+                    subsetDepth--;
+                } else if (c == '>' && subsetDepth == 0) {
+                    return offset + 1;
+                }
+                offset++;
+            }
+            throw new XMLStreamException("Unterminated document type declaration", reader.getLocation());
+        }
+
+        /**
+         * @return the offset following the tag starting at the given offset, the values of its attributes can
+         *         contain a '&gt;'
+         */
+        private int tagEnd(int start) throws XMLStreamException {
+            char quote = 0;
+            for (int offset = start + 1; offset < document.length(); offset++) {
+                char c = document.charAt(offset);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return offset + 1;
+                }
+            }
+            throw new XMLStreamException("Unterminated tag at offset " + start, reader.getLocation());
+        }
+
+        private String qualifiedName() {
+            return reader.getPrefix() == null || reader.getPrefix().isEmpty() ? reader.getLocalName()
+                                                                            : reader.getPrefix() + ":" +
+                                                                              reader.getLocalName();
+        }
+
+        private String genericInformation(int offset) {
+            String elementPrefix = rootPrefix.isEmpty() ? "" : rootPrefix + ":";
+            String indentation = indentation(offset);
+            String indent = indentation == null ? "" : indentation;
+            String lineBreak = indent.isEmpty() ? "" : lineBreak(offset, indent);
+
+            if (genericInfoMap.isEmpty()) {
+                return "<" + elementPrefix + GENERIC_INFORMATION_ELEMENT + "/>";
+            }
+            StringBuilder genericInformation = new StringBuilder("<" + elementPrefix + GENERIC_INFORMATION_ELEMENT +
+                                                                 ">");
+            for (Map.Entry<String, String> entry : genericInfoMap.entrySet()) {
+                genericInformation.append(lineBreak)
+                                  .append(indent)
+                                  .append(indent)
+                                  .append("<" + elementPrefix + INFO_ELEMENT + " " + NAME_ATTRIBUTE + "=\"")
+                                  .append(escaped(entry.getKey(), '"'))
+                                  .append("\" " + VALUE_ATTRIBUTE + "=\"")
+                                  .append(escaped(entry.getValue(), '"'))
+                                  .append("\"/>");
+            }
+            return genericInformation.append(lineBreak)
+                                     .append(indent)
+                                     .append("</" + elementPrefix + GENERIC_INFORMATION_ELEMENT + ">")
+                                     .toString();
+        }
+
+        /**
+         * @return the white spaces which precede the given offset on its line, or null if other characters precede
+         *         it
+         */
+        private String indentation(int offset) {
+            int lineStart = offset;
+            while (lineStart > 0 && (document.charAt(lineStart - 1) == ' ' || document.charAt(lineStart - 1) == '\t')) {
+                lineStart--;
+            }
+            return lineStart > 0 && document.charAt(lineStart - 1) == '\n' ? document.substring(lineStart, offset)
+                                                                             : null;
+        }
+
+        /**
+         * @return the line break ending the line before the given indented offset
+         */
+        private String lineBreak(int offset, String indent) {
+            int lineBreakOffset = offset - indent.length() - 1;
+            return lineBreakOffset > 0 && document.charAt(lineBreakOffset - 1) == '\r' ? "\r\n" : "\n";
+        }
+
+        private int skipWhiteSpaces(int offset) {
+            while (offset < document.length() && isWhiteSpace(document.charAt(offset))) {
+                offset++;
+            }
+            return offset;
+        }
+
+        private static boolean isWhiteSpace(char c) {
+            return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+        }
+
+        /**
+         * @return the attribute value delimited by the given quote, escaped
+         */
+        private String escaped(String value, char quote) {
+            StringBuilder escaped = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&':
+                        escaped.append("&amp;");
+                        break;
+                    case '<':
+                        escaped.append("&lt;");
+                        break;
+                    case '>':
+                        escaped.append("&gt;");
+                        break;
+                    case '"':
+                    case '\'':
+                        escaped.append(c != quote ? String.valueOf(c) : c == '"' ? "&quot;" : "&apos;");
+                        break;
+                    case '\r':
+                    case '\n':
+                    case '\t':
+                        escaped.append("&#").append((int) c).append(';');
+                        break;
+                    default:
+                        if (unicodeCharset || encoder.canEncode(c)) {
+                            escaped.append(c);
+                        } else {
+                            int codePoint = value.codePointAt(i);
+                            escaped.append("&#x").append(Integer.toHexString(codePoint)).append(';');
+                            i += Character.charCount(codePoint) - 1;
+                        }
+                }
+            }
+            return escaped.toString();
         }
-        return genericInfoElement;
     }
 
 }
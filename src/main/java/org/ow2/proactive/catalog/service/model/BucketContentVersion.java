@@ -0,0 +1,65 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+/**
+ * Summary of the objects of a bucket which changes whenever the listing of the bucket changes: adding or
+ * deleting an object changes the count, committing changes the last commit time and renaming, moving or
+ * changing the kind or content type of an object changes the last update time.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Data
+@AllArgsConstructor
+public class BucketContentVersion {
+
+    private final Long objectCount;
+
+    private final Long lastCommitTime;
+
+    private final Long lastUpdateTime;
+
+    public String getETag() {
+        return "\"" + objectCount + "-" + nullToZero(lastCommitTime) + "-" + nullToZero(lastUpdateTime) + "\"";
+    }
+
+    /**
+     * @return the time of the last change of the listing, or -1 for an empty bucket
+     */
+    public long getLastModified() {
+        long lastModified = Math.max(nullToZero(lastCommitTime), nullToZero(lastUpdateTime));
+        return lastModified == 0 ? -1 : lastModified;
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
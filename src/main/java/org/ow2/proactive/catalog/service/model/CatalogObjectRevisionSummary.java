@@ -0,0 +1,65 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+/**
+ * Columns of a revision, of its object and of its bucket needed to list the revision, read in a single query
+ * without loading the entities.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Data
+@AllArgsConstructor
+public class CatalogObjectRevisionSummary {
+
+    private final Long revisionId;
+
+    private final String bucketName;
+
+    private final String name;
+
+    private final String kind;
+
+    private final String contentType;
+
+    private final long commitTime;
+
+    private final String commitMessage;
+
+    private final String username;
+
+    private final String extension;
+
+    private final Long revisionNumber;
+
+    private final Long lastUpdateTime;
+
+}
@@ -0,0 +1,56 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.model;
+
+import org.ow2.proactive.catalog.dto.Metadata;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+/**
+ * Key value label of a revision, read without loading the metadata entities.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Data
+@AllArgsConstructor
+public class RevisionKeyValue {
+
+    private final Long revisionId;
+
+    private final String key;
+
+    private final String value;
+
+    private final String label;
+
+    public Metadata toMetadata() {
+        return new Metadata(key, value, label);
+    }
+
+}
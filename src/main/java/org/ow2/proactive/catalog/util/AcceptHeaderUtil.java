@@ -0,0 +1,91 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+
+/**
+ * Choice between the default representation of a resource and an alternative one according to the media ranges and
+ * quality values of the Accept header.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class AcceptHeaderUtil {
+
+    private AcceptHeaderUtil() {
+    }
+
+    /**
+     * The quality of each media type is the one of the most specific media range including it. The alternative media
+     * type is preferred when its quality is higher, or equal but given by a more specific range, so that
+     * "application/x-ndjson, *&#47;*" selects NDJSON while "*&#47;*" alone or a malformed header selects the default.
+     *
+     * @return whether the Accept header prefers the alternative media type to the default one
+     */
+    public static boolean isPreferred(WebRequest webRequest, MediaType alternative, MediaType defaultMediaType) {
+        String[] acceptHeaders = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        if (acceptHeaders == null) {
+            return false;
+        }
+
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(Arrays.asList(acceptHeaders));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificity(acceptedTypes);
+
+        Optional<MediaType> alternativeRange = findMostSpecificRange(acceptedTypes, alternative);
+        if (!alternativeRange.isPresent() || alternativeRange.get().getQualityValue() == 0) {
+            return false;
+        }
+        Optional<MediaType> defaultRange = findMostSpecificRange(acceptedTypes, defaultMediaType);
+        if (!defaultRange.isPresent() || defaultRange.get().getQualityValue() == 0) {
+            return true;
+        }
+
+        int qualityComparison = Double.compare(alternativeRange.get().getQualityValue(),
+                                               defaultRange.get().getQualityValue());
+        if (qualityComparison != 0) {
+            return qualityComparison > 0;
+        }
+        return MediaType.SPECIFICITY_COMPARATOR.compare(alternativeRange.get(), defaultRange.get()) < 0;
+    }
+
+    private static Optional<MediaType> findMostSpecificRange(List<MediaType> sortedRanges, MediaType mediaType) {
+        return sortedRanges.stream().filter(range -> range.includes(mediaType)).findFirst();
+    }
+}
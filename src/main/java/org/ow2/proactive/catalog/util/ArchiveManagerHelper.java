@@ -134,8 +134,7 @@ public class ArchiveManagerHelper {
                 return catalogObjectRevision != null;
             }).map(catalogObjectRevision -> {
                 CatalogObjectEntity catalogObjectEntity = catalogObjectRevision.getCatalogObject();
-                String fileNameWithExtension = rawObjectResponseCreator.getNameWithFileExtension(catalogObjectEntity.getId()
-                                                                                                                    .getName(),
+                String fileNameWithExtension = rawObjectResponseCreator.getNameWithFileExtension(catalogObjectEntity.getName(),
                                                                                                  catalogObjectEntity.getExtension(),
                                                                                                  catalogObjectEntity.getKind());
                 return new ByteSource(fileNameWithExtension, catalogObjectRevision.getRawObject());
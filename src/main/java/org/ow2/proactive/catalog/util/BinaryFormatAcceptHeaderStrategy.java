@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+
+
+/**
+ * Resolves the binary formats requested in the Accept header, and JSON otherwise.
+ * <p>
+ * The Accept header is otherwise ignored by the content negotiation, the format being chosen with the format request
+ * parameter, so that clients sending any other Accept header keep getting JSON as before. This strategy is used when
+ * no format parameter is given: the first accepted type which is CBOR or Smile is returned, unless JSON is accepted
+ * with a higher preference.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class BinaryFormatAcceptHeaderStrategy implements ContentNegotiationStrategy {
+
+    private static final List<MediaType> BINARY_FORMATS = Arrays.asList(BinaryJacksonHttpMessageConverter.APPLICATION_CBOR,
+                                                                        BinaryJacksonHttpMessageConverter.APPLICATION_SMILE);
+
+    @Override
+    public List<MediaType> resolveMediaTypes(NativeWebRequest webRequest) {
+        String[] acceptHeaders = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        if (acceptHeaders == null) {
+            return Collections.singletonList(MediaType.APPLICATION_JSON);
+        }
+
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(Arrays.asList(acceptHeaders));
+        } catch (InvalidMediaTypeException e) {
+            return Collections.singletonList(MediaType.APPLICATION_JSON);
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType binaryFormat : BINARY_FORMATS) {
+                if (binaryFormat.includes(acceptedType)) {
+                    return Collections.singletonList(binaryFormat);
+                }
+            }
+            if (acceptedType.includes(MediaType.APPLICATION_JSON)) {
+                break;
+            }
+        }
+        return Collections.singletonList(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+
+/**
+ * Reads and writes one of the binary encodings of the JSON data model, CBOR or Smile, with an object mapper
+ * configured as the JSON one, so that the binary representations have the same properties as the JSON ones.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class BinaryJacksonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    public static final MediaType APPLICATION_CBOR = MediaType.valueOf(APPLICATION_CBOR_VALUE);
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    public BinaryJacksonHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(objectMapper, mediaType);
+    }
+
+    public static BinaryJacksonHttpMessageConverter cbor(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new BinaryJacksonHttpMessageConverter(createObjectMapper(objectMapperBuilder, new CBORFactory()),
+                                                     APPLICATION_CBOR);
+    }
+
+    public static BinaryJacksonHttpMessageConverter smile(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new BinaryJacksonHttpMessageConverter(createObjectMapper(objectMapperBuilder, new SmileFactory()),
+                                                     APPLICATION_SMILE);
+    }
+
+    private static ObjectMapper createObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder,
+            JsonFactory binaryFactory) {
+        // the builder is shared with the JSON mapper, it only configures this new mapper and is left unchanged
+        ObjectMapper objectMapper = new ObjectMapper(binaryFactory);
+        objectMapperBuilder.configure(objectMapper);
+        return objectMapper;
+    }
+}
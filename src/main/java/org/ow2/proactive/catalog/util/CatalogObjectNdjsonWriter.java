@@ -0,0 +1,134 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadataField;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+
+/**
+ * Writes catalog objects metadata as newline delimited JSON, one object per line, with a streaming generator
+ * instead of an object mapper: the fields are written one by one, without introspecting the objects nor building
+ * intermediate trees, and the objects can be discarded as soon as they are written.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class CatalogObjectNdjsonWriter implements Closeable {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+
+    private final List<CatalogObjectMetadataField> fields;
+
+    /**
+     * @param fields the fields written for each object, in this order
+     */
+    public CatalogObjectNdjsonWriter(OutputStream outputStream, List<CatalogObjectMetadataField> fields)
+            throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+        // each object ends its own line instead of being separated from the next one by a space
+        this.generator.setRootValueSeparator(null);
+        this.fields = fields;
+    }
+
+    public void write(CatalogObjectMetadata metadata) throws IOException {
+        generator.writeStartObject();
+        for (CatalogObjectMetadataField field : fields) {
+            writeField(field, metadata);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Sends the objects written so far to the client
+     */
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeField(CatalogObjectMetadataField field, CatalogObjectMetadata metadata) throws IOException {
+        switch (field) {
+            case OBJECT_KEY_VALUES:
+                generator.writeArrayFieldStart(field.getJsonName());
+                for (Metadata keyValue : metadata.getMetadataList()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("key", keyValue.getKey());
+                    generator.writeStringField("value", keyValue.getValue());
+                    generator.writeStringField("label", keyValue.getLabel());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                break;
+            case LINKS:
+                generator.writeArrayFieldStart(field.getJsonName());
+                for (Link link : metadata.getLinks()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("rel", link.getRel());
+                    generator.writeStringField("href", link.getHref());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                break;
+            case REVISION_NUMBER:
+                // left out when unknown, as in the JSON representation
+                if (metadata.getRevisionNumber() != null) {
+                    generator.writeNumberField(field.getJsonName(), metadata.getRevisionNumber());
+                }
+                break;
+            default:
+                Object value = field.read(metadata);
+                if (value == null) {
+                    generator.writeNullField(field.getJsonName());
+                } else {
+                    generator.writeStringField(field.getJsonName(), value.toString());
+                }
+        }
+    }
+}
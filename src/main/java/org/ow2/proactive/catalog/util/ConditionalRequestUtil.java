@@ -0,0 +1,123 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Validators of the conditional requests (If-None-Match, If-Modified-Since) on a catalog object revision.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ConditionalRequestUtil {
+
+    private static final Joiner FIELD_JOINER = Joiner.on('\n').useForNull("");
+
+    private static final String GZIP_REPRESENTATION = "gzip";
+
+    private ConditionalRequestUtil() {
+    }
+
+    /**
+     * A revision never changes once committed, but the name, bucket, kind and content type of its object can,
+     * so the strong ETag is derived from all of them.
+     *
+     * @return the quoted ETag of the revision
+     */
+    public static String eTag(CatalogObjectMetadata metadata) {
+        String identity = FIELD_JOINER.join(metadata.getBucketName(),
+                                            metadata.getName(),
+                                            metadata.getCommitTimeRaw(),
+                                            metadata.getKind(),
+                                            metadata.getContentType(),
+                                            metadata.getExtension());
+        return "\"" + Hashing.sha256().hashString(identity, StandardCharsets.UTF_8).toString().substring(0, 32) +
+               "\"";
+    }
+
+    /**
+     * The gzip encoding of a raw content is another representation of the revision, with another strong ETag
+     *
+     * @return the quoted ETag of the gzip encoding of the revision raw content
+     */
+    public static String gzipETag(CatalogObjectMetadata metadata) {
+        return eTag(eTag(metadata), GZIP_REPRESENTATION);
+    }
+
+    /**
+     * Each representation of a resource needs its own strong ETag
+     *
+     * @return the given quoted ETag, suffixed with the name of the representation
+     */
+    public static String eTag(String eTag, String representation) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + representation + "\"";
+    }
+
+    /**
+     * JSON keeps the ETag of the resource, the binary formats being other representations of it
+     *
+     * @return the given quoted ETag of a resource, for its representation of the given media type
+     */
+    public static String eTag(String eTag, MediaType mediaType) {
+        return mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) ? eTag : eTag(eTag, mediaType.getSubtype());
+    }
+
+    /**
+     * @return the media type of the response body, given by the format request parameter or else the Accept header
+     */
+    public static MediaType negotiatedMediaType(ContentNegotiationManager contentNegotiationManager,
+            NativeWebRequest webRequest) {
+        try {
+            List<MediaType> mediaTypes = contentNegotiationManager.resolveMediaTypes(webRequest);
+            return mediaTypes.isEmpty() ? MediaType.APPLICATION_JSON : mediaTypes.get(0);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // an unknown format is rejected when the response body is written
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    /**
+     * @return the last time the revision or the attributes of its object changed
+     */
+    public static long lastModified(CatalogObjectMetadata metadata) {
+        long commitTime = Long.parseLong(metadata.getCommitTimeRaw());
+        Long lastUpdateTime = metadata.getLastUpdateTime();
+        return lastUpdateTime == null ? commitTime : Math.max(commitTime, lastUpdateTime);
+    }
+
+}
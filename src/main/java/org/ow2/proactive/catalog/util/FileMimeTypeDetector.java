@@ -0,0 +1,162 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.tika.detect.Detector;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.parser.AutoDetectParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Detects the MIME type of the files imported from an archive.
+ * <p>
+ * The file extension is looked up first, then the kind of the imported objects, in the configured
+ * mappings. Only when neither is known, the content is given to the Tika detector. Its results are not cached:
+ * besides the magic bytes, the text, XML and container detectors read further into the content, so only a key
+ * covering all these bytes would be correct, and two entries would hardly ever share it.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Log4j2
+@Component
+public class FileMimeTypeDetector {
+
+    static final String DEFAULT_EXTENSION_MAPPINGS = "xml:application/xml,json:application/json,txt:text/plain," +
+                                                     "groovy:text/x-groovy,py:text/x-python,rb:text/x-ruby," +
+                                                     "r:text/x-rsrc,sh:application/x-sh,bat:application/x-bat," +
+                                                     "cmd:application/x-bat,js:application/javascript," +
+                                                     "yaml:text/x-yaml,properties:text/x-java-properties," +
+                                                     "ics:text/calendar";
+
+    static final String DEFAULT_KIND_MAPPINGS = "workflow:application/xml";
+
+    private static final String DEFAULT_KIND_SEPARATOR = "/";
+
+    private final Map<String, String> mimeTypesByExtension;
+
+    private final Map<String, String> mimeTypesByKind;
+
+    private final String kindSeparator;
+
+    private final Detector tikaDetector = new AutoDetectParser().getDetector();
+
+    public FileMimeTypeDetector() {
+        this(DEFAULT_EXTENSION_MAPPINGS, DEFAULT_KIND_MAPPINGS, DEFAULT_KIND_SEPARATOR);
+    }
+
+    /**
+     * @param extensionMappings comma separated <code>extension:mime/type</code> pairs
+     * @param kindMappings comma separated <code>kind:mime/type</code> pairs, a kind also matches its sub kinds
+     * @param kindSeparator the separator between a kind and its sub kinds
+     */
+    @Autowired
+    public FileMimeTypeDetector(
+            @Value("${pa.catalog.mime.types.by.extension:" + DEFAULT_EXTENSION_MAPPINGS +
+                   "}") String extensionMappings,
+            @Value("${pa.catalog.mime.types.by.kind:" + DEFAULT_KIND_MAPPINGS + "}") String kindMappings,
+            @Value("${kind.separator:" + DEFAULT_KIND_SEPARATOR + "}") String kindSeparator) {
+        this.mimeTypesByExtension = parseMappings(extensionMappings);
+        this.mimeTypesByKind = parseMappings(kindMappings);
+        this.kindSeparator = kindSeparator.toLowerCase(Locale.ROOT);
+    }
+
+    public String detect(String kind, String fileNameWithExtension, byte[] content) {
+        String extension = FilenameUtils.getExtension(fileNameWithExtension).toLowerCase(Locale.ROOT);
+
+        String mimeType = mimeTypesByExtension.get(extension);
+        if (mimeType == null) {
+            mimeType = findMimeTypeByKind(kind);
+        }
+        if (mimeType == null) {
+            mimeType = detectWithTika(fileNameWithExtension, content);
+        }
+        return mimeType;
+    }
+
+    private String findMimeTypeByKind(String kind) {
+        if (kind == null) {
+            return null;
+        }
+        // the most specific configured kind wins, e.g. script/groovy over script
+        String currentKind = kind.toLowerCase(Locale.ROOT);
+        while (true) {
+            String mimeType = mimeTypesByKind.get(currentKind);
+            int separatorIndex = currentKind.lastIndexOf(kindSeparator);
+            if (mimeType != null || separatorIndex <= 0) {
+                return mimeType;
+            }
+            currentKind = currentKind.substring(0, separatorIndex);
+        }
+    }
+
+    private String detectWithTika(String fileNameWithExtension, byte[] content) {
+        Metadata metadata = new Metadata();
+        metadata.set(Metadata.RESOURCE_NAME_KEY, fileNameWithExtension);
+        MediaType mediaType = MediaType.OCTET_STREAM;
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            mediaType = tikaDetector.detect(inputStream, metadata);
+        } catch (IOException e) {
+            log.warn("there is a problem of identifying mime type for the file from archive : " +
+                     fileNameWithExtension, e);
+        }
+        return mediaType.toString();
+    }
+
+    private static Map<String, String> parseMappings(String mappings) {
+        if (mappings == null || mappings.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        Arrays.stream(mappings.split(",")).map(String::trim).filter(mapping -> !mapping.isEmpty()).forEach(mapping -> {
+            int separatorIndex = mapping.indexOf(':');
+            if (separatorIndex <= 0 || separatorIndex == mapping.length() - 1) {
+                throw new IllegalArgumentException("Invalid MIME type mapping '" + mapping +
+                                                   "', expected <name>:<mime type>");
+            }
+            result.put(mapping.substring(0, separatorIndex).trim().toLowerCase(Locale.ROOT),
+                       mapping.substring(separatorIndex + 1).trim());
+        });
+        return result;
+    }
+
+}
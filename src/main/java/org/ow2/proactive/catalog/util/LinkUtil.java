@@ -25,22 +25,17 @@
  */
 package org.ow2.proactive.catalog.util;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
-
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
 import java.net.URLEncoder;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 
 import org.ow2.proactive.catalog.rest.controller.CatalogObjectController;
-import org.ow2.proactive.catalog.rest.controller.CatalogObjectRevisionController;
-import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
-import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
 import org.springframework.hateoas.Link;
-import org.springframework.hateoas.core.LinkBuilderSupport;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
-import org.springframework.web.util.UriComponents;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.UriUtils;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -52,6 +47,16 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class LinkUtil {
 
+    // the links are built from these parts of the raw endpoints paths rather than by invoking the controllers
+    // through proxies, so that only the bucket and object names are encoded for each link
+    private static final String RESOURCES_PATH = "/resources/";
+
+    private static final String REVISIONS_PATH = "/revisions/";
+
+    private static final String RAW_PATH = "/raw";
+
+    private static final String BUCKETS_URL_ATTRIBUTE = LinkUtil.class.getName() + ".BUCKETS_URL";
+
     /**
      * This is used to generate the absolute URL of the given object revision based on the service domain.
      *
@@ -60,16 +65,13 @@ public class LinkUtil {
      * @param commitTime The commit time of the object which is also the identifier of this revision
      * @return a <code>Link</code> referencing the given object's revision raw content
      */
-    public static Link createLink(String bucketName, String name, LocalDateTime commitTime)
-            throws NotAuthenticatedException, AccessDeniedException {
+    public static Link createLink(String bucketName, String name, LocalDateTime commitTime) {
         try {
             long epochMilli = commitTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-            String absoluteLink = linkTo(methodOn(CatalogObjectRevisionController.class).getRaw(null,
-                                                                                                bucketName,
-                                                                                                encodeUrl(name),
-                                                                                                epochMilli));
+            String absoluteLink = getBucketsUrl() + "/" + UriUtils.encodePathSegment(bucketName, "UTF-8") +
+                                  RESOURCES_PATH + encodeUrl(name) + REVISIONS_PATH + epochMilli + RAW_PATH;
 
-            return new Link(absoluteLink).withRel("content");
+            return new Link(absoluteLink, "content");
         } catch (UnsupportedEncodingException e) {
             log.error("{} cannot be encoded", name, e);
         }
@@ -83,15 +85,11 @@ public class LinkUtil {
      * @param name The name of the object which is the identifier of the object
      * @return a <code>Link</code> referencing the given object's raw content
      */
-    public static Link createLink(String bucketName, String name)
-            throws NotAuthenticatedException, AccessDeniedException {
+    public static Link createLink(String bucketName, String name) {
         try {
-            String absoluteLink = linkTo(methodOn(CatalogObjectController.class).getRaw(null,
-                                                                                        bucketName,
-                                                                                        encodeUrl(name)
-
-            ));
-            return new Link(absoluteLink).withRel("content");
+            String absoluteLink = getBucketsUrl() + "/" + UriUtils.encodePathSegment(bucketName, "UTF-8") +
+                                  RESOURCES_PATH + encodeUrl(name) + RAW_PATH;
+            return new Link(absoluteLink, "content");
         } catch (UnsupportedEncodingException e) {
             log.error("{} cannot be encoded", name, e);
         }
@@ -111,8 +109,8 @@ public class LinkUtil {
         Link link = null;
         try {
             long epochMilli = commitTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-            link = new Link("buckets/" + bucketName + "/resources/" + encodeUrl(objectName) + "/revisions/" +
-                            epochMilli).withRel("relative");
+            link = new Link("buckets/" + bucketName + RESOURCES_PATH + encodeUrl(objectName) + REVISIONS_PATH +
+                            epochMilli, "relative");
 
         } catch (UnsupportedEncodingException e) {
             log.error("{} cannot be encoded", objectName, e);
@@ -131,7 +129,7 @@ public class LinkUtil {
     public static Link createRelativeLink(String bucketName, String objectName) {
         Link link = null;
         try {
-            link = new Link("buckets/" + bucketName + "/resources/" + encodeUrl(objectName)).withRel("relative");
+            link = new Link("buckets/" + bucketName + RESOURCES_PATH + encodeUrl(objectName), "relative");
 
         } catch (UnsupportedEncodingException e) {
             log.error("{} cannot be encoded", objectName, e);
@@ -139,31 +137,21 @@ public class LinkUtil {
         return link;
     }
 
-    // ControllerLinkBuilder.linkTo has a problem: it double-URL-encodes characters!
-    // e.g. ' ' (whitespace) is encoded to '%2525' instead of '%20'
-    // TODO remove hack when https://github.com/spring-projects/spring-hateoas/issues/40 is resolved
-    private static final Field uriComponentsField;
-    static {
-        try {
-            uriComponentsField = LinkBuilderSupport.class.getDeclaredField("uriComponents");
-            uriComponentsField.setAccessible(true);
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     /**
-     * Method is created to avoid double encoding
-     * @param invocationValue
-     * @return encoded link
+     * The absolute URL of the buckets depends on the current request only, through its host, its context path and
+     * its forwarding headers. It is computed once and kept in the request, for all the links of a listing.
+     *
+     * @return the absolute URL of the buckets, ending with <code>/buckets</code>
      */
-    public static String linkTo(Object invocationValue) {
-        try {
-            final UriComponents uriComponents = (UriComponents) uriComponentsField.get(ControllerLinkBuilder.linkTo(invocationValue));
-            return uriComponents.toString();
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+    private static String getBucketsUrl() {
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        String bucketsUrl = (String) requestAttributes.getAttribute(BUCKETS_URL_ATTRIBUTE,
+                                                                    RequestAttributes.SCOPE_REQUEST);
+        if (bucketsUrl == null) {
+            bucketsUrl = ControllerLinkBuilder.linkTo(CatalogObjectController.class).toUri().toString();
+            requestAttributes.setAttribute(BUCKETS_URL_ATTRIBUTE, bucketsUrl, RequestAttributes.SCOPE_REQUEST);
         }
+        return bucketsUrl;
     }
 
     public static final String SPACE_ENCODED_AS_PERCENT_20 = "%20";
@@ -0,0 +1,53 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import com.google.common.hash.Hashing;
+
+
+/**
+ * Computes the content hash identifying the raw bytes submitted for a catalog object revision.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class RawObjectHashUtil {
+
+    private RawObjectHashUtil() {
+    }
+
+    /**
+     * @param rawObject the submitted raw object, may be null
+     * @return the lowercase hexadecimal SHA-256 of the raw object, or null if there is no raw object
+     */
+    public static String sha256(byte[] rawObject) {
+        if (rawObject == null) {
+            return null;
+        }
+        return Hashing.sha256().hashBytes(rawObject).toString();
+    }
+
+}
@@ -25,15 +25,29 @@
  */
 package org.ow2.proactive.catalog.util;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.repository.CatalogObjectPayloadRepository;
+import org.ow2.proactive.catalog.service.PayloadCompressionService;
 import org.ow2.proactive.catalog.util.parser.SupportedParserKinds;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -48,32 +62,347 @@ public class RawObjectResponseCreator {
 
     public final static String WORKFLOW_EXTENSION = ".xml";
 
-    public ResponseEntity createRawObjectResponse(CatalogRawObject rawObject) {
-        String name = rawObject.getName();
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final String GZIP_ENCODING = "gzip";
+
+    public static final String MULTIPART_MIXED_VALUE = "multipart/mixed";
+
+    public static final MediaType MULTIPART_MIXED = MediaType.valueOf(MULTIPART_MIXED_VALUE);
+
+    public static final String CATALOG_OBJECT_NAME_HEADER = "X-Catalog-Object-Name";
+
+    public static final String CATALOG_OBJECT_STATUS_HEADER = "X-Catalog-Object-Status";
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Pattern NON_QUOTABLE_CHARACTERS = Pattern.compile("[^\\x20-\\x7E]|[\"\\\\]");
+
+    private static final Pattern LINE_BREAKS = Pattern.compile("[\r\n]");
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    @Autowired
+    private CatalogObjectPayloadRepository catalogObjectPayloadRepository;
+
+    @Autowired
+    private PayloadCompressionService payloadCompressionService;
+
+    /**
+     * Answers with the loaded content of the raw object, written as is to the response
+     */
+    public ResponseEntity<?> createRawObjectResponse(CatalogRawObject rawObject) {
         byte[] bytes = rawObject.getRawObject();
+        return new ResponseEntity<>(bytes, createHeaders(rawObject, bytes.length), HttpStatus.OK);
+    }
+
+    /**
+     * Same as {@link #createRawObjectResponse(CatalogRawObject)}, except that a single range of bytes requested with
+     * a Range header, still valid according to the If-Range header, is answered with 206 Partial Content, that the
+     * stored gzip encoding of the whole content is sent to the clients accepting it, and that the content of a
+     * streamed raw object, or its gzip encoding, is copied from the database to the given response. The If-None-Match and
+     * If-Modified-Since headers are checked against the validators of the representation sent, the gzip encoding
+     * having its own ETag. Null is returned when the response is already written: not modified, or streamed.
+     */
+    public ResponseEntity<?> createRawObjectResponse(CatalogRawObject rawObject, WebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+        long contentLength = rawObject.isStreamed() ? rawObject.getRawObjectSize() : rawObject.getRawObject().length;
+        HttpRange range = getRequestedRange(rawObject, webRequest);
+        // ranges are served from the identity encoding
+        byte[] gzipRawObject = range == null ? getAcceptedGzipRawObject(rawObject, webRequest) : null;
+        Long streamedGzipRawObjectSize = range == null ? getAcceptedStreamedGzipRawObjectSize(rawObject, webRequest)
+                                                       : null;
+        boolean gzipEncoded = gzipRawObject != null || streamedGzipRawObjectSize != null ||
+                              range == null && isCompressedByServer(rawObject, contentLength, webRequest);
+        if (webRequest.checkNotModified(gzipEncoded ? ConditionalRequestUtil.gzipETag(rawObject)
+                                                    : ConditionalRequestUtil.eTag(rawObject),
+                                        ConditionalRequestUtil.lastModified(rawObject))) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return null;
+        }
+
+        if (range == null) {
+            long responseLength = contentLength;
+            if (gzipRawObject != null) {
+                responseLength = gzipRawObject.length;
+            } else if (streamedGzipRawObjectSize != null) {
+                responseLength = streamedGzipRawObjectSize;
+            }
+            HttpHeaders headers = createHeaders(rawObject, responseLength);
+            headers.set(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzipRawObject != null || streamedGzipRawObjectSize != null) {
+                // the embedded server does not compress again a response that already has a content encoding
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+            }
+            if (gzipRawObject != null) {
+                return new ResponseEntity<>(gzipRawObject, headers, HttpStatus.OK);
+            }
+            if (!rawObject.isStreamed()) {
+                return new ResponseEntity<>(rawObject.getRawObject(), headers, HttpStatus.OK);
+            }
+            return copyRawObject(rawObject,
+                                 headers,
+                                 HttpStatus.OK,
+                                 0,
+                                 contentLength,
+                                 streamedGzipRawObjectSize != null,
+                                 response);
+        }
+
+        long rangeStart = range.getRangeStart(contentLength);
+        if (rangeStart >= contentLength) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " */" + contentLength);
+            return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        long rangeEnd = range.getRangeEnd(contentLength);
+        long rangeLength = rangeEnd - rangeStart + 1;
+        HttpHeaders headers = createHeaders(rawObject, rangeLength);
+        headers.set(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        headers.set(HttpHeaders.CONTENT_RANGE,
+                    BYTES_UNIT + " " + rangeStart + "-" + rangeEnd + "/" + contentLength);
+        if (!rawObject.isStreamed()) {
+            return new ResponseEntity<>(Arrays.copyOfRange(rawObject.getRawObject(),
+                                                           (int) rangeStart,
+                                                           (int) rangeEnd + 1),
+                                        headers,
+                                        HttpStatus.PARTIAL_CONTENT);
+        }
+        return copyRawObject(rawObject, headers, HttpStatus.PARTIAL_CONTENT, rangeStart, rangeLength, false, response);
+    }
+
+    /**
+     * Writes the raw objects of the given names to the response as the parts of a multipart/mixed body, in the same
+     * order. Each part holds the headers of the raw endpoint, plus the percent-encoded UTF-8 name of the object and
+     * its status: 200, or 404 for a missing object, whose part is empty. As for the ZIP archive, the response is a 206 Partial Content
+     * when an object is missing.
+     *
+     * @param rawObjects the raw objects of the given names, null for the missing ones
+     */
+    public void writeMultipartRawObjects(List<String> names, List<CatalogRawObject> rawObjects,
+            HttpServletResponse response) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setStatus(rawObjects.contains(null) ? HttpServletResponse.SC_PARTIAL_CONTENT
+                                                     : HttpServletResponse.SC_OK);
+        response.setContentType(MULTIPART_MIXED_VALUE + ";boundary=" + boundary);
+        byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.US_ASCII);
+
+        OutputStream outputStream = response.getOutputStream();
+        for (int i = 0; i < names.size(); i++) {
+            CatalogRawObject rawObject = rawObjects.get(i);
+            HttpHeaders headers;
+            if (rawObject == null) {
+                headers = new HttpHeaders();
+                headers.setContentLength(0);
+                headers.set(CATALOG_OBJECT_STATUS_HEADER, String.valueOf(HttpStatus.NOT_FOUND.value()));
+            } else {
+                headers = createHeaders(rawObject,
+                                        rawObject.isStreamed() ? rawObject.getRawObjectSize()
+                                                               : rawObject.getRawObject().length);
+                headers.set(CATALOG_OBJECT_STATUS_HEADER, String.valueOf(HttpStatus.OK.value()));
+            }
+            headers.set(CATALOG_OBJECT_NAME_HEADER, percentEncode(names.get(i)));
+
+            outputStream.write(delimiter);
+            outputStream.write(CRLF);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    // a line break would end the headers of the part
+                    String headerLine = header.getKey() + ": " + LINE_BREAKS.matcher(value).replaceAll("");
+                    outputStream.write(headerLine.getBytes(StandardCharsets.US_ASCII));
+                    outputStream.write(CRLF);
+                }
+            }
+            outputStream.write(CRLF);
+            if (rawObject != null) {
+                if (rawObject.isStreamed()) {
+                    if (!catalogObjectPayloadRepository.copyRawObject(rawObject.getPayloadId(), outputStream)) {
+                        log.warn("The content of object: " + rawObject.getName() + ", commitTime:" +
+                                 rawObject.getCommitDateTime() + " was deleted while it was read");
+                    }
+                } else {
+                    outputStream.write(rawObject.getRawObject());
+                }
+            }
+            outputStream.write(CRLF);
+        }
+        outputStream.write(delimiter);
+        outputStream.write("--".getBytes(StandardCharsets.US_ASCII));
+        outputStream.write(CRLF);
+        response.flushBuffer();
+    }
+
+    private ResponseEntity<?> copyRawObject(CatalogRawObject rawObject, HttpHeaders headers, HttpStatus status,
+            long offset, long length, boolean gzipEncoded, HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        headers.forEach((header, values) -> values.forEach(value -> response.addHeader(header, value)));
+        OutputStream outputStream = response.getOutputStream();
+        boolean found;
+        if (gzipEncoded) {
+            found = catalogObjectPayloadRepository.copyGzipRawObject(rawObject.getPayloadId(), outputStream);
+        } else if (status == HttpStatus.PARTIAL_CONTENT) {
+            found = catalogObjectPayloadRepository.copyRawObject(rawObject.getPayloadId(), offset, length, outputStream);
+        } else {
+            found = catalogObjectPayloadRepository.copyRawObject(rawObject.getPayloadId(), outputStream);
+        }
+        if (!found) {
+            log.warn("The content of object: " + rawObject.getName() + ", commitTime:" +
+                     rawObject.getCommitDateTime() + " was deleted while it was read");
+        }
+        response.flushBuffer();
+        return null;
+    }
+
+    /**
+     * @return the stored gzip encoding of a loaded raw object if the client accepts it, null otherwise
+     */
+    private byte[] getAcceptedGzipRawObject(CatalogRawObject rawObject, WebRequest webRequest) {
+        if (rawObject.isStreamed() || rawObject.getPayloadId() == null ||
+            !payloadCompressionService.hasGzipRawObject(rawObject.getContentType(), rawObject.getRawObject().length) ||
+            !acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return null;
+        }
+        return payloadCompressionService.getGzipRawObject(rawObject.getPayloadId());
+    }
+
+    /**
+     * @return the length of the stored gzip encoding of a streamed raw object if the client accepts it, null
+     *         otherwise, the encoding is then streamed from the database as well
+     */
+    private Long getAcceptedStreamedGzipRawObjectSize(CatalogRawObject rawObject, WebRequest webRequest) {
+        if (!rawObject.isStreamed() ||
+            !payloadCompressionService.hasGzipRawObject(rawObject.getContentType(), rawObject.getRawObjectSize()) ||
+            !acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return null;
+        }
+        return payloadCompressionService.getGzipRawObjectSize(rawObject.getPayloadId());
+    }
 
-        ResponseEntity.BodyBuilder responseBodyBuilder = ResponseEntity.ok().contentLength(bytes.length);
+    /**
+     * @return whether the embedded server compresses the whole content on the fly, when no gzip encoding is stored
+     */
+    private boolean isCompressedByServer(CatalogRawObject rawObject, long contentLength, WebRequest webRequest) {
+        return payloadCompressionService.isCompressedByServer(rawObject.getContentType(), contentLength) &&
+               acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * @return whether the Accept-Encoding header lists gzip with a non zero quality
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] codingAndParameters = coding.split(";");
+            if (GZIP_ENCODING.equalsIgnoreCase(codingAndParameters[0].trim())) {
+                return Arrays.stream(codingAndParameters)
+                             .skip(1)
+                             .map(String::trim)
+                             .noneMatch(parameter -> parameter.matches("[qQ]\\s*=\\s*0(\\.0*)?"));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the range to answer with, or null if the whole content must be sent: no range, a range invalidated by
+     * If-Range, an invalid Range header (which must be ignored), or several ranges (which are not supported)
+     */
+    private HttpRange getRequestedRange(CatalogRawObject rawObject, WebRequest webRequest) {
+        String rangeHeader = webRequest.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(rawObject, webRequest.getHeader(HttpHeaders.IF_RANGE))) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("The invalid range: " + rangeHeader + " is ignored", e);
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    /**
+     * If-Range holds either the strong ETag or the Last-Modified date the client got the previous part with. Ranges
+     * are served from the identity encoding, so the ETag of the gzip encoding never matches.
+     */
+    private boolean isIfRangeSatisfied(CatalogRawObject rawObject, String ifRange) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(ConditionalRequestUtil.eTag(rawObject));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_RANGE, ifRange);
+        try {
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) / 1000 ==
+                   ConditionalRequestUtil.lastModified(rawObject) / 1000;
+        } catch (IllegalArgumentException e) {
+            // weak ETags and invalid dates never match
+            return false;
+        }
+    }
+
+    private HttpHeaders createHeaders(CatalogRawObject rawObject, long contentLength) {
+        String name = rawObject.getName();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(contentLength);
 
         try {
             String contentDispositionFileName = getNameWithFileExtension(rawObject.getName(),
                                                                          rawObject.getExtension(),
                                                                          rawObject.getKind());
 
-            responseBodyBuilder.header(HttpHeaders.CONTENT_DISPOSITION,
-                                       "attachment; filename=\"" + contentDispositionFileName + "\"");
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(contentDispositionFileName));
         } catch (Exception e) {
             log.warn("The exception during creation of raw object response", e);
         }
 
         try {
-            MediaType mediaType = MediaType.valueOf(rawObject.getContentType());
-            responseBodyBuilder = responseBodyBuilder.contentType(mediaType);
+            headers.setContentType(MediaType.valueOf(rawObject.getContentType()));
         } catch (org.springframework.http.InvalidMediaTypeException mimeEx) {
             log.warn("The wrong content type for object: " + name + ", commitTime:" + rawObject.getCommitDateTime() +
                      ", the contentType: " + rawObject.getContentType(), mimeEx);
         }
+        return headers;
+    }
+
+    /**
+     * The quoted file name only holds printable ASCII characters, the other ones being replaced by an underscore. The
+     * exact file name is then also given by the filename* parameter of RFC 6266, in UTF-8.
+     */
+    private static String contentDisposition(String fileName) {
+        String asciiFileName = NON_QUOTABLE_CHARACTERS.matcher(fileName).replaceAll("_");
+        if (asciiFileName.equals(fileName)) {
+            return "attachment; filename=\"" + fileName + "\"";
+        }
+        return "attachment; filename=\"" + asciiFileName + "\"; filename*=UTF-8''" + percentEncode(fileName);
+    }
+
+    /**
+     * Percent-encodes the UTF-8 bytes of the given value, except the attr-char of RFC 5987, so that the value can be
+     * written in a header whatever its characters
+     */
+    static String percentEncode(String value) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            if (isAttrChar(b)) {
+                encoded.append((char) b);
+            } else {
+                encoded.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+        }
+        return encoded.toString();
+    }
 
-        return responseBodyBuilder.body(new InputStreamResource(new ByteArrayInputStream(bytes)));
+    private static boolean isAttrChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') ||
+               "!#$&+-.^_`|~".indexOf(b) >= 0;
     }
 
     /**
@@ -0,0 +1,322 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util.parser;
+
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+/**
+ * Reads the job level metadata of a ProActive XML workflow (name, project name, generic
+ * information, variables, description and visualization) in a single streaming pass.
+ * Unlike the scheduler JobFactory, no job object graph is built and the task flow is not
+ * interpreted, values are returned unresolved as written in the workflow.
+ * <p>
+ * The same pass rejects the documents which are not a job: the root element must be a job of the
+ * job descriptor namespace with a name, its variables must have a name and a value, and its task flow
+ * must hold uniquely named tasks whose dependencies are declared. Unlike the JobFactory, the document
+ * is not validated against the job descriptor schema.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+final class WorkflowMetadataExtractor {
+
+    private static final String JOB_DESCRIPTOR_NAMESPACE_PREFIX = "urn:proactive:jobdescriptor:";
+
+    private static final String JOB_ELEMENT = "job";
+
+    private static final String TASK_FLOW_ELEMENT = "taskFlow";
+
+    private static final String TASK_ELEMENT = "task";
+
+    private static final String DEPENDS_ELEMENT = "depends";
+
+    private static final String VARIABLES_ELEMENT = "variables";
+
+    private static final String VARIABLE_ELEMENT = "variable";
+
+    private static final String GENERIC_INFORMATION_ELEMENT = "genericInformation";
+
+    private static final String INFO_ELEMENT = "info";
+
+    private static final String DESCRIPTION_ELEMENT = "description";
+
+    private static final String METADATA_ELEMENT = "metadata";
+
+    private static final String VISUALIZATION_ELEMENT = "visualization";
+
+    private static final String NAME_ATTRIBUTE = "name";
+
+    private static final String PROJECT_NAME_ATTRIBUTE = "projectName";
+
+    private static final String VALUE_ATTRIBUTE = "value";
+
+    private static final String MODEL_ATTRIBUTE = "model";
+
+    private static final String REF_ATTRIBUTE = "ref";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private WorkflowMetadataExtractor() {
+    }
+
+    static WorkflowMetadata extract(InputStream inputStream) {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                WorkflowMetadata workflowMetadata = readJob(reader);
+                // the document must also be well formed after the job
+                while (reader.hasNext()) {
+                    reader.next();
+                }
+                return workflowMetadata;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new ParsingObjectException(e.getMessage(), e);
+        }
+    }
+
+    private static WorkflowMetadata readJob(XMLStreamReader reader) throws XMLStreamException {
+        reader.nextTag();
+        if (!JOB_ELEMENT.equals(reader.getLocalName())) {
+            throw new ParsingObjectException("Workflow root element must be '" + JOB_ELEMENT + "' but was '" +
+                                             reader.getLocalName() + "'");
+        }
+
+        WorkflowMetadata workflowMetadata = new WorkflowMetadata();
+        workflowMetadata.setName(reader.getAttributeValue(null, NAME_ATTRIBUTE));
+        workflowMetadata.setProjectName(reader.getAttributeValue(null, PROJECT_NAME_ATTRIBUTE));
+        if (workflowMetadata.getName() == null) {
+            throw new ParsingObjectException("Workflow has no '" + NAME_ATTRIBUTE + "' attribute");
+        }
+        if (reader.getNamespaceURI() == null || !reader.getNamespaceURI().startsWith(JOB_DESCRIPTOR_NAMESPACE_PREFIX)) {
+            throw new ParsingObjectException("Workflow root element must be in a '" + JOB_DESCRIPTOR_NAMESPACE_PREFIX +
+                                             "*' namespace but was in '" + reader.getNamespaceURI() + "'");
+        }
+
+        boolean taskFlowRead = false;
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case TASK_FLOW_ELEMENT:
+                    readTaskFlow(reader);
+                    taskFlowRead = true;
+                    break;
+                case VARIABLES_ELEMENT:
+                    readVariables(reader, workflowMetadata.getVariables());
+                    break;
+                case GENERIC_INFORMATION_ELEMENT:
+                    readGenericInformation(reader, workflowMetadata.getGenericInformation());
+                    break;
+                case DESCRIPTION_ELEMENT:
+                    workflowMetadata.setDescription(readText(reader));
+                    break;
+                case METADATA_ELEMENT:
+                    readVisualization(reader, workflowMetadata);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+        if (!taskFlowRead) {
+            throw new ParsingObjectException("Workflow has no '" + TASK_FLOW_ELEMENT + "' element");
+        }
+        return workflowMetadata;
+    }
+
+    /**
+     * Checks that the tasks are uniquely named and only depend on declared tasks, without reading anything else
+     */
+    private static void readTaskFlow(XMLStreamReader reader) throws XMLStreamException {
+        Set<String> taskNames = new HashSet<>();
+        Set<String> dependencies = new HashSet<>();
+        int depth = 0;
+        boolean inDepends = false;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 1) {
+                    readTaskName(reader, taskNames);
+                } else if (depth == 2) {
+                    inDepends = DEPENDS_ELEMENT.equals(reader.getLocalName());
+                } else if (depth == 3 && inDepends && TASK_ELEMENT.equals(reader.getLocalName())) {
+                    dependencies.add(reader.getAttributeValue(null, REF_ATTRIBUTE));
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+
+        if (taskNames.isEmpty()) {
+            throw new ParsingObjectException("Workflow has no task");
+        }
+        dependencies.removeAll(taskNames);
+        if (!dependencies.isEmpty()) {
+            throw new ParsingObjectException("Workflow tasks depend on undeclared tasks " + dependencies);
+        }
+    }
+
+    private static void readTaskName(XMLStreamReader reader, Set<String> taskNames) {
+        if (!TASK_ELEMENT.equals(reader.getLocalName())) {
+            throw new ParsingObjectException("Workflow task flow must only contain '" + TASK_ELEMENT +
+                                             "' elements but contains '" + reader.getLocalName() + "'");
+        }
+        String taskName = reader.getAttributeValue(null, NAME_ATTRIBUTE);
+        if (taskName == null) {
+            throw new ParsingObjectException("Workflow has a task without '" + NAME_ATTRIBUTE + "' attribute");
+        }
+        if (!taskNames.add(taskName)) {
+            throw new ParsingObjectException("Workflow has several tasks named '" + taskName + "'");
+        }
+    }
+
+    private static void readVariables(XMLStreamReader reader, Map<String, WorkflowVariable> variables)
+            throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (VARIABLE_ELEMENT.equals(reader.getLocalName())) {
+                String name = reader.getAttributeValue(null, NAME_ATTRIBUTE);
+                String value = reader.getAttributeValue(null, VALUE_ATTRIBUTE);
+                if (name == null || value == null) {
+                    throw new ParsingObjectException("Workflow variable " + name + " must have a '" +
+                                                     NAME_ATTRIBUTE + "' and a '" + VALUE_ATTRIBUTE +
+                                                     "' attribute");
+                }
+                variables.put(name, new WorkflowVariable(name, value, reader.getAttributeValue(null, MODEL_ATTRIBUTE)));
+            }
+            skipElement(reader);
+        }
+    }
+
+    private static void readGenericInformation(XMLStreamReader reader, Map<String, String> genericInformation)
+            throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (INFO_ELEMENT.equals(reader.getLocalName())) {
+                genericInformation.put(reader.getAttributeValue(null, NAME_ATTRIBUTE),
+                                       reader.getAttributeValue(null, VALUE_ATTRIBUTE));
+            }
+            skipElement(reader);
+        }
+    }
+
+    private static void readVisualization(XMLStreamReader reader, WorkflowMetadata workflowMetadata)
+            throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (VISUALIZATION_ELEMENT.equals(reader.getLocalName())) {
+                workflowMetadata.setVisualization(readText(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Concatenates the text and CDATA content of the current element, leaving the reader on its end tag.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 0;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+                       event == XMLStreamConstants.SPACE) {
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Skips the current element and its whole subtree, leaving the reader on its end tag.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 0;
+        while (depth >= 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+
+    @Data
+    static class WorkflowMetadata {
+
+        private String name;
+
+        private String projectName;
+
+        private String description;
+
+        private String visualization;
+
+        private final Map<String, String> genericInformation = new LinkedHashMap<>();
+
+        private final Map<String, WorkflowVariable> variables = new LinkedHashMap<>();
+
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class WorkflowVariable {
+
+        private String name;
+
+        private String value;
+
+        private String model;
+
+    }
+
+}
@@ -32,10 +32,12 @@ import java.util.Objects;
 
 import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
 import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
+import org.ow2.proactive.catalog.util.parser.WorkflowMetadataExtractor.WorkflowMetadata;
+import org.ow2.proactive.catalog.util.parser.WorkflowMetadataExtractor.WorkflowVariable;
 import org.ow2.proactive.scheduler.common.exception.JobCreationException;
 import org.ow2.proactive.scheduler.common.job.Job;
-import org.ow2.proactive.scheduler.common.job.JobVariable;
 import org.ow2.proactive.scheduler.common.job.factories.JobFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.ImmutableList;
@@ -48,6 +50,10 @@ import lombok.extern.log4j.Log4j2;
  * Parse a ProActive XML workflow (whatever the schema version is)
  * in order to extract some specific values (job name, project name, generic
  * information and variables).
+ * <p>
+ * By default only the job level metadata is read in a single streaming pass, the
+ * scheduler JobFactory validation can be enabled with
+ * <code>pa.catalog.workflow.parser.validation.enabled</code>.
  *
  * @author ActiveEon Team
  */
@@ -64,7 +70,7 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
 
     public static final String ATTRIBUTE_GENERIC_INFORMATION_LABEL = "generic_information";
 
-    private static final String ATTRIBUTE_VARIABLE_LABEL = "variable";
+    public static final String ATTRIBUTE_VARIABLE_LABEL = "variable";
 
     private static final String ATTRIBUTE_VARIABLE_MODEL_LABEL = "variable_model";
 
@@ -72,8 +78,37 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
 
     private static final String JOB_VISUALIZATION_KEY = "visualization";
 
+    /**
+     * When enabled, workflows are fully parsed and validated by the scheduler JobFactory
+     * instead of only having their job level metadata read by a streaming pass.
+     */
+    @Value("${pa.catalog.workflow.parser.validation.enabled:false}")
+    private boolean validationEnabled;
+
+    public WorkflowParser(boolean validationEnabled) {
+        this.validationEnabled = validationEnabled;
+    }
+
     @Override
     List<KeyValueLabelMetadataEntity> getMetadataKeyValues(InputStream inputStream) {
+        WorkflowMetadata workflowMetadata = validationEnabled ? createAndValidateJob(inputStream)
+                                                              : WorkflowMetadataExtractor.extract(inputStream);
+
+        ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder = ImmutableList.builder();
+
+        addProjectNameIfNotNullAndNotEmpty(keyValueMapBuilder, workflowMetadata.getProjectName());
+        addJobNameIfNotNull(keyValueMapBuilder, workflowMetadata.getName());
+        workflowMetadata.getGenericInformation()
+                        .forEach((name, value) -> addGenericInformationIfNotNull(keyValueMapBuilder, name, value));
+        workflowMetadata.getVariables().forEach((variableName,
+                variable) -> addVariableIfNotNullAndModelIfNotEmpty(keyValueMapBuilder, variable));
+        addJobDescriptionIfNotNullAndNotEmpty(keyValueMapBuilder, workflowMetadata.getDescription());
+        addJobVizualisationIfNotNullAndNotEmpty(keyValueMapBuilder, workflowMetadata.getVisualization());
+
+        return keyValueMapBuilder.build();
+    }
+
+    private WorkflowMetadata createAndValidateJob(InputStream inputStream) {
         Job job;
         try {
             job = JobFactory.getFactory().createJob(inputStream);
@@ -81,23 +116,23 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
             throw new ParsingObjectException(e.getMessage(), e);
         }
 
-        ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder = ImmutableList.builder();
-
-        addProjectNameIfNotNullAndNotEmpty(keyValueMapBuilder, job);
-        addJobNameIfNotNull(keyValueMapBuilder, job);
-        job.getUnresolvedGenericInformation()
-           .forEach((name, value) -> addGenericInformationIfNotNull(keyValueMapBuilder, name, value));
-        job.getUnresolvedVariables().forEach((jobVariableName,
-                jobVariable) -> addVariableIfNotNullAndModelIfNotEmpty(keyValueMapBuilder, jobVariable));
-        addJobDescriptionIfNotNullAndNotEmpty(keyValueMapBuilder, job);
-        addJobVizualisationIfNotNullAndNotEmpty(keyValueMapBuilder, job);
-
-        return keyValueMapBuilder.build();
+        WorkflowMetadata workflowMetadata = new WorkflowMetadata();
+        workflowMetadata.setName(job.getName());
+        workflowMetadata.setProjectName(job.getProjectName());
+        workflowMetadata.setDescription(job.getDescription());
+        workflowMetadata.setVisualization(job.getVisualization());
+        workflowMetadata.getGenericInformation().putAll(job.getUnresolvedGenericInformation());
+        job.getUnresolvedVariables()
+           .forEach((name, jobVariable) -> workflowMetadata.getVariables()
+                                                           .put(name,
+                                                                new WorkflowVariable(jobVariable.getName(),
+                                                                                     jobVariable.getValue(),
+                                                                                     jobVariable.getModel())));
+        return workflowMetadata;
     }
 
     private void addProjectNameIfNotNullAndNotEmpty(
-            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String projectName = job.getProjectName();
+            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, String projectName) {
         if (checkIfNotNull(projectName) && checkIfNotEmpty(projectName)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(PROJECT_NAME_KEY,
                                                                    projectName,
@@ -105,8 +140,8 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
         }
     }
 
-    private void addJobNameIfNotNull(ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String name = job.getName();
+    private void addJobNameIfNotNull(ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder,
+            String name) {
         if (checkIfNotNull(name)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(JOB_NAME_KEY, name, JOB_AND_PROJECT_LABEL));
         }
@@ -120,10 +155,10 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
     }
 
     private void addVariableIfNotNullAndModelIfNotEmpty(
-            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, JobVariable jobVariable) {
-        String name = jobVariable.getName();
-        String value = jobVariable.getValue();
-        String model = jobVariable.getModel();
+            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, WorkflowVariable variable) {
+        String name = variable.getName();
+        String value = variable.getValue();
+        String model = variable.getModel();
         if (checkIfNotNull(name, value)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(name, value, ATTRIBUTE_VARIABLE_LABEL));
         }
@@ -133,16 +168,14 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
     }
 
     private void addJobDescriptionIfNotNullAndNotEmpty(
-            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String description = job.getDescription();
+            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, String description) {
         if (checkIfNotNull(description) && checkIfNotEmpty(description)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(JOB_DESCRIPTION_KEY, description, GENERAL_LABEL));
         }
     }
 
     private void addJobVizualisationIfNotNullAndNotEmpty(
-            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String vizualisation = job.getVisualization();
+            ImmutableList.Builder<KeyValueLabelMetadataEntity> keyValueMapBuilder, String vizualisation) {
         if (checkIfNotNull(vizualisation) && checkIfNotEmpty(vizualisation)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(JOB_VISUALIZATION_KEY,
                                                                    vizualisation,
@@ -0,0 +1,95 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.dto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.service.exception.WrongParametersException;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class CatalogObjectMetadataFieldTest {
+
+    @Test
+    public void testFromJsonNamesKeepsTheRequestedOrderOnce() {
+        assertThat(CatalogObjectMetadataField.fromJsonNames(Arrays.asList("commit_time",
+                                                                          " name",
+                                                                          "",
+                                                                          "commit_time"))).containsExactly(CatalogObjectMetadataField.COMMIT_TIME,
+                                                                                                           CatalogObjectMetadataField.NAME)
+                                                                                          .inOrder();
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testFromJsonNameRejectsUnknownField() {
+        CatalogObjectMetadataField.fromJsonName("unknown");
+    }
+
+    @Test
+    public void testOnlyKeyValueFieldsAreReadFromKeyValues() {
+        assertThat(CatalogObjectMetadataField.OBJECT_KEY_VALUES.isReadFromKeyValues()).isTrue();
+        assertThat(CatalogObjectMetadataField.PROJECT_NAME.isReadFromKeyValues()).isTrue();
+        assertThat(CatalogObjectMetadataField.NAME.isReadFromKeyValues()).isFalse();
+        assertThat(CatalogObjectMetadataField.LINKS.isReadFromKeyValues()).isFalse();
+    }
+
+    @Test
+    public void testSelectOnlyReturnsTheGivenFields() {
+        CatalogObjectMetadata metadata = new CatalogObjectMetadata("bucket",
+                                                                   "name",
+                                                                   "workflow",
+                                                                   "application/xml",
+                                                                   0L,
+                                                                   "commit message",
+                                                                   "username",
+                                                                   Collections.singletonList(new Metadata("key",
+                                                                                                          "value",
+                                                                                                          "label")),
+                                                                   null);
+
+        Map<String, Object> properties = CatalogObjectMetadataField.select(metadata,
+                                                                           Arrays.asList(CatalogObjectMetadataField.NAME,
+                                                                                         CatalogObjectMetadataField.EXTENSION,
+                                                                                         CatalogObjectMetadataField.REVISION_NUMBER,
+                                                                                         CatalogObjectMetadataField.COMMIT_TIME_RAW,
+                                                                                         CatalogObjectMetadataField.OBJECT_KEY_VALUES));
+
+        assertThat(properties.keySet()).containsExactly("name", "extension", "commit_time_raw", "object_key_values")
+                                       .inOrder();
+        assertThat(properties.get("name")).isEqualTo("name");
+        assertThat(properties.get("extension")).isNull();
+        assertThat(properties.get("commit_time_raw")).isEqualTo("0");
+        assertThat(properties.get("object_key_values")).isEqualTo(metadata.getMetadataList());
+    }
+}
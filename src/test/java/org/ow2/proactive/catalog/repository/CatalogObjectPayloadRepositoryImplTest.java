@@ -0,0 +1,146 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class CatalogObjectPayloadRepositoryImplTest {
+
+    private static final int CHUNK_SIZE = CatalogObjectPayloadRepositoryImpl.CHUNK_SIZE;
+
+    private static final String SELECT_RAW_OBJECT_CHUNK = CatalogObjectPayloadRepositoryImpl.SELECT_RAW_OBJECT_CHUNK;
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    private byte[] content;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(SELECT_RAW_OBJECT_CHUNK)).thenReturn(statement);
+        content = new byte[2 * CHUNK_SIZE + 1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void testTheWholeContentIsSelectedOneChunkAtATime() throws Exception {
+        ResultSet firstChunk = chunk(0, CHUNK_SIZE);
+        ResultSet secondChunk = chunk(CHUNK_SIZE, 2 * CHUNK_SIZE);
+        ResultSet lastChunk = chunk(2 * CHUNK_SIZE, content.length);
+        when(statement.executeQuery()).thenReturn(firstChunk, secondChunk, lastChunk);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertThat(CatalogObjectPayloadRepositoryImpl.copyInChunks(connection,
+                                                                   SELECT_RAW_OBJECT_CHUNK,
+                                                                   1L,
+                                                                   0,
+                                                                   Long.MAX_VALUE,
+                                                                   outputStream)).isTrue();
+
+        assertThat(Arrays.equals(outputStream.toByteArray(), content)).isTrue();
+        InOrder inOrder = Mockito.inOrder(statement);
+        inOrder.verify(statement).setLong(1, 1);
+        inOrder.verify(statement).setInt(2, CHUNK_SIZE);
+        inOrder.verify(statement).setLong(1, CHUNK_SIZE + 1);
+        inOrder.verify(statement).setLong(1, 2 * CHUNK_SIZE + 1);
+        verify(statement, times(3)).executeQuery();
+    }
+
+    @Test
+    public void testARangeIsSelectedFromItsOffset() throws Exception {
+        int offset = 1000;
+        int length = CHUNK_SIZE + 10;
+        ResultSet firstChunk = chunk(offset, offset + CHUNK_SIZE);
+        ResultSet lastChunk = chunk(offset + CHUNK_SIZE, offset + length);
+        when(statement.executeQuery()).thenReturn(firstChunk, lastChunk);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertThat(CatalogObjectPayloadRepositoryImpl.copyInChunks(connection,
+                                                                   SELECT_RAW_OBJECT_CHUNK,
+                                                                   1L,
+                                                                   offset,
+                                                                   length,
+                                                                   outputStream)).isTrue();
+
+        assertThat(Arrays.equals(outputStream.toByteArray(),
+                                 Arrays.copyOfRange(content, offset, offset + length))).isTrue();
+        InOrder inOrder = Mockito.inOrder(statement);
+        inOrder.verify(statement).setLong(1, offset + 1);
+        inOrder.verify(statement).setInt(2, CHUNK_SIZE);
+        inOrder.verify(statement).setLong(1, offset + CHUNK_SIZE + 1);
+        inOrder.verify(statement).setInt(2, 10);
+        verify(statement, times(2)).executeQuery();
+    }
+
+    @Test
+    public void testMissingPayload() throws Exception {
+        ResultSet noRow = mock(ResultSet.class);
+        when(statement.executeQuery()).thenReturn(noRow);
+
+        assertThat(CatalogObjectPayloadRepositoryImpl.copyInChunks(connection,
+                                                                   SELECT_RAW_OBJECT_CHUNK,
+                                                                   1L,
+                                                                   0,
+                                                                   Long.MAX_VALUE,
+                                                                   new ByteArrayOutputStream())).isFalse();
+    }
+
+    private ResultSet chunk(int from, int to) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBinaryStream(1)).thenReturn(new ByteArrayInputStream(Arrays.copyOfRange(content,
+                                                                                                   from,
+                                                                                                   to)));
+        return resultSet;
+    }
+
+}
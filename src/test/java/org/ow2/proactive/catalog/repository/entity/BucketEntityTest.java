@@ -56,7 +56,7 @@ public class BucketEntityTest {
     public void testAddWorkflow() throws Exception {
         CatalogObjectEntity catalogObject = new CatalogObjectEntity();
         catalogObject.setBucket(bucket);
-        catalogObject.setId(new CatalogObjectEntity.CatalogObjectEntityKey(null, "name"));
+        catalogObject.setName("name");
         bucket.addCatalogObject(catalogObject);
 
         assertThat(bucket.getCatalogObjects()).hasSize(1);
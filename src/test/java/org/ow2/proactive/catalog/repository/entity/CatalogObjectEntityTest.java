@@ -105,8 +105,10 @@ public class CatalogObjectEntityTest {
                                                "commit message",
                                                "username",
                                                time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                                               null,
                                                catalogObject,
                                                Collections.emptyList(),
-                                               new byte[0]);
+                                               new CatalogObjectPayloadEntity(new byte[0]),
+                                               null);
     }
 }
@@ -26,8 +26,11 @@
 package org.ow2.proactive.catalog.rest.controller;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -36,8 +39,10 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.servlet.ServletOutputStream;
@@ -57,11 +62,18 @@ import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.exception.NotAuthenticatedException;
+import org.ow2.proactive.catalog.service.model.BucketContentVersion;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
+import org.ow2.proactive.catalog.util.BinaryJacksonHttpMessageConverter;
+import org.ow2.proactive.catalog.util.CatalogObjectNdjsonWriter;
+import org.ow2.proactive.catalog.util.ConditionalRequestUtil;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
 
 
 /**
@@ -88,6 +100,9 @@ public class CatalogObjectControllerTest {
     @Mock
     private RestApiAccessService restApiAccessService;
 
+    @Mock
+    private ContentNegotiationManager contentNegotiationManager;
+
     @Test
     public void testGetCatalogObjectsAsArchive() throws IOException, NotAuthenticatedException, AccessDeniedException {
         HttpServletResponse response = mock(HttpServletResponse.class);
@@ -103,7 +118,9 @@ public class CatalogObjectControllerTest {
                                      Optional.empty(),
                                      Optional.empty(),
                                      Optional.of(nameList),
-                                     response);
+                                     Optional.empty(),
+                                     response,
+                                     mock(NativeWebRequest.class));
         verify(catalogObjectService, times(1)).getCatalogObjectsAsZipArchive("bucket-name", nameList);
         verify(response, times(1)).setStatus(HttpServletResponse.SC_OK);
         verify(response, times(1)).setContentType("application/zip");
@@ -113,6 +130,55 @@ public class CatalogObjectControllerTest {
         verify(sos, times(1)).flush();
     }
 
+    @Test
+    public void testGetCatalogObjectsAsMultipart() throws IOException, NotAuthenticatedException, AccessDeniedException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        when(webRequest.getHeaderValues(HttpHeaders.ACCEPT)).thenReturn(new String[] { "application/zip;q=0.5, " +
+                                                                                       RawObjectResponseCreator.MULTIPART_MIXED_VALUE });
+        List<String> nameList = Arrays.asList("workflowname", "missing");
+        List<CatalogRawObject> rawObjects = Arrays.asList(mock(CatalogRawObject.class), null);
+        when(catalogObjectService.getCatalogRawObjects("bucket-name", nameList)).thenReturn(rawObjects);
+
+        ResponseEntity responseEntity = catalogObjectController.list("",
+                                                                     "bucket-name",
+                                                                     Optional.empty(),
+                                                                     Optional.empty(),
+                                                                     Optional.of(nameList),
+                                                                     Optional.empty(),
+                                                                     response,
+                                                                     webRequest);
+
+        assertThat(responseEntity).isNull();
+        verify(rawObjectResponseCreator).writeMultipartRawObjects(nameList, rawObjects, response);
+        verify(catalogObjectService, never()).getCatalogObjectsAsZipArchive(anyString(), anyList());
+    }
+
+    @Test
+    public void testGetCatalogObjectsAsArchiveWhenPreferredToMultipart() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        when(webRequest.getHeaderValues(HttpHeaders.ACCEPT)).thenReturn(new String[] { "application/zip, " +
+                                                                                       "multipart/mixed;q=0.5" });
+        List<String> nameList = Collections.singletonList("workflowname");
+        ZipArchiveContent content = new ZipArchiveContent();
+        content.setContent(new byte[0]);
+        when(catalogObjectService.getCatalogObjectsAsZipArchive("bucket-name", nameList)).thenReturn(content);
+
+        catalogObjectController.list("",
+                                     "bucket-name",
+                                     Optional.empty(),
+                                     Optional.empty(),
+                                     Optional.of(nameList),
+                                     Optional.empty(),
+                                     response,
+                                     webRequest);
+
+        verify(response).setContentType("application/zip");
+        verify(rawObjectResponseCreator, never()).writeMultipartRawObjects(anyList(), anyList(), any());
+    }
+
     @Test
     public void testGetCatalogObjectsAsArchiveWithMissingObject()
             throws IOException, NotAuthenticatedException, AccessDeniedException {
@@ -130,7 +196,9 @@ public class CatalogObjectControllerTest {
                                      Optional.empty(),
                                      Optional.empty(),
                                      Optional.of(nameList),
-                                     response);
+                                     Optional.empty(),
+                                     response,
+                                     mock(NativeWebRequest.class));
         verify(catalogObjectService, times(1)).getCatalogObjectsAsZipArchive("bucket-name", nameList);
         verify(response, never()).setStatus(HttpServletResponse.SC_OK);
     }
@@ -142,8 +210,146 @@ public class CatalogObjectControllerTest {
         when(response.getOutputStream()).thenReturn(sos);
         BucketEntity bucket = mock(BucketEntity.class);
         when(bucketRepository.findOneByBucketName("bucket-name")).thenReturn(bucket);
-        catalogObjectController.list("", "bucket-name", Optional.empty(), Optional.empty(), Optional.empty(), response);
-        verify(catalogObjectService, times(1)).listCatalogObjects(anyList());
+        when(catalogObjectService.getBucketContentVersion("bucket-name")).thenReturn(new BucketContentVersion(1L,
+                                                                                                              1400343L,
+                                                                                                              null));
+        catalogObjectController.list("",
+                                     "bucket-name",
+                                     Optional.empty(),
+                                     Optional.empty(),
+                                     Optional.empty(),
+                                     Optional.empty(),
+                                     response,
+                                     mock(NativeWebRequest.class));
+        verify(catalogObjectService, times(1)).listCatalogObjects(anyList(), eq(true));
+    }
+
+    @Test
+    public void testListWithFieldsOnlyReturnsThemWithoutQueryingKeyValues() throws Exception {
+        when(catalogObjectService.getBucketContentVersion("bucket-name")).thenReturn(new BucketContentVersion(1L,
+                                                                                                              1400343L,
+                                                                                                              null));
+        when(catalogObjectService.listCatalogObjects(anyList(),
+                                                     eq(false))).thenReturn(Collections.singletonList(new CatalogObjectMetadata("bucket-name",
+                                                                                                                                "name",
+                                                                                                                                "workflow",
+                                                                                                                                "application/xml",
+                                                                                                                                1400343L,
+                                                                                                                                "commit message",
+                                                                                                                                "username",
+                                                                                                                                Collections.emptyList(),
+                                                                                                                                null)));
+
+        ResponseEntity<List<?>> responseEntity = catalogObjectController.list("",
+                                                                              "bucket-name",
+                                                                              Optional.empty(),
+                                                                              Optional.empty(),
+                                                                              Optional.empty(),
+                                                                              Optional.of(Arrays.asList("name",
+                                                                                                        "kind")),
+                                                                              mock(HttpServletResponse.class),
+                                                                              mock(NativeWebRequest.class));
+
+        assertThat(responseEntity.getBody()).hasSize(1);
+        Map<?, ?> object = (Map<?, ?>) responseEntity.getBody().get(0);
+        assertThat(object.keySet()).containsExactly("name", "kind").inOrder();
+        assertThat(object.get("name")).isEqualTo("name");
+        assertThat(object.get("kind")).isEqualTo("workflow");
+        verify(catalogObjectService, never()).listCatalogObjects(anyList(), eq(true));
+    }
+
+    @Test
+    public void testListAsNdjsonStreamsTheObjects() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream sos = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(sos);
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        when(webRequest.getHeaderValues(HttpHeaders.ACCEPT)).thenReturn(new String[] { "application/json;q=0.5",
+                                                                                       CatalogObjectNdjsonWriter.APPLICATION_NDJSON_VALUE });
+        BucketContentVersion bucketContentVersion = new BucketContentVersion(1L, 1400343L, null);
+        when(catalogObjectService.getBucketContentVersion("bucket-name")).thenReturn(bucketContentVersion);
+
+        ResponseEntity responseEntityFromController = catalogObjectController.list("",
+                                                                                   "bucket-name",
+                                                                                   Optional.of("workflow"),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.of(Arrays.asList("name")),
+                                                                                   response,
+                                                                                   webRequest);
+
+        assertThat(responseEntityFromController).isNull();
+        verify(webRequest).checkNotModified(ConditionalRequestUtil.eTag(bucketContentVersion.getETag(), "ndjson"),
+                                            1400343L);
+        verify(response).setContentType(CatalogObjectNdjsonWriter.APPLICATION_NDJSON_VALUE);
+        verify(catalogObjectService).streamCatalogObjects(eq(Collections.singletonList("bucket-name")),
+                                                          eq(Optional.of("workflow")),
+                                                          eq(Optional.empty()),
+                                                          eq(false),
+                                                          any());
+        verify(catalogObjectService, never()).listCatalogObjectsByKind(anyList(), anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testListAsJsonWhenPreferredToNdjson() throws Exception {
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        when(webRequest.getHeaderValues(HttpHeaders.ACCEPT)).thenReturn(new String[] { "application/json, " +
+                                                                                       "application/x-ndjson;q=0.5" });
+        when(catalogObjectService.getBucketContentVersion("bucket-name")).thenReturn(new BucketContentVersion(1L,
+                                                                                                              1400343L,
+                                                                                                              null));
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        ResponseEntity responseEntityFromController = catalogObjectController.list("",
+                                                                                   "bucket-name",
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   response,
+                                                                                   webRequest);
+
+        assertThat(responseEntityFromController.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(catalogObjectService).listCatalogObjects(Collections.singletonList("bucket-name"), true);
+        verify(catalogObjectService, never()).streamCatalogObjects(anyList(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    public void testListNotModified() throws Exception {
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        BucketContentVersion bucketContentVersion = new BucketContentVersion(1L, 1400343L, null);
+        when(catalogObjectService.getBucketContentVersion("bucket-name")).thenReturn(bucketContentVersion);
+        when(webRequest.checkNotModified(bucketContentVersion.getETag(), 1400343L)).thenReturn(true);
+        ResponseEntity responseEntityFromController = catalogObjectController.list("",
+                                                                                   "bucket-name",
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   mock(HttpServletResponse.class),
+                                                                                   webRequest);
+        assertThat(responseEntityFromController).isNull();
+        verify(catalogObjectService, never()).listCatalogObjects(anyList(), eq(true));
+    }
+
+    @Test
+    public void testListNotModifiedWithTheETagOfTheNegotiatedFormat() throws Exception {
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        BucketContentVersion bucketContentVersion = new BucketContentVersion(1L, 1400343L, null);
+        when(catalogObjectService.getBucketContentVersion("bucket-name")).thenReturn(bucketContentVersion);
+        when(contentNegotiationManager.resolveMediaTypes(webRequest)).thenReturn(Arrays.asList(BinaryJacksonHttpMessageConverter.APPLICATION_CBOR));
+        when(webRequest.checkNotModified(ConditionalRequestUtil.eTag(bucketContentVersion.getETag(), "cbor"),
+                                         1400343L)).thenReturn(true);
+        ResponseEntity responseEntityFromController = catalogObjectController.list("",
+                                                                                   "bucket-name",
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   Optional.empty(),
+                                                                                   mock(HttpServletResponse.class),
+                                                                                   webRequest);
+        assertThat(responseEntityFromController).isNull();
+        verify(catalogObjectService, never()).listCatalogObjects(anyList(), eq(true));
     }
 
     @Test
@@ -159,14 +365,23 @@ public class CatalogObjectControllerTest {
                                                           new byte[0],
                                                           "xml");
         ResponseEntity responseEntity = ResponseEntity.ok().body(1);
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
 
         when(restApiAccessService.isAPublicBucket(anyString())).thenReturn(true);
 
+        when(catalogObjectService.getCatalogObjectMetadata(anyString(), anyString())).thenReturn(rawObject);
         when(catalogObjectService.getCatalogRawObject(anyString(), anyString())).thenReturn(rawObject);
-        when(rawObjectResponseCreator.createRawObjectResponse(rawObject)).thenReturn(responseEntity);
-        ResponseEntity responseEntityFromController = catalogObjectController.getRaw("", "bucket-name", "name");
+        when(rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                              webRequest,
+                                                              response)).thenReturn(responseEntity);
+        ResponseEntity responseEntityFromController = catalogObjectController.getRaw("",
+                                                                                     "bucket-name",
+                                                                                     "name",
+                                                                                     webRequest,
+                                                                                     response);
         verify(catalogObjectService, times(1)).getCatalogRawObject(anyString(), anyString());
-        verify(rawObjectResponseCreator, times(1)).createRawObjectResponse(rawObject);
+        verify(rawObjectResponseCreator, times(1)).createRawObjectResponse(rawObject, webRequest, response);
         assertThat(responseEntityFromController).isNotNull();
         assertThat(responseEntityFromController).isEqualTo(responseEntity);
     }
@@ -28,12 +28,18 @@ package org.ow2.proactive.catalog.rest.controller;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -42,8 +48,12 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
 import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
+import org.ow2.proactive.catalog.service.exception.WrongParametersException;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 
 /**
@@ -68,10 +78,180 @@ public class CatalogObjectRevisionControllerTest {
 
     private static final long COMMIT_TIME = System.currentTimeMillis();
 
+    private static final String REVISIONS_PATH = "/buckets/bucket-name/resources/name/revisions";
+
+    private static final String REVISIONS_URL = "http://localhost" + REVISIONS_PATH;
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        request = mock(HttpServletRequest.class);
+        when(request.getRequestURL()).thenAnswer(invocation -> new StringBuffer(REVISIONS_URL));
+        when(request.getRequestURI()).thenReturn(REVISIONS_PATH);
+        when(request.getHeaderNames()).thenReturn(Collections.emptyEnumeration());
+        response = mock(HttpServletResponse.class);
+    }
+
     @Test
     public void testList() throws Exception {
-        catalogObjectRevisionController.list("", BUCKET_ID, "name");
-        verify(catalogObjectService, times(1)).listCatalogObjectRevisions(BUCKET_ID, "name");
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.empty(),
+                                             Optional.empty(),
+                                             true,
+                                             request,
+                                             response);
+        verify(catalogObjectService,
+               times(1)).listCatalogObjectRevisions(BUCKET_ID,
+                                                    "name",
+                                                    Optional.of(new PageRequest(0,
+                                                                                CatalogObjectRevisionController.DEFAULT_REVISIONS_PAGE_SIZE)),
+                                                    true);
+    }
+
+    @Test
+    public void testListMaxPageSize() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.empty(),
+                                             Optional.of(CatalogObjectRevisionController.MAX_REVISIONS_PAGE_SIZE),
+                                             true,
+                                             request,
+                                             response);
+        verify(catalogObjectService,
+               times(1)).listCatalogObjectRevisions(BUCKET_ID,
+                                                    "name",
+                                                    Optional.of(new PageRequest(0,
+                                                                                CatalogObjectRevisionController.MAX_REVISIONS_PAGE_SIZE)),
+                                                    true);
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testListWithTooLargePageSize() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.empty(),
+                                             Optional.of(CatalogObjectRevisionController.MAX_REVISIONS_PAGE_SIZE + 1),
+                                             true,
+                                             request,
+                                             response);
+    }
+
+    @Test
+    public void testListPage() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.of(2),
+                                             Optional.empty(),
+                                             false,
+                                             request,
+                                             response);
+        verify(catalogObjectService,
+               times(1)).listCatalogObjectRevisions(BUCKET_ID,
+                                                    "name",
+                                                    Optional.of(new PageRequest(2,
+                                                                                CatalogObjectRevisionController.DEFAULT_REVISIONS_PAGE_SIZE)),
+                                                    false);
+    }
+
+    @Test
+    public void testListPageSize() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.empty(),
+                                             Optional.of(10),
+                                             true,
+                                             request,
+                                             response);
+        verify(catalogObjectService, times(1)).listCatalogObjectRevisions(BUCKET_ID,
+                                                                          "name",
+                                                                          Optional.of(new PageRequest(0, 10)),
+                                                                          true);
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testListWithNegativePage() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.of(-1),
+                                             Optional.of(10),
+                                             true,
+                                             request,
+                                             response);
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testListWithPageBeyondTheLargestOffset() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.of(Integer.MAX_VALUE),
+                                             Optional.of(2),
+                                             true,
+                                             request,
+                                             response);
+    }
+
+    @Test
+    public void testListSendsTheTotalCountAndThePageLinks() throws Exception {
+        when(catalogObjectService.countCatalogObjectRevisions(BUCKET_ID, "name")).thenReturn(25L);
+        when(request.getQueryString()).thenReturn("page=1&size=10");
+
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.of(1),
+                                             Optional.of(10),
+                                             true,
+                                             request,
+                                             response);
+
+        verify(response).setHeader(CatalogObjectRevisionController.TOTAL_COUNT_HEADER, "25");
+        verify(response).setHeader(HttpHeaders.LINK,
+                                   "<" + REVISIONS_URL + "?page=0&size=10>;rel=\"first\", <" + REVISIONS_URL +
+                                                     "?page=0&size=10>;rel=\"prev\", <" + REVISIONS_URL +
+                                                     "?page=2&size=10>;rel=\"next\", <" + REVISIONS_URL +
+                                                     "?page=2&size=10>;rel=\"last\"");
+    }
+
+    @Test
+    public void testListOfASinglePageLinksOnlyTheFirstAndLastPages() throws Exception {
+        when(catalogObjectService.countCatalogObjectRevisions(BUCKET_ID, "name")).thenReturn(3L);
+
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.empty(),
+                                             Optional.empty(),
+                                             true,
+                                             request,
+                                             response);
+
+        String revisionsUrl = REVISIONS_URL + "?page=0&size=" +
+                              CatalogObjectRevisionController.DEFAULT_REVISIONS_PAGE_SIZE;
+        verify(response).setHeader(HttpHeaders.LINK,
+                                   "<" + revisionsUrl + ">;rel=\"first\", <" + revisionsUrl + ">;rel=\"last\"");
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testListWithEmptyPage() throws Exception {
+        catalogObjectRevisionController.list("",
+                                             BUCKET_ID,
+                                             "name",
+                                             Optional.of(0),
+                                             Optional.of(0),
+                                             true,
+                                             request,
+                                             response);
     }
 
     @Test
@@ -87,17 +267,24 @@ public class CatalogObjectRevisionControllerTest {
                                                           new byte[0],
                                                           "xml");
         ResponseEntity responseEntity = ResponseEntity.ok().body(1);
+        WebRequest webRequest = mock(WebRequest.class);
+        HttpServletResponse rawResponse = mock(HttpServletResponse.class);
 
         when(restApiAccessService.isAPublicBucket(anyString())).thenReturn(true);
 
+        when(catalogObjectService.getCatalogObjectRevision(anyString(), anyString(), anyLong())).thenReturn(rawObject);
         when(catalogObjectService.getCatalogObjectRevisionRaw(anyString(),
                                                               anyString(),
                                                               anyLong())).thenReturn(rawObject);
-        when(rawObjectResponseCreator.createRawObjectResponse(rawObject)).thenReturn(responseEntity);
+        when(rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                              webRequest,
+                                                              rawResponse)).thenReturn(responseEntity);
         ResponseEntity responseEntityFromController = catalogObjectRevisionController.getRaw("",
                                                                                              BUCKET_ID,
                                                                                              "name",
-                                                                                             System.currentTimeMillis());
+                                                                                             System.currentTimeMillis(),
+                                                                                             webRequest,
+                                                                                             rawResponse);
         verify(catalogObjectService, times(1)).getCatalogObjectRevisionRaw(anyString(), anyString(), anyLong());
         assertThat(responseEntityFromController).isNotNull();
         assertThat(responseEntityFromController).isEqualTo(responseEntity);
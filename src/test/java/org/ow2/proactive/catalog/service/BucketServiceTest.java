@@ -30,7 +30,9 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,20 +43,28 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.dto.BucketMetadata;
 import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
 import org.ow2.proactive.catalog.repository.entity.BucketEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.ow2.proactive.catalog.service.exception.BucketAlreadyExistingException;
 import org.ow2.proactive.catalog.service.exception.BucketNameIsNotValidException;
 import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
 import org.ow2.proactive.catalog.service.exception.DeleteNonEmptyBucketException;
+import org.ow2.proactive.catalog.service.model.GenericInfoBucketData;
 import org.ow2.proactive.catalog.util.name.validator.BucketNameValidator;
 
 
@@ -75,9 +85,21 @@ public class BucketServiceTest {
     @Mock
     private BucketRepository bucketRepository;
 
+    @Mock
+    private CatalogObjectRepository catalogObjectRepository;
+
     @Mock
     private BucketNameValidator bucketNameValidator;
 
+    @Mock
+    private KeyValueLabelMetadataHelper keyValueLabelMetadataHelper;
+
+    @Spy
+    private HeadRevisionCache headRevisionCache = new HeadRevisionCache();
+
+    @Captor
+    private ArgumentCaptor<UnaryOperator<List<KeyValueLabelMetadataEntity>>> copiedKeyValues;
+
     @Test
     public void testThatEmptyListIsReturnedIfListAndKindAreNull() {
         assertThat(bucketService.listBuckets((List<String>) null, null, null)).isEmpty();
@@ -104,6 +126,50 @@ public class BucketServiceTest {
 
     }
 
+    @Test
+    public void testCloneBucket() {
+        BucketEntity sourceBucket = newMockedBucket(1L, "bucket-name", LocalDateTime.now());
+        when(sourceBucket.getOwner()).thenReturn("owner");
+        BucketEntity targetBucket = newMockedBucket(2L, "bucket-copy", LocalDateTime.now());
+        when(targetBucket.getOwner()).thenReturn("owner");
+        when(bucketNameValidator.isValid(anyString())).thenReturn(true);
+        when(bucketRepository.findOneByBucketName("bucket-name")).thenReturn(sourceBucket);
+        when(bucketRepository.save(any(BucketEntity.class))).thenReturn(targetBucket);
+
+        BucketMetadata bucketMetadata = bucketService.cloneBucket("bucket-name",
+                                                                  "bucket-copy",
+                                                                  Optional.empty(),
+                                                                  true);
+
+        verify(catalogObjectRepository).cloneCatalogObjects(eq(1L), eq(2L), eq(true), copiedKeyValues.capture());
+        assertEquals("bucket-copy", bucketMetadata.getName());
+        assertEquals("owner", bucketMetadata.getOwner());
+
+        // the copied metadata get the generic information of the new bucket
+        List<KeyValueLabelMetadataEntity> keyValues = Collections.singletonList(new KeyValueLabelMetadataEntity("key",
+                                                                                                                "value",
+                                                                                                                "label"));
+        copiedKeyValues.getValue().apply(keyValues);
+        verify(keyValueLabelMetadataHelper).replaceMetadataRelatedGenericInfoAndKeepOthers(keyValues,
+                                                                                           GenericInfoBucketData.builder()
+                                                                                                                .bucketName("bucket-copy")
+                                                                                                                .group("owner")
+                                                                                                                .build());
+    }
+
+    @Test(expected = BucketAlreadyExistingException.class)
+    public void testCloneBucketToAnExistingBucket() {
+        BucketEntity sourceBucket = newMockedBucket(1L, "bucket-name", LocalDateTime.now());
+        when(bucketNameValidator.isValid(anyString())).thenReturn(true);
+        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(sourceBucket);
+
+        try {
+            bucketService.cloneBucket("bucket-name", "bucket-name", Optional.of("owner"), false);
+        } finally {
+            verify(catalogObjectRepository, never()).cloneCatalogObjects(any(), any(), eq(false), any());
+        }
+    }
+
     @Test
     public void testGetBucketMetadataValidBucket() throws Exception {
         BucketEntity mockedBucket = newMockedBucket(1L, "bucket-name", LocalDateTime.now());
@@ -157,8 +223,7 @@ public class BucketServiceTest {
         BucketEntity mockedBucket = newMockedBucket(1L, "bucket-name", LocalDateTime.now());
         Set<CatalogObjectEntity> objects = new HashSet<>();
         CatalogObjectEntity catalogObjectEntity = CatalogObjectEntity.builder()
-                                                                     .id(new CatalogObjectEntity.CatalogObjectEntityKey(mockedBucket.getId(),
-                                                                                                                        "catalog"))
+                                                                     .name("catalog")
                                                                      .kind("object")
                                                                      .contentType("application/xml")
                                                                      .bucket(mockedBucket)
@@ -27,27 +27,36 @@ package org.ow2.proactive.catalog.service;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectsUpdateMetadata;
 import org.ow2.proactive.catalog.dto.Metadata;
 import org.ow2.proactive.catalog.repository.BucketRepository;
 import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
@@ -57,10 +66,15 @@ import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
 import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
+import org.ow2.proactive.catalog.service.exception.CatalogObjectAlreadyExistingException;
 import org.ow2.proactive.catalog.service.exception.CatalogObjectNotFoundException;
 import org.ow2.proactive.catalog.service.exception.KindOrContentTypeIsNotValidException;
 import org.ow2.proactive.catalog.service.exception.RevisionNotFoundException;
 import org.ow2.proactive.catalog.service.exception.WrongParametersException;
+import org.ow2.proactive.catalog.service.model.CatalogObjectRevisionSummary;
+import org.ow2.proactive.catalog.service.model.RevisionKeyValue;
+import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
+import org.ow2.proactive.catalog.util.RawObjectHashUtil;
 import org.ow2.proactive.catalog.util.name.validator.KindAndContentTypeValidator;
 
 import com.google.common.collect.ImmutableList;
@@ -103,6 +117,12 @@ public class CatalogObjectServiceTest {
     @Mock
     private KindAndContentTypeValidator kindAndContentTypeValidator;
 
+    @Spy
+    private HeadRevisionCache headRevisionCache = new HeadRevisionCache();
+
+    @Mock
+    private PayloadCompressionService payloadCompressionService;
+
     @Test(expected = BucketNotFoundException.class)
     public void testCreateCatalogObjectWithInvalidBucket() {
         when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
@@ -337,8 +357,8 @@ public class CatalogObjectServiceTest {
 
     private CatalogObjectEntity newCatalogObjectEntity(long now) {
         CatalogObjectEntity catalogObjectEntity = CatalogObjectEntity.builder()
-                                                                     .id(new CatalogObjectEntity.CatalogObjectEntityKey(1L,
-                                                                                                                        "catalog"))
+                                                                     .id(1L)
+                                                                     .name("catalog")
                                                                      .kind("object")
                                                                      .contentType("application/xml")
                                                                      .lastCommitTime(now)
@@ -358,8 +378,8 @@ public class CatalogObjectServiceTest {
 
     private CatalogObjectRevisionEntity newCatalogObjectRevisionEntity(BucketEntity bucketEntity, long now) {
         CatalogObjectEntity catalogObjectEntity = CatalogObjectEntity.builder()
-                                                                     .id(new CatalogObjectEntity.CatalogObjectEntityKey(1L,
-                                                                                                                        "catalog"))
+                                                                     .id(1L)
+                                                                     .name("catalog")
                                                                      .kind("object")
                                                                      .bucket(bucketEntity)
                                                                      .contentType("application/xml")
@@ -388,7 +408,7 @@ public class CatalogObjectServiceTest {
 
     @Test(expected = BucketNotFoundException.class)
     public void testCreateCatalogObjectRevisionNotFound() {
-        when(catalogObjectRepository.findOne(any(CatalogObjectEntity.CatalogObjectEntityKey.class))).thenReturn(null);
+        when(catalogObjectRepository.findOneByBucketIdAndName(any(), anyString())).thenReturn(null);
         List<KeyValueLabelMetadataEntity> keyvalues = ImmutableList.of(new KeyValueLabelMetadataEntity("key",
                                                                                                        "value",
                                                                                                        null));
@@ -399,10 +419,11 @@ public class CatalogObjectServiceTest {
     public void testCreateCatalogObjectRevision() {
         BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
         CatalogObjectEntity catalogObjectEntity = newCatalogObjectEntity(System.currentTimeMillis());
+        catalogObjectEntity.setBucket(bucketEntity);
         CatalogObjectRevisionEntity catalogObjectRevisionEntity = newCatalogObjectRevisionEntity(bucketEntity,
                                                                                                  System.currentTimeMillis());
         when(bucketRepository.findOneByBucketName(anyString())).thenReturn(bucketEntity);
-        when(catalogObjectRepository.findOne(any(CatalogObjectEntity.CatalogObjectEntityKey.class))).thenReturn(catalogObjectEntity);
+        when(catalogObjectRepository.findOneByBucketIdAndName(any(), anyString())).thenReturn(catalogObjectEntity);
         when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenReturn(catalogObjectRevisionEntity);
         List<Metadata> keyvalues = ImmutableList.of(new Metadata("key", "value", null));
         when(keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(any(),
@@ -423,6 +444,346 @@ public class CatalogObjectServiceTest {
         assertThat(catalogObject.getMetadataList()).hasSize(1);
     }
 
+    @Test
+    public void testCreateCatalogObjectRevisionWithUnchangedContentReturnsHeadRevision() {
+        byte[] rawObject = "content".getBytes();
+        BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
+        CatalogObjectEntity catalogObjectEntity = newCatalogObjectEntity(System.currentTimeMillis());
+        CatalogObjectRevisionEntity headRevision = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                  System.currentTimeMillis());
+        headRevision.setContentHash(RawObjectHashUtil.sha256(rawObject));
+        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(bucketEntity);
+        when(catalogObjectRepository.findOneByBucketIdAndName(any(), anyString())).thenReturn(catalogObjectEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                    anyString())).thenReturn(headRevision);
+        when(keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(any(),
+                                                                                        any())).thenReturn(headRevision.getKeyValueMetadataList());
+        when(keyValueLabelMetadataHelper.hasSameKeyValueLabels(any(), any())).thenReturn(true);
+
+        CatalogObjectMetadata catalogObject = catalogObjectService.createCatalogObjectRevision("bucket",
+                                                                                               NAME,
+                                                                                               "another message",
+                                                                                               USERNAME,
+                                                                                               rawObject);
+
+        assertThat(catalogObject.getCommitMessage()).isEqualTo(COMMIT_MESSAGE);
+        verify(catalogObjectRevisionRepository, never()).save(any(CatalogObjectRevisionEntity.class));
+        verify(genericInformationAdder, never()).addGenericInformationToRawObjectIfWorkflow(any(), any(), any());
+    }
+
+    @Test
+    public void testCreateCatalogObjectRevisionAllocatesNextRevisionNumber() {
+        long lastCommitTime = System.currentTimeMillis() + 60000;
+        BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
+        CatalogObjectEntity catalogObjectEntity = newCatalogObjectEntity(lastCommitTime);
+        catalogObjectEntity.setBucket(bucketEntity);
+        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(bucketEntity);
+        when(catalogObjectRepository.findOneByBucketIdAndName(any(), anyString())).thenReturn(catalogObjectEntity);
+        when(catalogObjectRepository.findLastRevisionNumbersAndCommitTimes(Collections.singletonList(1L))).thenReturn(Collections.singletonList(new Object[] { 1L,
+                                                                                                                                                                4L,
+                                                                                                                                                                lastCommitTime }));
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        when(keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(any(),
+                                                                                        any())).thenReturn(Collections.emptyList());
+
+        catalogObjectService.createCatalogObjectRevision("bucket", NAME, COMMIT_MESSAGE, USERNAME, null);
+
+        ArgumentCaptor<CatalogObjectRevisionEntity> revisionCaptor = ArgumentCaptor.forClass(CatalogObjectRevisionEntity.class);
+        verify(catalogObjectRevisionRepository).save(revisionCaptor.capture());
+        assertThat(revisionCaptor.getValue().getRevisionNumber()).isEqualTo(4L);
+        assertThat(revisionCaptor.getValue().getCommitTime()).isEqualTo(lastCommitTime + 1);
+        assertThat(catalogObjectEntity.getLastRevisionNumber()).isEqualTo(4L);
+        assertThat(catalogObjectEntity.getRevisions()).hasSize(2);
+        verify(catalogObjectRepository).incrementLastRevisionNumbers(Collections.singletonList(1L));
+    }
+
+    @Test
+    public void testCreateMetadataRevisionReusesHeadPayload() {
+        byte[] rawObject = "content".getBytes();
+        BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
+        CatalogObjectRevisionEntity headRevision = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                  System.currentTimeMillis());
+        headRevision.setRawObject(rawObject);
+        headRevision.getPayload().setId(42L);
+        headRevision.setContentHash(RawObjectHashUtil.sha256(rawObject));
+        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                    anyString())).thenReturn(headRevision);
+        when(keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(any(),
+                                                                                        any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        when(genericInformationAdder.addGenericInformationAndVariablesToRawObjectIfWorkflow(any(),
+                                                                                            anyString(),
+                                                                                            any(),
+                                                                                            any())).thenAnswer(invocation -> "content".getBytes());
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        CatalogObjectMetadata catalogObject = catalogObjectService.createMetadataRevision("bucket",
+                                                                                          NAME,
+                                                                                          "patch",
+                                                                                          USERNAME,
+                                                                                          Collections.singletonList(new Metadata("key",
+                                                                                                                                 "patched",
+                                                                                                                                 null)));
+
+        ArgumentCaptor<CatalogObjectRevisionEntity> revisionCaptor = ArgumentCaptor.forClass(CatalogObjectRevisionEntity.class);
+        verify(catalogObjectRevisionRepository).save(revisionCaptor.capture());
+        assertThat(revisionCaptor.getValue().getPayload()).isSameAs(headRevision.getPayload());
+        assertThat(revisionCaptor.getValue().getPayloadId()).isEqualTo(42L);
+        assertThat(revisionCaptor.getValue().getContentHash()).isEqualTo(headRevision.getContentHash());
+        assertThat(catalogObject.getCommitMessage()).isEqualTo("patch");
+        assertThat(catalogObject.getMetadataList()).containsExactly(new Metadata("key", "patched", null));
+        verify(keyValueLabelMetadataHelper, never()).extractKeyValuesFromRaw(anyString(), any(), anyString());
+        verify(payloadCompressionService, never()).storeGzipRawObject(any(), any());
+    }
+
+    @Test
+    public void testCreateMetadataRevisionStoresRewrittenContentInANewPayload() {
+        byte[] rawObject = "content".getBytes();
+        BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
+        CatalogObjectRevisionEntity headRevision = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                  System.currentTimeMillis());
+        headRevision.setRawObject(rawObject);
+        headRevision.getPayload().setId(42L);
+        headRevision.setContentHash(RawObjectHashUtil.sha256(rawObject));
+        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                    anyString())).thenReturn(headRevision);
+        when(keyValueLabelMetadataHelper.replaceMetadataRelatedGenericInfoAndKeepOthers(any(),
+                                                                                        any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+        when(genericInformationAdder.addGenericInformationAndVariablesToRawObjectIfWorkflow(any(),
+                                                                                            anyString(),
+                                                                                            any(),
+                                                                                            any())).thenReturn("rewritten content".getBytes());
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        catalogObjectService.createMetadataRevision("bucket",
+                                                    NAME,
+                                                    "patch",
+                                                    USERNAME,
+                                                    Collections.singletonList(new Metadata("key", "patched", null)));
+
+        ArgumentCaptor<CatalogObjectRevisionEntity> revisionCaptor = ArgumentCaptor.forClass(CatalogObjectRevisionEntity.class);
+        verify(catalogObjectRevisionRepository).save(revisionCaptor.capture());
+        assertThat(revisionCaptor.getValue().getPayload()).isNotSameAs(headRevision.getPayload());
+        assertThat(revisionCaptor.getValue().getRawObject()).isEqualTo("rewritten content".getBytes());
+        assertThat(headRevision.getRawObject()).isSameAs(rawObject);
+        verify(payloadCompressionService).storeGzipRawObject(revisionCaptor.getValue(), "application/xml");
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testCreateMetadataRevisionRequiresMetadata() {
+        catalogObjectService.createMetadataRevision("bucket", NAME, "patch", USERNAME, Collections.emptyList());
+    }
+
+    @Test
+    public void testUpdateObjectsMetadataUpdatesNamesByPartitions() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
+        bucketEntity.setId(3L);
+        catalogObjectService.kindSeparator = "/";
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(catalogObjectRepository.updateKindAndContentType(anyLong(),
+                                                              any(),
+                                                              anyString(),
+                                                              anyCollection(),
+                                                              any(),
+                                                              any())).thenAnswer(invocation -> ((Collection<?>) invocation.getArguments()[3]).size());
+        List<String> names = IntStream.range(0, 1200).mapToObj(i -> "object-" + i).collect(Collectors.toList());
+
+        CatalogObjectsUpdateMetadata result = catalogObjectService.updateObjectsMetadata("bucket",
+                                                                                         Optional.of("workflow/"),
+                                                                                         names,
+                                                                                         Optional.of("workflow/analytics"),
+                                                                                         Optional.empty());
+
+        assertThat(result.getUpdatedObjects()).isEqualTo(1200);
+        verify(catalogObjectRepository, times(3)).updateKindAndContentType(eq(3L),
+                                                                           eq(Optional.of("workflow")),
+                                                                           eq("/"),
+                                                                           anyCollection(),
+                                                                           eq(Optional.of("workflow/analytics")),
+                                                                           eq(Optional.empty()));
+        verify(catalogObjectRevisionRepository, never()).findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                               anyString());
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testUpdateObjectsMetadataRequiresKindPrefixOrNames() {
+        catalogObjectService.kindSeparator = "/";
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(new BucketEntity("bucket", "owner"));
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+
+        try {
+            catalogObjectService.updateObjectsMetadata("bucket",
+                                                       Optional.empty(),
+                                                       Collections.emptyList(),
+                                                       Optional.of("workflow"),
+                                                       Optional.empty());
+        } finally {
+            verify(catalogObjectRepository, never()).updateKindAndContentType(anyLong(),
+                                                                              any(),
+                                                                              anyString(),
+                                                                              anyCollection(),
+                                                                              any(),
+                                                                              any());
+        }
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testUpdateObjectsMetadataRequiresKindOrContentType() {
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(new BucketEntity("bucket", "owner"));
+
+        catalogObjectService.updateObjectsMetadata("bucket",
+                                                   Optional.of("workflow"),
+                                                   null,
+                                                   Optional.empty(),
+                                                   Optional.empty());
+    }
+
+    @Test
+    public void testMoveCatalogObjectOnlyUpdatesTheObject() {
+        long now = System.currentTimeMillis();
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        BucketEntity targetBucketEntity = new BucketEntity("target", "toto");
+        CatalogObjectRevisionEntity headRevision = newCatalogObjectRevisionEntity(bucketEntity, now);
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(bucketRepository.findOneByBucketName("target")).thenReturn(targetBucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                    anyString())).thenReturn(headRevision);
+
+        CatalogObjectMetadata catalogObject = catalogObjectService.moveCatalogObject("bucket",
+                                                                                     NAME,
+                                                                                     Optional.of("target"),
+                                                                                     Optional.of("renamed"));
+
+        assertThat(catalogObject.getBucketName()).isEqualTo("target");
+        assertThat(catalogObject.getName()).isEqualTo("renamed");
+        assertThat(catalogObject.getCommitTimeRaw()).isEqualTo(String.valueOf(now));
+        verify(catalogObjectRepository).save(headRevision.getCatalogObject());
+        verify(catalogObjectRevisionRepository, never()).save(any(CatalogObjectRevisionEntity.class));
+    }
+
+    @Test(expected = CatalogObjectAlreadyExistingException.class)
+    public void testMoveCatalogObjectToAnExistingName() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        CatalogObjectRevisionEntity headRevision = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                  System.currentTimeMillis());
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                    anyString())).thenReturn(headRevision);
+        when(catalogObjectRepository.findOneByBucketIdAndName(any(),
+                                                              eq("existing"))).thenReturn(new CatalogObjectEntity());
+
+        catalogObjectService.moveCatalogObject("bucket", NAME, Optional.empty(), Optional.of("existing"));
+    }
+
+    @Test
+    public void testCommitCatalogObjectsResolvesBucketAndObjectsOnce() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        CatalogObjectRevisionEntity headRevision = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                  System.currentTimeMillis());
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectsByNamesInBucket(anyList(),
+                                                                                      any())).thenReturn(Collections.singletonList(headRevision));
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        when(genericInformationAdder.addGenericInformationToRawObjectIfWorkflow(any(),
+                                                                                any(),
+                                                                                any())).thenReturn(new byte[] {});
+
+        List<CatalogObjectMetadata> revisions = catalogObjectService.commitCatalogObjects("bucket",
+                                                                                          Optional.of(OBJECT),
+                                                                                          Optional.of(APPLICATION_XML),
+                                                                                          COMMIT_MESSAGE,
+                                                                                          USERNAME,
+                                                                                          Arrays.asList(file(NAME),
+                                                                                                        file("new-object")));
+
+        assertThat(revisions).hasSize(2);
+        assertThat(revisions.get(0).getName()).isEqualTo(NAME);
+        assertThat(revisions.get(1).getName()).isEqualTo("new-object");
+        assertThat(headRevision.getCatalogObject().getRevisions()).hasSize(2);
+        verify(bucketRepository, times(1)).findOneByBucketName("bucket");
+        verify(catalogObjectRevisionRepository, times(1)).findDefaultCatalogObjectsByNamesInBucket(anyList(), any());
+        verify(catalogObjectRevisionRepository, never()).findDefaultCatalogObjectByNameInBucket(anyList(), anyString());
+        verify(catalogObjectRevisionRepository, times(2)).save(any(CatalogObjectRevisionEntity.class));
+    }
+
+    @Test
+    public void testListCatalogObjectsGroupsKeyValuesOfTheProjectedRevisions() {
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(new BucketEntity("bucket", "toto"));
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesInBucket(anyList())).thenReturn(Arrays.asList(summary(1L,
+                                                                                                                                     "first"),
+                                                                                                                             summary(2L,
+                                                                                                                                     "second")));
+        when(catalogObjectRevisionRepository.findKeyValuesByRevisionIds(anyCollection())).thenReturn(Arrays.asList(new RevisionKeyValue(1L,
+                                                                                                                                        "a",
+                                                                                                                                        "1",
+                                                                                                                                        "label"),
+                                                                                                                   new RevisionKeyValue(1L,
+                                                                                                                                        "b",
+                                                                                                                                        "2",
+                                                                                                                                        "label")));
+
+        List<CatalogObjectMetadata> objects = catalogObjectService.listCatalogObjects(Collections.singletonList("bucket"));
+
+        assertThat(objects).hasSize(2);
+        assertThat(objects.get(0).getName()).isEqualTo("first");
+        assertThat(objects.get(0).getRevisionNumber()).isEqualTo(1L);
+        assertThat(objects.get(0).getMetadataList().stream().map(Metadata::getKey).collect(Collectors.toList())).containsExactly("a",
+                                                                                                                                 "b")
+                                                                                                                .inOrder();
+        assertThat(objects.get(1).getName()).isEqualTo("second");
+        assertThat(objects.get(1).getMetadataList()).isEmpty();
+        verify(catalogObjectRevisionRepository, times(1)).findKeyValuesByRevisionIds(Arrays.asList(1L, 2L));
+    }
+
+    private CatalogObjectRevisionSummary summary(Long revisionId, String name) {
+        return new CatalogObjectRevisionSummary(revisionId,
+                                                "bucket",
+                                                name,
+                                                OBJECT,
+                                                APPLICATION_XML,
+                                                System.currentTimeMillis(),
+                                                COMMIT_MESSAGE,
+                                                USERNAME,
+                                                null,
+                                                1L,
+                                                System.currentTimeMillis());
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testCommitCatalogObjectsRejectsSameObjectTwice() {
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+
+        catalogObjectService.commitCatalogObjects("bucket",
+                                                  Optional.of(OBJECT),
+                                                  Optional.empty(),
+                                                  COMMIT_MESSAGE,
+                                                  USERNAME,
+                                                  Arrays.asList(file(NAME), file(NAME)));
+    }
+
+    @Test(expected = WrongParametersException.class)
+    public void testCommitCatalogObjectsRequiresKindToCreateObject() {
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(new BucketEntity("bucket", "toto"));
+
+        catalogObjectService.commitCatalogObjects("bucket",
+                                                  Optional.empty(),
+                                                  Optional.empty(),
+                                                  COMMIT_MESSAGE,
+                                                  USERNAME,
+                                                  Collections.singletonList(file("new-object")));
+    }
+
+    private FileNameAndContent file(String name) {
+        FileNameAndContent file = new FileNameAndContent();
+        file.setName(name);
+        file.setFileNameWithExtension(name + ".xml");
+        file.setContent(name.getBytes());
+        return file;
+    }
+
     @Test(expected = RevisionNotFoundException.class)
     public void testGetCatalogObjectRevisionNotFound() {
         long now = System.currentTimeMillis();
@@ -451,7 +812,7 @@ public class CatalogObjectServiceTest {
         assertThat(catalogObjectRevisionEntity.getCommitMessage()).isEqualTo(COMMIT_MESSAGE);
         assertThat(catalogObjectRevisionEntity.getCatalogObject().getContentType()).isEqualTo(APPLICATION_XML);
         assertThat(catalogObjectRevisionEntity.getCatalogObject().getKind()).isEqualTo(OBJECT);
-        assertThat(catalogObjectRevisionEntity.getCatalogObject().getId().getName()).isEqualTo(NAME);
+        assertThat(catalogObjectRevisionEntity.getCatalogObject().getName()).isEqualTo(NAME);
         assertThat(catalogObjectRevisionEntity.getKeyValueMetadataList()).isNotEmpty();
         assertThat(catalogObjectRevisionEntity.getKeyValueMetadataList()).hasSize(1);
     }
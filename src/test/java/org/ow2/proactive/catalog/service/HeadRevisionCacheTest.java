@@ -0,0 +1,132 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class HeadRevisionCacheTest {
+
+    private final HeadRevisionCache headRevisionCache = new HeadRevisionCache();
+
+    private final AtomicInteger headQueries = new AtomicInteger();
+
+    @Test
+    public void testHeadRevisionIsReadByIdOnceResolved() {
+        CatalogObjectRevisionEntity head = newRevision(1L);
+
+        assertThat(getHeadRevision(head, head)).isSameAs(head);
+        assertThat(getHeadRevision(head, head)).isSameAs(head);
+
+        assertThat(headQueries.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEvictedHeadRevisionIsResolvedAgain() {
+        CatalogObjectRevisionEntity head = newRevision(1L);
+        CatalogObjectRevisionEntity newHead = newRevision(2L);
+        getHeadRevision(head, head);
+
+        headRevisionCache.evict("bucket", "object");
+
+        assertThat(getHeadRevision(head, newHead)).isSameAs(newHead);
+        assertThat(headQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testHeadRevisionReadDuringAnEvictionIsNotCached() {
+        CatalogObjectRevisionEntity head = newRevision(1L);
+        headRevisionCache.getHeadRevision("bucket", "object", id -> head, () -> {
+            headQueries.incrementAndGet();
+            headRevisionCache.evict("bucket", "object");
+            return head;
+        });
+
+        getHeadRevision(head, head);
+
+        assertThat(headQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDeletedHeadRevisionIsResolvedAgain() {
+        CatalogObjectRevisionEntity head = newRevision(1L);
+        getHeadRevision(head, head);
+
+        assertThat(getHeadRevision(null, null)).isNull();
+        assertThat(headQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testHeadRevisionCommittedByAnotherNodeIsResolvedAgain() {
+        CatalogObjectRevisionEntity head = newRevision(1L);
+        getHeadRevision(head, head);
+        // another node commits a new revision, the object designates it as its head without evicting this cache
+        CatalogObjectRevisionEntity newHead = newRevision(2L);
+        head.getCatalogObject().setLastCommitTime(newHead.getCommitTime());
+
+        assertThat(getHeadRevision(head, newHead)).isSameAs(newHead);
+        assertThat(headQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testObjectMovedByAnotherNodeIsResolvedAgain() {
+        CatalogObjectRevisionEntity head = newRevision(1L);
+        getHeadRevision(head, head);
+        head.getCatalogObject().setBucket(new BucketEntity("other-bucket", "owner"));
+
+        assertThat(getHeadRevision(head, null)).isNull();
+        assertThat(headQueries.get()).isEqualTo(2);
+    }
+
+    private CatalogObjectRevisionEntity getHeadRevision(CatalogObjectRevisionEntity revisionById,
+            CatalogObjectRevisionEntity headRevision) {
+        return headRevisionCache.getHeadRevision("bucket", "object", id -> revisionById, () -> {
+            headQueries.incrementAndGet();
+            return headRevision;
+        });
+    }
+
+    private CatalogObjectRevisionEntity newRevision(long id) {
+        CatalogObjectEntity catalogObject = CatalogObjectEntity.builder()
+                                                               .name("object")
+                                                               .bucket(new BucketEntity("bucket", "owner"))
+                                                               .lastCommitTime(id * 1000)
+                                                               .build();
+        return CatalogObjectRevisionEntity.builder().id(id).commitTime(id * 1000).catalogObject(catalogObject).build();
+    }
+
+}
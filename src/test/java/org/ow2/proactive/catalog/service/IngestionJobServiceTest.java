@@ -0,0 +1,151 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ow2.proactive.catalog.dto.IngestionJobMetadata;
+import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
+import org.ow2.proactive.catalog.service.exception.IdempotencyKeyConflictException;
+import org.ow2.proactive.catalog.service.exception.IngestionQueueFullException;
+import org.ow2.proactive.catalog.util.RawObjectHashUtil;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IngestionJobServiceTest {
+
+    private static final String BUCKET_NAME = "bucket";
+
+    private static final String OBJECT_NAME = "workflow";
+
+    private static final byte[] RAW_OBJECT = "<job name=\"workflow\"/>".getBytes();
+
+    @InjectMocks
+    private IngestionJobService ingestionJobService;
+
+    @Mock
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Mock
+    private BucketRepository bucketRepository;
+
+    @Mock
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Before
+    public void setUp() {
+        ingestionJobService.maxQueueSize = 2;
+        BucketEntity bucket = new BucketEntity(BUCKET_NAME, "owner");
+        bucket.setId(1L);
+        when(bucketRepository.findOneByBucketName(BUCKET_NAME)).thenReturn(bucket);
+        when(catalogObjectRepository.findOneByBucketIdAndName(any(), anyString())).thenReturn(new CatalogObjectEntity());
+        when(ingestionJobRepository.saveAndFlush(any(IngestionJobEntity.class))).thenAnswer(invocation -> {
+            IngestionJobEntity job = (IngestionJobEntity) invocation.getArguments()[0];
+            job.setId(10L);
+            return job;
+        });
+    }
+
+    @Test
+    public void testSubmitQueuesJob() {
+        IngestionJobMetadata job = ingestionJobService.submit("key", BUCKET_NAME, OBJECT_NAME, "msg", "user", RAW_OBJECT);
+
+        assertThat(job.getJobId()).isEqualTo(10L);
+        assertThat(job.getStatus()).isEqualTo(IngestionJobEntity.Status.QUEUED);
+        assertThat(job.getIdempotencyKey()).isEqualTo("key");
+        verify(ingestionJobRepository).saveAndFlush(any(IngestionJobEntity.class));
+    }
+
+    @Test
+    public void testSubmitWithKnownIdempotencyKeyReturnsExistingJob() {
+        IngestionJobEntity existingJob = existingJob(BUCKET_NAME, OBJECT_NAME, RAW_OBJECT);
+        when(ingestionJobRepository.findOneByIdempotencyKey("key")).thenReturn(existingJob);
+
+        IngestionJobMetadata job = ingestionJobService.submit("key", BUCKET_NAME, OBJECT_NAME, "msg", "user", RAW_OBJECT);
+
+        assertThat(job.getJobId()).isEqualTo(5L);
+        assertThat(job.getStatus()).isEqualTo(IngestionJobEntity.Status.SUCCEEDED);
+        verify(ingestionJobRepository, never()).saveAndFlush(any(IngestionJobEntity.class));
+    }
+
+    @Test(expected = IdempotencyKeyConflictException.class)
+    public void testSubmitWithKnownIdempotencyKeyAndOtherContentIsRejected() {
+        when(ingestionJobRepository.findOneByIdempotencyKey("key")).thenReturn(existingJob(BUCKET_NAME,
+                                                                                           OBJECT_NAME,
+                                                                                           "other".getBytes()));
+
+        ingestionJobService.submit("key", BUCKET_NAME, OBJECT_NAME, "msg", "user", RAW_OBJECT);
+    }
+
+    @Test(expected = IngestionQueueFullException.class)
+    public void testSubmitIsRejectedWhenQueueIsFull() {
+        when(ingestionJobRepository.countByStatusIn(anyCollection())).thenReturn(2L);
+
+        ingestionJobService.submit(null, BUCKET_NAME, OBJECT_NAME, "msg", "user", RAW_OBJECT);
+    }
+
+    @Test(expected = BucketNotFoundException.class)
+    public void testSubmitToUnknownBucketIsRejected() {
+        ingestionJobService.submit(null, "unknown", OBJECT_NAME, "msg", "user", RAW_OBJECT);
+    }
+
+    private IngestionJobEntity existingJob(String bucketName, String name, byte[] rawObject) {
+        return IngestionJobEntity.builder()
+                                 .id(5L)
+                                 .idempotencyKey("key")
+                                 .bucketName(bucketName)
+                                 .name(name)
+                                 .contentHash(RawObjectHashUtil.sha256(rawObject))
+                                 .status(IngestionJobEntity.Status.SUCCEEDED)
+                                 .submitTime(System.currentTimeMillis())
+                                 .completionTime(System.currentTimeMillis())
+                                 .commitTime(1L)
+                                 .build();
+    }
+
+}
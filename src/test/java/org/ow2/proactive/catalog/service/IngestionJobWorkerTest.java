@@ -0,0 +1,246 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.repository.IngestionJobRepository;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity;
+import org.ow2.proactive.catalog.repository.entity.IngestionJobEntity.Status;
+import org.ow2.proactive.catalog.service.exception.CatalogObjectNotFoundException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IngestionJobWorkerTest {
+
+    @InjectMocks
+    private IngestionJobWorker ingestionJobWorker;
+
+    @Mock
+    private IngestionJobRepository ingestionJobRepository;
+
+    @Mock
+    private CatalogObjectService catalogObjectService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+        ingestionJobWorker.workers = 1;
+        ingestionJobWorker.batchSize = 10;
+        ingestionJobWorker.pollDelay = 60000;
+        ingestionJobWorker.leaseDuration = 60000;
+        ingestionJobWorker.retentionDuration = 3600000;
+        ingestionJobWorker.nodeId = "node-1";
+        ingestionJobWorker.transactionTemplate = new TransactionTemplate(transactionManager);
+        when(ingestionJobRepository.claim(anyLong(),
+                                          eq(Status.QUEUED),
+                                          eq(Status.RUNNING),
+                                          eq("node-1"),
+                                          anyLong())).thenReturn(1);
+        when(catalogObjectService.createCatalogObjectRevision(anyString(),
+                                                              anyString(),
+                                                              anyString(),
+                                                              anyString(),
+                                                              any(byte[].class))).thenReturn(revision(42L));
+    }
+
+    @Test
+    public void testEmptyQueue() {
+        when(ingestionJobRepository.findByStatusInPartition(eq(Status.QUEUED),
+                                                            anyCollectionOf(Status.class),
+                                                            eq(1),
+                                                            eq(0),
+                                                            any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        assertThat(ingestionJobWorker.processBatch(0)).isEqualTo(0);
+    }
+
+    @Test
+    public void testJobsFollowingAPendingJobOfTheirObjectAreNotClaimed() {
+        when(ingestionJobRepository.findByStatusInPartition(eq(Status.QUEUED),
+                                                            eq(Arrays.asList(Status.QUEUED, Status.RUNNING)),
+                                                            eq(1),
+                                                            eq(0),
+                                                            any(Pageable.class))).thenReturn(Arrays.asList(job(1L, "a"),
+                                                                                                           job(3L, "b")));
+
+        assertThat(ingestionJobWorker.processBatch(0)).isEqualTo(2);
+
+        verify(ingestionJobRepository).complete(eq(1L), eq(Status.SUCCEEDED), eq(42L), isNull(String.class), anyLong());
+        verify(ingestionJobRepository).complete(eq(3L), eq(Status.SUCCEEDED), eq(42L), isNull(String.class), anyLong());
+    }
+
+    @Test
+    public void testFailedBatchIsCommittedJobByJob() {
+        when(ingestionJobRepository.findByStatusInPartition(eq(Status.QUEUED),
+                                                            anyCollectionOf(Status.class),
+                                                            eq(1),
+                                                            eq(0),
+                                                            any(Pageable.class))).thenReturn(Arrays.asList(job(1L, "a"),
+                                                                                                           job(2L, "missing")));
+        when(catalogObjectService.createCatalogObjectRevision(anyString(),
+                                                              eq("missing"),
+                                                              anyString(),
+                                                              anyString(),
+                                                              any(byte[].class))).thenThrow(new CatalogObjectNotFoundException("bucket",
+                                                                                                                               "missing"));
+
+        assertThat(ingestionJobWorker.processBatch(0)).isEqualTo(2);
+
+        // once in the failed batch, once in its own transaction
+        verify(catalogObjectService, times(2)).createCatalogObjectRevision(anyString(),
+                                                                           eq("a"),
+                                                                           anyString(),
+                                                                           anyString(),
+                                                                           any(byte[].class));
+        verify(ingestionJobRepository, times(2)).complete(eq(1L),
+                                                          eq(Status.SUCCEEDED),
+                                                          eq(42L),
+                                                          isNull(String.class),
+                                                          anyLong());
+        verify(ingestionJobRepository).complete(eq(2L),
+                                                eq(Status.FAILED),
+                                                isNull(Long.class),
+                                                anyString(),
+                                                anyLong());
+    }
+
+    @Test
+    public void testClaimedJobsAreLeasedToTheNode() {
+        when(ingestionJobRepository.findByStatusInPartition(eq(Status.QUEUED),
+                                                            anyCollectionOf(Status.class),
+                                                            eq(1),
+                                                            eq(0),
+                                                            any(Pageable.class))).thenReturn(Collections.singletonList(job(1L,
+                                                                                                                           "a")));
+        long before = System.currentTimeMillis();
+
+        ingestionJobWorker.processBatch(0);
+
+        ArgumentCaptor<Long> leaseExpirationTime = ArgumentCaptor.forClass(Long.class);
+        verify(ingestionJobRepository).claim(eq(1L),
+                                             eq(Status.QUEUED),
+                                             eq(Status.RUNNING),
+                                             eq("node-1"),
+                                             leaseExpirationTime.capture());
+        assertThat(leaseExpirationTime.getValue()).isAtLeast(before + 60000);
+    }
+
+    @Test
+    public void testStartOnlyQueuesAgainOwnedAndExpiredJobs() {
+        ingestionJobWorker.start();
+        ingestionJobWorker.stop();
+
+        verify(ingestionJobRepository).releaseOwned(Status.RUNNING, Status.QUEUED, "node-1");
+        verify(ingestionJobRepository).releaseExpired(eq(Status.RUNNING), eq(Status.QUEUED), anyLong());
+        verify(ingestionJobRepository).renewLeases(eq(Status.RUNNING), eq("node-1"), anyLong());
+    }
+
+    @Test
+    public void testRenewLeases() {
+        long before = System.currentTimeMillis();
+
+        ingestionJobWorker.renewLeases();
+
+        ArgumentCaptor<Long> leaseExpirationTime = ArgumentCaptor.forClass(Long.class);
+        verify(ingestionJobRepository).renewLeases(eq(Status.RUNNING),
+                                                   eq("node-1"),
+                                                   leaseExpirationTime.capture());
+        assertThat(leaseExpirationTime.getValue()).isAtLeast(before + 60000);
+        ArgumentCaptor<Long> expirationTime = ArgumentCaptor.forClass(Long.class);
+        verify(ingestionJobRepository).releaseExpired(eq(Status.RUNNING),
+                                                      eq(Status.QUEUED),
+                                                      expirationTime.capture());
+        assertThat(expirationTime.getValue()).isLessThan(leaseExpirationTime.getValue());
+    }
+
+    @Test
+    public void testPurgeCompletedJobs() {
+        long before = System.currentTimeMillis();
+
+        ingestionJobWorker.purgeCompletedJobs();
+
+        ArgumentCaptor<Long> completedBefore = ArgumentCaptor.forClass(Long.class);
+        verify(ingestionJobRepository).deleteCompletedBefore(eq(Arrays.asList(Status.SUCCEEDED, Status.FAILED)),
+                                                             completedBefore.capture());
+        assertThat(completedBefore.getValue()).isAtLeast(before - 3600000);
+        assertThat(completedBefore.getValue()).isAtMost(System.currentTimeMillis() - 3600000);
+    }
+
+    private IngestionJobEntity job(long id, String name) {
+        return IngestionJobEntity.builder()
+                                 .id(id)
+                                 .bucketName("bucket")
+                                 .name(name)
+                                 .commitMessage("commit")
+                                 .username("user")
+                                 .rawObject(new byte[] { 1 })
+                                 .status(Status.QUEUED)
+                                 .build();
+    }
+
+    private CatalogObjectMetadata revision(long commitTime) {
+        return new CatalogObjectMetadata("bucket",
+                                         "a",
+                                         "workflow",
+                                         "application/xml",
+                                         commitTime,
+                                         "commit",
+                                         "user",
+                                         Collections.emptyList(),
+                                         "xml");
+    }
+
+}
@@ -27,8 +27,13 @@ package org.ow2.proactive.catalog.service;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -42,6 +47,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.dto.Metadata;
 import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
 import org.ow2.proactive.catalog.service.model.GenericInfoBucketData;
+import org.ow2.proactive.catalog.util.parser.AbstractCatalogObjectParser;
 import org.ow2.proactive.catalog.util.parser.WorkflowParser;
 
 
@@ -195,6 +201,48 @@ public class KeyValueLabelMetadataHelperTest {
         KeyValueLabelMetadataEntityListHasEntry(replacedMetadata, "houses", "3");
     }
 
+    @Test
+    public void testThatParseResultIsReusedForSameContentHash() {
+        AbstractCatalogObjectParser parser = mock(AbstractCatalogObjectParser.class);
+        when(parser.isMyKind("workflow")).thenReturn(true);
+        when(parser.parse(any(InputStream.class))).thenReturn(Collections.singletonList(new KeyValueLabelMetadataEntity("name",
+                                                                                                                          "value",
+                                                                                                                          "job_information")));
+        KeyValueLabelMetadataHelper helper = new KeyValueLabelMetadataHelper(ownerGroupStringHelper,
+                                                                             Collections.singletonList(parser));
+
+        List<KeyValueLabelMetadataEntity> first = helper.extractKeyValuesFromRaw("workflow", new byte[] { 1 }, "hash");
+        List<KeyValueLabelMetadataEntity> second = helper.extractKeyValuesFromRaw("workflow", new byte[] { 1 }, "hash");
+        helper.extractKeyValuesFromRaw("workflow", new byte[] { 2 }, "otherHash");
+
+        verify(parser, times(2)).parse(any(InputStream.class));
+        assertThat(first.get(0)).isNotSameAs(second.get(0));
+        assertThat(second.get(0).getKey()).isEqualTo("name");
+        assertThat(second.get(0).getValue()).isEqualTo("value");
+        assertThat(second.get(0).getLabel()).isEqualTo("job_information");
+    }
+
+    @Test
+    public void testThatSameKeyValueLabelsAreDetectedRegardlessOfOrder() {
+        List<KeyValueLabelMetadataEntity> metadataEntities = Arrays.asList(new KeyValueLabelMetadataEntity("a",
+                                                                                                           "1",
+                                                                                                           "label"),
+                                                                           new KeyValueLabelMetadataEntity("b",
+                                                                                                           "2",
+                                                                                                           "label"));
+        List<KeyValueLabelMetadataEntity> reversed = Arrays.asList(new KeyValueLabelMetadataEntity("b", "2", "label"),
+                                                                   new KeyValueLabelMetadataEntity("a", "1", "label"));
+        List<KeyValueLabelMetadataEntity> otherLabel = Arrays.asList(new KeyValueLabelMetadataEntity("a",
+                                                                                                     "1",
+                                                                                                     "label"),
+                                                                     new KeyValueLabelMetadataEntity("b",
+                                                                                                     "2",
+                                                                                                     "other"));
+
+        assertThat(keyValueLabelMetadataHelper.hasSameKeyValueLabels(metadataEntities, reversed)).isTrue();
+        assertThat(keyValueLabelMetadataHelper.hasSameKeyValueLabels(metadataEntities, otherLabel)).isFalse();
+    }
+
     private void KeyValueLabelMetadataEntityListHasEntry(List<KeyValueLabelMetadataEntity> keyValueMetadataEntities,
             String key, String value) {
         for (KeyValueLabelMetadataEntity KeyValueLabelMetadataEntity : keyValueMetadataEntities) {
@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ow2.proactive.catalog.repository.CatalogObjectGzipPayloadRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectGzipPayloadEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+
+import com.google.common.io.ByteStreams;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PayloadCompressionServiceTest {
+
+    @InjectMocks
+    private PayloadCompressionService payloadCompressionService;
+
+    @Mock
+    private CatalogObjectGzipPayloadRepository catalogObjectGzipPayloadRepository;
+
+    @Spy
+    private RevisionPayloadCache revisionPayloadCache = new RevisionPayloadCache();
+
+    @Captor
+    private ArgumentCaptor<CatalogObjectGzipPayloadEntity> gzipPayload;
+
+    @Before
+    public void setUp() {
+        String[] compressibleMimeTypes = PayloadCompressionService.DEFAULT_COMPRESSIBLE_MIME_TYPES.split(",");
+        payloadCompressionService.compressibleMimeTypes = compressibleMimeTypes;
+        payloadCompressionService.minResponseSize = 2048;
+    }
+
+    @Test
+    public void testIsCompressible() {
+        assertThat(payloadCompressionService.isCompressible("application/xml")).isTrue();
+        assertThat(payloadCompressionService.isCompressible("text/plain;charset=UTF-8")).isTrue();
+        assertThat(payloadCompressionService.isCompressible("application/zip")).isFalse();
+        assertThat(payloadCompressionService.isCompressible("image/png")).isFalse();
+        assertThat(payloadCompressionService.isCompressible(null)).isFalse();
+    }
+
+    @Test
+    public void testGzipEncodingIsStoredForCompressibleContent() throws IOException {
+        byte[] rawObject = repeatedContent(8 * 1024);
+
+        payloadCompressionService.storeGzipRawObject(newRevision(7L, rawObject), "application/xml");
+
+        verify(catalogObjectGzipPayloadRepository).save(gzipPayload.capture());
+        assertThat(gzipPayload.getValue().getPayloadId()).isEqualTo(7L);
+        assertThat(gzipPayload.getValue().getGzipRawObject().length).isLessThan(rawObject.length);
+        assertThat(gunzip(gzipPayload.getValue().getGzipRawObject())).isEqualTo(rawObject);
+    }
+
+    @Test
+    public void testGzipEncodingIsStoredForStreamedContent() throws IOException {
+        byte[] rawObject = repeatedContent(512 * 1024);
+
+        payloadCompressionService.storeGzipRawObject(newRevision(7L, rawObject), "text/plain");
+
+        verify(catalogObjectGzipPayloadRepository).save(gzipPayload.capture());
+        byte[] gzipRawObject = gzipPayload.getValue().getGzipRawObject();
+        assertThat(gzipPayload.getValue().getGzipRawObjectSize()).isEqualTo((long) gzipRawObject.length);
+        assertThat(gunzip(gzipRawObject)).isEqualTo(rawObject);
+    }
+
+    @Test
+    public void testGzipEncodingIsNotStoredForCompressedOrSmallContent() {
+        payloadCompressionService.storeGzipRawObject(newRevision(7L, repeatedContent(8 * 1024)), "application/zip");
+        payloadCompressionService.storeGzipRawObject(newRevision(7L, repeatedContent(1024)), "application/xml");
+        payloadCompressionService.storeGzipRawObject(newRevision(null, repeatedContent(8 * 1024)), "text/plain");
+
+        verify(catalogObjectGzipPayloadRepository, never()).save(any(CatalogObjectGzipPayloadEntity.class));
+    }
+
+    @Test
+    public void testGzipEncodingIsReadOnceEvenWhenAbsent() {
+        byte[] gzipRawObject = { 31, -117, 8 };
+        when(catalogObjectGzipPayloadRepository.findOne(1L)).thenReturn(new CatalogObjectGzipPayloadEntity(1L,
+                                                                                                          gzipRawObject));
+
+        assertThat(payloadCompressionService.getGzipRawObject(1L)).isEqualTo(gzipRawObject);
+        assertThat(payloadCompressionService.getGzipRawObject(1L)).isEqualTo(gzipRawObject);
+        assertThat(payloadCompressionService.getGzipRawObject(2L)).isNull();
+        assertThat(payloadCompressionService.getGzipRawObject(2L)).isNull();
+
+        verify(catalogObjectGzipPayloadRepository, times(1)).findOne(1L);
+        verify(catalogObjectGzipPayloadRepository, times(1)).findOne(2L);
+    }
+
+    private static CatalogObjectRevisionEntity newRevision(Long payloadId, byte[] rawObject) {
+        CatalogObjectRevisionEntity revision = mock(CatalogObjectRevisionEntity.class);
+        when(revision.getPayloadId()).thenReturn(payloadId);
+        when(revision.getRawObject()).thenReturn(rawObject);
+        return revision;
+    }
+
+    private static byte[] repeatedContent(int length) {
+        byte[] content = new byte[length];
+        Arrays.fill(content, (byte) 'a');
+        return content;
+    }
+
+    private static byte[] gunzip(byte[] gzipRawObject) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipRawObject))) {
+            return ByteStreams.toByteArray(inputStream);
+        }
+    }
+
+}
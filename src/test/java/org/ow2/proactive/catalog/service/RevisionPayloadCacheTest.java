@@ -0,0 +1,113 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class RevisionPayloadCacheTest {
+
+    private final RevisionPayloadCache revisionPayloadCache = new RevisionPayloadCache();
+
+    @Test
+    public void testRawObjectIsReadOnceAndCounted() {
+        CatalogObjectRevisionEntity revision = mockRevision(1L, new byte[] { 1, 2, 3 });
+
+        assertThat(revisionPayloadCache.getRawObject(revision)).isEqualTo(new byte[] { 1, 2, 3 });
+        assertThat(revisionPayloadCache.getRawObject(revision)).isEqualTo(new byte[] { 1, 2, 3 });
+
+        verify(revision, times(1)).getRawObject();
+        assertThat(revisionPayloadCache.getMissCount()).isEqualTo(1);
+        assertThat(revisionPayloadCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRevisionsSharingAPayloadShareTheEntry() {
+        CatalogObjectRevisionEntity revision = mockRevision(1L, new byte[] { 1 });
+        CatalogObjectRevisionEntity clonedRevision = mockRevision(1L, new byte[] { 1 });
+
+        revisionPayloadCache.getRawObject(revision);
+        revisionPayloadCache.getRawObject(clonedRevision);
+
+        verify(clonedRevision, times(0)).getRawObject();
+    }
+
+    @Test
+    public void testPayloadNotStoredYetIsNotCached() {
+        CatalogObjectRevisionEntity revision = mockRevision(null, new byte[] { 1 });
+
+        revisionPayloadCache.getRawObject(revision);
+        revisionPayloadCache.getRawObject(revision);
+
+        verify(revision, times(2)).getRawObject();
+        assertThat(revisionPayloadCache.getMissCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testConcurrentMissesReadTheContentOnce() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch loadReleased = new CountDownLatch(1);
+        CatalogObjectRevisionEntity revision = mock(CatalogObjectRevisionEntity.class);
+        when(revision.getPayloadId()).thenReturn(1L);
+        when(revision.getRawObject()).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            loadReleased.await(10, TimeUnit.SECONDS);
+            return new byte[] { 1 };
+        });
+
+        CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> revisionPayloadCache.getRawObject(revision));
+        assertThat(loadStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<byte[]> second = CompletableFuture.supplyAsync(() -> revisionPayloadCache.getRawObject(revision));
+        loadReleased.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(new byte[] { 1 });
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(new byte[] { 1 });
+        verify(revision, times(1)).getRawObject();
+    }
+
+    private CatalogObjectRevisionEntity mockRevision(Long payloadId, byte[] rawObject) {
+        CatalogObjectRevisionEntity revision = mock(CatalogObjectRevisionEntity.class);
+        when(revision.getPayloadId()).thenReturn(payloadId);
+        when(revision.getRawObject()).thenReturn(rawObject);
+        return revision;
+    }
+
+}
@@ -28,8 +28,12 @@ package org.ow2.proactive.catalog.service;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -304,6 +308,169 @@ public class WorkflowXmlManipulatorTest {
         assertThat(nullByteArray.length).isEqualTo(0);
     }
 
+    @Test
+    public void testThatWorkflowIsReturnedUnchangedIfGenericInfoIsAlreadyUpToDate() {
+        Map<String, String> genericInfo = new LinkedHashMap<>();
+        genericInfo.put("first", "value1");
+        genericInfo.put("second", "value2");
+
+        byte[] result = workflowXmlManipulator.replaceGenericInformationJobLevel(simpleWorkflowWithGenericInfo,
+                                                                                 genericInfo);
+        assertThat(result).isSameAs(simpleWorkflowWithGenericInfo);
+    }
+
+    @Test
+    public void testThatWorkflowEncodingIsPreserved() {
+        byte[] latin1Workflow = ("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n" +
+                                 "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"caf\u00e9\">\n" +
+                                 "  <description>cr\u00e8me br\u00fbl\u00e9e</description>\n" +
+                                 "  <taskFlow>\n    <task name=\"Task1\"/>\n  </taskFlow>\n" +
+                                 "</job>").getBytes(StandardCharsets.ISO_8859_1);
+
+        String result = new String(workflowXmlManipulator.replaceGenericInformationJobLevel(latin1Workflow,
+                                                                                            Collections.singletonMap("key",
+                                                                                                                     "\u00e9t\u00e9 \u20ac")),
+                                   StandardCharsets.ISO_8859_1);
+        assertThat(result).startsWith("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>");
+        assertThat(result).contains("name=\"caf\u00e9\"");
+        assertThat(result).contains("<description>cr\u00e8me br\u00fbl\u00e9e</description>");
+        assertThat(result).contains("<info name=\"key\" value=\"\u00e9t\u00e9 &#x20ac;\"/>");
+        assertThat(result).contains("<task name=\"Task1\"/>");
+    }
+
+    @Test
+    public void testThatUtf16WorkflowKeepsASingleByteOrderMark() {
+        String workflow = "<?xml version=\"1.0\" encoding=\"UTF-16\"?>\n" +
+                          "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"caf\u00e9\">\n" +
+                          "  <taskFlow>\n    <task name=\"Task1\"/>\n  </taskFlow>\n</job>";
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-16\"?>\n" +
+                          "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"caf\u00e9\">\n" +
+                          "  <genericInformation>\n    <info name=\"key\" value=\"value\"/>\n  </genericInformation>\n" +
+                          "  <taskFlow>\n    <task name=\"Task1\"/>\n  </taskFlow>\n</job>";
+
+        for (byte[] byteOrderMark : new byte[][] { { (byte) 0xFF, (byte) 0xFE }, { (byte) 0xFE, (byte) 0xFF } }) {
+            Charset charset = byteOrderMark[0] == (byte) 0xFF ? StandardCharsets.UTF_16LE : StandardCharsets.UTF_16BE;
+            byte[] result = workflowXmlManipulator.replaceGenericInformationJobLevel(withByteOrderMark(byteOrderMark,
+                                                                                                      workflow.getBytes(charset)),
+                                                                                     Collections.singletonMap("key",
+                                                                                                              "value"));
+
+            assertThat(result).isEqualTo(withByteOrderMark(byteOrderMark, expected.getBytes(charset)));
+            assertThat(workflowXmlManipulator.replaceGenericInformationJobLevel(result,
+                                                                                Collections.singletonMap("key",
+                                                                                                         "value"))).isEqualTo(result);
+        }
+    }
+
+    @Test
+    public void testThatXmlDeclarationIsCopiedVerbatim() {
+        byte[] workflow = ("<?xml version='1.0'   encoding='UTF-8' ?>\r\n\r\n" +
+                           "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"job\">\r\n" +
+                           "  <taskFlow>\r\n    <task name=\"Task1\"/>\r\n  </taskFlow>\r\n</job>").getBytes(StandardCharsets.UTF_8);
+
+        String result = new String(workflowXmlManipulator.replaceGenericInformationJobLevel(workflow,
+                                                                                            Collections.singletonMap("key",
+                                                                                                                     "value")),
+                                   StandardCharsets.UTF_8);
+        assertThat(result).startsWith("<?xml version='1.0'   encoding='UTF-8' ?>\r\n\r\n<job ");
+        assertThat(result).endsWith("<task name=\"Task1\"/>\r\n  </taskFlow>\r\n</job>");
+    }
+
+    @Test
+    public void testThatAttributesAndCdataAreCopiedVerbatim() {
+        byte[] workflow = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                           "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"a &amp; b\">\n" +
+                           "  <variables>\n    <variable name=\"multi\" value=\"line1&#10;line2\"/>\n  </variables>\n" +
+                           "  <taskFlow>\n    <task name=\"Task1\"><scriptExecutable><script><code language=\"python\">" +
+                           "<![CDATA[if a < b and c > d: print \"&\"]]></code></script></scriptExecutable></task>\n" +
+                           "  </taskFlow>\n</job>").getBytes(StandardCharsets.UTF_8);
+
+        String result = new String(workflowXmlManipulator.replaceGenericInformationJobLevel(workflow,
+                                                                                            getTwoSimpleEntries()),
+                                   StandardCharsets.UTF_8);
+        assertThat(result).contains("name=\"a &amp; b\"");
+        assertThat(result).contains("value=\"line1&#10;line2\"");
+        assertThat(result).contains("<![CDATA[if a < b and c > d: print \"&\"]]>");
+        assertThat(result).contains("</genericInformation>\n  <taskFlow>");
+    }
+
+    @Test
+    public void testThatOnlyJobLevelVariablesAreReplaced() {
+        byte[] workflow = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                           "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"job\">\n" +
+                           "  <variables>\n    <variable name=\"var1\" value=\"old\" model=\"PA:Integer\"/>\n" +
+                           "    <variable value=\"kept\" name=\"var2\"/>\n  </variables>\n" +
+                           "  <taskFlow>\n    <task name=\"Task1\"><variables><variable name=\"var1\" value=\"task\"/>" +
+                           "</variables></task>\n  </taskFlow>\n</job>").getBytes(StandardCharsets.UTF_8);
+
+        String result = new String(workflowXmlManipulator.replaceGenericInformationAndVariablesJobLevel(workflow,
+                                                                                                        null,
+                                                                                                        Collections.singletonMap("var1",
+                                                                                                                                 "new & <updated>")),
+                                   StandardCharsets.UTF_8);
+        assertThat(result).contains("<variable name=\"var1\" value=\"new &amp; &lt;updated&gt;\" model=\"PA:Integer\"/>");
+        assertThat(result).contains("<variable value=\"kept\" name=\"var2\"/>");
+        assertThat(result).contains("<variable name=\"var1\" value=\"task\"/>");
+        assertThat(result).doesNotContain("genericInformation");
+    }
+
+    @Test
+    public void testThatVariablesAndGenericInfoAreReplacedInOnePass() {
+        byte[] workflow = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                           "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"job\">\n" +
+                           "  <variables>\n    <variable name=\"var1\" value=\"old\"/>\n  </variables>\n" +
+                           "  <taskFlow>\n    <task name=\"Task1\"/>\n  </taskFlow>\n</job>").getBytes(StandardCharsets.UTF_8);
+
+        String result = new String(workflowXmlManipulator.replaceGenericInformationAndVariablesJobLevel(workflow,
+                                                                                                        Collections.singletonMap("key",
+                                                                                                                                 "value"),
+                                                                                                        Collections.singletonMap("var1",
+                                                                                                                                 "new")),
+                                   StandardCharsets.UTF_8);
+        assertThat(result).contains("<variable name=\"var1\" value=\"new\"/>");
+        assertThat(result).contains("<info name=\"key\" value=\"value\"/>");
+    }
+
+    @Test
+    public void testThatEverythingButTheGenericInfoIsCopiedUnchanged() {
+        String beforeGenericInfo = "<?xml version='1.0' encoding='UTF-8'?>\r\n<!DOCTYPE job [ <!ENTITY e \"entity\"> ]>\r\n" +
+                                   "<!-- caf\u00e9 -->\r\n<job  xmlns = 'urn:proactive:jobdescriptor:3.8'\tname='a&amp;b' >\r\n" +
+                                   "  <description><![CDATA[<genericInformation/>]]> &e; &#233;</description>\r\n  ";
+        String afterGenericInfo = "\r\n  <taskFlow>\r\n    <task name=\"Task1\"><genericInformation><info name=\"k\" " +
+                                  "value=\"v\" /></genericInformation></task>\r\n  </taskFlow>\r\n</job>\r\n<!-- end -->";
+        String workflow = beforeGenericInfo + "<genericInformation ><info name='old' value='old'/></genericInformation >" +
+                          afterGenericInfo;
+
+        byte[] result = workflowXmlManipulator.replaceGenericInformationJobLevel(workflow.getBytes(StandardCharsets.UTF_8),
+                                                                                 Collections.singletonMap("key",
+                                                                                                          "\u20ac"));
+
+        assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo(beforeGenericInfo +
+                                                                          "<genericInformation>\r\n    <info name=\"key\" value=\"\u20ac\"/>\r\n  </genericInformation>" +
+                                                                          afterGenericInfo);
+    }
+
+    @Test
+    public void testThatOnlyTheValueAttributeOfAVariableIsReplaced() {
+        String workflow = "<job xmlns=\"urn:proactive:jobdescriptor:3.8\" name=\"job\">\n" +
+                          "  <variables>\n    <variable description = 'value=\"old\"' name='var1' value = 'old' />\n" +
+                          "  </variables>\n  <taskFlow/>\n</job>";
+
+        String result = new String(workflowXmlManipulator.replaceGenericInformationAndVariablesJobLevel(workflow.getBytes(StandardCharsets.UTF_8),
+                                                                                                        null,
+                                                                                                        Collections.singletonMap("var1",
+                                                                                                                                 "it's \"new\"")),
+                                   StandardCharsets.UTF_8);
+
+        assertThat(result).isEqualTo(workflow.replace("value = 'old'", "value = 'it&apos;s \"new\"'"));
+    }
+
+    private static byte[] withByteOrderMark(byte[] byteOrderMark, byte[] content) {
+        byte[] result = Arrays.copyOf(byteOrderMark, byteOrderMark.length + content.length);
+        System.arraycopy(content, 0, result, byteOrderMark.length, content.length);
+        return result;
+    }
+
     private Map<String, String> getTwoSimpleEntries() {
         Map<String, String> returnList = new HashMap<>();
 
@@ -0,0 +1,80 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class AcceptHeaderUtilTest {
+
+    private static final MediaType NDJSON = CatalogObjectNdjsonWriter.APPLICATION_NDJSON;
+
+    @Test
+    public void testDefaultWithoutAcceptHeader() {
+        assertThat(isNdjsonPreferred((String[]) null)).isFalse();
+        assertThat(isNdjsonPreferred("not a media type")).isFalse();
+    }
+
+    @Test
+    public void testDefaultForOtherTypes() {
+        assertThat(isNdjsonPreferred("*/*")).isFalse();
+        assertThat(isNdjsonPreferred("application/*")).isFalse();
+        assertThat(isNdjsonPreferred("application/xml")).isFalse();
+        assertThat(isNdjsonPreferred("text/application-x-ndjson-like")).isFalse();
+    }
+
+    @Test
+    public void testAlternativeType() {
+        assertThat(isNdjsonPreferred("application/x-ndjson")).isTrue();
+        assertThat(isNdjsonPreferred("application/json;q=0.5", "application/x-ndjson")).isTrue();
+        assertThat(isNdjsonPreferred("application/x-ndjson, */*")).isTrue();
+    }
+
+    @Test
+    public void testQualityValues() {
+        assertThat(isNdjsonPreferred("application/json, application/x-ndjson;q=0.5")).isFalse();
+        assertThat(isNdjsonPreferred("application/x-ndjson;q=0.1, */*")).isFalse();
+        assertThat(isNdjsonPreferred("application/x-ndjson;q=0, */*")).isFalse();
+        assertThat(isNdjsonPreferred("application/json;q=0, application/x-ndjson;q=0.1")).isTrue();
+    }
+
+    private boolean isNdjsonPreferred(String... acceptHeaders) {
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeaderValues(HttpHeaders.ACCEPT)).thenReturn(acceptHeaders);
+        return AcceptHeaderUtil.isPreferred(webRequest, NDJSON, MediaType.APPLICATION_JSON);
+    }
+}
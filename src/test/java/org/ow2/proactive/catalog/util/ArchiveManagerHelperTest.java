@@ -48,7 +48,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
-import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity.CatalogObjectEntityKey;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
@@ -89,7 +88,8 @@ public class ArchiveManagerHelperTest {
     private CatalogObjectRevisionEntity getCatalogObjectRevisionEntity(String name, byte[] fileContent,
             String extension) throws IOException {
         CatalogObjectEntity object = new CatalogObjectEntity();
-        object.setId(new CatalogObjectEntityKey(1L, name));
+        object.setId(1L);
+        object.setName(name);
         object.setExtension(extension);
 
         CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
@@ -0,0 +1,107 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadataField;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.springframework.hateoas.Link;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class CatalogObjectNdjsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testWritesOneLinePerObjectWithTheSelectedFields() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (CatalogObjectNdjsonWriter writer = new CatalogObjectNdjsonWriter(outputStream,
+                                                                              Arrays.asList(CatalogObjectMetadataField.NAME,
+                                                                                            CatalogObjectMetadataField.REVISION_NUMBER,
+                                                                                            CatalogObjectMetadataField.OBJECT_KEY_VALUES))) {
+            writer.write(createMetadata("first"));
+            writer.write(createMetadata("second"));
+        }
+
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasLength(3);
+        assertThat(lines[2]).isEmpty();
+
+        Map<?, ?> first = objectMapper.readValue(lines[0], Map.class);
+        assertThat(first.keySet()).containsExactly("name", "object_key_values").inOrder();
+        assertThat(first.get("name")).isEqualTo("first");
+        assertThat((List<?>) first.get("object_key_values")).hasSize(1);
+        assertThat(((Map<?, ?>) ((List<?>) first.get("object_key_values")).get(0)).get("label")).isEqualTo("label");
+        assertThat(objectMapper.readValue(lines[1], Map.class).get("name")).isEqualTo("second");
+    }
+
+    @Test
+    public void testWritesAllFieldsAsInTheJsonRepresentation() throws IOException {
+        CatalogObjectMetadata metadata = createMetadata("name");
+        metadata.add(new Link("http://localhost/name", "content"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (CatalogObjectNdjsonWriter writer = new CatalogObjectNdjsonWriter(outputStream,
+                                                                              Arrays.asList(CatalogObjectMetadataField.values()))) {
+            writer.write(metadata);
+        }
+
+        Map<?, ?> written = objectMapper.readValue(outputStream.toByteArray(), Map.class);
+        assertThat(written.get("bucket_name")).isEqualTo("bucket");
+        assertThat(written.get("commit_time_raw")).isEqualTo("0");
+        assertThat(written.get("extension")).isNull();
+        assertThat(written.containsKey("revision_number")).isFalse();
+        assertThat(((Map<?, ?>) ((List<?>) written.get("links")).get(0)).get("href")).isEqualTo("http://localhost/name");
+    }
+
+    private CatalogObjectMetadata createMetadata(String name) {
+        return new CatalogObjectMetadata("bucket",
+                                         name,
+                                         "workflow",
+                                         "application/xml",
+                                         0L,
+                                         "commit message",
+                                         "username",
+                                         Collections.singletonList(new Metadata("key", "value", "label")),
+                                         null);
+    }
+}
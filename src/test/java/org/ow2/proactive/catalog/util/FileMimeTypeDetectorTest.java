@@ -0,0 +1,100 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class FileMimeTypeDetectorTest {
+
+    private FileMimeTypeDetector fileMimeTypeDetector = new FileMimeTypeDetector();
+
+    @Test
+    public void testThatKnownExtensionIsUsedWhateverTheContent() {
+        assertThat(fileMimeTypeDetector.detect("workflow",
+                                               "workflow.xml",
+                                               "not xml".getBytes())).isEqualTo("application/xml");
+        assertThat(fileMimeTypeDetector.detect("Script/groovy",
+                                               "script.GROOVY",
+                                               new byte[0])).isEqualTo("text/x-groovy");
+        assertThat(fileMimeTypeDetector.detect("Script/python", "script.py", new byte[0])).isEqualTo("text/x-python");
+    }
+
+    @Test
+    public void testThatKindIsUsedForUnknownExtension() {
+        assertThat(fileMimeTypeDetector.detect("workflow/standard",
+                                               "workflow",
+                                               new byte[0])).isEqualTo("application/xml");
+    }
+
+    @Test
+    public void testThatMostSpecificKindMappingIsUsed() {
+        FileMimeTypeDetector detector = new FileMimeTypeDetector("",
+                                                                 "script:text/plain,script/groovy:text/x-groovy",
+                                                                 "/");
+
+        assertThat(detector.detect("Script/Groovy/Legacy", "script", new byte[0])).isEqualTo("text/x-groovy");
+        assertThat(detector.detect("Script/ruby", "script", new byte[0])).isEqualTo("text/plain");
+    }
+
+    @Test
+    public void testThatContentIsAnalysedWhenExtensionAndKindAreUnknown() {
+        String pdfHeader = "%PDF-1.4\n";
+
+        assertThat(fileMimeTypeDetector.detect("document",
+                                               "report",
+                                               pdfHeader.getBytes())).isEqualTo("application/pdf");
+        assertThat(fileMimeTypeDetector.detect("document",
+                                               "other-report",
+                                               pdfHeader.getBytes())).isEqualTo("application/pdf");
+        assertThat(fileMimeTypeDetector.detect("document",
+                                               "data.unknown",
+                                               new byte[] { 0, 1, 2 })).isEqualTo("application/octet-stream");
+    }
+
+    @Test
+    public void testThatContentsSharingTheirLeadingBytesAreNotConfused() {
+        byte[] empty = new byte[40000];
+        byte[] isoImage = new byte[40000];
+        isoImage[32768] = 1;
+        System.arraycopy("CD001".getBytes(), 0, isoImage, 32769, 5);
+
+        assertThat(fileMimeTypeDetector.detect("image", "image", empty)).isEqualTo("application/octet-stream");
+        assertThat(fileMimeTypeDetector.detect("image", "image", isoImage)).isEqualTo("application/x-iso9660-image");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatInvalidMappingIsRejected() {
+        new FileMimeTypeDetector("xml", "", "/");
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class LinkUtilTest {
+
+    private static final String BUCKETS_URL = "http://localhost:8080/catalog/buckets";
+
+    private RequestAttributes requestAttributes;
+
+    @Before
+    public void setUp() {
+        requestAttributes = mock(RequestAttributes.class);
+        when(requestAttributes.getAttribute(LinkUtil.class.getName() + ".BUCKETS_URL",
+                                            RequestAttributes.SCOPE_REQUEST)).thenReturn(BUCKETS_URL);
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testCreateLinkReusesTheBucketsUrlOfTheRequest() {
+        Link link = LinkUtil.createLink("bucket-name", "object");
+
+        assertThat(link.getRel()).isEqualTo("content");
+        assertThat(link.getHref()).isEqualTo(BUCKETS_URL + "/bucket-name/resources/object/raw");
+        verify(requestAttributes, never()).setAttribute(anyString(), anyObject(), anyInt());
+    }
+
+    @Test
+    public void testCreateLinkEncodesTheObjectNameOnce() {
+        assertThat(LinkUtil.createLink("bucket-name", "a b+c%/\u00e9").getHref()).isEqualTo(BUCKETS_URL +
+                                                                                        "/bucket-name/resources/a%20b%2Bc%25%2F%C3%A9/raw");
+    }
+
+    @Test
+    public void testCreateRevisionLink() {
+        LocalDateTime commitTime = LocalDateTime.of(2017, 11, 7, 10, 30);
+        long epochMilli = commitTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertThat(LinkUtil.createLink("bucket-name", "a b", commitTime).getHref()).isEqualTo(BUCKETS_URL +
+                                                                                               "/bucket-name/resources/a%20b/revisions/" +
+                                                                                               epochMilli + "/raw");
+        assertThat(LinkUtil.createRelativeLink("bucket-name", "a b", commitTime).getHref()).isEqualTo("buckets/bucket-name/resources/a%20b/revisions/" +
+                                                                                                      epochMilli);
+    }
+}
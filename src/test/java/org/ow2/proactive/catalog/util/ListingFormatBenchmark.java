@@ -0,0 +1,129 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.springframework.hateoas.Link;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+/**
+ * Compares the serialization throughput and the payload size of catalog object listings in JSON, CBOR and Smile.
+ * <p>
+ * This is not a unit test, run it manually from the test classpath with
+ * <code>java org.ow2.proactive.catalog.util.ListingFormatBenchmark [numberOfObjects...]</code>.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ListingFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200;
+
+    private static final long MEASUREMENT_DURATION_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    public static void main(String[] args) throws JsonProcessingException {
+        int[] numberOfObjects = args.length == 0 ? new int[] { 10, 100, 1000 } : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            numberOfObjects[i] = Integer.parseInt(args[i]);
+        }
+
+        Jackson2ObjectMapperBuilder objectMapperBuilder = Jackson2ObjectMapperBuilder.json();
+        ObjectMapper json = objectMapperBuilder.build();
+        ObjectMapper cbor = BinaryJacksonHttpMessageConverter.cbor(objectMapperBuilder).getObjectMapper();
+        ObjectMapper smile = BinaryJacksonHttpMessageConverter.smile(objectMapperBuilder).getObjectMapper();
+
+        for (int objects : numberOfObjects) {
+            List<CatalogObjectMetadata> listing = generateListing(objects);
+            System.out.printf("%5d objects: %s, %s, %s%n",
+                              objects,
+                              measure("json", json, listing),
+                              measure("cbor", cbor, listing),
+                              measure("smile", smile, listing));
+        }
+    }
+
+    private static String measure(String format, ObjectMapper objectMapper, List<CatalogObjectMetadata> listing)
+            throws JsonProcessingException {
+        int bytes = objectMapper.writeValueAsBytes(listing).length;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(listing);
+        }
+
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            objectMapper.writeValueAsBytes(listing);
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASUREMENT_DURATION_NANOS);
+
+        return String.format("%s %9.1f ops/s %8d bytes",
+                             format,
+                             operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                             bytes);
+    }
+
+    static List<CatalogObjectMetadata> generateListing(int numberOfObjects) {
+        List<CatalogObjectMetadata> listing = new ArrayList<>(numberOfObjects);
+        for (int i = 0; i < numberOfObjects; i++) {
+            String name = "Workflow_" + i;
+            CatalogObjectMetadata metadata = new CatalogObjectMetadata("basic-examples",
+                                                                       name,
+                                                                       "workflow/standard",
+                                                                       "application/xml",
+                                                                       1539936000000L + i,
+                                                                       "First commit of " + name,
+                                                                       "admin",
+                                                                       Arrays.asList(new Metadata("project_name",
+                                                                                                  "Benchmark",
+                                                                                                  "job_information"),
+                                                                                     new Metadata("main.icon",
+                                                                                                  "/automation-dashboard/styles/patterns/img/wf-icons/wf-default-icon.png",
+                                                                                                  "General"),
+                                                                                     new Metadata("variable",
+                                                                                                  "value " + i,
+                                                                                                  "variable")),
+                                                                       "xml");
+            metadata.add(new Link("http://localhost:8080/catalog/buckets/basic-examples/resources/" + name + "/raw",
+                                  "content"));
+            metadata.add(new Link("buckets/basic-examples/resources/" + name + "/raw", "relative"));
+            listing.add(metadata);
+        }
+        return listing;
+    }
+
+}
@@ -27,6 +27,8 @@ package org.ow2.proactive.catalog.util;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import javax.xml.stream.XMLStreamException;
@@ -137,12 +139,86 @@ public class ProActiveCatalogObjectParserTest {
                                            "job_information").trim()).isEqualTo(getJobVisualizationExpectedContent());
     }
 
+    @Test(expected = ParsingObjectException.class)
+    public void testParseMalformedWorkflow() throws Exception {
+        new WorkflowParser().parse(new ByteArrayInputStream("<job name=\"Malformed\"><taskFlow></job>".getBytes()));
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithUnexpectedRootElement() throws Exception {
+        new WorkflowParser().parse(new ByteArrayInputStream("<task name=\"NotAJob\"/>".getBytes()));
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowOutsideOfJobDescriptorNamespace() throws Exception {
+        parseWorkflowContent("<job name=\"NoNamespace\"><taskFlow><task name=\"A\"/></taskFlow></job>");
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithoutTaskFlow() throws Exception {
+        parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"NoTaskFlow\"/>");
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithoutTask() throws Exception {
+        parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"NoTask\"><taskFlow/></job>");
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithDuplicateTaskNames() throws Exception {
+        parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"Duplicate\"><taskFlow>" +
+                             "<task name=\"A\"/><task name=\"A\"/></taskFlow></job>");
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithUndeclaredDependency() throws Exception {
+        parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"Dependency\"><taskFlow>" +
+                             "<task name=\"A\"><depends><task ref=\"B\"/></depends></task></taskFlow></job>");
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithVariableWithoutValue() throws Exception {
+        parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"Variable\">" +
+                             "<variables><variable name=\"var\"/></variables>" +
+                             "<taskFlow><task name=\"A\"/></taskFlow></job>");
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testParseWorkflowWithContentAfterJob() throws Exception {
+        parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"Trailing\">" +
+                             "<taskFlow><task name=\"A\"/></taskFlow></job><job/>");
+    }
+
+    @Test
+    public void testParseMinimalWorkflow() throws Exception {
+        List<KeyValueLabelMetadataEntity> result = parseWorkflowContent("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"Minimal\">" +
+                                                                        "<taskFlow><task name=\"A\"/><task name=\"B\">" +
+                                                                        "<depends><task ref=\"A\"/></depends></task>" +
+                                                                        "</taskFlow></job>");
+
+        assertThat(findValueForKeyAndLabel(result, "name", "job_information")).isEqualTo("Minimal");
+    }
+
+    @Test
+    public void testParseWorkflowIgnoresTaskLevelMetadata() throws Exception {
+        List<KeyValueLabelMetadataEntity> result = parseWorkflow("workflow.xml");
+
+        assertThat(result.stream()
+                         .map(KeyValueLabelMetadataEntity::getKey)
+                         .anyMatch(key -> key.startsWith("task_"))).isFalse();
+        assertThat(findValueForKeyAndLabel(result, "var1", "variable")).isEqualTo("var1Value");
+    }
+
     private List<KeyValueLabelMetadataEntity> parseWorkflow(String xmlFilename) throws XMLStreamException {
         AbstractCatalogObjectParser parser = new WorkflowParser();
 
         return parser.parse(ProActiveCatalogObjectParserTest.class.getResourceAsStream("/workflows/" + xmlFilename));
     }
 
+    private List<KeyValueLabelMetadataEntity> parseWorkflowContent(String workflow) {
+        return new WorkflowParser().parse(new ByteArrayInputStream(workflow.getBytes(StandardCharsets.UTF_8)));
+    }
+
     private String findValueForKeyAndLabel(List<KeyValueLabelMetadataEntity> result, String key, String label) {
         return result.stream()
                      .filter(metadata -> metadata.getKey().equals(key) && metadata.getLabel().equals(label))
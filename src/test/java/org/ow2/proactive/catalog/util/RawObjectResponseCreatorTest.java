@@ -26,24 +26,54 @@
 package org.ow2.proactive.catalog.util;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.repository.CatalogObjectPayloadRepository;
+import org.ow2.proactive.catalog.service.PayloadCompressionService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 
 /**
  * @author ActiveEon Team
  * @since 11/23/2017
  */
+@RunWith(MockitoJUnitRunner.class)
 public class RawObjectResponseCreatorTest {
 
-    private RawObjectResponseCreator rawObjectResponseCreator = new RawObjectResponseCreator();
+    @InjectMocks
+    private RawObjectResponseCreator rawObjectResponseCreator;
+
+    @Mock
+    private CatalogObjectPayloadRepository catalogObjectPayloadRepository;
+
+    @Mock
+    private PayloadCompressionService payloadCompressionService;
 
     @Test
     public void testCreateRawObjectResponseGeneralKindRightContentType() {
@@ -187,4 +217,451 @@ public class RawObjectResponseCreatorTest {
         assertThat(responseEntity.getHeaders().getContentType()).isNull();
     }
 
+    @Test
+    public void testCreateRawObjectResponseLoadedContentIsNotWrittenToTheResponse() throws Exception {
+        CatalogRawObject rawObject = new CatalogRawObject("bucket-name",
+                                                          "name",
+                                                          "object",
+                                                          "application/xml",
+                                                          1400343L,
+                                                          "commit message",
+                                                          "username",
+                                                          Collections.emptyList(),
+                                                          new byte[] { 1, 2, 3 },
+                                                          "xml");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         mock(WebRequest.class),
+                                                                                         response);
+        assertThat(responseEntity).isNotNull();
+        assertThat(responseEntity.getBody()).isEqualTo(rawObject.getRawObject());
+        verify(response, never()).getOutputStream();
+        verify(catalogObjectPayloadRepository, never()).copyRawObject(any(), any());
+    }
+
+    @Test
+    public void testCreateRawObjectResponseStreamedContentIsCopiedToTheResponse() throws Exception {
+        CatalogRawObject rawObject = mock(CatalogRawObject.class);
+        when(rawObject.isStreamed()).thenReturn(true);
+        when(rawObject.getPayloadId()).thenReturn(42L);
+        when(rawObject.getRawObjectSize()).thenReturn(1024L);
+        when(rawObject.getCommitTimeRaw()).thenReturn("1400343");
+        when(rawObject.getName()).thenReturn("name");
+        when(rawObject.getExtension()).thenReturn("xml");
+        when(rawObject.getContentType()).thenReturn("application/xml");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(catalogObjectPayloadRepository.copyRawObject(42L, outputStream)).thenReturn(true);
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         mock(WebRequest.class),
+                                                                                         response);
+        assertThat(responseEntity).isNull();
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).addHeader(HttpHeaders.CONTENT_LENGTH, "1024");
+        verify(response).addHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        verify(response).addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE);
+        verify(response).addHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"name.xml\"");
+        verify(catalogObjectPayloadRepository).copyRawObject(42L, outputStream);
+        verify(response).flushBuffer();
+    }
+
+    @Test
+    public void testCreateRawObjectResponseStoredGzipEncodingOfStreamedContentIsCopiedToTheResponse()
+            throws Exception {
+        CatalogRawObject rawObject = mock(CatalogRawObject.class);
+        when(rawObject.isStreamed()).thenReturn(true);
+        when(rawObject.getPayloadId()).thenReturn(42L);
+        when(rawObject.getRawObjectSize()).thenReturn(1024L);
+        when(rawObject.getCommitTimeRaw()).thenReturn("1400343");
+        when(rawObject.getName()).thenReturn("name");
+        when(rawObject.getExtension()).thenReturn("xml");
+        when(rawObject.getContentType()).thenReturn("application/xml");
+        when(payloadCompressionService.hasGzipRawObject("application/xml", 1024L)).thenReturn(true);
+        when(payloadCompressionService.getGzipRawObjectSize(42L)).thenReturn(100L);
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(catalogObjectPayloadRepository.copyGzipRawObject(42L, outputStream)).thenReturn(true);
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         response);
+        assertThat(responseEntity).isNull();
+        verify(webRequest).checkNotModified(ConditionalRequestUtil.gzipETag(rawObject), 1400343L);
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).addHeader(HttpHeaders.CONTENT_LENGTH, "100");
+        verify(response).addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        verify(catalogObjectPayloadRepository).copyGzipRawObject(42L, outputStream);
+        verify(catalogObjectPayloadRepository, never()).copyRawObject(any(), any());
+        verify(response).flushBuffer();
+    }
+
+    @Test
+    public void testCreateRawObjectResponseStreamedContentWithoutStoredGzipEncoding() throws Exception {
+        CatalogRawObject rawObject = mock(CatalogRawObject.class);
+        when(rawObject.isStreamed()).thenReturn(true);
+        when(rawObject.getPayloadId()).thenReturn(42L);
+        when(rawObject.getRawObjectSize()).thenReturn(1024L);
+        when(rawObject.getCommitTimeRaw()).thenReturn("1400343");
+        when(rawObject.getName()).thenReturn("name");
+        when(rawObject.getContentType()).thenReturn("application/xml");
+        when(payloadCompressionService.hasGzipRawObject("application/xml", 1024L)).thenReturn(true);
+        when(payloadCompressionService.getGzipRawObjectSize(42L)).thenReturn(null);
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(catalogObjectPayloadRepository.copyRawObject(42L, outputStream)).thenReturn(true);
+
+        rawObjectResponseCreator.createRawObjectResponse(rawObject, webRequest, response);
+
+        verify(response).addHeader(HttpHeaders.CONTENT_LENGTH, "1024");
+        verify(response, never()).addHeader(eq(HttpHeaders.CONTENT_ENCODING), any());
+        verify(catalogObjectPayloadRepository).copyRawObject(42L, outputStream);
+        verify(catalogObjectPayloadRepository, never()).copyGzipRawObject(any(), any());
+    }
+
+    @Test
+    public void testCreateRawObjectResponseRangeOfLoadedContent() throws Exception {
+        CatalogRawObject rawObject = newRawObject("0123456789".getBytes());
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=2-5");
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat((byte[]) responseEntity.getBody()).isEqualTo("2345".getBytes());
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo(4L);
+    }
+
+    @Test
+    public void testCreateRawObjectResponseSuffixRangeOfLoadedContent() throws Exception {
+        CatalogRawObject rawObject = newRawObject("0123456789".getBytes());
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=-3");
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat((byte[]) responseEntity.getBody()).isEqualTo("789".getBytes());
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+    }
+
+    @Test
+    public void testCreateRawObjectResponseUnsatisfiableRange() throws Exception {
+        CatalogRawObject rawObject = newRawObject("0123456789".getBytes());
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=10-");
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    public void testCreateRawObjectResponseWholeContentWhenTheRangeCannotBeServed() throws Exception {
+        CatalogRawObject rawObject = newRawObject("0123456789".getBytes());
+        for (String range : new String[] { "bytes=0-1,4-5", "lines=1-2", "bytes=5-2" }) {
+            WebRequest webRequest = mock(WebRequest.class);
+            when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn(range);
+
+            ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                             webRequest,
+                                                                                             mock(HttpServletResponse.class));
+            assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(responseEntity.getBody()).isEqualTo(rawObject.getRawObject());
+        }
+    }
+
+    @Test
+    public void testCreateRawObjectResponseIfRange() throws Exception {
+        CatalogRawObject rawObject = newRawObject("0123456789".getBytes());
+        HttpHeaders lastModified = new HttpHeaders();
+        lastModified.setLastModified(ConditionalRequestUtil.lastModified(rawObject));
+        String[] currentValidators = { ConditionalRequestUtil.eTag(rawObject),
+                                       lastModified.getFirst(HttpHeaders.LAST_MODIFIED) };
+        String[] outdatedValidators = { "\"outdated\"", "W/" + ConditionalRequestUtil.eTag(rawObject),
+                                        "Thu, 01 Jan 2015 00:00:00 GMT" };
+
+        for (String ifRange : currentValidators) {
+            assertThat(createRangeResponse(rawObject, ifRange).getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        }
+        for (String ifRange : outdatedValidators) {
+            assertThat(createRangeResponse(rawObject, ifRange).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    @Test
+    public void testCreateRawObjectResponseRangeOfStreamedContent() throws Exception {
+        CatalogRawObject rawObject = mock(CatalogRawObject.class);
+        when(rawObject.isStreamed()).thenReturn(true);
+        when(rawObject.getPayloadId()).thenReturn(42L);
+        when(rawObject.getRawObjectSize()).thenReturn(1024L);
+        when(rawObject.getCommitTimeRaw()).thenReturn("1400343");
+        when(rawObject.getName()).thenReturn("name");
+        when(rawObject.getContentType()).thenReturn("application/xml");
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=1000-");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(catalogObjectPayloadRepository.copyRawObject(42L, 1000L, 24L, outputStream)).thenReturn(true);
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         response);
+        assertThat(responseEntity).isNull();
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).addHeader(HttpHeaders.CONTENT_LENGTH, "24");
+        verify(response).addHeader(HttpHeaders.CONTENT_RANGE, "bytes 1000-1023/1024");
+        verify(catalogObjectPayloadRepository).copyRawObject(42L, 1000L, 24L, outputStream);
+        verify(catalogObjectPayloadRepository, never()).copyRawObject(any(), any());
+    }
+
+    @Test
+    public void testCreateRawObjectResponseStoredGzipEncoding() throws Exception {
+        CatalogRawObject rawObject = newStoredRawObject("0123456789".getBytes());
+        byte[] gzipRawObject = { 31, -117, 8 };
+        when(payloadCompressionService.isCompressible("text/plain")).thenReturn(true);
+        when(payloadCompressionService.hasGzipRawObject("text/plain", 10)).thenReturn(true);
+        when(payloadCompressionService.getGzipRawObject(42L)).thenReturn(gzipRawObject);
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("deflate, gzip;q=0.8");
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((byte[]) responseEntity.getBody()).isEqualTo(gzipRawObject);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo(3L);
+
+        // ranges are served from the identity encoding
+        when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=0-1");
+        responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                          webRequest,
+                                                                          mock(HttpServletResponse.class));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(responseEntity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    public void testCreateRawObjectResponseIdentityEncodingWhenGzipIsNotAccepted() throws Exception {
+        CatalogRawObject rawObject = newStoredRawObject("0123456789".getBytes());
+        when(payloadCompressionService.isCompressible("text/plain")).thenReturn(true);
+        when(payloadCompressionService.hasGzipRawObject("text/plain", 10)).thenReturn(true);
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip;q=0");
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat((byte[]) responseEntity.getBody()).isEqualTo(rawObject.getRawObject());
+        assertThat(responseEntity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        verify(payloadCompressionService, never()).getGzipRawObject(any());
+    }
+
+    @Test
+    public void testCreateRawObjectResponseGzipEncodingHasItsOwnETag() throws Exception {
+        CatalogRawObject rawObject = newStoredRawObject("0123456789".getBytes());
+        String gzipETag = ConditionalRequestUtil.gzipETag(rawObject);
+        when(payloadCompressionService.hasGzipRawObject("text/plain", 10)).thenReturn(true);
+        when(payloadCompressionService.getGzipRawObject(42L)).thenReturn(new byte[] { 31, -117, 8 });
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+        when(webRequest.checkNotModified(gzipETag, 1400343L)).thenReturn(true);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertThat(gzipETag).isEqualTo(ConditionalRequestUtil.eTag(rawObject).replaceAll("\"$", "-gzip\""));
+        assertThat(rawObjectResponseCreator.createRawObjectResponse(rawObject, webRequest, response)).isNull();
+        verify(response).setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        // the identity encoding does not match the ETag of the gzip encoding
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("identity");
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((byte[]) responseEntity.getBody()).isEqualTo(rawObject.getRawObject());
+        verify(webRequest).checkNotModified(ConditionalRequestUtil.eTag(rawObject), 1400343L);
+    }
+
+    @Test
+    public void testCreateRawObjectResponseContentCompressedByTheServerHasTheGzipETag() throws Exception {
+        CatalogRawObject rawObject = newStoredRawObject("0123456789".getBytes());
+        when(payloadCompressionService.isCompressedByServer("text/plain", 10)).thenReturn(true);
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         webRequest,
+                                                                                         mock(HttpServletResponse.class));
+        assertThat((byte[]) responseEntity.getBody()).isEqualTo(rawObject.getRawObject());
+        verify(webRequest).checkNotModified(ConditionalRequestUtil.gzipETag(rawObject), 1400343L);
+    }
+
+    @Test
+    public void testCreateRawObjectResponseIfRangeWithTheGzipETag() throws Exception {
+        CatalogRawObject rawObject = newStoredRawObject("0123456789".getBytes());
+        when(payloadCompressionService.hasGzipRawObject("text/plain", 10)).thenReturn(true);
+        when(payloadCompressionService.getGzipRawObject(42L)).thenReturn(new byte[] { 31, -117, 8 });
+
+        // a part of the identity encoding cannot resume a gzip encoded download
+        ResponseEntity responseEntity = createRangeResponse(rawObject, ConditionalRequestUtil.gzipETag(rawObject));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+
+        responseEntity = createRangeResponse(rawObject, ConditionalRequestUtil.eTag(rawObject));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertThat(RawObjectResponseCreator.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(RawObjectResponseCreator.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(RawObjectResponseCreator.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(RawObjectResponseCreator.acceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(RawObjectResponseCreator.acceptsGzip("identity")).isFalse();
+        assertThat(RawObjectResponseCreator.acceptsGzip(null)).isFalse();
+    }
+
+    private ResponseEntity createRangeResponse(CatalogRawObject rawObject, String ifRange) throws Exception {
+        WebRequest webRequest = mock(WebRequest.class);
+        when(webRequest.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=0-0");
+        when(webRequest.getHeader(HttpHeaders.IF_RANGE)).thenReturn(ifRange);
+        return rawObjectResponseCreator.createRawObjectResponse(rawObject, webRequest, mock(HttpServletResponse.class));
+    }
+
+    private CatalogRawObject newStoredRawObject(byte[] content) {
+        CatalogRawObject rawObject = mock(CatalogRawObject.class);
+        when(rawObject.getPayloadId()).thenReturn(42L);
+        when(rawObject.getRawObject()).thenReturn(content);
+        when(rawObject.getName()).thenReturn("name");
+        when(rawObject.getContentType()).thenReturn("text/plain");
+        when(rawObject.getCommitTimeRaw()).thenReturn("1400343");
+        return rawObject;
+    }
+
+    @Test
+    public void testWriteMultipartRawObjectsInTheRequestedOrderWithMissingMarkers() throws Exception {
+        CatalogRawObject streamedRawObject = mock(CatalogRawObject.class);
+        when(streamedRawObject.isStreamed()).thenReturn(true);
+        when(streamedRawObject.getPayloadId()).thenReturn(42L);
+        when(streamedRawObject.getRawObjectSize()).thenReturn(8L);
+        when(streamedRawObject.getName()).thenReturn("streamed");
+        when(streamedRawObject.getContentType()).thenReturn("text/plain");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        when(catalogObjectPayloadRepository.copyRawObject(eq(42L), any())).thenAnswer(invocation -> {
+            ((OutputStream) invocation.getArguments()[1]).write("streamed".getBytes());
+            return true;
+        });
+
+        rawObjectResponseCreator.writeMultipartRawObjects(Arrays.asList("name", "missing", "streamed"),
+                                                          Arrays.asList(newRawObject("loaded".getBytes()),
+                                                                        null,
+                                                                        streamedRawObject),
+                                                          response);
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        ArgumentCaptor<String> contentType = ArgumentCaptor.forClass(String.class);
+        verify(response).setContentType(contentType.capture());
+        assertThat(contentType.getValue()).startsWith("multipart/mixed;boundary=");
+        String boundary = contentType.getValue().substring("multipart/mixed;boundary=".length());
+        String[] parts = body.toString(StandardCharsets.UTF_8.name()).split("--" + boundary);
+        assertThat(parts).hasLength(5);
+        assertThat(parts[0]).isEmpty();
+        assertThat(parts[1]).contains("X-Catalog-Object-Name: name\r\n");
+        assertThat(parts[1]).contains("X-Catalog-Object-Status: 200\r\n");
+        assertThat(parts[1]).contains("Content-Length: 6\r\n");
+        assertThat(parts[1]).endsWith("\r\n\r\nloaded\r\n");
+        assertThat(parts[2]).contains("X-Catalog-Object-Name: missing\r\n");
+        assertThat(parts[2]).contains("X-Catalog-Object-Status: 404\r\n");
+        assertThat(parts[2]).endsWith("\r\n\r\n\r\n");
+        assertThat(parts[3]).contains("X-Catalog-Object-Name: streamed\r\n");
+        assertThat(parts[3]).endsWith("\r\n\r\nstreamed\r\n");
+        assertThat(parts[4]).isEqualTo("--\r\n");
+    }
+
+    @Test
+    public void testWriteMultipartRawObjectsEncodesTheHeaderValues() throws Exception {
+        CatalogRawObject rawObject = mock(CatalogRawObject.class);
+        when(rawObject.getName()).thenReturn("r\u00e9sum\u00e9\r\nX-Injected: true");
+        when(rawObject.getRawObject()).thenReturn("loaded".getBytes());
+        when(rawObject.getContentType()).thenReturn("text/plain;name=\"a\r\nX-Injected: true\"");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+
+        rawObjectResponseCreator.writeMultipartRawObjects(Collections.singletonList(rawObject.getName()),
+                                                          Collections.singletonList(rawObject),
+                                                          response);
+
+        String multipart = body.toString(StandardCharsets.US_ASCII.name());
+        assertThat(multipart).contains("X-Catalog-Object-Name: r%C3%A9sum%C3%A9%0D%0AX-Injected%3A%20true\r\n");
+        assertThat(multipart).contains("Content-Disposition: attachment; filename=\"r_sum___X-Injected: true\"; " +
+                                       "filename*=UTF-8''r%C3%A9sum%C3%A9%0D%0AX-Injected%3A%20true\r\n");
+        assertThat(multipart).doesNotContain("\r\nX-Injected");
+    }
+
+    @Test
+    public void testPercentEncode() {
+        assertThat(RawObjectResponseCreator.percentEncode("workflow-name_1.xml")).isEqualTo("workflow-name_1.xml");
+        assertThat(RawObjectResponseCreator.percentEncode("a b/\u20ac")).isEqualTo("a%20b%2F%E2%82%AC");
+    }
+
+    private CatalogRawObject newRawObject(byte[] content) {
+        return new CatalogRawObject("bucket-name",
+                                    "name",
+                                    "object",
+                                    "text/plain",
+                                    1400343L,
+                                    "commit message",
+                                    "username",
+                                    Collections.emptyList(),
+                                    content,
+                                    "txt");
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class VaryAcceptInterceptorTest {
+
+    private final VaryAcceptInterceptor interceptor = new VaryAcceptInterceptor();
+
+    @Test
+    public void testNegotiatedResponseVariesOnAccept() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        assertThat(interceptor.preHandle(mock(HttpServletRequest.class), response, handlerMethod("metadata"))).isTrue();
+        verify(response).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    public void testRawContentDoesNotVaryOnAccept() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        assertThat(interceptor.preHandle(mock(HttpServletRequest.class), response, handlerMethod("raw"))).isTrue();
+        assertThat(interceptor.preHandle(mock(HttpServletRequest.class), response, new Object())).isTrue();
+        verify(response, never()).addHeader(anyString(), anyString());
+    }
+
+    private HandlerMethod handlerMethod(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    public static class Handlers {
+
+        @RequestMapping("/metadata")
+        public String metadata() {
+            return "";
+        }
+
+        @RequestMapping(value = "/raw", produces = MediaType.ALL_VALUE)
+        public String raw() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.ow2.proactive.catalog.util.parser.AbstractCatalogObjectParser;
+import org.ow2.proactive.catalog.util.parser.WorkflowParser;
+
+
+/**
+ * Compares the throughput of the streaming workflow metadata extraction with the full
+ * JobFactory parsing on large generated multi-task workflows.
+ * <p>
+ * This is not a unit test, run it manually from the test classpath with
+ * <code>java org.ow2.proactive.catalog.util.WorkflowParserBenchmark [numberOfTasks...]</code>.
+ * <p>
+ * Each run measures both parsers on the same workflows and prints their throughput side by side. The JobFactory
+ * of the scheduler-api of the targeted ProActive version must be on the classpath: the run is aborted when both
+ * parsers do not read the same metadata from the generated workflows.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class WorkflowParserBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private static final long MEASUREMENT_DURATION_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    public static void main(String[] args) {
+        int[] numberOfTasks = args.length == 0 ? new int[] { 10, 100, 1000 } : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            numberOfTasks[i] = Integer.parseInt(args[i]);
+        }
+
+        WorkflowParser streamingParser = new WorkflowParser(false);
+        WorkflowParser jobFactoryParser = new WorkflowParser(true);
+        for (int tasks : numberOfTasks) {
+            byte[] workflow = generateWorkflow(tasks);
+            Set<String> streamingKeys = metadataKeys(streamingParser, workflow);
+            Set<String> jobFactoryKeys = metadataKeys(jobFactoryParser, workflow);
+            if (!streamingKeys.equals(jobFactoryKeys)) {
+                throw new IllegalStateException("The parsers read different metadata, streaming: " + streamingKeys +
+                                                ", job factory: " + jobFactoryKeys);
+            }
+
+            double streamingThroughput = measure(streamingParser, workflow);
+            double jobFactoryThroughput = measure(jobFactoryParser, workflow);
+            System.out.printf("%5d tasks (%8d bytes): streaming %10.1f ops/s, job factory %10.1f ops/s, speedup x%.1f%n",
+                              tasks,
+                              workflow.length,
+                              streamingThroughput,
+                              jobFactoryThroughput,
+                              streamingThroughput / jobFactoryThroughput);
+        }
+    }
+
+    /**
+     * @return the label and key of each metadata read by the parser, their values may be normalized differently
+     */
+    private static Set<String> metadataKeys(AbstractCatalogObjectParser parser, byte[] workflow) {
+        return parser.parse(new ByteArrayInputStream(workflow))
+                     .stream()
+                     .map(metadata -> metadata.getLabel() + ':' + metadata.getKey())
+                     .collect(Collectors.toSet());
+    }
+
+    private static double measure(AbstractCatalogObjectParser parser, byte[] workflow) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parser.parse(new ByteArrayInputStream(workflow));
+        }
+
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            parser.parse(new ByteArrayInputStream(workflow));
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASUREMENT_DURATION_NANOS);
+
+        return operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    static byte[] generateWorkflow(int numberOfTasks) {
+        StringBuilder workflow = new StringBuilder();
+        workflow.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<job xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xmlns=\"urn:proactive:jobdescriptor:3.10\"")
+                .append(" xsi:schemaLocation=\"urn:proactive:jobdescriptor:3.10 http://www.activeeon.com/public_content/schemas/proactive/jobdescriptor/3.10/schedulerjob.xsd\"")
+                .append(" projectName=\"Benchmark\" name=\"Benchmark_")
+                .append(numberOfTasks)
+                .append("\" priority=\"normal\">\n")
+                .append("  <variables>\n")
+                .append("    <variable name=\"var1\" value=\"value1\"/>\n")
+                .append("    <variable name=\"var2\" value=\"2\" model=\"PA:Integer\"/>\n")
+                .append("  </variables>\n")
+                .append("  <description><![CDATA[ Generated benchmark workflow ]]></description>\n")
+                .append("  <genericInformation>\n")
+                .append("    <info name=\"workflow.icon\" value=\"/icon.png\"/>\n")
+                .append("  </genericInformation>\n")
+                .append("  <taskFlow>\n");
+        for (int i = 0; i < numberOfTasks; i++) {
+            workflow.append("    <task name=\"Task_").append(i).append("\">\n");
+            workflow.append("      <description><![CDATA[ Task ").append(i).append(" ]]></description>\n");
+            if (i > 0) {
+                workflow.append("      <depends><task ref=\"Task_").append(i - 1).append("\"/></depends>\n");
+            }
+            workflow.append("      <variables>\n")
+                    .append("        <variable name=\"taskVar\" value=\"")
+                    .append(i)
+                    .append("\" inherited=\"false\"/>\n")
+                    .append("      </variables>\n")
+                    .append("      <scriptExecutable>\n")
+                    .append("        <script>\n")
+                    .append("          <code language=\"groovy\"><![CDATA[\n")
+                    .append("println \"Task ")
+                    .append(i)
+                    .append(" \" + variables.get(\"taskVar\")\n")
+                    .append("]]></code>\n")
+                    .append("        </script>\n")
+                    .append("      </scriptExecutable>\n")
+                    .append("    </task>\n");
+        }
+        workflow.append("  </taskFlow>\n").append("</job>\n");
+        return workflow.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}